@@ -0,0 +1,84 @@
+package net.coderodde.datamining.lottery.benchmark;
+
+import net.coderodde.datamining.lottery.LotteryConfiguration;
+import net.coderodde.datamining.lottery.LotteryRowDistribution;
+import net.coderodde.datamining.lottery.LotteryRowDistributions;
+
+/**
+ * This class parses the lottery configuration benchmark parameters. A 
+ * configuration is written as <code>k/n</code>, where <code>k</code> is the
+ * lottery row length and <code>n</code> is the maximum number value, so that
+ * <code>7/40</code> stands for the game drawing 7 numbers out of 40. The
+ * pools of a multi-pool game are joined by plus signs, such as in
+ * <code>5/50+2/12</code>. The workload parameters name the row distributions
+ * of the generated data.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+final class BenchmarkConfigurations {
+
+    /**
+     * The seed used for generating the benchmark data.
+     */
+    static final long SEED = 13L;
+
+    private BenchmarkConfigurations() {}
+
+    /**
+     * Parses a configuration parameter.
+     *
+     * @param configuration the configuration of the form <code>k/n</code>
+     *                      or <code>k/n+k/n</code>.
+     * @return the lottery configuration.
+     */
+    static LotteryConfiguration parse(String configuration) {
+        return LotteryConfiguration.parse(configuration);
+    }
+
+    /**
+     * Returns the row distribution of a workload parameter. The supported
+     * workloads are {@code uniform}, {@code birthdays}, {@code zipf},
+     * {@code duplicates} and {@code quickpick}.
+     *
+     * @param workload             the workload name.
+     * @param lotteryConfiguration the lottery configuration.
+     * @return the row distribution.
+     */
+    static LotteryRowDistribution
+        distribution(String workload,
+                     LotteryConfiguration lotteryConfiguration) {
+        switch (workload) {
+            case "uniform":
+                return LotteryRowDistributions.uniform(lotteryConfiguration);
+
+            case "birthdays":
+                return LotteryRowDistributions.birthdays(lotteryConfiguration,
+                                                         3.0);
+
+            case "zipf":
+                return LotteryRowDistributions.zipf(lotteryConfiguration,
+                                                    100_000,
+                                                    1.0,
+                                                    SEED);
+
+            case "duplicates":
+                return LotteryRowDistributions.duplicateHeavy(
+                        LotteryRowDistributions.uniform(lotteryConfiguration),
+                        0.5,
+                        10_000,
+                        SEED);
+
+            case "quickpick":
+                return LotteryRowDistributions.quickPickMix(
+                        0.7,
+                        LotteryRowDistributions.birthdays(lotteryConfiguration,
+                                                          3.0));
+
+            default:
+                throw new IllegalArgumentException(
+                        "Bad workload \"" + workload + "\".");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package net.coderodde.datamining.lottery.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.coderodde.datamining.lottery.LotteryConfiguration;
+import net.coderodde.datamining.lottery.LotteryRow;
+import net.coderodde.datamining.lottery.LotteryRowGenerator;
+import net.coderodde.datamining.lottery.LotteryRowStore;
+import net.coderodde.datamining.lottery.ParallelLotteryRowGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the random lottery row generation.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class LotteryRowGeneratorBenchmark {
+
+    @Param({"6/40", "7/40", "5/50", "6/49"})
+    public String configuration;
+
+    @Param({"100000", "1000000"})
+    public int rowCount;
+
+    private LotteryConfiguration lotteryConfiguration;
+
+    @Setup
+    public void setUp() {
+        lotteryConfiguration = BenchmarkConfigurations.parse(configuration);
+    }
+
+    @Benchmark
+    public List<LotteryRow> generateLotteryRows() {
+        return new LotteryRowGenerator(lotteryConfiguration,
+                                       BenchmarkConfigurations.SEED)
+                .generateLotteryRows(rowCount);
+    }
+
+    @Benchmark
+    public LotteryRowStore generateLotteryRowStore() {
+        return new LotteryRowGenerator(lotteryConfiguration,
+                                       BenchmarkConfigurations.SEED)
+                .generateLotteryRowStore(rowCount);
+    }
+
+    @Benchmark
+    public LotteryRowStore generateLotteryRowStoreInParallel() {
+        return new ParallelLotteryRowGenerator(lotteryConfiguration,
+                                               BenchmarkConfigurations.SEED)
+                .generateLotteryRowStore(
+                        rowCount,
+                        Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,83 @@
+package net.coderodde.datamining.lottery.benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.coderodde.datamining.lottery.LotteryConfiguration;
+import net.coderodde.datamining.lottery.LotteryRow;
+import net.coderodde.datamining.lottery.LotteryRowGenerator;
+import net.coderodde.datamining.lottery.MiningEngine;
+import net.coderodde.datamining.lottery.MissingLotteryRowsMiner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the enumeration of the missing lottery rows.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class MissingLotteryRowsEnumerationBenchmark {
+
+    @Param({"6/40", "7/40", "5/50", "6/49", "5/50+2/12"})
+    public String configuration;
+
+    @Param({"100000", "1000000"})
+    public int rowCount;
+
+    @Param({"RADIX_TREE", "COMPACT_RADIX_TREE", "COMBINATION_BIT_SET",
+            "COMPRESSED_BIT_SET", "OFF_HEAP_BIT_SET", "EXTERNAL_SORT"})
+    public MiningEngine engine;
+
+    private MissingLotteryRowsMiner miner;
+
+    @Setup
+    public void setUp() {
+        LotteryConfiguration lotteryConfiguration =
+                BenchmarkConfigurations.parse(configuration);
+
+        miner = engine.newMiner(lotteryConfiguration)
+                      .addLotteryRows(
+                              new LotteryRowGenerator(
+                                      lotteryConfiguration,
+                                      BenchmarkConfigurations.SEED)
+                                      .generateLotteryRowStore(rowCount));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (miner instanceof Closeable) {
+            ((Closeable) miner).close();
+        }
+    }
+
+    @Benchmark
+    public List<LotteryRow> computeMissingLotteryRows() {
+        return miner.computeMissingLotteryRows();
+    }
+
+    @Benchmark
+    public long countMissingLotteryRowsByVisitor() {
+        long[] count = new long[1];
+        miner.forEachMissingLotteryRow((rank, numbers) -> count[0]++);
+        return count[0];
+    }
+}
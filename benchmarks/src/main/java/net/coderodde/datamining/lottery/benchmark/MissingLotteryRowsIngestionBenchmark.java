@@ -0,0 +1,110 @@
+package net.coderodde.datamining.lottery.benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.coderodde.datamining.lottery.LotteryConfiguration;
+import net.coderodde.datamining.lottery.LotteryRow;
+import net.coderodde.datamining.lottery.LotteryRowStore;
+import net.coderodde.datamining.lottery.MiningEngine;
+import net.coderodde.datamining.lottery.MissingLotteryRowsMiner;
+import net.coderodde.datamining.lottery.ParallelLotteryRowGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks adding lottery rows to the mining engines under
+ * uniform and skewed workloads. The default parameters are a small subset
+ * of the matrix, as each combination runs in a fork of its own; the whole
+ * matrix is selected with
+ * <pre>
+ * -p configuration=6/40,7/40,5/50,6/49,6/59,5/70 -p rowCount=100000,1000000
+ * -p workload=uniform,birthdays,zipf,duplicates,quickpick
+ * </pre>
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class MissingLotteryRowsIngestionBenchmark {
+
+    @Param({"7/40", "6/59"})
+    public String configuration;
+
+    @Param({"1000000"})
+    public int rowCount;
+
+    @Param({"RADIX_TREE", "COMPACT_RADIX_TREE", "COMBINATION_BIT_SET",
+            "COMPRESSED_BIT_SET", "OFF_HEAP_BIT_SET", "EXTERNAL_SORT",
+            "COMBINATION_COUNTERS"})
+    public MiningEngine engine;
+
+    @Param({"uniform", "zipf"})
+    public String workload;
+
+    private LotteryConfiguration lotteryConfiguration;
+    private List<LotteryRow> lotteryRows;
+    private LotteryRowStore lotteryRowStore;
+    private MissingLotteryRowsMiner miner;
+
+    @Setup
+    public void setUp() {
+        lotteryConfiguration = BenchmarkConfigurations.parse(configuration);
+        lotteryRowStore =
+                new ParallelLotteryRowGenerator(
+                        BenchmarkConfigurations.distribution(
+                                workload,
+                                lotteryConfiguration),
+                        BenchmarkConfigurations.SEED)
+                        .generateLotteryRowStore(
+                                rowCount,
+                                Runtime.getRuntime().availableProcessors());
+
+        lotteryRows = new ArrayList<>(rowCount);
+
+        for (int i = 0; i < rowCount; i++) {
+            lotteryRows.add(lotteryRowStore.getLotteryRow(i));
+        }
+    }
+
+    // Releases the off-heap memory or the run files of each new miner:
+    @TearDown(Level.Invocation)
+    public void tearDownMiner() throws IOException {
+        if (miner instanceof Closeable) {
+            ((Closeable) miner).close();
+        }
+
+        miner = null;
+    }
+
+    @Benchmark
+    public MissingLotteryRowsMiner addLotteryRows() {
+        miner = engine.newMiner(lotteryConfiguration);
+        return miner.addLotteryRows(lotteryRows);
+    }
+
+    @Benchmark
+    public MissingLotteryRowsMiner addLotteryRowStore() {
+        miner = engine.newMiner(lotteryConfiguration);
+        return miner.addLotteryRows(lotteryRowStore);
+    }
+}
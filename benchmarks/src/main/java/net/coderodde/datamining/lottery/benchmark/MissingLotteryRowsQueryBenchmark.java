@@ -0,0 +1,87 @@
+package net.coderodde.datamining.lottery.benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+import net.coderodde.datamining.lottery.LotteryConfiguration;
+import net.coderodde.datamining.lottery.LotteryRowGenerator;
+import net.coderodde.datamining.lottery.LotteryRowStore;
+import net.coderodde.datamining.lottery.MiningEngine;
+import net.coderodde.datamining.lottery.MissingLotteryRowsMiner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the bulk membership queries against the added rows.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class MissingLotteryRowsQueryBenchmark {
+
+    @Param({"6/40", "7/40", "6/49", "5/50+2/12"})
+    public String configuration;
+
+    @Param({"1000000"})
+    public int rowCount;
+
+    @Param({"10000000"})
+    public int probeCount;
+
+    @Param({"RADIX_TREE", "COMPACT_RADIX_TREE", "COMBINATION_BIT_SET",
+            "COMPRESSED_BIT_SET", "OFF_HEAP_BIT_SET", "EXTERNAL_SORT"})
+    public MiningEngine engine;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private MissingLotteryRowsMiner miner;
+    private LotteryRowStore probes;
+
+    @Setup
+    public void setUp() {
+        LotteryConfiguration lotteryConfiguration =
+                BenchmarkConfigurations.parse(configuration);
+
+        miner = engine.newMiner(lotteryConfiguration)
+                      .addLotteryRows(
+                              new LotteryRowGenerator(
+                                      lotteryConfiguration,
+                                      BenchmarkConfigurations.SEED)
+                                      .generateLotteryRowStore(rowCount));
+
+        probes = new LotteryRowGenerator(lotteryConfiguration,
+                                         BenchmarkConfigurations.SEED + 1L)
+                .generateLotteryRowStore(probeCount);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (miner instanceof Closeable) {
+            ((Closeable) miner).close();
+        }
+    }
+
+    @Benchmark
+    public BitSet queryCoverage() {
+        return miner.queryCoverage(probes, threads);
+    }
+}
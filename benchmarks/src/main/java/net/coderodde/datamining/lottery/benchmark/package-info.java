@@ -0,0 +1,16 @@
+/**
+ * This package contains the JMH benchmarks of the missing lottery row miner.
+ * Install the miner artifact first and then build and run the benchmarks
+ * from the <code>benchmarks</code> directory:
+ *
+ * <pre>
+ * mvn -f ../pom.xml install
+ * mvn package
+ * java -jar target/benchmarks.jar -prof gc -rf json -rff results.json
+ * </pre>
+ *
+ * The JSON results of two engine versions may be compared in order to catch
+ * regressions. A subset of the parameter matrix may be selected with, for
+ * example, <code>-p configuration=7/40 -p engine=COMBINATION_BIT_SET</code>.
+ */
+package net.coderodde.datamining.lottery.benchmark;
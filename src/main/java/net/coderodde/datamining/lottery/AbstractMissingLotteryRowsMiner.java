@@ -0,0 +1,1017 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This abstract class holds the state and the facilities shared by all the
+ * missing lottery row mining engines.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.64 (Oct 16, 2026) ~ membership queries.
+ * @version 1.63 (Oct 16, 2026) ~ counting the missing rows.
+ * @version 1.62 (Oct 16, 2026) ~ metrics.
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+abstract class AbstractMissingLotteryRowsMiner
+        implements MissingLotteryRowsMiner {
+
+    /**
+     * The minimum number of ranks a single enumeration task processes without
+     * splitting further.
+     */
+    private static final long MINIMUM_TASK_SIZE = 4096L;
+
+    /**
+     * The number of enumeration tasks per worker thread. Values above one
+     * allow the work stealing to compensate for uneven coverage.
+     */
+    private static final int TASKS_PER_THREAD = 8;
+
+    /**
+     * The number of ranks the missing rank spliterator checks at a time.
+     */
+    private static final int SPLITERATOR_BLOCK_SIZE = 4096;
+
+    /**
+     * The number of ranks an enumeration checks between two updates of the
+     * progress metric.
+     */
+    private static final long PROGRESS_BLOCK_SIZE = 1L << 20;
+
+    /**
+     * The number of rows ranked and sorted at a time by
+     * {@link #addRankBatchesInParallel}.
+     */
+    private static final int RANK_BATCH_SIZE = 1 << 20;
+
+    /**
+     * This interface abstracts away an indexed source of rows to ingest.
+     */
+    protected interface LotteryRowSource {
+
+        /**
+         * Returns the number of rows in this source.
+         *
+         * @return the number of rows.
+         */
+        int size();
+
+        /**
+         * Loads the validated numbers of the <code>index</code>th row in
+         * ascending order into {@code numbers}.
+         *
+         * @param index   the index of the row.
+         * @param numbers the target array.
+         */
+        void loadNumbers(int index, int[] numbers);
+    }
+
+    /**
+     * This class implements a fork/join task enumerating the missing rows
+     * within a rank range.
+     */
+    private final class EnumerationTask 
+            extends RecursiveTask<List<LotteryRow>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long fromRank;
+        private final long toRank;
+        private final long maximumTaskSize;
+
+        EnumerationTask(long fromRank, long toRank, long maximumTaskSize) {
+            this.fromRank = fromRank;
+            this.toRank = toRank;
+            this.maximumTaskSize = maximumTaskSize;
+        }
+
+        @Override
+        protected List<LotteryRow> compute() {
+            if (toRank - fromRank <= maximumTaskSize) {
+                List<LotteryRow> lotteryRows = new ArrayList<>();
+                visitMissingLotteryRowsWithProgress(
+                        fromRank, 
+                        toRank, 
+                        (rank, numbers) -> {
+                            lotteryRows.add(
+                                    convertNumbersToLotteryRow(numbers));
+                        });
+
+                return lotteryRows;
+            }
+
+            long middleRank = fromRank + (toRank - fromRank) / 2L;
+            EnumerationTask leftTask = 
+                    new EnumerationTask(fromRank, middleRank, maximumTaskSize);
+
+            EnumerationTask rightTask =
+                    new EnumerationTask(middleRank, toRank, maximumTaskSize);
+
+            leftTask.fork();
+            List<LotteryRow> rightLotteryRows = rightTask.compute();
+            List<LotteryRow> leftLotteryRows = leftTask.join();
+            leftLotteryRows.addAll(rightLotteryRows);
+            return leftLotteryRows;
+        }
+    }
+
+    /**
+     * This class implements a spliterator over the ranks of the missing rows
+     * within a rank range. The ranks are produced block by block into a
+     * fixed size buffer.
+     */
+    private final class MissingRankSpliterator implements Spliterator.OfLong {
+
+        private final long[] buffer = new long[SPLITERATOR_BLOCK_SIZE];
+        private final long toRank;
+        private long fromRank;
+        private int bufferIndex;
+        private int bufferSize;
+
+        MissingRankSpliterator(long fromRank, long toRank) {
+            this.fromRank = fromRank;
+            this.toRank = toRank;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            while (bufferIndex == bufferSize) {
+                if (fromRank >= toRank) {
+                    return false;
+                }
+
+                loadNextBlock();
+            }
+
+            action.accept(buffer[bufferIndex++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            while (bufferIndex < bufferSize) {
+                action.accept(buffer[bufferIndex++]);
+            }
+
+            long rangeStart = fromRank;
+            fromRank = toRank;
+            visitMissingLotteryRowsWithProgress(rangeStart, 
+                                    toRank, 
+                                    (rank, numbers) -> action.accept(rank));
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            if (bufferIndex < bufferSize 
+                    || toRank - fromRank < 2L * SPLITERATOR_BLOCK_SIZE) {
+                return null;
+            }
+
+            long middleRank = fromRank + (toRank - fromRank) / 2L;
+            Spliterator.OfLong prefix = 
+                    new MissingRankSpliterator(fromRank, middleRank);
+
+            fromRank = middleRank;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return toRank - fromRank + (bufferSize - bufferIndex);
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SORTED | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return null;
+        }
+
+        private void loadNextBlock() {
+            long blockEnd = Math.min(toRank, 
+                                     fromRank + SPLITERATOR_BLOCK_SIZE);
+            bufferIndex = 0;
+            bufferSize = 0;
+            visitMissingLotteryRows(fromRank, 
+                                    blockEnd, 
+                                    (rank, numbers) -> {
+                                        buffer[bufferSize++] = rank;
+                                    });
+            metrics.addScannedRanks(blockEnd - fromRank);
+            fromRank = blockEnd;
+        }
+    }
+
+    /**
+     * The lottery configuration object.
+     */
+    protected final LotteryConfiguration lotteryConfiguration;
+
+    /**
+     * The ranker mapping lottery rows to their lexicographic ranks and back.
+     */
+    protected final CombinationRanker combinationRanker;
+
+    /**
+     * The buffer holding the numbers of the row being added.
+     */
+    private final int[] rowBuffer;
+
+    /**
+     * The runtime metrics of this miner.
+     */
+    protected final LotteryMetrics metrics;
+
+    /**
+     * Constructs this miner with the given lottery configuration.
+     *
+     * @param lotteryConfiguration the lottery configuration object.
+     */
+    protected AbstractMissingLotteryRowsMiner(
+            LotteryConfiguration lotteryConfiguration) {
+
+        this.lotteryConfiguration =
+                Objects.requireNonNull(
+                        lotteryConfiguration,
+                        "lotteryConfiguration == null");
+
+        this.combinationRanker = new CombinationRanker(lotteryConfiguration);
+        this.rowBuffer = new int[lotteryConfiguration.getLotteryRowLength()];
+        this.metrics = 
+                new LotteryMetrics(combinationRanker.getNumberOfCombinations());
+    }
+
+    @Override
+    public LotteryConfiguration getLotteryConfiguration() {
+        return lotteryConfiguration;
+    }
+
+    @Override
+    public LotteryMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public MissingLotteryRowsMiner
+        addLotteryRows(List<LotteryRow> lotteryRows) {
+        long startTime = System.nanoTime();
+
+        for (LotteryRow lotteryRow : lotteryRows) {
+            checkLotteryRow(lotteryRow);
+            loadLotteryRowNumbers(lotteryRow, rowBuffer);
+            addNumbers(rowBuffer);
+        }
+
+        recordIngestion(lotteryRows.size(), startTime);
+        return this;
+    }
+
+    @Override
+    public MissingLotteryRowsMiner
+        addLotteryRows(List<LotteryRow> lotteryRows, int numberOfThreads) {
+        ParallelSupport.checkNumberOfThreads(numberOfThreads);
+        long startTime = System.nanoTime();
+        addLotteryRowsInParallel(new LotteryRowSource() {
+            @Override
+            public int size() {
+                return lotteryRows.size();
+            }
+
+            @Override
+            public void loadNumbers(int index, int[] numbers) {
+                LotteryRow lotteryRow = lotteryRows.get(index);
+                checkLotteryRow(lotteryRow);
+                loadLotteryRowNumbers(lotteryRow, numbers);
+            }
+        }, numberOfThreads);
+
+        recordIngestion(lotteryRows.size(), startTime);
+        return this;
+    }
+
+    @Override
+    public MissingLotteryRowsMiner addLotteryRows(LotteryRowStore rowStore) {
+        checkLotteryRowStore(rowStore);
+        long startTime = System.nanoTime();
+
+        for (int i = 0, sz = rowStore.size(); i < sz; i++) {
+            rowStore.getNumbers(i, rowBuffer);
+            addNumbers(rowBuffer);
+        }
+
+        recordIngestion(rowStore.size(), startTime);
+        return this;
+    }
+
+    @Override
+    public MissingLotteryRowsMiner addLotteryRows(LotteryRowStore rowStore,
+                                                  int numberOfThreads) {
+        checkLotteryRowStore(rowStore);
+        ParallelSupport.checkNumberOfThreads(numberOfThreads);
+        long startTime = System.nanoTime();
+        addLotteryRowsInParallel(new LotteryRowSource() {
+            @Override
+            public int size() {
+                return rowStore.size();
+            }
+
+            @Override
+            public void loadNumbers(int index, int[] numbers) {
+                rowStore.getNumbers(index, numbers);
+            }
+        }, numberOfThreads);
+
+        recordIngestion(rowStore.size(), startTime);
+        return this;
+    }
+
+    @Override
+    public MissingLotteryRowsMiner addLotteryNumbers(int[] numbers) {
+        checkNumbers(numbers);
+        addNumbers(numbers);
+        metrics.addRowsIngested(1L);
+        return this;
+    }
+
+    @Override
+    public MissingLotteryRowsMiner addLotteryRow(LotteryRow lotteryRow) {
+        checkLotteryRow(lotteryRow);
+        loadLotteryRowNumbers(lotteryRow, rowBuffer);
+        addNumbers(rowBuffer);
+        metrics.addRowsIngested(1L);
+        return this;
+    }
+
+    @Override
+    public List<LotteryRow> computeMissingLotteryRows() {
+        List<LotteryRow> lotteryRows = new ArrayList<>();
+        enumerateMissingLotteryRows((rank, numbers) -> {
+            lotteryRows.add(convertNumbersToLotteryRow(numbers));
+        });
+
+        return lotteryRows;
+    }
+
+    @Override
+    public List<LotteryRow> computeMissingLotteryRows(int parallelism) {
+        ParallelSupport.checkNumberOfThreads(parallelism);
+        long numberOfCombinations = 
+                combinationRanker.getNumberOfCombinations();
+
+        long maximumTaskSize = 
+                Math.max(MINIMUM_TASK_SIZE,
+                         numberOfCombinations / 
+                                 ((long) parallelism * TASKS_PER_THREAD));
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+        metrics.startEnumeration();
+        long startTime = System.nanoTime();
+
+        try {
+            List<LotteryRow> lotteryRows = 
+                    forkJoinPool.invoke(
+                            new EnumerationTask(0L, 
+                                                numberOfCombinations,
+                                                maximumTaskSize));
+
+            metrics.recordPhase(LotteryMetrics.Phase.ENUMERATION,
+                                numberOfCombinations,
+                                System.nanoTime() - startTime);
+            return lotteryRows;
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    /**
+     * Splits the ranks into the consecutive ranges of the rows of each 
+     * leading number, and counts the missing rows of each range with
+     * {@link #countMissingLotteryRows(long, long)}.
+     *
+     * @return the missing row counts by leading number.
+     */
+    @Override
+    public long[] countMissingLotteryRowsByLeadingNumber() {
+        long[] counts = 
+                new long[lotteryConfiguration.getMaximumNumberValueAt(0)];
+        long fromRank = 0L;
+
+        for (int i = 0; i < counts.length; i++) {
+            long toRank = 
+                    fromRank + combinationRanker
+                            .getNumberOfCombinationsWithLeadingNumber(i + 1);
+
+            counts[i] = countMissingLotteryRows(fromRank, toRank);
+            fromRank = toRank;
+        }
+
+        return counts;
+    }
+
+    @Override
+    public void forEachMissingLotteryRow(MissingLotteryRowVisitor visitor) {
+        Objects.requireNonNull(visitor, "visitor == null");
+        enumerateMissingLotteryRows(visitor);
+    }
+
+    @Override
+    public LongStream streamMissingLotteryRowRanks() {
+        metrics.startEnumeration();
+        return StreamSupport.longStream(
+                new MissingRankSpliterator(
+                        0L, 
+                        combinationRanker.getNumberOfCombinations()),
+                false);
+    }
+
+    @Override
+    public boolean isCovered(LotteryRow lotteryRow) {
+        checkLotteryRow(lotteryRow);
+        int[] numbers = new int[lotteryConfiguration.getLotteryRowLength()];
+        loadLotteryRowNumbers(lotteryRow, numbers);
+        return containsRank(combinationRanker.rank(numbers), numbers);
+    }
+
+    @Override
+    public BitSet queryCoverage(LotteryRowStore rowStore, int parallelism) {
+        checkLotteryRowStore(rowStore);
+        ParallelSupport.checkNumberOfThreads(parallelism);
+        long[] ranks = new long[rowStore.size()];
+
+        ParallelSupport.runInParallel(
+                ranks.length,
+                parallelism,
+                (chunkIndex, fromIndex, toIndex) -> {
+            int[] numbers = new int[lotteryConfiguration.getLotteryRowLength()];
+
+            for (int i = fromIndex; i < toIndex; i++) {
+                rowStore.getNumbers(i, numbers);
+                ranks[i] = combinationRanker.rank(numbers);
+            }
+        });
+
+        return queryCoverageOfRanks(ranks, parallelism);
+    }
+
+    @Override
+    public BitSet queryCoverage(long[] ranks, int parallelism) {
+        Objects.requireNonNull(ranks, "ranks == null");
+        ParallelSupport.checkNumberOfThreads(parallelism);
+        long numberOfCombinations = 
+                combinationRanker.getNumberOfCombinations();
+
+        for (int i = 0; i < ranks.length; i++) {
+            if (ranks[i] < 0L || ranks[i] >= numberOfCombinations) {
+                throw new IndexOutOfBoundsException(
+                        "ranks[" + i + "](" + ranks[i] + ") not within " +
+                        "[0, " + numberOfCombinations + ")");
+            }
+        }
+
+        return queryCoverageOfRanks(ranks, parallelism);
+    }
+
+    /**
+     * Adds a single row given as its validated numbers in ascending order.
+     *
+     * @param numbers the numbers of the row to add.
+     */
+    protected abstract void addNumbers(int[] numbers);
+
+    /**
+     * Adds all the rows of the given source using the given number of
+     * threads. Each thread is supposed to build its own partial index over a
+     * contiguous chunk of the rows, after which the partial indices are 
+     * merged into this miner.
+     *
+     * @param lotteryRowSource the source of the rows to add.
+     * @param numberOfThreads  the number of ingesting threads.
+     */
+    protected abstract void addLotteryRowsInParallel(
+            LotteryRowSource lotteryRowSource,
+            int numberOfThreads);
+
+    /**
+     * Pushes to {@code visitor} all the missing lottery rows whose ranks are
+     * within <code>[fromRank, toRank)</code>, in lexicographic order. Must be
+     * safe to call concurrently on disjoint ranges.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @param visitor  the visitor receiving the missing rows.
+     */
+    protected abstract void visitMissingLotteryRows(
+            long fromRank, 
+            long toRank,
+            MissingLotteryRowVisitor visitor);
+
+    /**
+     * Records a finished bulk addition in the metrics.
+     *
+     * @param numberOfRows the number of the added rows.
+     * @param startTime    the value of {@link System#nanoTime()} at the start
+     *                     of the addition.
+     */
+    private void recordIngestion(int numberOfRows, long startTime) {
+        metrics.addRowsIngested(numberOfRows);
+        metrics.recordPhase(LotteryMetrics.Phase.INGESTION,
+                            numberOfRows,
+                            System.nanoTime() - startTime);
+    }
+
+    /**
+     * Returns the index of the first rank at least {@code rank} within the
+     * sorted range <code>ranks[fromIndex, toIndex)</code>.
+     */
+    private static int lowerBound(long[] ranks,
+                                  int fromIndex,
+                                  int toIndex,
+                                  long rank) {
+        int low = fromIndex;
+        int high = toIndex;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (ranks[middle] < rank) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Visits all the missing rows sequentially and records the enumeration
+     * in the metrics.
+     *
+     * @param visitor the visitor receiving the missing rows.
+     */
+    private void enumerateMissingLotteryRows(MissingLotteryRowVisitor visitor) {
+        long numberOfCombinations = 
+                combinationRanker.getNumberOfCombinations();
+
+        metrics.startEnumeration();
+        long startTime = System.nanoTime();
+        visitMissingLotteryRowsWithProgress(0L, numberOfCombinations, visitor);
+        metrics.recordPhase(LotteryMetrics.Phase.ENUMERATION,
+                            numberOfCombinations,
+                            System.nanoTime() - startTime);
+    }
+
+    /**
+     * Visits the missing rows within a rank range block by block, updating
+     * the progress metric after each block.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @param visitor  the visitor receiving the missing rows.
+     */
+    private void visitMissingLotteryRowsWithProgress(
+            long fromRank,
+            long toRank,
+            MissingLotteryRowVisitor visitor) {
+        while (fromRank < toRank) {
+            long blockEnd = toRank - fromRank > PROGRESS_BLOCK_SIZE
+                    ? fromRank + PROGRESS_BLOCK_SIZE
+                    : toRank;
+
+            visitMissingLotteryRows(fromRank, blockEnd, visitor);
+            metrics.addScannedRanks(blockEnd - fromRank);
+            fromRank = blockEnd;
+        }
+    }
+
+    /**
+     * Counts the missing rows within <code>[fromRank, toRank)</code>. This 
+     * implementation visits them; the engines override it with an 
+     * aggregation over their index.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @return the number of the missing rows within the range.
+     */
+    protected long countMissingLotteryRows(long fromRank, long toRank) {
+        long[] count = new long[1];
+        visitMissingLotteryRows(fromRank, 
+                                toRank, 
+                                (rank, numbers) -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Tells whether the row with the given rank was added. This 
+     * implementation counts the missing rows of the single rank range; the
+     * engines override it with a direct lookup. Must be safe to call
+     * concurrently.
+     *
+     * @param rank    the rank of the row.
+     * @param numbers a scratch array of the row length, which the engines
+     *                looking up rows rather than ranks may unrank into.
+     * @return {@code true} if the row was added.
+     */
+    protected boolean containsRank(long rank, int[] numbers) {
+        return countMissingLotteryRows(rank, rank + 1L) == 0L;
+    }
+
+    /**
+     * Adds the ranks of all the rows of the given source in batches, so that
+     * the heap consumption does not grow with the number of rows. The
+     * threads first rank and sort their own slices of a batch, after which
+     * each thread passes to {@code rankAdder} the ranks falling into its own
+     * contiguous range of blocks of <code>2^blockBits</code> ranks, so that
+     * no two threads ever touch the same block.
+     *
+     * @param lotteryRowSource the source of the rows to add.
+     * @param numberOfThreads  the number of ingesting threads.
+     * @param blockBits        the binary logarithm of the block size.
+     * @param rankAdder        adds a rank and tells whether it is new.
+     * @return the number of the ranks {@code rankAdder} reported as new.
+     */
+    protected long addRankBatchesInParallel(LotteryRowSource lotteryRowSource,
+                                            int numberOfThreads,
+                                            int blockBits,
+                                            LongPredicate rankAdder) {
+        int numberOfRows = lotteryRowSource.size();
+        int numberOfBlocks =
+                (int)((combinationRanker.getNumberOfCombinations()
+                        + (1L << blockBits) - 1L) >>> blockBits);
+        int numberOfBlockThreads = Math.min(numberOfThreads, numberOfBlocks);
+        long[] ranks = new long[Math.min(numberOfRows, RANK_BATCH_SIZE)];
+        int[] sliceStarts = new int[numberOfThreads];
+        int[] sliceEnds = new int[numberOfThreads];
+        long[] addedCounts = new long[numberOfBlockThreads];
+
+        for (int batchStart = 0;
+                batchStart < numberOfRows;
+                batchStart += RANK_BATCH_SIZE) {
+            int batchOffset = batchStart;
+            int batchLength = Math.min(RANK_BATCH_SIZE,
+                                       numberOfRows - batchStart);
+
+            // Every slice, even an empty one, is rewritten for each batch:
+            ParallelSupport.runInParallel(
+                    batchLength,
+                    numberOfThreads,
+                    (sliceIndex, fromIndex, toIndex) -> {
+                int[] numbers =
+                        new int[lotteryConfiguration.getLotteryRowLength()];
+
+                for (int i = fromIndex; i < toIndex; i++) {
+                    lotteryRowSource.loadNumbers(batchOffset + i, numbers);
+                    ranks[i] = combinationRanker.rank(numbers);
+                }
+
+                Arrays.sort(ranks, fromIndex, toIndex);
+                sliceStarts[sliceIndex] = fromIndex;
+                sliceEnds[sliceIndex] = toIndex;
+            });
+
+            ParallelSupport.runInParallel(
+                    numberOfBlocks,
+                    numberOfBlockThreads,
+                    (chunkIndex, fromBlockIndex, toBlockIndex) -> {
+                long fromRank = (long) fromBlockIndex << blockBits;
+                long toRank = (long) toBlockIndex << blockBits;
+                long addedCount = 0L;
+
+                for (int slice = 0; slice < numberOfThreads; slice++) {
+                    for (int i = lowerBound(ranks,
+                                            sliceStarts[slice],
+                                            sliceEnds[slice],
+                                            fromRank);
+                            i < sliceEnds[slice] && ranks[i] < toRank;
+                            i++) {
+                        if (rankAdder.test(ranks[i])) {
+                            addedCount++;
+                        }
+                    }
+                }
+
+                addedCounts[chunkIndex] += addedCount;
+            });
+        }
+
+        long addedRanks = 0L;
+
+        for (long addedCount : addedCounts) {
+            addedRanks += addedCount;
+        }
+
+        return addedRanks;
+    }
+
+    /**
+     * Looks up the given valid ranks. If the rank and the index of each 
+     * probe fit together in a long, the probes are packed into such keys and
+     * sorted, so that each thread looks up an ascending run of ranks and the 
+     * repeated ranks are looked up only once. Otherwise the probes are 
+     * looked up in the given order. Each thread records its results in its
+     * own bit set, after which the bit sets are OR-merged in parallel over 
+     * disjoint word ranges.
+     *
+     * @param ranks       the ranks to look up.
+     * @param parallelism the number of threads.
+     * @return the bit set of the covered probes.
+     */
+    private BitSet queryCoverageOfRanks(long[] ranks, int parallelism) {
+        int numberOfProbes = ranks.length;
+        int indexBits = 
+                32 - Integer.numberOfLeadingZeros(
+                        Math.max(1, numberOfProbes - 1));
+        int rankBits = 
+                64 - Long.numberOfLeadingZeros(
+                        Math.max(1L, 
+                                 combinationRanker.getNumberOfCombinations()
+                                         - 1L));
+
+        long[][] shards = new long[parallelism][];
+        int numberOfWords = (numberOfProbes + 63) >>> 6;
+
+        if (rankBits + indexBits < Long.SIZE) {
+            long[] keys = new long[numberOfProbes];
+            long indexMask = (1L << indexBits) - 1L;
+
+            ParallelSupport.runInParallel(
+                    numberOfProbes,
+                    parallelism,
+                    (chunkIndex, fromIndex, toIndex) -> {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    keys[i] = (ranks[i] << indexBits) | i;
+                }
+            });
+
+            Arrays.parallelSort(keys);
+
+            ParallelSupport.runInParallel(
+                    numberOfProbes,
+                    parallelism,
+                    (chunkIndex, fromIndex, toIndex) -> {
+                long[] shard = new long[numberOfWords];
+                int[] numbers = 
+                        new int[lotteryConfiguration.getLotteryRowLength()];
+                long previousRank = -1L;
+                boolean previousCovered = false;
+
+                for (int i = fromIndex; i < toIndex; i++) {
+                    long rank = keys[i] >>> indexBits;
+                    int index = (int)(keys[i] & indexMask);
+
+                    if (rank != previousRank) {
+                        previousRank = rank;
+                        previousCovered = containsRank(rank, numbers);
+                    }
+
+                    if (previousCovered) {
+                        shard[index >>> 6] |= 1L << index;
+                    }
+                }
+
+                shards[chunkIndex] = shard;
+            });
+        } else {
+            ParallelSupport.runInParallel(
+                    numberOfProbes,
+                    parallelism,
+                    (chunkIndex, fromIndex, toIndex) -> {
+                long[] shard = new long[numberOfWords];
+                int[] numbers = 
+                        new int[lotteryConfiguration.getLotteryRowLength()];
+
+                for (int i = fromIndex; i < toIndex; i++) {
+                    if (containsRank(ranks[i], numbers)) {
+                        shard[i >>> 6] |= 1L << i;
+                    }
+                }
+
+                shards[chunkIndex] = shard;
+            });
+        }
+
+        long[] words = new long[numberOfWords];
+
+        ParallelSupport.runInParallel(
+                numberOfWords,
+                parallelism,
+                (chunkIndex, fromIndex, toIndex) -> {
+            for (long[] shard : shards) {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    words[i] |= shard[i];
+                }
+            }
+        });
+
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Converts a number integer array into a
+     * {@link net.coderodde.datamining.lottery.LotteryRow}.
+     * @param numbers the raw number array in ascending order.
+     * @return the lottery row with exactly the same numbers as in
+     * {@code numbers}.
+     */
+    protected LotteryRow convertNumbersToLotteryRow(int[] numbers) {
+        return LotteryRow.fromSorted(lotteryConfiguration, numbers);
+    }
+
+    /**
+     * Loads the numbers of the given row into {@code numbers}.
+     *
+     * @param lotteryRow the source row.
+     * @param numbers    the target array.
+     */
+    protected void loadLotteryRowNumbers(LotteryRow lotteryRow, 
+                                         int[] numbers) {
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = lotteryRow.getNumber(i);
+        }
+    }
+
+    /**
+     * Checks that the input array holds a full row of numbers within range
+     * and in strictly ascending order within each pool.
+     *
+     * @param numbers the numbers to check.
+     */
+    protected void checkNumbers(int[] numbers) {
+        Objects.requireNonNull(numbers, "numbers == null");
+        checkRowLength(numbers.length);
+        int previousNumber = 0;
+
+        for (int i = 0; i < numbers.length; i++) {
+            previousNumber = checkNumber(i, numbers[i], previousNumber);
+        }
+    }
+
+    /**
+     * Checks that the input row store is compatible with this miner.
+     *
+     * @param rowStore the row store to check.
+     */
+    protected void checkLotteryRowStore(LotteryRowStore rowStore) {
+        Objects.requireNonNull(rowStore, "rowStore == null");
+        checkLotteryConfiguration(rowStore.getLotteryConfiguration());
+    }
+
+    /**
+     * Checks that the input lottery row is compatible with this miner and
+     * holds a full row of numbers within range and in strictly ascending
+     * order within each pool.
+     *
+     * @param lotteryRow the lottery row to check.
+     */
+    protected void checkLotteryRow(final LotteryRow lotteryRow) {
+        Objects.requireNonNull(lotteryRow, "lotteryRow == null");
+        checkLotteryConfiguration(lotteryRow.getLotteryConfiguration());
+        checkRowLength(lotteryRow.size());
+        int previousNumber = 0;
+
+        for (int i = 0; i < lotteryRow.size(); i++) {
+            previousNumber =
+                    checkNumber(i, lotteryRow.getNumber(i), previousNumber);
+        }
+    }
+
+    /**
+     * Checks that a row holds exactly the numbers of a full row.
+     *
+     * @param rowLength the number of the numbers in the row.
+     */
+    private void checkRowLength(int rowLength) {
+        int lotteryRowLength = lotteryConfiguration.getLotteryRowLength();
+
+        if (rowLength != lotteryRowLength) {
+            throw new IllegalArgumentException(
+                    "Wrong length of a row (" + rowLength +
+                    ", must be exactly " + lotteryRowLength + ".");
+        }
+    }
+
+    /**
+     * Checks that the {@code index}th number of a row is within range and
+     * greater than the previous number of the same pool.
+     *
+     * @param index          the index of the number within the row.
+     * @param number         the number to check.
+     * @param previousNumber the previous number of the row.
+     * @return {@code number}.
+     */
+    private int checkNumber(int index, int number, int previousNumber) {
+        if (lotteryConfiguration.isPoolStart(index)) {
+            previousNumber = 0;
+        }
+
+        if (number <= previousNumber) {
+            throw new IllegalArgumentException(
+                    "The numbers are not in strictly ascending order " +
+                    "or below 1 (" + previousNumber + " >= " + number +
+                    ").");
+        }
+
+        if (number > lotteryConfiguration.getMaximumNumberValueAt(index)) {
+            throw new IllegalArgumentException(
+                    "number (" + number + ") > " +
+                    "this.lotteryConfiguration" +
+                    ".getMaximumNumberValueAt(" + index + ")[" +
+                    lotteryConfiguration.getMaximumNumberValueAt(index) +
+                    "]");
+        }
+
+        return number;
+    }
+
+    /**
+     * Checks that rows of the given configuration may be added to this miner.
+     * The configurations must have the same pools of the same row lengths,
+     * and the number ranges of the pools of {@code otherConfiguration} may
+     * not exceed the ones of this miner.
+     *
+     * @param otherConfiguration the configuration to check.
+     */
+    protected void checkLotteryConfiguration(
+            LotteryConfiguration otherConfiguration) {
+        if (otherConfiguration.getLotteryRowLength()
+                != lotteryConfiguration.getLotteryRowLength()) {
+            throw new IllegalArgumentException(
+                    "Wrong length of a row (" +
+                            otherConfiguration.getLotteryRowLength() +
+                            ", must be exactly " +
+                            this.lotteryConfiguration.getLotteryRowLength() +
+                            ".");
+        }
+
+        if (otherConfiguration.getNumberOfPools()
+                != lotteryConfiguration.getNumberOfPools()) {
+            throw new IllegalArgumentException(
+                    "Wrong number of pools (" +
+                            otherConfiguration.getNumberOfPools() +
+                            ", must be exactly " +
+                            lotteryConfiguration.getNumberOfPools() + ").");
+        }
+
+        for (int pool = 0;
+                pool < lotteryConfiguration.getNumberOfPools();
+                pool++) {
+            if (otherConfiguration.getPoolRowLength(pool)
+                    != lotteryConfiguration.getPoolRowLength(pool)) {
+                throw new IllegalArgumentException(
+                        "Wrong length of pool " + pool + " (" +
+                                otherConfiguration.getPoolRowLength(pool) +
+                                ", must be exactly " +
+                                lotteryConfiguration.getPoolRowLength(pool) +
+                                ").");
+            }
+
+            if (otherConfiguration.getPoolMaximumNumberValue(pool)
+                    > lotteryConfiguration.getPoolMaximumNumberValue(pool)) {
+                throw new IllegalArgumentException(
+                        "Wrong maximum number value of pool " + pool + " (" +
+                                otherConfiguration
+                                        .getPoolMaximumNumberValue(pool) +
+                                ", must be at most " +
+                                lotteryConfiguration
+                                        .getPoolMaximumNumberValue(pool) +
+                                ").");
+            }
+        }
+    }
+
+    /**
+     * Checks that the index of a miner of the given configuration may be
+     * merged into this miner. As the ranks depend on both the row lengths and
+     * the maximum number values of all the pools, the configurations must
+     * match exactly.
+     *
+     * @param otherConfiguration the configuration to check.
+     */
+    protected void checkSameLotteryConfiguration(
+            LotteryConfiguration otherConfiguration) {
+        if (!otherConfiguration.equals(lotteryConfiguration)) {
+            throw new IllegalArgumentException(
+                    "Cannot merge the index of configuration (" +
+                    otherConfiguration +
+                    ") into the index of configuration (" +
+                    lotteryConfiguration + ").");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * This class implements the alias method of Walker and Vose for sampling a
+ * discrete distribution in constant time per sample.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+final class AliasTable {
+
+    /**
+     * The probability of keeping the column index instead of its alias.
+     */
+    private final double[] probabilities;
+
+    /**
+     * The alias of each column.
+     */
+    private final int[] aliases;
+
+    /**
+     * Builds an alias table over the given non-negative weights.
+     *
+     * @param weights the weights of the outcomes; need not sum to one.
+     */
+    AliasTable(double[] weights) {
+        Objects.requireNonNull(weights, "weights == null");
+
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("weights.length == 0");
+        }
+
+        double sum = 0.0;
+
+        for (double weight : weights) {
+            if (!(weight >= 0.0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException(
+                        "Bad weight (" + weight + ").");
+            }
+
+            sum += weight;
+        }
+
+        if (sum == 0.0) {
+            throw new IllegalArgumentException("All the weights are zero.");
+        }
+
+        int n = weights.length;
+        this.probabilities = new double[n];
+        this.aliases = new int[n];
+
+        double[] scaledWeights = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+
+        for (int i = 0; i < n; i++) {
+            scaledWeights[i] = weights[i] * n / sum;
+
+            if (scaledWeights[i] < 1.0) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+
+        while (smallSize > 0 && largeSize > 0) {
+            int lessIndex = small[--smallSize];
+            int moreIndex = large[--largeSize];
+
+            probabilities[lessIndex] = scaledWeights[lessIndex];
+            aliases[lessIndex] = moreIndex;
+            scaledWeights[moreIndex] += scaledWeights[lessIndex] - 1.0;
+
+            if (scaledWeights[moreIndex] < 1.0) {
+                small[smallSize++] = moreIndex;
+            } else {
+                large[largeSize++] = moreIndex;
+            }
+        }
+
+        // The leftovers are one up to rounding errors:
+        while (largeSize > 0) {
+            probabilities[large[--largeSize]] = 1.0;
+        }
+
+        while (smallSize > 0) {
+            probabilities[small[--smallSize]] = 1.0;
+        }
+    }
+
+    /**
+     * Returns the number of outcomes.
+     *
+     * @return the number of outcomes.
+     */
+    int size() {
+        return probabilities.length;
+    }
+
+    /**
+     * Draws a random outcome.
+     *
+     * @param random the random number generator.
+     * @return the index of the drawn outcome.
+     */
+    int sample(SplittableRandom random) {
+        int column = random.nextInt(probabilities.length);
+        return random.nextDouble() < probabilities[column]
+                ? column
+                : aliases[column];
+    }
+}
@@ -0,0 +1,502 @@
+package net.coderodde.datamining.lottery;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class implements a missing lottery row mining engine that maps each
+ * sorted lottery row to its combinatorial rank and records it in a flat bit
+ * set of <code>C(n, k)</code> bits. Unlike the radix tree of
+ * {@link net.coderodde.datamining.lottery.MissingLotteryRowsGenerator}, the
+ * memory consumption of this engine does not depend on the number of the
+ * added rows: for 40 choose 7 the bit set takes about 2.3 megabytes.
+ * <p>
+ * The engine is incremental: it keeps the number of covered rows up to date
+ * as the rows arrive, together with a summary bit set marking the fully
+ * covered words. Counting the missing rows is thus a constant time query,
+ * and enumerating them skips the covered regions 4096 ranks at a time
+ * instead of rescanning all the <code>C(n, k)</code> combinations.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.64 (Oct 16, 2026) ~ membership queries.
+ * @version 1.63 (Oct 16, 2026) ~ counting the missing rows by range.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class BitSetMissingLotteryRowsGenerator
+        extends AbstractMissingLotteryRowsMiner {
+
+    /**
+     * The maximum number of 64-bit words in the bit set.
+     */
+    private static final long MAXIMUM_NUMBER_OF_WORDS = Integer.MAX_VALUE - 8;
+
+    /**
+     * The bit set words. The bit <code>r</code> is set if and only if the row
+     * with rank <code>r</code> was added.
+     */
+    private final long[] words;
+
+    /**
+     * The summary bit set. The bit <code>w</code> is set if and only if all
+     * the bits of <code>words[w]</code> are set. The padding bits past the
+     * last rank are kept set, so that the last word may become full as well.
+     */
+    private final long[] fullWords;
+
+    /**
+     * The number of distinct rows added so far.
+     */
+    private long numberOfCoveredRows;
+
+    /**
+     * Constructs a missing rows generator with given lottery configuration.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     */
+    public BitSetMissingLotteryRowsGenerator(
+            LotteryConfiguration lotteryConfiguration) {
+        super(lotteryConfiguration);
+        long numberOfCombinations =
+                combinationRanker.getNumberOfCombinations();
+
+        if (!supports(lotteryConfiguration)) {
+            throw new IllegalArgumentException(
+                    "Too many combinations (" + numberOfCombinations +
+                    ") for a flat bit set.");
+        }
+
+        this.words = new long[(int) getNumberOfWords(numberOfCombinations)];
+        this.fullWords = new long[(words.length + 63) >>> 6];
+
+        int paddingBits = (int)(-numberOfCombinations & 63L);
+
+        if (paddingBits > 0) {
+            words[words.length - 1] = -1L << (64 - paddingBits);
+        }
+
+        metrics.addIndexBytes((long)(words.length + fullWords.length)
+                                      * Long.BYTES);
+    }
+
+    /**
+     * Tells whether the given configuration fits in a flat bit set.
+     *
+     * @param lotteryConfiguration the lottery configuration to check.
+     * @return {@code true} if this engine can handle the configuration.
+     */
+    public static boolean supports(LotteryConfiguration lotteryConfiguration) {
+        long numberOfCombinations;
+
+        try {
+            numberOfCombinations =
+                    new CombinationRanker(lotteryConfiguration)
+                            .getNumberOfCombinations();
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+
+        return getNumberOfWords(numberOfCombinations)
+                <= MAXIMUM_NUMBER_OF_WORDS;
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator.
+     *
+     * @param lotteryRows the lottery rows to add one by one.
+     * @return this generator for chaining.
+     */
+    @Override
+    public BitSetMissingLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows) {
+        super.addLotteryRows(lotteryRows);
+        return this;
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator in parallel.
+     *
+     * @param lotteryRows     the lottery rows to add.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public BitSetMissingLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows, int numberOfThreads) {
+        super.addLotteryRows(lotteryRows, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row to this generator.
+     *
+     * @param lotteryRow the lottery row to add.
+     * @return this generator for chaining.
+     */
+    @Override
+    public BitSetMissingLotteryRowsGenerator
+        addLotteryRow(LotteryRow lotteryRow) {
+        super.addLotteryRow(lotteryRow);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator.
+     *
+     * @param rowStore the row store.
+     * @return this generator for chaining.
+     */
+    @Override
+    public BitSetMissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore) {
+        super.addLotteryRows(rowStore);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator in
+     * parallel.
+     *
+     * @param rowStore        the row store.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public BitSetMissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore, int numberOfThreads) {
+        super.addLotteryRows(rowStore, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row given as its numbers in strictly ascending
+     * order.
+     *
+     * @param numbers the numbers of the row in ascending order.
+     * @return this generator for chaining.
+     */
+    @Override
+    public BitSetMissingLotteryRowsGenerator
+        addLotteryNumbers(int[] numbers) {
+        super.addLotteryNumbers(numbers);
+        return this;
+    }
+
+    /**
+     * Returns the number of missing rows. This is a constant time query, as
+     * the count is maintained while the rows are added.
+     *
+     * @return the number of rows not added so far.
+     */
+    @Override
+    public long countMissingLotteryRows() {
+        return combinationRanker.getNumberOfCombinations()
+                - numberOfCoveredRows;
+    }
+
+    /**
+     * Merges the coverage index of {@code other} into this generator by
+     * OR-ing the bit sets, so that this generator covers the union of the
+     * rows added to both. This allows ingesting partitions of the rows in
+     * separate processes and combining their saved indices afterwards.
+     *
+     * @param other the generator to merge; must have the same configuration.
+     * @return this generator for chaining.
+     */
+    public BitSetMissingLotteryRowsGenerator
+        merge(BitSetMissingLotteryRowsGenerator other) {
+        Objects.requireNonNull(other, "other == null");
+        checkSameLotteryConfiguration(other.getLotteryConfiguration());
+
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+
+        rebuildSummary();
+        return this;
+    }
+
+    @Override
+    protected void addNumbers(int[] numbers) {
+        long rank = combinationRanker.rank(numbers);
+        int wordIndex = (int)(rank >>> 6);
+        long word = words[wordIndex];
+        long bit = 1L << rank;
+
+        if ((word & bit) == 0L) {
+            word |= bit;
+            words[wordIndex] = word;
+            numberOfCoveredRows++;
+
+            if (word == -1L) {
+                fullWords[wordIndex >>> 6] |= 1L << wordIndex;
+            }
+        } else {
+            metrics.addDuplicateRows(1L);
+        }
+    }
+
+    /**
+     * Each thread records its chunk of rows in its own bit set shard, after
+     * which the shards are OR-merged into this generator, again in parallel
+     * over disjoint word ranges. The merging threads recount the covered rows
+     * and rebuild the summary of their own ranges.
+     *
+     * @param lotteryRowSource the source of the rows to add.
+     * @param numberOfThreads  the number of ingesting threads.
+     */
+    @Override
+    protected void addLotteryRowsInParallel(LotteryRowSource lotteryRowSource,
+                                            int numberOfThreads) {
+        long[][] shards = new long[numberOfThreads][];
+
+        ParallelSupport.runInParallel(
+                lotteryRowSource.size(),
+                numberOfThreads,
+                (shardIndex, fromIndex, toIndex) -> {
+            long[] shard = new long[words.length];
+            int[] numbers =
+                    new int[lotteryConfiguration.getLotteryRowLength()];
+
+            for (int i = fromIndex; i < toIndex; i++) {
+                lotteryRowSource.loadNumbers(i, numbers);
+                long rank = combinationRanker.rank(numbers);
+                shard[(int)(rank >>> 6)] |= 1L << rank;
+            }
+
+            shards[shardIndex] = shard;
+        });
+
+        long[] coveredCounts = new long[numberOfThreads];
+
+        // Each chunk covers whole summary words, so no two threads share one:
+        ParallelSupport.runInParallel(
+                fullWords.length,
+                numberOfThreads,
+                (chunkIndex, fromIndex, toIndex) -> {
+            int fromWordIndex = fromIndex << 6;
+            int toWordIndex = Math.min(words.length, toIndex << 6);
+            long coveredCount = 0L;
+
+            for (long[] shard : shards) {
+                for (int i = fromWordIndex; i < toWordIndex; i++) {
+                    words[i] |= shard[i];
+                }
+            }
+
+            for (int i = fromWordIndex; i < toWordIndex; i++) {
+                long word = words[i];
+                coveredCount += Long.bitCount(word);
+
+                if (word == -1L) {
+                    fullWords[i >>> 6] |= 1L << i;
+                }
+            }
+
+            coveredCounts[chunkIndex] = coveredCount;
+        });
+
+        long numberOfCoveredBits = 0L;
+
+        for (long coveredCount : coveredCounts) {
+            numberOfCoveredBits += coveredCount;
+        }
+
+        long previousNumberOfCoveredRows = numberOfCoveredRows;
+        numberOfCoveredRows = 
+                numberOfCoveredBits 
+                        - ((long) words.length << 6)
+                        + combinationRanker.getNumberOfCombinations();
+
+        metrics.addDuplicateRows(
+                lotteryRowSource.size()
+                        - (numberOfCoveredRows - previousNumberOfCoveredRows));
+    }
+
+    /**
+     * Tells whether the row with the given rank was added by testing its
+     * bit.
+     *
+     * @param rank    the rank of the row.
+     * @param numbers not used.
+     * @return {@code true} if the row was added.
+     */
+    @Override
+    protected boolean containsRank(long rank, int[] numbers) {
+        return (words[(int)(rank >>> 6)] & (1L << rank)) != 0L;
+    }
+
+    /**
+     * Counts the missing rows within a rank range by counting the clear bits
+     * of the bit set word by word.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @return the number of the missing rows within the range.
+     */
+    @Override
+    protected long countMissingLotteryRows(long fromRank, long toRank) {
+        if (fromRank >= toRank) {
+            return 0L;
+        }
+
+        int fromWordIndex = (int)(fromRank >>> 6);
+        int toWordIndex = (int)((toRank - 1L) >>> 6);
+        long coveredCount = 0L;
+
+        for (int wordIndex = fromWordIndex; 
+                wordIndex <= toWordIndex; 
+                wordIndex++) {
+            long word = words[wordIndex];
+
+            if (wordIndex == fromWordIndex) {
+                word &= -1L << fromRank;
+            }
+
+            if (wordIndex == toWordIndex) {
+                word &= -1L >>> (63 - (int)((toRank - 1L) & 63L));
+            }
+
+            coveredCount += Long.bitCount(word);
+        }
+
+        return toRank - fromRank - coveredCount;
+    }
+
+    /**
+     * Visits the missing lottery rows within a rank range by scanning the
+     * clear bits of the bit set. The fully covered words are skipped with the
+     * help of the summary bit set.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @param visitor  the visitor receiving the missing rows.
+     */
+    @Override
+    protected void visitMissingLotteryRows(long fromRank,
+                                           long toRank,
+                                           MissingLotteryRowVisitor visitor) {
+        if (fromRank >= toRank) {
+            return;
+        }
+
+        int[] numbers = new int[lotteryConfiguration.getLotteryRowLength()];
+        int fromWordIndex = (int)(fromRank >>> 6);
+        int toWordIndex = (int)((toRank - 1L) >>> 6);
+
+        for (int summaryIndex = fromWordIndex >>> 6;
+                summaryIndex <= toWordIndex >>> 6;
+                summaryIndex++) {
+            long candidateWords = ~fullWords[summaryIndex];
+
+            if (summaryIndex == fromWordIndex >>> 6) {
+                candidateWords &= -1L << fromWordIndex;
+            }
+
+            if (summaryIndex == toWordIndex >>> 6) {
+                candidateWords &= -1L >>> (63 - (toWordIndex & 63));
+            }
+
+            while (candidateWords != 0L) {
+                int wordIndex = (summaryIndex << 6) 
+                              + Long.numberOfTrailingZeros(candidateWords);
+                long clearBits = ~words[wordIndex];
+
+                if (wordIndex == fromWordIndex) {
+                    clearBits &= -1L << fromRank;
+                }
+
+                if (wordIndex == toWordIndex) {
+                    clearBits &= -1L >>> (63 - (int)((toRank - 1L) & 63L));
+                }
+
+                while (clearBits != 0L) {
+                    long rank = ((long) wordIndex << 6)
+                              + Long.numberOfTrailingZeros(clearBits);
+
+                    combinationRanker.unrank(rank, numbers);
+                    visitor.visit(rank, numbers);
+                    clearBits &= clearBits - 1L;
+                }
+
+                candidateWords &= candidateWords - 1L;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of words in the bit set.
+     *
+     * @return the number of words.
+     */
+    int getNumberOfWords() {
+        return words.length;
+    }
+
+    /**
+     * Copies the bit set words starting from {@code fromWordIndex} into
+     * {@code target} until either runs out.
+     *
+     * @param fromWordIndex the index of the first word to copy.
+     * @param target        the target buffer.
+     */
+    void exportWords(int fromWordIndex, LongBuffer target) {
+        int length = Math.min(target.remaining(), 
+                              words.length - fromWordIndex);
+        target.put(words, fromWordIndex, length);
+    }
+
+    /**
+     * Replaces the contents of this generator with the bit set words read
+     * from {@code source}, and rebuilds the covered row count and the summary
+     * bit set.
+     *
+     * @param source the source buffer holding exactly the number of words of
+     *               this generator.
+     */
+    void importWords(LongBuffer source) {
+        if (source.remaining() != words.length) {
+            throw new IllegalArgumentException(
+                    "Wrong number of words (" + source.remaining() + 
+                    ", must be exactly " + words.length + ").");
+        }
+
+        source.get(words);
+        int paddingBits = 
+                (int)(-combinationRanker.getNumberOfCombinations() & 63L);
+
+        if (paddingBits > 0) {
+            words[words.length - 1] |= -1L << (64 - paddingBits);
+        }
+
+        rebuildSummary();
+    }
+
+    /**
+     * Recounts the covered rows and rebuilds the summary bit set from the
+     * words.
+     */
+    private void rebuildSummary() {
+        int paddingBits = 
+                (int)(-combinationRanker.getNumberOfCombinations() & 63L);
+        long numberOfCoveredBits = 0L;
+        Arrays.fill(fullWords, 0L);
+
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            numberOfCoveredBits += Long.bitCount(word);
+
+            if (word == -1L) {
+                fullWords[i >>> 6] |= 1L << i;
+            }
+        }
+
+        numberOfCoveredRows = numberOfCoveredBits - paddingBits;
+    }
+
+    private static long getNumberOfWords(long numberOfCombinations) {
+        return (numberOfCombinations + 63L) >>> 6;
+    }
+}
@@ -0,0 +1,365 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.Objects;
+
+/**
+ * This class implements the combinatorial number system (a.k.a. combinadic)
+ * for lottery rows. Each sorted lottery row is mapped to its lexicographic
+ * rank among all the rows of the same configuration, so that the first row
+ * <code>1, 2, ..., k</code> has rank 0 and the last row
+ * <code>n - k + 1, ..., n</code> has rank <code>C(n, k) - 1</code>.
+ * <p>
+ * The rank of a row of a multi-pool game is the mixed-radix combination of
+ * the ranks of its pools, the first pool being the most significant. Thus
+ * the ranks follow the lexicographic order of the whole rows, and the game
+ * has <code>C(n<sub>1</sub>, k<sub>1</sub>) * C(n<sub>2</sub>,
+ * k<sub>2</sub>) * ...</code> rows.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.62 (Oct 16, 2026) ~ leading number rank ranges.
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class CombinationRanker {
+
+    /**
+     * The lottery configuration object.
+     */
+    private final LotteryConfiguration lotteryConfiguration;
+
+    /**
+     * The binomial coefficient table. The entry <code>binomials[n][k]</code>
+     * holds <code>C(n, k)</code> for all <code>n</code> within the number
+     * range and all <code>k</code> up to the longest pool row length.
+     */
+    private final long[][] binomials;
+
+    /**
+     * The number of combinations of each pool.
+     */
+    private final long[] poolCombinations;
+
+    /**
+     * The weight of a unit of the rank of each pool, that is, the product of
+     * the numbers of combinations of all the subsequent pools.
+     */
+    private final long[] poolWeights;
+
+    /**
+     * The total number of possible lottery rows.
+     */
+    private final long numberOfCombinations;
+
+    /**
+     * Constructs a ranker for the given lottery configuration.
+     *
+     * @param lotteryConfiguration the lottery configuration object.
+     */
+    public CombinationRanker(LotteryConfiguration lotteryConfiguration) {
+        this.lotteryConfiguration =
+                Objects.requireNonNull(
+                        lotteryConfiguration,
+                        "lotteryConfiguration == null");
+
+        int numberOfPools = lotteryConfiguration.getNumberOfPools();
+        int maximumPoolRowLength = 0;
+
+        for (int pool = 0; pool < numberOfPools; pool++) {
+            maximumPoolRowLength =
+                    Math.max(maximumPoolRowLength,
+                             lotteryConfiguration.getPoolRowLength(pool));
+        }
+
+        this.binomials =
+                computeBinomials(lotteryConfiguration.getMaximumNumberValue(),
+                                 maximumPoolRowLength);
+
+        this.poolCombinations = new long[numberOfPools];
+        this.poolWeights = new long[numberOfPools];
+        long weight = 1L;
+
+        for (int pool = numberOfPools - 1; pool >= 0; pool--) {
+            int poolMaximumNumber =
+                    lotteryConfiguration.getPoolMaximumNumberValue(pool);
+            int poolRowLength = lotteryConfiguration.getPoolRowLength(pool);
+
+            poolCombinations[pool] =
+                    binomials[poolMaximumNumber][poolRowLength];
+            poolWeights[pool] = weight;
+
+            if (poolCombinations[pool] == Long.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                        "The number of combinations C(" +
+                        poolMaximumNumber + ", " + poolRowLength +
+                        ") does not fit in a long.");
+            }
+
+            try {
+                weight = Math.multiplyExact(weight, poolCombinations[pool]);
+            } catch (ArithmeticException ex) {
+                throw new IllegalArgumentException(
+                        "The number of combinations of " +
+                        lotteryConfiguration + " does not fit in a long.",
+                        ex);
+            }
+        }
+
+        this.numberOfCombinations = weight;
+    }
+
+    /**
+     * Returns the configuration object of this ranker.
+     *
+     * @return the configuration object.
+     */
+    public LotteryConfiguration getLotteryConfiguration() {
+        return lotteryConfiguration;
+    }
+
+    /**
+     * Returns the total number of possible lottery rows, or
+     * <code>C(n, k)</code> for single pool games.
+     *
+     * @return the number of combinations.
+     */
+    public long getNumberOfCombinations() {
+        return numberOfCombinations;
+    }
+
+    /**
+     * Returns the binomial coefficient <code>C(n, k)</code>, where
+     * <code>n</code> may not exceed the maximum number value and
+     * <code>k</code> may not exceed the longest pool row length.
+     *
+     * @param n the size of the set.
+     * @param k the size of the subset.
+     * @return the binomial coefficient.
+     */
+    public long binomial(int n, int k) {
+        if (n < 0 || k < 0 || k > n) {
+            return 0L;
+        }
+
+        return binomials[n][k];
+    }
+
+    /**
+     * Returns the number of rows whose first number is 
+     * {@code leadingNumber}. As the ranks follow the lexicographic order, 
+     * those rows have consecutive ranks, following the ones of the rows with
+     * smaller leading numbers.
+     *
+     * @param leadingNumber the first number of the rows.
+     * @return the number of the rows, or zero if {@code leadingNumber} is
+     *         out of range.
+     */
+    public long getNumberOfCombinationsWithLeadingNumber(int leadingNumber) {
+        if (leadingNumber < 1) {
+            return 0L;
+        }
+
+        return binomial(lotteryConfiguration.getPoolMaximumNumberValue(0)
+                                - leadingNumber,
+                        lotteryConfiguration.getPoolRowLength(0) - 1)
+                * poolWeights[0];
+    }
+
+    /**
+     * Computes the lexicographic rank of the given lottery row.
+     *
+     * @param lotteryRow the lottery row to rank.
+     * @return the rank of the row.
+     * @throws IllegalArgumentException if the row is not full or its numbers
+     *                                  are not in strictly ascending order
+     *                                  within a pool.
+     */
+    public long rank(LotteryRow lotteryRow) {
+        if (lotteryRow.size() != lotteryConfiguration.getLotteryRowLength()) {
+            throw new IllegalArgumentException(
+                    "Wrong length of a row (" + lotteryRow.size() +
+                    ", must be exactly " +
+                    lotteryConfiguration.getLotteryRowLength() + ".");
+        }
+
+        long rank = 0L;
+
+        for (int pool = 0; pool < poolWeights.length; pool++) {
+            int maximumNumber =
+                    lotteryConfiguration.getPoolMaximumNumberValue(pool);
+            int poolRowLength = lotteryConfiguration.getPoolRowLength(pool);
+            int offset = lotteryConfiguration.getPoolOffset(pool);
+            long sum = 0L;
+            int previousNumber = 0;
+
+            for (int i = 0; i < poolRowLength; i++) {
+                int number = lotteryRow.getNumber(offset + i);
+
+                if (number <= previousNumber || number > maximumNumber) {
+                    throw new IllegalArgumentException(
+                            "The number " + number + " at index " +
+                            (offset + i) + " is out of range or not in " +
+                            "strictly ascending order.");
+                }
+
+                sum += binomials[maximumNumber - number][poolRowLength - i];
+                previousNumber = number;
+            }
+
+            rank += (poolCombinations[pool] - 1L - sum) * poolWeights[pool];
+        }
+
+        return rank;
+    }
+
+    /**
+     * Computes the lexicographic rank of the given numbers. The numbers of
+     * each pool must be sorted in strictly ascending order.
+     *
+     * @param numbers the lottery numbers in ascending order.
+     * @return the rank of the numbers.
+     */
+    public long rank(int[] numbers) {
+        long rank = 0L;
+
+        for (int pool = 0; pool < poolWeights.length; pool++) {
+            int maximumNumber =
+                    lotteryConfiguration.getPoolMaximumNumberValue(pool);
+            int poolRowLength = lotteryConfiguration.getPoolRowLength(pool);
+            int offset = lotteryConfiguration.getPoolOffset(pool);
+            long sum = 0L;
+
+            for (int i = 0; i < poolRowLength; i++) {
+                sum += binomials[maximumNumber - numbers[offset + i]]
+                                [poolRowLength - i];
+            }
+
+            rank += (poolCombinations[pool] - 1L - sum) * poolWeights[pool];
+        }
+
+        return rank;
+    }
+
+    /**
+     * Loads the numbers of the row with the given rank into
+     * {@code numbers}.
+     *
+     * @param rank    the rank of the row to reconstruct.
+     * @param numbers the target array of at least row length elements.
+     */
+    public void unrank(long rank, int[] numbers) {
+        checkRank(rank);
+
+        for (int pool = 0; pool < poolWeights.length; pool++) {
+            int maximumNumber =
+                    lotteryConfiguration.getPoolMaximumNumberValue(pool);
+            int poolRowLength = lotteryConfiguration.getPoolRowLength(pool);
+            int offset = lotteryConfiguration.getPoolOffset(pool);
+            long remainder = poolCombinations[pool] - 1L
+                           - rank / poolWeights[pool];
+            int number = 1;
+
+            rank %= poolWeights[pool];
+
+            for (int i = 0; i < poolRowLength; i++) {
+                int k = poolRowLength - i;
+
+                while (binomials[maximumNumber - number][k] > remainder) {
+                    number++;
+                }
+
+                numbers[offset + i] = number;
+                remainder -= binomials[maximumNumber - number][k];
+                number++;
+            }
+        }
+    }
+
+    /**
+     * Loads the lexicographically smallest row into {@code numbers}.
+     *
+     * @param numbers the target array.
+     */
+    public void loadInitialNumbers(int[] numbers) {
+        for (int i = 0, sz = lotteryConfiguration.getLotteryRowLength();
+                i < sz;
+                i++) {
+            numbers[i] = i + 1 - lotteryConfiguration.getPoolOffset(
+                    lotteryConfiguration.getPoolOf(i));
+        }
+    }
+
+    /**
+     * Advances {@code numbers} to the lexicographically next row.
+     *
+     * @param numbers the numbers to advance.
+     * @return {@code true} if there was a next row, {@code false} if
+     *         {@code numbers} held the last row.
+     */
+    public boolean increment(int[] numbers) {
+        for (int pool = poolWeights.length - 1; pool >= 0; pool--) {
+            int maximumNumber =
+                    lotteryConfiguration.getPoolMaximumNumberValue(pool);
+            int offset = lotteryConfiguration.getPoolOffset(pool);
+            int end = offset + lotteryConfiguration.getPoolRowLength(pool);
+
+            for (int i = end - 1, j = 0; i >= offset; i--, j++) {
+                if (numbers[i] < maximumNumber - j) {
+                    numbers[i]++;
+
+                    for (int k = i + 1; k < end; k++) {
+                        numbers[k] = numbers[k - 1] + 1;
+                    }
+
+                    // The subsequent pools wrap around to their first rows:
+                    for (int k = end,
+                            sz = lotteryConfiguration.getLotteryRowLength();
+                            k < sz;
+                            k++) {
+                        numbers[k] = lotteryConfiguration.isPoolStart(k)
+                                   ? 1
+                                   : numbers[k - 1] + 1;
+                    }
+
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void checkRank(long rank) {
+        if (rank < 0L) {
+            throw new IllegalArgumentException("rank(" + rank + ") < 0");
+        }
+
+        if (rank >= numberOfCombinations) {
+            throw new IllegalArgumentException(
+                    "rank(" + rank + ") >= numberOfCombinations(" +
+                    numberOfCombinations + ")");
+        }
+    }
+
+    /**
+     * Computes the binomial coefficient table. The coefficients that do not
+     * fit in a long saturate to {@link Long#MAX_VALUE}, since the table is
+     * sized for the largest pool number range and the longest pool row, which
+     * two need not belong to the same pool.
+     */
+    private static long[][] computeBinomials(int maximumNumber,
+                                             int lotteryRowLength) {
+        long[][] binomials = new long[maximumNumber + 1][lotteryRowLength + 1];
+
+        for (int n = 0; n <= maximumNumber; n++) {
+            binomials[n][0] = 1L;
+
+            for (int k = 1; k <= Math.min(n, lotteryRowLength); k++) {
+                long sum = binomials[n - 1][k - 1] + binomials[n - 1][k];
+                binomials[n][k] = sum < 0L ? Long.MAX_VALUE : sum;
+            }
+        }
+
+        return binomials;
+    }
+}
@@ -0,0 +1,32 @@
+package net.coderodde.datamining.lottery;
+
+/**
+ * This class provides the facilities shared by the command line entry
+ * points of this package.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+final class CommandLineSupport {
+
+    /**
+     * The exit status reporting bad command line arguments.
+     */
+    static final int USAGE_EXIT_STATUS = 2;
+
+    private CommandLineSupport() {}
+
+    /**
+     * Prints the usage of a command line program to the standard error and
+     * exits with {@link #USAGE_EXIT_STATUS}.
+     *
+     * @param mainClass the class hosting the main method.
+     * @param arguments the synopsis of the arguments.
+     */
+    static void exitWithUsage(Class<?> mainClass, String arguments) {
+        System.err.println(
+                "Usage: java " + mainClass.getName() + " " + arguments);
+        System.exit(USAGE_EXIT_STATUS);
+    }
+}
@@ -0,0 +1,693 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.List;
+
+/**
+ * This class implements a missing lottery row mining engine on top of a
+ * compact radix tree. Unlike the nodes of
+ * {@link net.coderodde.datamining.lottery.MissingLotteryRowsGenerator}, which
+ * allocate a child array spanning the whole number range, a node of this
+ * tree holds a 64-bit occupancy mask of the numbers present at its level and
+ * a dense array of only the present children, the child of the number
+ * <code>x</code> residing at the index <code>Long.bitCount(mask &amp; ((1L
+ * &lt;&lt; (x - 1)) - 1))</code>. Besides, the last number of a row needs no
+ * node at all, as it is just a bit in the mask of its parent. Altogether
+ * this cuts the memory consumption of the tree by about an order of
+ * magnitude, and makes the look-ups touch fewer and smaller objects.
+ * <p>
+ * As the masks have 64 bits, the maximum number value of each pool may not
+ * exceed 64.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.64 (Oct 16, 2026) ~ membership queries.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class CompactMissingLotteryRowsGenerator
+        extends AbstractMissingLotteryRowsMiner {
+
+    /**
+     * The largest supported maximum number value of a pool.
+     */
+    public static final int MAXIMUM_NUMBER_VALUE = Long.SIZE;
+
+    /**
+     * A node of the tree. The nodes of the last level have no children
+     * array, as their mask alone holds the last numbers of the rows.
+     */
+    private static final class CompactTreeNode {
+
+        /**
+         * The bit <code>x - 1</code> is set if and only if the number
+         * <code>x</code> is present at the level of the children.
+         */
+        long mask;
+
+        /**
+         * The children of the present numbers in ascending order, or
+         * {@code null} at the last level.
+         */
+        CompactTreeNode[] children;
+    }
+
+    /**
+     * The estimated size of a node object in bytes, assuming compressed
+     * object pointers.
+     */
+    private static final long NODE_BYTES = 24L;
+
+    /**
+     * The estimated size of an array header in bytes.
+     */
+    private static final long ARRAY_HEADER_BYTES = 16L;
+
+    /**
+     * The estimated size of an object reference in bytes.
+     */
+    private static final long REFERENCE_BYTES = 4L;
+
+    /**
+     * The indices of the changes of the index nodes, the index bytes and the
+     * duplicate rows accumulated while adding rows and merging the shards.
+     */
+    private static final int INDEX_NODES = 0;
+    private static final int INDEX_BYTES = 1;
+    private static final int DUPLICATE_ROWS = 2;
+
+    /**
+     * The children array shared by all the childless nodes above the last
+     * level.
+     */
+    private static final CompactTreeNode[] NO_CHILDREN =
+            new CompactTreeNode[0];
+
+    /**
+     * The root of the tree. Its mask holds the leading numbers.
+     */
+    private final CompactTreeNode root;
+
+    /**
+     * The number of the distinct rows in each subtree of the root, that is,
+     * the number of the added rows with each leading number.
+     */
+    private final long[] numbersOfCoveredRows;
+
+    /**
+     * The number of the distinct rows in the tree.
+     */
+    private long numberOfCoveredRows;
+
+    /**
+     * The counters of the index nodes and bytes added by the sequential
+     * ingestion.
+     */
+    private final long[] addedCounts = new long[2];
+
+    /**
+     * Constructs a missing rows generator with given lottery configuration.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     */
+    public CompactMissingLotteryRowsGenerator(
+            LotteryConfiguration lotteryConfiguration) {
+        super(lotteryConfiguration);
+
+        if (!supports(lotteryConfiguration)) {
+            throw new IllegalArgumentException(
+                    "A pool of " + lotteryConfiguration + " has more than " +
+                    MAXIMUM_NUMBER_VALUE + " numbers.");
+        }
+
+        this.root = newNode(0);
+        this.numbersOfCoveredRows =
+                new long[lotteryConfiguration.getMaximumNumberValueAt(0)];
+        metrics.addIndexNodes(1L);
+        metrics.addIndexBytes(NODE_BYTES);
+    }
+
+    /**
+     * Tells whether the numbers of all the pools of the given configuration
+     * fit in the masks of the nodes.
+     *
+     * @param lotteryConfiguration the lottery configuration to check.
+     * @return {@code true} if this engine can handle the configuration.
+     */
+    public static boolean supports(LotteryConfiguration lotteryConfiguration) {
+        for (int pool = 0;
+                pool < lotteryConfiguration.getNumberOfPools();
+                pool++) {
+            if (lotteryConfiguration.getPoolMaximumNumberValue(pool)
+                    > MAXIMUM_NUMBER_VALUE) {
+                return false;
+            }
+        }
+
+        try {
+            new CombinationRanker(lotteryConfiguration);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator.
+     *
+     * @param lotteryRows the lottery rows to add one by one.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CompactMissingLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows) {
+        super.addLotteryRows(lotteryRows);
+        return this;
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator in parallel.
+     *
+     * @param lotteryRows     the lottery rows to add.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CompactMissingLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows, int numberOfThreads) {
+        super.addLotteryRows(lotteryRows, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row to this generator.
+     *
+     * @param lotteryRow the lottery row to add.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CompactMissingLotteryRowsGenerator
+        addLotteryRow(LotteryRow lotteryRow) {
+        super.addLotteryRow(lotteryRow);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator.
+     *
+     * @param rowStore the row store.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CompactMissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore) {
+        super.addLotteryRows(rowStore);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator in
+     * parallel.
+     *
+     * @param rowStore        the row store.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CompactMissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore, int numberOfThreads) {
+        super.addLotteryRows(rowStore, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row given as its numbers in strictly ascending
+     * order.
+     *
+     * @param numbers the numbers of the row in ascending order.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CompactMissingLotteryRowsGenerator
+        addLotteryNumbers(int[] numbers) {
+        super.addLotteryNumbers(numbers);
+        return this;
+    }
+
+    /**
+     * Returns the number of missing rows. This is a constant time query, as
+     * the count is maintained while the rows are added.
+     *
+     * @return the number of rows not added so far.
+     */
+    @Override
+    public long countMissingLotteryRows() {
+        return combinationRanker.getNumberOfCombinations()
+                - numberOfCoveredRows;
+    }
+
+    /**
+     * Returns the numbers of the missing rows by their leading number. The
+     * numbers of the rows in the subtrees of the root are maintained while
+     * the rows are added, so this takes time linear in the maximum number
+     * value only.
+     *
+     * @return the missing row counts by leading number.
+     */
+    @Override
+    public long[] countMissingLotteryRowsByLeadingNumber() {
+        long[] counts = new long[numbersOfCoveredRows.length];
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = combinationRanker
+                    .getNumberOfCombinationsWithLeadingNumber(i + 1)
+                        - numbersOfCoveredRows[i];
+        }
+
+        return counts;
+    }
+
+    @Override
+    protected void addNumbers(int[] numbers) {
+        if (addToTree(root, numbers, addedCounts)) {
+            numbersOfCoveredRows[numbers[0] - 1]++;
+            numberOfCoveredRows++;
+            recordAddedCounts(addedCounts);
+        } else {
+            metrics.addDuplicateRows(1L);
+        }
+    }
+
+    /**
+     * Each thread builds its own tree shard, after which the shards are
+     * merged into this generator. The children array of the root is first
+     * grown to hold the union of the leading numbers of all the shards,
+     * after which the subtrees of the leading numbers are merged in
+     * parallel.
+     *
+     * @param lotteryRowSource the source of the rows to add.
+     * @param numberOfThreads  the number of ingesting threads.
+     */
+    @Override
+    protected void addLotteryRowsInParallel(LotteryRowSource lotteryRowSource,
+                                            int numberOfThreads) {
+        CompactTreeNode[] shards = new CompactTreeNode[numberOfThreads];
+        long[][] shardCoveredRows = new long[numberOfThreads][];
+
+        ParallelSupport.runInParallel(
+                lotteryRowSource.size(),
+                numberOfThreads,
+                (shardIndex, fromIndex, toIndex) -> {
+            CompactTreeNode shard = newNode(0);
+            int[] numbers =
+                    new int[lotteryConfiguration.getLotteryRowLength()];
+            long[] coveredRows = new long[numbersOfCoveredRows.length];
+            long[] shardAddedCounts = new long[2];
+            long duplicateRows = 0L;
+
+            for (int i = fromIndex; i < toIndex; i++) {
+                lotteryRowSource.loadNumbers(i, numbers);
+
+                if (addToTree(shard, numbers, shardAddedCounts)) {
+                    coveredRows[numbers[0] - 1]++;
+                } else {
+                    duplicateRows++;
+                }
+            }
+
+            metrics.addDuplicateRows(duplicateRows);
+            recordAddedCounts(shardAddedCounts);
+            shards[shardIndex] = shard;
+            shardCoveredRows[shardIndex] = coveredRows;
+        });
+
+        if (root.children == null) {
+            // Single number rows: the masks are the whole trees.
+            for (int shardIndex = 0; shardIndex < shards.length; shardIndex++) {
+                long duplicates = root.mask & shards[shardIndex].mask;
+                root.mask |= shards[shardIndex].mask;
+                metrics.addDuplicateRows(Long.bitCount(duplicates));
+            }
+
+            updateNumbersOfCoveredRowsFromRootMask();
+            return;
+        }
+
+        long mask = root.mask;
+
+        for (CompactTreeNode shard : shards) {
+            mask |= shard.mask;
+        }
+
+        growRootChildren(mask);
+        int numberOfChildren = root.children.length;
+
+        ParallelSupport.runInParallel(
+                numberOfChildren,
+                Math.max(1, Math.min(numberOfThreads, numberOfChildren)),
+                (chunkIndex, fromIndex, toIndex) -> {
+            long[] deltas = new long[3];
+            long childMask = root.mask;
+
+            // Skip to the bit of the child at 'fromIndex':
+            for (int i = 0; i < fromIndex; i++) {
+                childMask &= childMask - 1L;
+            }
+
+            for (int i = fromIndex; i < toIndex; i++) {
+                long bit = Long.lowestOneBit(childMask);
+                int numberIndex = Long.numberOfTrailingZeros(bit);
+                childMask &= childMask - 1L;
+
+                for (int shardIndex = 0;
+                        shardIndex < shards.length;
+                        shardIndex++) {
+                    CompactTreeNode shard = shards[shardIndex];
+
+                    if ((shard.mask & bit) == 0L) {
+                        continue;
+                    }
+
+                    long duplicateRows = deltas[DUPLICATE_ROWS];
+                    root.children[i] =
+                            mergeTrees(root.children[i],
+                                       shard.children[getChildIndex(shard,
+                                                                    bit)],
+                                       deltas);
+                    numbersOfCoveredRows[numberIndex] +=
+                            shardCoveredRows[shardIndex][numberIndex]
+                                    - (deltas[DUPLICATE_ROWS]
+                                            - duplicateRows);
+                }
+            }
+
+            metrics.addIndexNodes(deltas[INDEX_NODES]);
+            metrics.addIndexBytes(deltas[INDEX_BYTES]);
+            metrics.addDuplicateRows(deltas[DUPLICATE_ROWS]);
+        });
+
+        // The children arrays of the shard roots are dropped as well:
+        for (CompactTreeNode shard : shards) {
+            metrics.addIndexBytes(-getArrayBytes(shard.children.length));
+        }
+
+        numberOfCoveredRows = 0L;
+
+        for (long coveredRows : numbersOfCoveredRows) {
+            numberOfCoveredRows += coveredRows;
+        }
+    }
+
+    /**
+     * Tells whether the row with the given rank was added by unranking it
+     * and testing its last number in the mask of its last level node.
+     *
+     * @param rank    the rank of the row.
+     * @param numbers the array to unrank the row into.
+     * @return {@code true} if the row was added.
+     */
+    @Override
+    protected boolean containsRank(long rank, int[] numbers) {
+        combinationRanker.unrank(rank, numbers);
+        CompactTreeNode lastLevelNode = findLastLevelNode(numbers);
+        return lastLevelNode != null
+                && (lastLevelNode.mask
+                        & (1L << (numbers[numbers.length - 1] - 1))) != 0L;
+    }
+
+    /**
+     * Visits the missing rows within a rank range. The node holding the
+     * last numbers of the current prefix is looked up only when the prefix
+     * changes, so checking a row mostly takes a single mask test.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @param visitor  the visitor receiving the missing rows.
+     */
+    @Override
+    protected void visitMissingLotteryRows(long fromRank,
+                                           long toRank,
+                                           MissingLotteryRowVisitor visitor) {
+        if (fromRank >= toRank) {
+            return;
+        }
+
+        int lotteryRowLength = lotteryConfiguration.getLotteryRowLength();
+        int[] numbers = new int[lotteryRowLength];
+        combinationRanker.unrank(fromRank, numbers);
+        CompactTreeNode lastLevelNode = null;
+        int previousLastNumber = Integer.MAX_VALUE;
+
+        for (long rank = fromRank; rank < toRank; rank++) {
+            int lastNumber = numbers[lotteryRowLength - 1];
+
+            // The last number only grows until the prefix changes:
+            if (lastNumber <= previousLastNumber) {
+                lastLevelNode = findLastLevelNode(numbers);
+            }
+
+            previousLastNumber = lastNumber;
+
+            if (lastLevelNode == null
+                    || (lastLevelNode.mask & (1L << (lastNumber - 1))) == 0L) {
+                visitor.visit(rank, numbers);
+            }
+
+            combinationRanker.increment(numbers);
+        }
+    }
+
+    /**
+     * Reports and resets the counters of the added index nodes and bytes.
+     *
+     * @param addedCounts the counters filled by
+     *                    {@link #addToTree(CompactTreeNode, int[], long[])}.
+     */
+    private void recordAddedCounts(long[] addedCounts) {
+        metrics.addIndexNodes(addedCounts[INDEX_NODES]);
+        metrics.addIndexBytes(addedCounts[INDEX_BYTES]);
+        addedCounts[INDEX_NODES] = 0L;
+        addedCounts[INDEX_BYTES] = 0L;
+    }
+
+    /**
+     * Adds a row to the tree rooted at {@code root}, and accounts the new
+     * nodes in {@code addedCounts}, which the caller reports to the metrics
+     * with {@link #recordAddedCounts(long[])}.
+     *
+     * @param root        the root of the tree.
+     * @param numbers     the numbers of the row.
+     * @param addedCounts the counters of the added index nodes and bytes.
+     * @return {@code true} if the row was not in the tree.
+     */
+    private boolean addToTree(CompactTreeNode root,
+                              int[] numbers,
+                              long[] addedCounts) {
+        CompactTreeNode node = root;
+        int lastIndex = numbers.length - 1;
+
+        for (int i = 0; i < lastIndex; i++) {
+            long bit = 1L << (numbers[i] - 1);
+            int childIndex = getChildIndex(node, bit);
+
+            if ((node.mask & bit) == 0L) {
+                CompactTreeNode child = newNode(i + 1);
+                insertChild(node, bit, childIndex, child);
+                addedCounts[INDEX_NODES]++;
+                addedCounts[INDEX_BYTES] +=
+                        NODE_BYTES
+                                + getArrayBytes(node.children.length)
+                                - getArrayBytes(node.children.length - 1);
+            }
+
+            node = node.children[childIndex];
+        }
+
+        long bit = 1L << (numbers[lastIndex] - 1);
+
+        if ((node.mask & bit) != 0L) {
+            return false;
+        }
+
+        node.mask |= bit;
+        return true;
+    }
+
+    /**
+     * Returns the node whose mask holds the last numbers of the rows sharing
+     * the prefix of {@code numbers}.
+     *
+     * @param numbers the numbers of a row.
+     * @return the node, or {@code null} if no row with the prefix was added.
+     */
+    private CompactTreeNode findLastLevelNode(int[] numbers) {
+        CompactTreeNode node = root;
+
+        for (int i = 0, lastIndex = numbers.length - 1; i < lastIndex; i++) {
+            long bit = 1L << (numbers[i] - 1);
+
+            if ((node.mask & bit) == 0L) {
+                return null;
+            }
+
+            node = node.children[getChildIndex(node, bit)];
+        }
+
+        return node;
+    }
+
+    /**
+     * Grows the children array of the root to hold the children of all the
+     * numbers of {@code mask}. The new entries are left {@code null}.
+     *
+     * @param mask the leading numbers to hold.
+     */
+    private void growRootChildren(long mask) {
+        if (mask == root.mask) {
+            return;
+        }
+
+        CompactTreeNode[] children = new CompactTreeNode[Long.bitCount(mask)];
+        long oldMask = root.mask;
+
+        for (int i = 0; oldMask != 0L; i++) {
+            long bit = Long.lowestOneBit(oldMask);
+            children[Long.bitCount(mask & (bit - 1L))] = root.children[i];
+            oldMask &= oldMask - 1L;
+        }
+
+        metrics.addIndexBytes(getArrayBytes(children.length)
+                              - getArrayBytes(root.children.length));
+        root.mask = mask;
+        root.children = children;
+    }
+
+    private void updateNumbersOfCoveredRowsFromRootMask() {
+        numberOfCoveredRows = 0L;
+
+        for (int i = 0; i < numbersOfCoveredRows.length; i++) {
+            numbersOfCoveredRows[i] = (root.mask >>> i) & 1L;
+            numberOfCoveredRows += numbersOfCoveredRows[i];
+        }
+    }
+
+    /**
+     * Creates a node at the given depth, the root being at depth zero.
+     *
+     * @param depth the depth of the node.
+     * @return a new node without children.
+     */
+    private CompactTreeNode newNode(int depth) {
+        CompactTreeNode node = new CompactTreeNode();
+
+        if (depth < lotteryConfiguration.getLotteryRowLength() - 1) {
+            node.children = NO_CHILDREN;
+        }
+
+        return node;
+    }
+
+    /**
+     * Merges the tree rooted at {@code source} into the tree rooted at
+     * {@code target}. Subtrees present only in {@code source} are relinked,
+     * not copied.
+     *
+     * @param target the target tree root, possibly {@code null}.
+     * @param source the source tree root.
+     * @param deltas the changes of the index nodes, the index bytes and the
+     *               duplicate rows to update.
+     * @return the root of the merged tree.
+     */
+    private static CompactTreeNode mergeTrees(CompactTreeNode target,
+                                              CompactTreeNode source,
+                                              long[] deltas) {
+        if (target == null) {
+            return source;
+        }
+
+        deltas[INDEX_NODES]--;
+        deltas[INDEX_BYTES] -= NODE_BYTES;
+
+        if (source.children == null) {
+            // Both hold the last numbers of the rows of the same prefix:
+            deltas[DUPLICATE_ROWS] += Long.bitCount(target.mask & source.mask);
+            target.mask |= source.mask;
+            return target;
+        }
+
+        long mask = target.mask | source.mask;
+        CompactTreeNode[] children =
+                new CompactTreeNode[Long.bitCount(mask)];
+        int targetIndex = 0;
+        int sourceIndex = 0;
+
+        for (int i = 0; mask != 0L; i++) {
+            long bit = Long.lowestOneBit(mask);
+            CompactTreeNode child = null;
+
+            if ((target.mask & bit) != 0L) {
+                child = target.children[targetIndex++];
+            }
+
+            if ((source.mask & bit) != 0L) {
+                child = mergeTrees(child,
+                                   source.children[sourceIndex++],
+                                   deltas);
+            }
+
+            children[i] = child;
+            mask &= mask - 1L;
+        }
+
+        deltas[INDEX_BYTES] += getArrayBytes(children.length)
+                             - getArrayBytes(target.children.length)
+                             - getArrayBytes(source.children.length);
+        target.mask |= source.mask;
+        target.children = children;
+        return target;
+    }
+
+    /**
+     * Inserts a child into the children array of {@code node} at
+     * {@code childIndex}, and marks its number in the mask.
+     */
+    private static void insertChild(CompactTreeNode node,
+                                    long bit,
+                                    int childIndex,
+                                    CompactTreeNode child) {
+        CompactTreeNode[] children =
+                new CompactTreeNode[node.children.length + 1];
+
+        System.arraycopy(node.children, 0, children, 0, childIndex);
+        System.arraycopy(node.children,
+                         childIndex,
+                         children,
+                         childIndex + 1,
+                         node.children.length - childIndex);
+
+        children[childIndex] = child;
+        node.children = children;
+        node.mask |= bit;
+    }
+
+    /**
+     * Returns the index of the child of the number of {@code bit} within the
+     * children array of {@code node}, or the index to insert it at.
+     */
+    private static int getChildIndex(CompactTreeNode node, long bit) {
+        return Long.bitCount(node.mask & (bit - 1L));
+    }
+
+    /**
+     * Returns the estimated size of a children array in bytes. The empty
+     * array is shared, so it takes no space.
+     *
+     * @param length the length of the array.
+     * @return the size of the array in bytes.
+     */
+    private static long getArrayBytes(int length) {
+        if (length == 0) {
+            return 0L;
+        }
+
+        return (ARRAY_HEADER_BYTES + REFERENCE_BYTES * length + 7L) & ~7L;
+    }
+}
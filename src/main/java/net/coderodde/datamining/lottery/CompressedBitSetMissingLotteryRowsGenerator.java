@@ -0,0 +1,435 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.List;
+
+/**
+ * This class implements a missing lottery row mining engine that records
+ * the combinatorial ranks of the added rows in a compressed, chunked bitmap
+ * in the spirit of Roaring bitmaps. The rank space is split into chunks of
+ * <code>2<sup>16</sup></code> ranks, and each touched chunk keeps its
+ * covered ranks in an array, bitmap or run container depending on its
+ * density (see {@link net.coderodde.datamining.lottery.CoverageContainer}).
+ * Untouched chunks take no memory beyond a null reference.
+ * <p>
+ * Unlike {@link net.coderodde.datamining.lottery.BitSetMissingLotteryRowsGenerator},
+ * the memory consumption follows the actual coverage: a sparse coverage of
+ * a large game costs a few bytes per covered row, and a nearly full
+ * coverage costs a few bytes per gap. The missing rows are enumerated gap by
+ * gap, so consecutive missing ranks are stepped through without unranking.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.64 (Oct 16, 2026) ~ membership queries.
+ * @version 1.63 (Oct 16, 2026) ~ counting the missing rows by range.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class CompressedBitSetMissingLotteryRowsGenerator
+        extends AbstractMissingLotteryRowsMiner {
+
+    /**
+     * The maximum number of chunks.
+     */
+    private static final long MAXIMUM_NUMBER_OF_CHUNKS = Integer.MAX_VALUE - 8;
+
+    /**
+     * The containers of the chunks; {@code null} for the empty chunks.
+     */
+    private final CoverageContainer[] containers;
+
+    /**
+     * The number of distinct rows added so far.
+     */
+    private long numberOfCoveredRows;
+
+    /**
+     * Constructs a missing rows generator with given lottery configuration.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     */
+    public CompressedBitSetMissingLotteryRowsGenerator(
+            LotteryConfiguration lotteryConfiguration) {
+        super(lotteryConfiguration);
+
+        if (!supports(lotteryConfiguration)) {
+            throw new IllegalArgumentException(
+                    "Too many combinations (" +
+                    combinationRanker.getNumberOfCombinations() +
+                    ") for a compressed bit set.");
+        }
+
+        this.containers =
+                new CoverageContainer[(int) getNumberOfChunks(
+                        combinationRanker.getNumberOfCombinations())];
+
+        metrics.addIndexBytes(getIndexSizeInBytes());
+    }
+
+    /**
+     * Tells whether the given configuration fits in a compressed bit set.
+     *
+     * @param lotteryConfiguration the lottery configuration to check.
+     * @return {@code true} if this engine can handle the configuration.
+     */
+    public static boolean supports(LotteryConfiguration lotteryConfiguration) {
+        long numberOfCombinations;
+
+        try {
+            numberOfCombinations =
+                    new CombinationRanker(lotteryConfiguration)
+                            .getNumberOfCombinations();
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+
+        return getNumberOfChunks(numberOfCombinations)
+                <= MAXIMUM_NUMBER_OF_CHUNKS;
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator.
+     *
+     * @param lotteryRows the lottery rows to add one by one.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CompressedBitSetMissingLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows) {
+        super.addLotteryRows(lotteryRows);
+        return this;
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator in parallel.
+     *
+     * @param lotteryRows     the lottery rows to add.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CompressedBitSetMissingLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows, int numberOfThreads) {
+        super.addLotteryRows(lotteryRows, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row to this generator.
+     *
+     * @param lotteryRow the lottery row to add.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CompressedBitSetMissingLotteryRowsGenerator
+        addLotteryRow(LotteryRow lotteryRow) {
+        super.addLotteryRow(lotteryRow);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator.
+     *
+     * @param rowStore the row store.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CompressedBitSetMissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore) {
+        super.addLotteryRows(rowStore);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator in
+     * parallel.
+     *
+     * @param rowStore        the row store.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CompressedBitSetMissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore, int numberOfThreads) {
+        super.addLotteryRows(rowStore, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row given as its numbers in strictly ascending
+     * order.
+     *
+     * @param numbers the numbers of the row in ascending order.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CompressedBitSetMissingLotteryRowsGenerator
+        addLotteryNumbers(int[] numbers) {
+        super.addLotteryNumbers(numbers);
+        return this;
+    }
+
+    /**
+     * Returns the number of missing rows. This is a constant time query.
+     *
+     * @return the number of rows not added so far.
+     */
+    @Override
+    public long countMissingLotteryRows() {
+        return combinationRanker.getNumberOfCombinations()
+                - numberOfCoveredRows;
+    }
+
+    /**
+     * Returns the approximate memory consumption of the index, including the
+     * chunk directory.
+     *
+     * @return the index size in bytes.
+     */
+    public long getIndexSizeInBytes() {
+        return 16L + 4L * containers.length
+                + getContainersSizeInBytes(0, containers.length);
+    }
+
+    @Override
+    protected void addNumbers(int[] numbers) {
+        long rank = combinationRanker.rank(numbers);
+        int containerIndex = (int)(rank >>> CoverageContainer.CHUNK_BITS);
+        long containerSize = getContainerSizeInBytes(containerIndex);
+
+        if (add(rank)) {
+            numberOfCoveredRows++;
+            long sizeDelta =
+                    getContainerSizeInBytes(containerIndex) - containerSize;
+
+            if (sizeDelta != 0L) {
+                metrics.addIndexBytes(sizeDelta);
+            }
+        } else {
+            metrics.addDuplicateRows(1L);
+        }
+    }
+
+    /**
+     * The rows are ranked and sorted in batches by
+     * {@link #addRankBatchesInParallel}, after which each thread adds the
+     * ranks falling into its own contiguous range of chunks, so that no two
+     * threads ever touch the same container.
+     *
+     * @param lotteryRowSource the source of the rows to add.
+     * @param numberOfThreads  the number of ingesting threads.
+     */
+    @Override
+    protected void addLotteryRowsInParallel(LotteryRowSource lotteryRowSource,
+                                            int numberOfThreads) {
+        long indexSize = getIndexSizeInBytes();
+        long addedRows = addRankBatchesInParallel(lotteryRowSource,
+                                                  numberOfThreads,
+                                                  CoverageContainer.CHUNK_BITS,
+                                                  this::add);
+
+        numberOfCoveredRows += addedRows;
+        metrics.addDuplicateRows(lotteryRowSource.size() - addedRows);
+        metrics.addIndexBytes(getIndexSizeInBytes() - indexSize);
+    }
+
+    /**
+     * Visits the missing lottery rows within a rank range gap by gap. The
+     * empty chunks are gaps as a whole.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @param visitor  the visitor receiving the missing rows.
+     */
+    @Override
+    protected void visitMissingLotteryRows(long fromRank,
+                                           long toRank,
+                                           MissingLotteryRowVisitor visitor) {
+        int[] numbers = new int[lotteryConfiguration.getLotteryRowLength()];
+        long rank = fromRank;
+
+        while (rank < toRank) {
+            int containerIndex = (int)(rank >>> CoverageContainer.CHUNK_BITS);
+            long chunkStart =
+                    (long) containerIndex << CoverageContainer.CHUNK_BITS;
+            long chunkEnd =
+                    Math.min(toRank,
+                             chunkStart + CoverageContainer.CHUNK_SIZE);
+            CoverageContainer container = containers[containerIndex];
+
+            if (container == null) {
+                visitGap(rank, chunkEnd, numbers, visitor);
+                rank = chunkEnd;
+                continue;
+            }
+
+            int value = container.nextAbsentValue((int)(rank - chunkStart));
+
+            while (chunkStart + value < chunkEnd) {
+                int nextPresentValue = container.nextPresentValue(value);
+                long gapEnd = Math.min(chunkEnd,
+                                       chunkStart + nextPresentValue);
+
+                visitGap(chunkStart + value, gapEnd, numbers, visitor);
+
+                if (gapEnd == chunkEnd) {
+                    break;
+                }
+
+                value = container.nextAbsentValue(nextPresentValue);
+            }
+
+            rank = chunkEnd;
+        }
+    }
+
+    /**
+     * Tells whether the row with the given rank was added by looking it up
+     * in the container of its chunk.
+     *
+     * @param rank    the rank of the row.
+     * @param numbers not used.
+     * @return {@code true} if the row was added.
+     */
+    @Override
+    protected boolean containsRank(long rank, int[] numbers) {
+        CoverageContainer container =
+                containers[(int)(rank >>> CoverageContainer.CHUNK_BITS)];
+
+        return container != null
+                && container.contains(
+                        (int) rank & (CoverageContainer.CHUNK_SIZE - 1));
+    }
+
+    /**
+     * Counts the missing rows within a rank range. The chunks fully within
+     * the range are counted from the cardinalities of their containers, and
+     * only the partial chunks at the ends of the range are walked run by 
+     * run.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @return the number of the missing rows within the range.
+     */
+    @Override
+    protected long countMissingLotteryRows(long fromRank, long toRank) {
+        long coveredCount = 0L;
+        long rank = fromRank;
+
+        while (rank < toRank) {
+            int containerIndex = (int)(rank >>> CoverageContainer.CHUNK_BITS);
+            long chunkStart =
+                    (long) containerIndex << CoverageContainer.CHUNK_BITS;
+            long chunkEnd =
+                    Math.min(toRank,
+                             chunkStart + CoverageContainer.CHUNK_SIZE);
+            CoverageContainer container = containers[containerIndex];
+
+            if (container == null) {
+                rank = chunkEnd;
+                continue;
+            }
+
+            int fromValue = (int)(rank - chunkStart);
+            int toValue = (int)(chunkEnd - chunkStart);
+
+            if (fromValue == 0 && toValue >= container.chunkLength) {
+                coveredCount += container.getCardinality();
+            } else {
+                int value = container.nextPresentValue(fromValue);
+
+                while (value < toValue) {
+                    int absentValue = container.nextAbsentValue(value);
+
+                    if (absentValue >= toValue) {
+                        coveredCount += toValue - value;
+                        break;
+                    }
+
+                    coveredCount += absentValue - value;
+                    value = container.nextPresentValue(absentValue);
+                }
+            }
+
+            rank = chunkEnd;
+        }
+
+        return toRank - fromRank - coveredCount;
+    }
+
+    /**
+     * Visits the consecutive missing ranks within
+     * <code>[fromRank, toRank)</code>, unranking only the first one.
+     */
+    private void visitGap(long fromRank,
+                          long toRank,
+                          int[] numbers,
+                          MissingLotteryRowVisitor visitor) {
+        combinationRanker.unrank(fromRank, numbers);
+        visitor.visit(fromRank, numbers);
+
+        for (long rank = fromRank + 1L; rank < toRank; rank++) {
+            combinationRanker.increment(numbers);
+            visitor.visit(rank, numbers);
+        }
+    }
+
+    /**
+     * Returns the approximate memory consumption of a container.
+     *
+     * @param containerIndex the index of the container.
+     * @return the container size in bytes, or zero if there is no container.
+     */
+    private long getContainerSizeInBytes(int containerIndex) {
+        CoverageContainer container = containers[containerIndex];
+        return container == null ? 0L : container.getSizeInBytes();
+    }
+
+    /**
+     * Returns the approximate memory consumption of the containers
+     * <code>[fromContainerIndex, toContainerIndex)</code>.
+     *
+     * @param fromContainerIndex the index of the first container.
+     * @param toContainerIndex   the index one past the last container.
+     * @return the containers size in bytes.
+     */
+    private long getContainersSizeInBytes(int fromContainerIndex,
+                                          int toContainerIndex) {
+        long sizeInBytes = 0L;
+
+        for (int i = fromContainerIndex; i < toContainerIndex; i++) {
+            sizeInBytes += getContainerSizeInBytes(i);
+        }
+
+        return sizeInBytes;
+    }
+
+    /**
+     * Records a rank.
+     *
+     * @return {@code true} if the rank was not recorded before.
+     */
+    private boolean add(long rank) {
+        int containerIndex = (int)(rank >>> CoverageContainer.CHUNK_BITS);
+        int value = (int) rank & (CoverageContainer.CHUNK_SIZE - 1);
+        CoverageContainer container = containers[containerIndex];
+
+        if (container == null) {
+            long chunkStart =
+                    (long) containerIndex << CoverageContainer.CHUNK_BITS;
+
+            container = new CoverageContainer.ArrayContainer(
+                    (int) Math.min(CoverageContainer.CHUNK_SIZE,
+                                   combinationRanker.getNumberOfCombinations()
+                                           - chunkStart));
+        }
+
+        int cardinality = container.getCardinality();
+        container = container.add(value);
+        containers[containerIndex] = container;
+        return container.getCardinality() != cardinality;
+    }
+
+    private static long getNumberOfChunks(long numberOfCombinations) {
+        return (numberOfCombinations + CoverageContainer.CHUNK_SIZE - 1L)
+                >>> CoverageContainer.CHUNK_BITS;
+    }
+}
@@ -0,0 +1,266 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class saves and loads snapshots of the play counters of
+ * {@link net.coderodde.datamining.lottery.CountingMissingLotteryRowsGenerator}.
+ * A snapshot file consists of a header followed by the packed counters:
+ *
+ * <pre>
+ * int  magic                  (0x4C52434E, "LRCN")
+ * int  format version
+ * int  maximum number value
+ * int  lottery row length
+ * long number of combinations
+ * int  counter width in bits
+ * int  reserved, zero
+ * int[numberOfElements] packed counters
+ * </pre>
+ *
+ * All the values are big-endian. Like
+ * {@link net.coderodde.datamining.lottery.CoverageSnapshot}, the snapshots
+ * are saved atomically and loaded with a memory map.
+ * <p>
+ * The snapshots of multi-pool games have the format version 2, and the
+ * pool table of
+ * {@link net.coderodde.datamining.lottery.LotteryRowFileFormat} follows
+ * their header.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class CountSnapshot {
+
+    /**
+     * The magic number opening each snapshot file.
+     */
+    static final int MAGIC = 0x4C52434E;
+
+    /**
+     * The current format version.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The format version of the snapshots of multi-pool games.
+     */
+    static final int MULTI_POOL_VERSION = 2;
+
+    /**
+     * The size of the header in bytes.
+     */
+    static final int HEADER_SIZE = 32;
+
+    /**
+     * The size of the write buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private CountSnapshot() {}
+
+    /**
+     * Saves the counters of {@code generator} to {@code path}. The snapshot
+     * is first written to a temporary file next to {@code path}, forced to
+     * the disk and then atomically moved over {@code path}.
+     *
+     * @param generator the generator to save.
+     * @param path      the path of the snapshot file.
+     * @throws IOException if writing fails.
+     */
+    public static void save(CountingMissingLotteryRowsGenerator generator,
+                            Path path) throws IOException {
+        Objects.requireNonNull(generator, "generator == null");
+        Objects.requireNonNull(path, "path == null");
+        Path temporaryPath =
+                path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel fileChannel =
+                FileChannel.open(temporaryPath,
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.TRUNCATE_EXISTING,
+                                 StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            LotteryConfiguration lotteryConfiguration =
+                    generator.getLotteryConfiguration();
+
+            buffer.putInt(MAGIC)
+                  .putInt(lotteryConfiguration.getNumberOfPools() == 1
+                                  ? VERSION
+                                  : MULTI_POOL_VERSION)
+                  .putInt(lotteryConfiguration.getMaximumNumberValue())
+                  .putInt(lotteryConfiguration.getLotteryRowLength())
+                  .putLong(generator.combinationRanker
+                                    .getNumberOfCombinations())
+                  .putInt(generator.getCounterBits())
+                  .putInt(0);
+
+            LotteryRowFileFormat.writePoolTable(buffer, lotteryConfiguration);
+
+            int numberOfElements = generator.getNumberOfCounterElements();
+
+            for (int i = 0; i < numberOfElements; i++) {
+                if (!buffer.hasRemaining()) {
+                    writeFully(fileChannel, buffer);
+                }
+
+                buffer.putInt(generator.getCounterElement(i));
+            }
+
+            writeFully(fileChannel, buffer);
+            fileChannel.force(true);
+        }
+
+        Files.move(temporaryPath,
+                   path,
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a snapshot, refusing it unless it was saved for exactly the
+     * expected lottery configuration.
+     *
+     * @param path                         the path of the snapshot file.
+     * @param expectedLotteryConfiguration the expected configuration.
+     * @return the restored generator.
+     * @throws IOException if reading fails, the file is malformed or the
+     *                     configurations do not match.
+     */
+    public static CountingMissingLotteryRowsGenerator
+        load(Path path, LotteryConfiguration expectedLotteryConfiguration)
+            throws IOException {
+        Objects.requireNonNull(expectedLotteryConfiguration,
+                               "expectedLotteryConfiguration == null");
+        return load(path, expectedLotteryConfiguration, true);
+    }
+
+    /**
+     * Loads a snapshot with whatever lottery configuration it was saved for.
+     *
+     * @param path the path of the snapshot file.
+     * @return the restored generator.
+     * @throws IOException if reading fails or the file is malformed.
+     */
+    public static CountingMissingLotteryRowsGenerator load(Path path)
+            throws IOException {
+        return load(path, null, false);
+    }
+
+    private static CountingMissingLotteryRowsGenerator
+        load(Path path,
+             LotteryConfiguration expectedLotteryConfiguration,
+             boolean checkConfiguration) throws IOException {
+        Objects.requireNonNull(path, "path == null");
+
+        try (FileChannel fileChannel =
+                FileChannel.open(path, StandardOpenOption.READ)) {
+            if (fileChannel.size() < HEADER_SIZE) {
+                throw new IOException("Truncated count snapshot.");
+            }
+
+            MappedByteBuffer buffer =
+                    fileChannel.map(FileChannel.MapMode.READ_ONLY,
+                                    0L,
+                                    fileChannel.size());
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a count snapshot.");
+            }
+
+            int version = buffer.getInt();
+
+            if (version != VERSION && version != MULTI_POOL_VERSION) {
+                throw new IOException(
+                        "Unsupported count snapshot version (" +
+                        version + ").");
+            }
+
+            int maximumNumberValue = buffer.getInt();
+            int lotteryRowLength = buffer.getInt();
+            long numberOfCombinations = buffer.getLong();
+            int counterBits = buffer.getInt();
+            buffer.getInt();
+
+            LotteryConfiguration snapshotConfiguration;
+
+            if (version == MULTI_POOL_VERSION) {
+                snapshotConfiguration =
+                        LotteryRowFileFormat.readPoolTable(buffer,
+                                                           maximumNumberValue,
+                                                           lotteryRowLength);
+            } else {
+                try {
+                    snapshotConfiguration =
+                            new LotteryConfiguration(maximumNumberValue,
+                                                     lotteryRowLength);
+                } catch (IllegalArgumentException ex) {
+                    throw new IOException("Malformed count snapshot.", ex);
+                }
+            }
+
+            if (checkConfiguration
+                    && !snapshotConfiguration
+                            .equals(expectedLotteryConfiguration)) {
+                throw new IOException(
+                        "The snapshot configuration (" +
+                        snapshotConfiguration +
+                        ") does not match the expected configuration (" +
+                        expectedLotteryConfiguration + ").");
+            }
+
+            CountingMissingLotteryRowsGenerator generator;
+
+            try {
+                generator = new CountingMissingLotteryRowsGenerator(
+                        snapshotConfiguration,
+                        counterBits);
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Malformed count snapshot.", ex);
+            }
+
+            int numberOfElements = generator.getNumberOfCounterElements();
+            long expectedSize =
+                    HEADER_SIZE
+                            + LotteryRowFileFormat.getPoolTableSize(
+                                    snapshotConfiguration)
+                            + (long) numberOfElements * Integer.BYTES;
+
+            if (numberOfCombinations
+                    != generator.combinationRanker.getNumberOfCombinations()
+                    || fileChannel.size() != expectedSize) {
+                throw new IOException("Malformed count snapshot.");
+            }
+
+            IntBuffer elements = buffer.asIntBuffer();
+
+            for (int i = 0; i < numberOfElements; i++) {
+                generator.setCounterElement(i, elements.get(i));
+            }
+
+            return generator;
+        }
+    }
+
+    private static void writeFully(FileChannel fileChannel,
+                                   ByteBuffer buffer) throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+}
@@ -0,0 +1,75 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.Objects;
+
+/**
+ * This class holds a lottery row together with the number of times it was
+ * played.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class CountedLotteryRow {
+
+    /**
+     * The lexicographic rank of the row.
+     */
+    private final long rank;
+
+    /**
+     * The lottery row.
+     */
+    private final LotteryRow lotteryRow;
+
+    /**
+     * The number of times the row was played.
+     */
+    private final int count;
+
+    /**
+     * Constructs a counted lottery row.
+     *
+     * @param rank       the lexicographic rank of the row.
+     * @param lotteryRow the lottery row.
+     * @param count      the number of times the row was played.
+     */
+    public CountedLotteryRow(long rank, LotteryRow lotteryRow, int count) {
+        this.rank = rank;
+        this.lotteryRow = Objects.requireNonNull(lotteryRow,
+                                                 "lotteryRow == null");
+        this.count = count;
+    }
+
+    /**
+     * Returns the lexicographic rank of the row.
+     *
+     * @return the rank.
+     */
+    public long getRank() {
+        return rank;
+    }
+
+    /**
+     * Returns the lottery row.
+     *
+     * @return the lottery row.
+     */
+    public LotteryRow getLotteryRow() {
+        return lotteryRow;
+    }
+
+    /**
+     * Returns the number of times the row was played.
+     *
+     * @return the play count.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return lotteryRow + " x " + count;
+    }
+}
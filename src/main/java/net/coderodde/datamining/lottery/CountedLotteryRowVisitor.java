@@ -0,0 +1,25 @@
+package net.coderodde.datamining.lottery;
+
+/**
+ * This interface defines the callback receiving lottery rows together with
+ * the number of times they were played.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+@FunctionalInterface
+public interface CountedLotteryRowVisitor {
+
+    /**
+     * Visits a single lottery row. The {@code numbers} array is reused
+     * between the calls, so the visitor must copy it if it needs the numbers
+     * after returning.
+     *
+     * @param rank    the lexicographic rank of the row.
+     * @param numbers the numbers of the row in ascending order.
+     * @param count   the number of times the row was played, saturated at
+     *                the maximum counter value.
+     */
+    void visit(long rank, int[] numbers, int count);
+}
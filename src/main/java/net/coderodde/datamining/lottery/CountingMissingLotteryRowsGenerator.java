@@ -0,0 +1,640 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class implements a mining engine counting how many times each lottery
+ * row was played. The counters are indexed by the combinatorial rank of the
+ * rows and packed four (8-bit counters) or two (16-bit counters) into each
+ * element of an {@link java.util.concurrent.atomic.AtomicIntegerArray}. The
+ * counters saturate at their maximum value instead of overflowing.
+ * <p>
+ * Since the counters are incremented atomically,
+ * {@link #addLotteryNumbers(int[])} may be called concurrently from several
+ * threads, and the parallel ingestion needs neither shards nor merging.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.64 (Oct 16, 2026) ~ membership queries.
+ * @version 1.63 (Oct 16, 2026) ~ counting the missing rows.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class CountingMissingLotteryRowsGenerator
+        extends AbstractMissingLotteryRowsMiner {
+
+    /**
+     * The default counter width in bits.
+     */
+    public static final int DEFAULT_COUNTER_BITS = 8;
+
+    /**
+     * The maximum length of the counter array.
+     */
+    private static final long MAXIMUM_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * The number of the low bits of a packed top-N key holding the rank.
+     */
+    private static final int RANK_BITS = 40;
+
+    /**
+     * The mask extracting the rank part of a packed top-N key.
+     */
+    private static final long RANK_MASK = (1L << RANK_BITS) - 1L;
+
+    /**
+     * The width of a single counter in bits.
+     */
+    private final int counterBits;
+
+    /**
+     * The maximum counter value.
+     */
+    private final int maximumCount;
+
+    /**
+     * The base 2 logarithm of the number of counters per array element.
+     */
+    private final int countersPerElementShift;
+
+    /**
+     * The packed counters.
+     */
+    private final AtomicIntegerArray counters;
+
+    /**
+     * The number of the non-zero counters, that is, the distinct rows added
+     * so far. The parallel ingestion updates it from all the threads.
+     */
+    private final LongAdder numberOfCoveredRows = new LongAdder();
+
+    /**
+     * Constructs a counting generator with 8-bit counters.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     */
+    public CountingMissingLotteryRowsGenerator(
+            LotteryConfiguration lotteryConfiguration) {
+        this(lotteryConfiguration, DEFAULT_COUNTER_BITS);
+    }
+
+    /**
+     * Constructs a counting generator with counters of the given width.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @param counterBits          the counter width, either 8 or 16.
+     */
+    public CountingMissingLotteryRowsGenerator(
+            LotteryConfiguration lotteryConfiguration,
+            int counterBits) {
+        super(lotteryConfiguration);
+        checkCounterBits(counterBits);
+
+        if (!supports(lotteryConfiguration, counterBits)) {
+            throw new IllegalArgumentException(
+                    "Too many combinations (" +
+                    combinationRanker.getNumberOfCombinations() +
+                    ") for a flat counter array.");
+        }
+
+        this.counterBits = counterBits;
+        this.maximumCount = (1 << counterBits) - 1;
+        this.countersPerElementShift = counterBits == 8 ? 2 : 1;
+        this.counters = new AtomicIntegerArray(
+                (int) getArrayLength(
+                        combinationRanker.getNumberOfCombinations(),
+                        countersPerElementShift));
+
+        metrics.addIndexBytes((long) counters.length() * Integer.BYTES);
+    }
+
+    /**
+     * Tells whether the given configuration fits in a flat counter array.
+     *
+     * @param lotteryConfiguration the lottery configuration to check.
+     * @param counterBits          the counter width, either 8 or 16.
+     * @return {@code true} if this engine can handle the configuration.
+     */
+    public static boolean supports(LotteryConfiguration lotteryConfiguration,
+                                   int counterBits) {
+        checkCounterBits(counterBits);
+        long numberOfCombinations;
+
+        try {
+            numberOfCombinations =
+                    new CombinationRanker(lotteryConfiguration)
+                            .getNumberOfCombinations();
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+
+        return getArrayLength(numberOfCombinations, counterBits == 8 ? 2 : 1)
+                <= MAXIMUM_ARRAY_LENGTH;
+    }
+
+    /**
+     * Returns the width of the counters in bits.
+     *
+     * @return the counter width.
+     */
+    public int getCounterBits() {
+        return counterBits;
+    }
+
+    /**
+     * Returns the value at which the counters saturate.
+     *
+     * @return the maximum counter value.
+     */
+    public int getMaximumCount() {
+        return maximumCount;
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator.
+     *
+     * @param lotteryRows the lottery rows to add one by one.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CountingMissingLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows) {
+        super.addLotteryRows(lotteryRows);
+        return this;
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator in parallel.
+     *
+     * @param lotteryRows     the lottery rows to add.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CountingMissingLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows, int numberOfThreads) {
+        super.addLotteryRows(lotteryRows, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row to this generator.
+     *
+     * @param lotteryRow the lottery row to add.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CountingMissingLotteryRowsGenerator
+        addLotteryRow(LotteryRow lotteryRow) {
+        super.addLotteryRow(lotteryRow);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator.
+     *
+     * @param rowStore the row store.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CountingMissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore) {
+        super.addLotteryRows(rowStore);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator in
+     * parallel.
+     *
+     * @param rowStore        the row store.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CountingMissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore, int numberOfThreads) {
+        super.addLotteryRows(rowStore, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row given as its numbers in strictly ascending
+     * order.
+     *
+     * @param numbers the numbers of the row in ascending order.
+     * @return this generator for chaining.
+     */
+    @Override
+    public CountingMissingLotteryRowsGenerator
+        addLotteryNumbers(int[] numbers) {
+        super.addLotteryNumbers(numbers);
+        return this;
+    }
+
+    /**
+     * Returns the number of times the given row was played.
+     *
+     * @param numbers the numbers of the row in ascending order.
+     * @return the play count, saturated at {@link #getMaximumCount()}.
+     */
+    public int getCount(int[] numbers) {
+        checkNumbers(numbers);
+        return getCount(combinationRanker.rank(numbers));
+    }
+
+    /**
+     * Returns the number of times the given row was played.
+     *
+     * @param lotteryRow the lottery row.
+     * @return the play count, saturated at {@link #getMaximumCount()}.
+     */
+    public int getCount(LotteryRow lotteryRow) {
+        checkLotteryRow(lotteryRow);
+        return getCount(combinationRanker.rank(lotteryRow));
+    }
+
+    /**
+     * Pushes all the rows played at most {@code maximumCount} times, in
+     * lexicographic order, to {@code visitor}. No object is allocated per
+     * visited row.
+     *
+     * @param maximumCount the maximum play count, inclusive.
+     * @param visitor      the visitor receiving the rows.
+     */
+    public void forEachLotteryRowPlayedAtMost(
+            int maximumCount,
+            CountedLotteryRowVisitor visitor) {
+        Objects.requireNonNull(visitor, "visitor == null");
+        visitLotteryRowsPlayedAtMost(
+                0L,
+                combinationRanker.getNumberOfCombinations(),
+                maximumCount,
+                visitor);
+    }
+
+    /**
+     * Returns the number of missing rows. This is a constant time query, as
+     * the count is maintained while the rows are added.
+     *
+     * @return the number of rows not added so far.
+     */
+    @Override
+    public long countMissingLotteryRows() {
+        return combinationRanker.getNumberOfCombinations()
+                - numberOfCoveredRows.sum();
+    }
+
+    /**
+     * Counts the rows played at most {@code maximumCount} times.
+     *
+     * @param maximumCount the maximum play count, inclusive.
+     * @return the number of such rows.
+     */
+    public long countLotteryRowsPlayedAtMost(int maximumCount) {
+        long numberOfCombinations =
+                combinationRanker.getNumberOfCombinations();
+        long numberOfRows = 0L;
+
+        for (long rank = 0L; rank < numberOfCombinations; rank++) {
+            if (getCount(rank) <= maximumCount) {
+                numberOfRows++;
+            }
+        }
+
+        return numberOfRows;
+    }
+
+    /**
+     * Finds the {@code n} most played rows. Ties are broken in favor of the
+     * lexicographically smaller rows. The counts are streamed through a
+     * bounded heap of {@code n} entries, so no full sort takes place.
+     *
+     * @param n the maximum number of rows to return.
+     * @return the most played rows in descending order of their counts.
+     */
+    public List<CountedLotteryRow> findMostPlayedLotteryRows(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n(" + n + ") < 0");
+        }
+
+        long numberOfCombinations =
+                combinationRanker.getNumberOfCombinations();
+        long[] heap = new long[(int) Math.min(n, numberOfCombinations)];
+        int heapSize = 0;
+
+        for (long rank = 0L; rank < numberOfCombinations; rank++) {
+            int count = getCount(rank);
+
+            if (count == 0) {
+                continue;
+            }
+
+            long key = ((long) count << RANK_BITS) | (RANK_MASK - rank);
+
+            if (heapSize < heap.length) {
+                heap[heapSize] = key;
+                siftUp(heap, heapSize++);
+            } else if (heapSize > 0 && key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        long[] keys = Arrays.copyOf(heap, heapSize);
+        Arrays.sort(keys);
+        List<CountedLotteryRow> countedLotteryRows = new ArrayList<>(heapSize);
+        int[] numbers = new int[lotteryConfiguration.getLotteryRowLength()];
+
+        for (int i = keys.length - 1; i >= 0; i--) {
+            long rank = RANK_MASK - (keys[i] & RANK_MASK);
+            combinationRanker.unrank(rank, numbers);
+            countedLotteryRows.add(
+                    new CountedLotteryRow(
+                            rank,
+                            convertNumbersToLotteryRow(numbers),
+                            (int)(keys[i] >>> RANK_BITS)));
+        }
+
+        return countedLotteryRows;
+    }
+
+    /**
+     * Merges the counters of {@code other} into this generator by adding
+     * them element-wise, saturating at {@link #getMaximumCount()}. This
+     * allows ingesting partitions of the rows in separate processes and
+     * combining their saved counters afterwards.
+     *
+     * @param other the generator to merge; must have the same configuration.
+     * @return this generator for chaining.
+     */
+    public CountingMissingLotteryRowsGenerator
+        merge(CountingMissingLotteryRowsGenerator other) {
+        Objects.requireNonNull(other, "other == null");
+        checkSameLotteryConfiguration(other.getLotteryConfiguration());
+        long numberOfCombinations =
+                combinationRanker.getNumberOfCombinations();
+
+        for (long rank = 0L; rank < numberOfCombinations; rank++) {
+            int count = other.getCount(rank);
+
+            if (count > 0) {
+                add(rank, count);
+            }
+        }
+
+        return this;
+    }
+
+    @Override
+    protected void addNumbers(int[] numbers) {
+        if (!add(combinationRanker.rank(numbers), 1)) {
+            metrics.addDuplicateRows(1L);
+        }
+    }
+
+    /**
+     * Returns the number of packed counter elements.
+     *
+     * @return the number of elements.
+     */
+    int getNumberOfCounterElements() {
+        return counters.length();
+    }
+
+    /**
+     * Returns a packed counter element.
+     *
+     * @param index the index of the element.
+     * @return the element holding several counters.
+     */
+    int getCounterElement(int index) {
+        return counters.get(index);
+    }
+
+    /**
+     * Overwrites a packed counter element.
+     *
+     * @param index   the index of the element.
+     * @param element the element holding several counters.
+     */
+    void setCounterElement(int index, int element) {
+        int previousElement = counters.getAndSet(index, element);
+        numberOfCoveredRows.add(countNonZeroCounters(element)
+                                - countNonZeroCounters(previousElement));
+    }
+
+    /**
+     * All the threads increment the shared counters atomically.
+     *
+     * @param lotteryRowSource the source of the rows to add.
+     * @param numberOfThreads  the number of ingesting threads.
+     */
+    @Override
+    protected void addLotteryRowsInParallel(LotteryRowSource lotteryRowSource,
+                                            int numberOfThreads) {
+        ParallelSupport.runInParallel(
+                lotteryRowSource.size(),
+                numberOfThreads,
+                (chunkIndex, fromIndex, toIndex) -> {
+            int[] numbers =
+                    new int[lotteryConfiguration.getLotteryRowLength()];
+            long duplicateRows = 0L;
+
+            for (int i = fromIndex; i < toIndex; i++) {
+                lotteryRowSource.loadNumbers(i, numbers);
+
+                if (!add(combinationRanker.rank(numbers), 1)) {
+                    duplicateRows++;
+                }
+            }
+
+            metrics.addDuplicateRows(duplicateRows);
+        });
+    }
+
+    /**
+     * Tells whether the row with the given rank was added by checking its
+     * counter.
+     *
+     * @param rank    the rank of the row.
+     * @param numbers not used.
+     * @return {@code true} if the row was added.
+     */
+    @Override
+    protected boolean containsRank(long rank, int[] numbers) {
+        return getCount(rank) > 0;
+    }
+
+    /**
+     * Counts the missing rows within a rank range by checking the counters
+     * without unranking the rows.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @return the number of the missing rows within the range.
+     */
+    @Override
+    protected long countMissingLotteryRows(long fromRank, long toRank) {
+        long missingCount = 0L;
+
+        for (long rank = fromRank; rank < toRank; rank++) {
+            if (getCount(rank) == 0) {
+                missingCount++;
+            }
+        }
+
+        return missingCount;
+    }
+
+    @Override
+    protected void visitMissingLotteryRows(long fromRank,
+                                           long toRank,
+                                           MissingLotteryRowVisitor visitor) {
+        visitLotteryRowsPlayedAtMost(
+                fromRank,
+                toRank,
+                0,
+                (rank, numbers, count) -> visitor.visit(rank, numbers));
+    }
+
+    private void visitLotteryRowsPlayedAtMost(
+            long fromRank,
+            long toRank,
+            int maximumCount,
+            CountedLotteryRowVisitor visitor) {
+        int[] numbers = new int[lotteryConfiguration.getLotteryRowLength()];
+        long numbersRank = Long.MIN_VALUE;
+
+        for (long rank = fromRank; rank < toRank; rank++) {
+            int count = getCount(rank);
+
+            if (count > maximumCount) {
+                continue;
+            }
+
+            // Reach the numbers of 'rank' from the last visited row:
+            if (numbersRank == rank - 1L) {
+                combinationRanker.increment(numbers);
+            } else {
+                combinationRanker.unrank(rank, numbers);
+            }
+
+            numbersRank = rank;
+            visitor.visit(rank, numbers, count);
+        }
+    }
+
+    private int getCount(long rank) {
+        int element = counters.get((int)(rank >>> countersPerElementShift));
+        return (element >>> getCounterShift(rank)) & maximumCount;
+    }
+
+    private boolean add(long rank, int delta) {
+        int index = (int)(rank >>> countersPerElementShift);
+        int shift = getCounterShift(rank);
+
+        while (true) {
+            int element = counters.get(index);
+            int count = (element >>> shift) & maximumCount;
+
+            if (count == maximumCount) {
+                return false;
+            }
+
+            int newCount = (int) Math.min(maximumCount, (long) count + delta);
+
+            if (counters.compareAndSet(
+                    index,
+                    element,
+                    element + ((newCount - count) << shift))) {
+                if (count == 0) {
+                    numberOfCoveredRows.increment();
+                    return true;
+                }
+
+                return false;
+            }
+        }
+    }
+
+    private int countNonZeroCounters(int element) {
+        int count = 0;
+
+        for (int shift = 0; shift < Integer.SIZE; shift += counterBits) {
+            if (((element >>> shift) & maximumCount) != 0) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private int getCounterShift(long rank) {
+        int countersPerElementMask = (1 << countersPerElementShift) - 1;
+        return ((int) rank & countersPerElementMask) * counterBits;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long key = heap[index];
+
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+
+            if (heap[parentIndex] <= key) {
+                break;
+            }
+
+            heap[index] = heap[parentIndex];
+            index = parentIndex;
+        }
+
+        heap[index] = key;
+    }
+
+    private static void siftDown(long[] heap, int heapSize) {
+        long key = heap[0];
+        int index = 0;
+
+        while (true) {
+            int childIndex = 2 * index + 1;
+
+            if (childIndex >= heapSize) {
+                break;
+            }
+
+            if (childIndex + 1 < heapSize
+                    && heap[childIndex + 1] < heap[childIndex]) {
+                childIndex++;
+            }
+
+            if (heap[childIndex] >= key) {
+                break;
+            }
+
+            heap[index] = heap[childIndex];
+            index = childIndex;
+        }
+
+        heap[index] = key;
+    }
+
+    private static long getArrayLength(long numberOfCombinations,
+                                       int countersPerElementShift) {
+        long countersPerElement = 1L << countersPerElementShift;
+        return (numberOfCombinations + countersPerElement - 1L)
+                >>> countersPerElementShift;
+    }
+
+    private static void checkCounterBits(int counterBits) {
+        if (counterBits != 8 && counterBits != 16) {
+            throw new IllegalArgumentException(
+                    "counterBits(" + counterBits + ") must be 8 or 16.");
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.Arrays;
+
+/**
+ * This class is the base of the containers of
+ * {@link net.coderodde.datamining.lottery.CompressedBitSetMissingLotteryRowsGenerator}.
+ * A container holds the covered values within a single chunk of
+ * <code>2<sup>16</sup></code> consecutive ranks, in the form best suited to
+ * its density, in the spirit of Roaring bitmaps:
+ *
+ * <ul>
+ *   <li>an array container keeps a sorted array of up to 4096 values,</li>
+ *   <li>a bitmap container keeps a bit per value in 8 kilobytes,</li>
+ *   <li>a run container keeps the sorted runs of consecutive values, which
+ *       is compact once the chunk is nearly full.</li>
+ * </ul>
+ *
+ * A container only grows: an array container turns into a bitmap container
+ * when it outgrows 4096 values, and a bitmap container turns into a run
+ * container when fewer than {@link #MAXIMUM_RUN_CONTAINER_ABSENT_VALUES}
+ * values of its chunk are absent.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+abstract class CoverageContainer {
+
+    /**
+     * The number of the low rank bits addressed within a container.
+     */
+    static final int CHUNK_BITS = 16;
+
+    /**
+     * The number of values in a chunk.
+     */
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /**
+     * The largest number of values in an array container.
+     */
+    static final int MAXIMUM_ARRAY_CONTAINER_CARDINALITY = 4096;
+
+    /**
+     * The number of absent values below which a bitmap container turns into
+     * a run container.
+     */
+    static final int MAXIMUM_RUN_CONTAINER_ABSENT_VALUES = 1024;
+
+    /**
+     * The number of values in the chunk of this container. Only the last
+     * chunk may be shorter than {@link #CHUNK_SIZE}.
+     */
+    final int chunkLength;
+
+    /**
+     * The number of values in this container.
+     */
+    int cardinality;
+
+    /**
+     * Constructs an empty container.
+     *
+     * @param chunkLength the number of values in the chunk.
+     */
+    CoverageContainer(int chunkLength) {
+        this.chunkLength = chunkLength;
+    }
+
+    /**
+     * Adds a value to this container.
+     *
+     * @param value the value within <code>[0, 65536)</code>.
+     * @return the container holding the values from now on; either this
+     *         container or its replacement of another kind.
+     */
+    abstract CoverageContainer add(int value);
+
+    /**
+     * Tells whether the given value is in this container.
+     *
+     * @param value the value within <code>[0, 65536)</code>.
+     * @return {@code true} if the value is present.
+     */
+    abstract boolean contains(int value);
+
+    /**
+     * Returns the smallest value at least {@code fromValue} that is absent
+     * from this container.
+     *
+     * @param fromValue the value to start from.
+     * @return the absent value, or {@link #CHUNK_SIZE} if there is none.
+     */
+    abstract int nextAbsentValue(int fromValue);
+
+    /**
+     * Returns the smallest value at least {@code fromValue} that is present
+     * in this container.
+     *
+     * @param fromValue the value to start from.
+     * @return the present value, or {@link #CHUNK_SIZE} if there is none.
+     */
+    abstract int nextPresentValue(int fromValue);
+
+    /**
+     * Returns the approximate memory consumption of this container.
+     *
+     * @return the size in bytes.
+     */
+    abstract long getSizeInBytes();
+
+    /**
+     * Returns the number of values in this container.
+     *
+     * @return the cardinality.
+     */
+    final int getCardinality() {
+        return cardinality;
+    }
+
+    /**
+     * The container keeping a sorted array of the values.
+     */
+    static final class ArrayContainer extends CoverageContainer {
+
+        private static final int INITIAL_CAPACITY = 4;
+
+        private char[] values = new char[INITIAL_CAPACITY];
+
+        ArrayContainer(int chunkLength) {
+            super(chunkLength);
+        }
+
+        @Override
+        CoverageContainer add(int value) {
+            int index = binarySearch(value);
+
+            if (index >= 0) {
+                return this;
+            }
+
+            if (cardinality == MAXIMUM_ARRAY_CONTAINER_CARDINALITY
+                    || cardinality + 1 == chunkLength) {
+                // A full short chunk ends up as a single run:
+                return toBitmapContainer().add(value);
+            }
+
+            index = -index - 1;
+
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(
+                        values,
+                        Math.min(2 * values.length,
+                                 MAXIMUM_ARRAY_CONTAINER_CARDINALITY));
+            }
+
+            System.arraycopy(values, index,
+                             values, index + 1,
+                             cardinality - index);
+
+            values[index] = (char) value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        boolean contains(int value) {
+            return binarySearch(value) >= 0;
+        }
+
+        @Override
+        int nextAbsentValue(int fromValue) {
+            if (fromValue >= CHUNK_SIZE) {
+                return CHUNK_SIZE;
+            }
+
+            int index = binarySearch(fromValue);
+
+            if (index < 0) {
+                return fromValue;
+            }
+
+            // Walk the run of consecutive values starting at 'fromValue':
+            while (index < cardinality && values[index] == fromValue) {
+                index++;
+                fromValue++;
+            }
+
+            return fromValue;
+        }
+
+        @Override
+        int nextPresentValue(int fromValue) {
+            if (fromValue >= CHUNK_SIZE) {
+                return CHUNK_SIZE;
+            }
+
+            int index = binarySearch(fromValue);
+
+            if (index < 0) {
+                index = -index - 1;
+            }
+
+            return index < cardinality ? values[index] : CHUNK_SIZE;
+        }
+
+        @Override
+        long getSizeInBytes() {
+            return 16L + 2L * values.length;
+        }
+
+        private int binarySearch(int value) {
+            return Arrays.binarySearch(values, 0, cardinality, (char) value);
+        }
+
+        private BitmapContainer toBitmapContainer() {
+            BitmapContainer bitmapContainer = new BitmapContainer(chunkLength);
+
+            for (int i = 0; i < cardinality; i++) {
+                bitmapContainer.words[values[i] >>> 6] |= 1L << values[i];
+            }
+
+            bitmapContainer.cardinality = cardinality;
+            return bitmapContainer;
+        }
+    }
+
+    /**
+     * The container keeping a bit per value.
+     */
+    static final class BitmapContainer extends CoverageContainer {
+
+        private final long[] words = new long[CHUNK_SIZE / Long.SIZE];
+
+        BitmapContainer(int chunkLength) {
+            super(chunkLength);
+        }
+
+        @Override
+        CoverageContainer add(int value) {
+            long word = words[value >>> 6];
+            long bit = 1L << value;
+
+            if ((word & bit) != 0L) {
+                return this;
+            }
+
+            words[value >>> 6] = word | bit;
+            cardinality++;
+
+            if (chunkLength - cardinality
+                    < MAXIMUM_RUN_CONTAINER_ABSENT_VALUES) {
+                return toRunContainer();
+            }
+
+            return this;
+        }
+
+        @Override
+        boolean contains(int value) {
+            return (words[value >>> 6] & (1L << value)) != 0L;
+        }
+
+        @Override
+        int nextAbsentValue(int fromValue) {
+            return nextBit(fromValue, true);
+        }
+
+        @Override
+        int nextPresentValue(int fromValue) {
+            return nextBit(fromValue, false);
+        }
+
+        @Override
+        long getSizeInBytes() {
+            return 16L + 8L * words.length;
+        }
+
+        private int nextBit(int fromValue, boolean absent) {
+            if (fromValue >= CHUNK_SIZE) {
+                return CHUNK_SIZE;
+            }
+
+            int wordIndex = fromValue >>> 6;
+            long word = (absent ? ~words[wordIndex] : words[wordIndex])
+                      & (-1L << fromValue);
+
+            while (word == 0L) {
+                if (++wordIndex == words.length) {
+                    return CHUNK_SIZE;
+                }
+
+                word = absent ? ~words[wordIndex] : words[wordIndex];
+            }
+
+            return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        private RunContainer toRunContainer() {
+            RunContainer runContainer = new RunContainer(chunkLength);
+            int start = nextPresentValue(0);
+
+            while (start < CHUNK_SIZE) {
+                int end = nextAbsentValue(start);
+                runContainer.appendRun(start, end - 1);
+                start = nextPresentValue(end);
+            }
+
+            runContainer.cardinality = cardinality;
+            return runContainer;
+        }
+    }
+
+    /**
+     * The container keeping the runs of consecutive values.
+     */
+    static final class RunContainer extends CoverageContainer {
+
+        private static final int INITIAL_CAPACITY = 4;
+
+        /**
+         * The first values of the runs, in ascending order.
+         */
+        private char[] starts = new char[INITIAL_CAPACITY];
+
+        /**
+         * The last values of the runs, inclusive.
+         */
+        private char[] ends = new char[INITIAL_CAPACITY];
+
+        /**
+         * The number of runs.
+         */
+        private int numberOfRuns;
+
+        RunContainer(int chunkLength) {
+            super(chunkLength);
+        }
+
+        @Override
+        CoverageContainer add(int value) {
+            int index = findRun(value);
+
+            if (index >= 0 && value <= ends[index]) {
+                return this;
+            }
+
+            boolean extendsLeft = index >= 0 && ends[index] + 1 == value;
+            boolean extendsRight = index + 1 < numberOfRuns
+                                && starts[index + 1] == value + 1;
+
+            if (extendsLeft && extendsRight) {
+                ends[index] = ends[index + 1];
+                removeRun(index + 1);
+            } else if (extendsLeft) {
+                ends[index] = (char) value;
+            } else if (extendsRight) {
+                starts[index + 1] = (char) value;
+            } else {
+                insertRun(index + 1, value);
+            }
+
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        boolean contains(int value) {
+            int index = findRun(value);
+            return index >= 0 && value <= ends[index];
+        }
+
+        @Override
+        int nextAbsentValue(int fromValue) {
+            int index = findRun(fromValue);
+
+            if (index >= 0 && fromValue <= ends[index]) {
+                return ends[index] + 1;
+            }
+
+            return fromValue;
+        }
+
+        @Override
+        int nextPresentValue(int fromValue) {
+            int index = findRun(fromValue);
+
+            if (index >= 0 && fromValue <= ends[index]) {
+                return fromValue;
+            }
+
+            return index + 1 < numberOfRuns ? starts[index + 1] : CHUNK_SIZE;
+        }
+
+        @Override
+        long getSizeInBytes() {
+            return 32L + 4L * starts.length;
+        }
+
+        /**
+         * Appends a run past all the current runs.
+         */
+        void appendRun(int start, int end) {
+            ensureCapacity();
+            starts[numberOfRuns] = (char) start;
+            ends[numberOfRuns] = (char) end;
+            numberOfRuns++;
+        }
+
+        /**
+         * Returns the index of the last run starting at or before
+         * {@code value}, or -1 if there is no such run.
+         */
+        private int findRun(int value) {
+            int low = 0;
+            int high = numberOfRuns - 1;
+
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+
+                if (starts[middle] <= value) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+
+            return high;
+        }
+
+        private void insertRun(int index, int value) {
+            ensureCapacity();
+            System.arraycopy(starts, index, starts, index + 1,
+                             numberOfRuns - index);
+            System.arraycopy(ends, index, ends, index + 1,
+                             numberOfRuns - index);
+            starts[index] = (char) value;
+            ends[index] = (char) value;
+            numberOfRuns++;
+        }
+
+        private void removeRun(int index) {
+            System.arraycopy(starts, index + 1, starts, index,
+                             numberOfRuns - index - 1);
+            System.arraycopy(ends, index + 1, ends, index,
+                             numberOfRuns - index - 1);
+            numberOfRuns--;
+
+            // Merging runs as the gaps fill up gives the memory back:
+            if (starts.length > INITIAL_CAPACITY
+                    && numberOfRuns < starts.length / 4) {
+                starts = Arrays.copyOf(starts, starts.length / 2);
+                ends = Arrays.copyOf(ends, ends.length / 2);
+            }
+        }
+
+        private void ensureCapacity() {
+            if (numberOfRuns == starts.length) {
+                starts = Arrays.copyOf(starts, 2 * starts.length);
+                ends = Arrays.copyOf(ends, 2 * ends.length);
+            }
+        }
+    }
+}
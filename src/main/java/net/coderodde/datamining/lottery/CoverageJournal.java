@@ -0,0 +1,442 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class implements a write-ahead journal of added lottery rows. The
+ * journal is meant to be used together with
+ * {@link net.coderodde.datamining.lottery.CoverageSnapshot}: the rows added
+ * since the last snapshot are appended to the journal, and after a restart
+ * the snapshot is loaded and the journal replayed on top of it. Taking a new
+ * snapshot allows truncating the journal.
+ * <p>
+ * A journal file consists of a 16 byte header (magic 0x4C524A4E, "LRJN",
+ * format version, maximum number value and row length) followed by the rows,
+ * one byte per number. A partially written trailing row, left behind by a
+ * crash, is ignored on replay. The journals of multi-pool games have the
+ * format version 2, and the pool table of
+ * {@link net.coderodde.datamining.lottery.LotteryRowFileFormat} follows
+ * their header.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class CoverageJournal implements Closeable {
+
+    /**
+     * The magic number opening each journal file.
+     */
+    static final int MAGIC = 0x4C524A4E;
+
+    /**
+     * The current format version.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The format version of the journals of multi-pool games.
+     */
+    static final int MULTI_POOL_VERSION = 2;
+
+    /**
+     * The size of the header in bytes.
+     */
+    static final int HEADER_SIZE = 16;
+
+    /**
+     * The size of the write buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The lottery configuration object.
+     */
+    private final LotteryConfiguration lotteryConfiguration;
+
+    /**
+     * The size of the header including the pool table. The rows start at
+     * this offset.
+     */
+    private final int headerSize;
+
+    /**
+     * The journal file channel.
+     */
+    private final FileChannel fileChannel;
+
+    /**
+     * The write buffer.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * The buffer holding the numbers of the row being appended.
+     */
+    private final int[] rowNumbers;
+
+    /**
+     * Opens the journal at {@code path} for appending, creating it if it
+     * does not exist. An existing journal must have been created for the
+     * same configuration; a partially written trailing row is cut off.
+     *
+     * @param path                 the path of the journal file.
+     * @param lotteryConfiguration the lottery configuration.
+     * @throws IOException if the file cannot be opened or does not match.
+     */
+    public CoverageJournal(Path path,
+                           LotteryConfiguration lotteryConfiguration)
+            throws IOException {
+        this.lotteryConfiguration =
+                Objects.requireNonNull(
+                        lotteryConfiguration,
+                        "lotteryConfiguration == null");
+
+        if (!LotteryRowStore.supports(lotteryConfiguration)) {
+            throw new IllegalArgumentException(
+                    "maximumNumberValue(" +
+                    lotteryConfiguration.getMaximumNumberValue() + ") > " +
+                    LotteryRowStore.MAXIMUM_SUPPORTED_NUMBER_VALUE);
+        }
+
+        this.headerSize = getHeaderSize(lotteryConfiguration);
+        this.rowNumbers = new int[lotteryConfiguration.getLotteryRowLength()];
+        this.fileChannel = FileChannel.open(
+                Objects.requireNonNull(path, "path == null"),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        try {
+            if (fileChannel.size() == 0L) {
+                buffer.putInt(MAGIC)
+                      .putInt(lotteryConfiguration.getNumberOfPools() == 1
+                                      ? VERSION
+                                      : MULTI_POOL_VERSION)
+                      .putInt(lotteryConfiguration.getMaximumNumberValue())
+                      .putInt(lotteryConfiguration.getLotteryRowLength());
+
+                LotteryRowFileFormat.writePoolTable(buffer,
+                                                    lotteryConfiguration);
+                flush();
+                fileChannel.force(true);
+            } else {
+                LotteryConfiguration journalConfiguration =
+                        readHeader(fileChannel);
+
+                if (!journalConfiguration.equals(lotteryConfiguration)) {
+                    throw new IOException(
+                            "The journal configuration does not match.");
+                }
+
+                fileChannel.truncate(getCompleteLength(fileChannel.size()));
+            }
+
+            fileChannel.position(fileChannel.size());
+        } catch (IOException | RuntimeException ex) {
+            fileChannel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Appends a row given as its numbers in strictly ascending order within
+     * each pool. The row is buffered until the next {@link #flush()} or
+     * {@link #sync()}.
+     *
+     * @param numbers the numbers of the row.
+     * @throws IOException if writing fails.
+     */
+    public void append(int[] numbers) throws IOException {
+        Objects.requireNonNull(numbers, "numbers == null");
+        checkRowLength(numbers.length);
+        checkSortedNumbers(numbers);
+        appendSorted(numbers);
+    }
+
+    /**
+     * Appends a single lottery row. The row is validated as a whole before
+     * any of its numbers is buffered.
+     *
+     * @param lotteryRow the row to append.
+     * @throws IOException if writing fails.
+     */
+    public void append(LotteryRow lotteryRow) throws IOException {
+        Objects.requireNonNull(lotteryRow, "lotteryRow == null");
+        checkLotteryConfiguration(lotteryRow.getLotteryConfiguration());
+        checkRowLength(lotteryRow.size());
+
+        for (int i = 0; i < rowNumbers.length; i++) {
+            rowNumbers[i] = lotteryRow.getNumber(i);
+        }
+
+        checkSortedNumbers(rowNumbers);
+        appendSorted(rowNumbers);
+    }
+
+    /**
+     * Writes the buffered rows to the file.
+     *
+     * @throws IOException if writing fails.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * Writes the buffered rows to the file and forces them to the storage
+     * device. Once this method returns, the appended rows survive a crash.
+     *
+     * @throws IOException if writing fails.
+     */
+    public void sync() throws IOException {
+        flush();
+        fileChannel.force(false);
+    }
+
+    /**
+     * Drops all the rows from the journal. Call this right after saving a
+     * snapshot that includes them.
+     *
+     * @throws IOException if truncating fails.
+     */
+    public void truncate() throws IOException {
+        buffer.clear();
+        fileChannel.truncate(headerSize);
+        fileChannel.position(headerSize);
+        fileChannel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            fileChannel.close();
+        }
+    }
+
+    /**
+     * Replays all the complete rows of the journal at {@code path} into
+     * {@code miner}.
+     *
+     * @param path  the path of the journal file.
+     * @param miner the target miner.
+     * @return the number of replayed rows.
+     * @throws IOException if reading fails or the configurations do not
+     *                     match.
+     */
+    public static long replay(Path path, MissingLotteryRowsMiner miner)
+            throws IOException {
+        Objects.requireNonNull(miner, "miner == null");
+
+        if (!Files.exists(path)) {
+            return 0L;
+        }
+
+        try (FileChannel fileChannel =
+                FileChannel.open(path, StandardOpenOption.READ)) {
+            LotteryConfiguration journalConfiguration =
+                    readHeader(fileChannel);
+
+            LotteryConfiguration minerConfiguration =
+                    miner.getLotteryConfiguration();
+
+            if (!journalConfiguration.equals(minerConfiguration)) {
+                throw new IOException(
+                        "The journal configuration does not match.");
+            }
+
+            int lotteryRowLength = journalConfiguration.getLotteryRowLength();
+            int headerSize = getHeaderSize(journalConfiguration);
+            long completeLength =
+                    getCompleteLength(fileChannel.size(),
+                                      headerSize,
+                                      lotteryRowLength);
+
+            ByteBuffer readBuffer =
+                    ByteBuffer.allocate(BUFFER_SIZE
+                                        / lotteryRowLength
+                                        * lotteryRowLength);
+            int[] numbers = new int[lotteryRowLength];
+            long position = headerSize;
+            long numberOfRows = 0L;
+
+            while (position < completeLength) {
+                readBuffer.clear();
+                readBuffer.limit((int) Math.min(readBuffer.capacity(),
+                                                completeLength - position));
+
+                while (readBuffer.hasRemaining()) {
+                    int bytesRead =
+                            fileChannel.read(readBuffer,
+                                             position
+                                                     + readBuffer.position());
+
+                    if (bytesRead < 0) {
+                        throw new IOException("Unexpected end of journal.");
+                    }
+                }
+
+                readBuffer.flip();
+                position += readBuffer.limit();
+
+                while (readBuffer.hasRemaining()) {
+                    for (int i = 0; i < lotteryRowLength; i++) {
+                        numbers[i] = readBuffer.get() & 0xff;
+                    }
+
+                    miner.addLotteryNumbers(numbers);
+                    numberOfRows++;
+                }
+            }
+
+            return numberOfRows;
+        }
+    }
+
+    private long getCompleteLength(long fileSize) {
+        return getCompleteLength(fileSize,
+                                 headerSize,
+                                 lotteryConfiguration.getLotteryRowLength());
+    }
+
+    private static long getCompleteLength(long fileSize,
+                                          int headerSize,
+                                          int lotteryRowLength) {
+        return headerSize
+                + (fileSize - headerSize)
+                        / lotteryRowLength
+                        * lotteryRowLength;
+    }
+
+    private static int
+        getHeaderSize(LotteryConfiguration lotteryConfiguration) {
+        return HEADER_SIZE
+                + LotteryRowFileFormat.getPoolTableSize(lotteryConfiguration);
+    }
+
+    private static LotteryConfiguration readHeader(FileChannel fileChannel)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        while (header.hasRemaining()
+                && fileChannel.read(header, header.position()) > 0) {
+        }
+
+        header.flip();
+
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException("Not a coverage journal.");
+        }
+
+        int version = header.getInt();
+
+        if (version != VERSION && version != MULTI_POOL_VERSION) {
+            throw new IOException(
+                    "Unsupported coverage journal version (" + version +
+                    ").");
+        }
+
+        int maximumNumberValue = header.getInt();
+        int lotteryRowLength = header.getInt();
+
+        if (version == MULTI_POOL_VERSION) {
+            return LotteryRowFileFormat.readPoolTable(fileChannel,
+                                                      HEADER_SIZE,
+                                                      maximumNumberValue,
+                                                      lotteryRowLength);
+        }
+
+        try {
+            return new LotteryConfiguration(maximumNumberValue,
+                                            lotteryRowLength);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Malformed coverage journal header.", ex);
+        }
+    }
+
+    private void appendSorted(int[] numbers) throws IOException {
+        if (buffer.remaining() < numbers.length) {
+            flush();
+        }
+
+        for (int number : numbers) {
+            buffer.put((byte) number);
+        }
+    }
+
+    private void checkRowLength(int rowLength) {
+        if (rowLength != rowNumbers.length) {
+            throw new IllegalArgumentException(
+                    "Wrong length of a row (" + rowLength +
+                    ", must be exactly " + rowNumbers.length + ".");
+        }
+    }
+
+    private void checkSortedNumbers(int[] numbers) {
+        int previousNumber = 0;
+
+        for (int i = 0; i < numbers.length; i++) {
+            if (lotteryConfiguration.isPoolStart(i)) {
+                previousNumber = 0;
+            }
+
+            if (numbers[i] <= previousNumber) {
+                throw new IllegalArgumentException(
+                        "The numbers are not in strictly ascending order " +
+                        "or below 1 (" + previousNumber + " >= " +
+                        numbers[i] + ").");
+            }
+
+            if (numbers[i] > lotteryConfiguration.getMaximumNumberValueAt(i)) {
+                throw new IllegalArgumentException(
+                        "number (" + numbers[i] + ") > " +
+                        "this.lotteryConfiguration.getMaximumNumberValueAt(" +
+                        i + ")[" +
+                        lotteryConfiguration.getMaximumNumberValueAt(i) +
+                        "]");
+            }
+
+            previousNumber = numbers[i];
+        }
+    }
+
+    private void checkLotteryConfiguration(
+            LotteryConfiguration otherConfiguration) {
+        boolean compatible =
+                otherConfiguration.getNumberOfPools()
+                        == lotteryConfiguration.getNumberOfPools();
+
+        for (int pool = 0;
+                compatible && pool < lotteryConfiguration.getNumberOfPools();
+                pool++) {
+            compatible =
+                    otherConfiguration.getPoolRowLength(pool)
+                            == lotteryConfiguration.getPoolRowLength(pool)
+                    && otherConfiguration.getPoolMaximumNumberValue(pool)
+                            <= lotteryConfiguration
+                                    .getPoolMaximumNumberValue(pool);
+        }
+
+        if (!compatible) {
+            throw new IllegalArgumentException(
+                    "Incompatible lottery configuration (" +
+                    otherConfiguration + ").");
+        }
+    }
+}
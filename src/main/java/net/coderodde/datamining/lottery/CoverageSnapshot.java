@@ -0,0 +1,273 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class saves and loads snapshots of the coverage index of
+ * {@link net.coderodde.datamining.lottery.BitSetMissingLotteryRowsGenerator}.
+ * A snapshot file consists of a header followed by the raw bit set words:
+ *
+ * <pre>
+ * int  magic                  (0x4C52534E, "LRSN")
+ * int  format version
+ * int  maximum number value
+ * int  lottery row length
+ * long number of combinations
+ * long number of covered rows
+ * long[numberOfWords] words
+ * </pre>
+ *
+ * All the values are big-endian. Snapshots are loaded with a memory map, so a
+ * restart costs a single bulk copy of the index. Together with a
+ * {@link net.coderodde.datamining.lottery.CoverageJournal} holding the rows
+ * added after the snapshot, the exact state may be recovered after a crash.
+ * <p>
+ * The snapshots of multi-pool games have the format version 2, and the
+ * pool table of
+ * {@link net.coderodde.datamining.lottery.LotteryRowFileFormat} follows
+ * their header.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class CoverageSnapshot {
+
+    /**
+     * The magic number opening each snapshot file.
+     */
+    static final int MAGIC = 0x4C52534E;
+
+    /**
+     * The current format version.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The format version of the snapshots of multi-pool games.
+     */
+    static final int MULTI_POOL_VERSION = 2;
+
+    /**
+     * The size of the header in bytes.
+     */
+    static final int HEADER_SIZE = 32;
+
+    /**
+     * The size of the write buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private CoverageSnapshot() {}
+
+    /**
+     * Saves the coverage index of {@code generator} to {@code path}. The
+     * snapshot is first written to a temporary file next to {@code path},
+     * forced to the disk and then atomically moved over {@code path}, so
+     * that a crash never leaves a half-written snapshot behind.
+     *
+     * @param generator the generator to save.
+     * @param path      the path of the snapshot file.
+     * @throws IOException if writing fails.
+     */
+    public static void save(BitSetMissingLotteryRowsGenerator generator,
+                            Path path) throws IOException {
+        Objects.requireNonNull(generator, "generator == null");
+        Objects.requireNonNull(path, "path == null");
+        Path temporaryPath =
+                path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel fileChannel =
+                FileChannel.open(temporaryPath,
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.TRUNCATE_EXISTING,
+                                 StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            LotteryConfiguration lotteryConfiguration =
+                    generator.getLotteryConfiguration();
+
+            buffer.putInt(MAGIC)
+                  .putInt(lotteryConfiguration.getNumberOfPools() == 1
+                                  ? VERSION
+                                  : MULTI_POOL_VERSION)
+                  .putInt(lotteryConfiguration.getMaximumNumberValue())
+                  .putInt(lotteryConfiguration.getLotteryRowLength())
+                  .putLong(generator.combinationRanker
+                                    .getNumberOfCombinations())
+                  .putLong(generator.combinationRanker
+                                    .getNumberOfCombinations()
+                           - generator.countMissingLotteryRows());
+
+            LotteryRowFileFormat.writePoolTable(buffer, lotteryConfiguration);
+
+            int numberOfWords = generator.getNumberOfWords();
+            int wordIndex = 0;
+
+            while (true) {
+                LongBuffer longBuffer = buffer.asLongBuffer();
+                int wordsInBuffer =
+                        Math.min(longBuffer.remaining(),
+                                 numberOfWords - wordIndex);
+
+                longBuffer.limit(wordsInBuffer);
+                generator.exportWords(wordIndex, longBuffer);
+                wordIndex += wordsInBuffer;
+                buffer.position(buffer.position()
+                                        + wordsInBuffer * Long.BYTES);
+                buffer.flip();
+
+                while (buffer.hasRemaining()) {
+                    fileChannel.write(buffer);
+                }
+
+                buffer.clear();
+
+                if (wordIndex == numberOfWords) {
+                    break;
+                }
+            }
+
+            fileChannel.force(true);
+        }
+
+        Files.move(temporaryPath,
+                   path,
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a snapshot, refusing it unless it was saved for exactly the
+     * expected lottery configuration.
+     *
+     * @param path                         the path of the snapshot file.
+     * @param expectedLotteryConfiguration the expected configuration.
+     * @return the restored generator.
+     * @throws IOException if reading fails, the file is malformed or the
+     *                     configurations do not match.
+     */
+    public static BitSetMissingLotteryRowsGenerator
+        load(Path path, LotteryConfiguration expectedLotteryConfiguration)
+            throws IOException {
+        Objects.requireNonNull(expectedLotteryConfiguration,
+                               "expectedLotteryConfiguration == null");
+        return load(path, expectedLotteryConfiguration, true);
+    }
+
+    /**
+     * Loads a snapshot with whatever lottery configuration it was saved for.
+     *
+     * @param path the path of the snapshot file.
+     * @return the restored generator.
+     * @throws IOException if reading fails or the file is malformed.
+     */
+    public static BitSetMissingLotteryRowsGenerator load(Path path)
+            throws IOException {
+        return load(path, null, false);
+    }
+
+    private static BitSetMissingLotteryRowsGenerator
+        load(Path path,
+             LotteryConfiguration expectedLotteryConfiguration,
+             boolean checkConfiguration) throws IOException {
+        Objects.requireNonNull(path, "path == null");
+
+        try (FileChannel fileChannel =
+                FileChannel.open(path, StandardOpenOption.READ)) {
+            if (fileChannel.size() < HEADER_SIZE) {
+                throw new IOException("Truncated coverage snapshot.");
+            }
+
+            MappedByteBuffer buffer =
+                    fileChannel.map(FileChannel.MapMode.READ_ONLY,
+                                    0L,
+                                    fileChannel.size());
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a coverage snapshot.");
+            }
+
+            int version = buffer.getInt();
+
+            if (version != VERSION && version != MULTI_POOL_VERSION) {
+                throw new IOException(
+                        "Unsupported coverage snapshot version (" +
+                        version + ").");
+            }
+
+            int maximumNumberValue = buffer.getInt();
+            int lotteryRowLength = buffer.getInt();
+            long numberOfCombinations = buffer.getLong();
+            long numberOfCoveredRows = buffer.getLong();
+
+            LotteryConfiguration snapshotConfiguration;
+
+            if (version == MULTI_POOL_VERSION) {
+                snapshotConfiguration =
+                        LotteryRowFileFormat.readPoolTable(buffer,
+                                                           maximumNumberValue,
+                                                           lotteryRowLength);
+            } else {
+                try {
+                    snapshotConfiguration =
+                            new LotteryConfiguration(maximumNumberValue,
+                                                     lotteryRowLength);
+                } catch (IllegalArgumentException ex) {
+                    throw new IOException("Malformed coverage snapshot.", ex);
+                }
+            }
+
+            if (checkConfiguration
+                    && !snapshotConfiguration
+                            .equals(expectedLotteryConfiguration)) {
+                throw new IOException(
+                        "The snapshot configuration (" +
+                        snapshotConfiguration +
+                        ") does not match the expected configuration (" +
+                        expectedLotteryConfiguration + ").");
+            }
+
+            BitSetMissingLotteryRowsGenerator generator;
+
+            try {
+                generator = new BitSetMissingLotteryRowsGenerator(
+                        snapshotConfiguration);
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Malformed coverage snapshot.", ex);
+            }
+
+            long expectedSize =
+                    HEADER_SIZE
+                            + LotteryRowFileFormat.getPoolTableSize(
+                                    snapshotConfiguration)
+                            + (long) generator.getNumberOfWords() * Long.BYTES;
+
+            if (numberOfCombinations
+                    != generator.combinationRanker.getNumberOfCombinations()
+                    || fileChannel.size() != expectedSize) {
+                throw new IOException("Malformed coverage snapshot.");
+            }
+
+            generator.importWords(buffer.asLongBuffer());
+
+            if (generator.countMissingLotteryRows()
+                    != numberOfCombinations - numberOfCoveredRows) {
+                throw new IOException(
+                        "Corrupted coverage snapshot (covered row count " +
+                        "mismatch).");
+            }
+
+            return generator;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package net.coderodde.datamining.lottery;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
@@ -9,6 +10,9 @@ import java.util.List;
  * mining algorithm.
  * 
  * @author Rodion "rodde" Efremov
+ * @version 1.64 (Oct 16, 2026) ~ near-miss tiers.
+ * @version 1.63 (Oct 16, 2026) ~ counts the missing rows.
+ * @version 1.62 (Oct 16, 2026) ~ prints the metrics.
  * @version 1.6 (Apr 25, 2020)
  * @since 1.6 (Apr 25, 2020)
  */
@@ -30,7 +34,12 @@ public final class Demo {
         System.out.println("Seed = " + seed);
 
         List<LotteryRow> data = benchmarkAndObtainData(seed);
-        benchmark(lotteryConfiguration, data);
+
+        for (MiningEngine miningEngine : MiningEngine.values()) {
+            benchmark(miningEngine, lotteryConfiguration, data);
+        }
+
+        nearMissDemo(lotteryConfiguration, data);
     }
 
     private static List<LotteryRow> benchmarkAndObtainData(final long seed) {
@@ -42,43 +51,50 @@ public final class Demo {
         new LotteryRowGenerator(lotteryConfiguration, seed)
                 .generateLotteryRows(LOTTERY_ROWS);
 
-        long startTime = System.nanoTime();
-
         // Data generation: 
-        List<LotteryRow> data =
-                new LotteryRowGenerator(lotteryConfiguration)
-                        .generateLotteryRows(LOTTERY_ROWS);
+        LotteryRowGenerator lotteryRowGenerator = 
+                new LotteryRowGenerator(lotteryConfiguration);
 
-        long endTime = System.nanoTime();
+        List<LotteryRow> data = 
+                lotteryRowGenerator.generateLotteryRows(LOTTERY_ROWS);
 
         System.out.println(
                 "Data generated in " + 
-                        ((endTime - startTime) / 1_000_000L) + 
+                        lotteryRowGenerator.getMetrics()
+                                           .getGenerationMillis() + 
                         " milliseconds.");
 
         return data;
     }
 
     // Warms up and benchmarks the 
-    private static void benchmark(LotteryConfiguration lotteryConfiguration,
+    private static void benchmark(MiningEngine miningEngine,
+                                  LotteryConfiguration lotteryConfiguration,
                                   List<LotteryRow> data) throws IOException {
 
         long startTime = System.nanoTime();
+        MissingLotteryRowsMiner miner = 
+                miningEngine.newMiner(lotteryConfiguration);
 
-        List<LotteryRow> missingLotteryRows = 
-            new MissingLotteryRowsGenerator(lotteryConfiguration)
-                .addLotteryRows(data)
-                .computeMissingLotteryRows();
+        long numberOfMissingLotteryRows = 
+            miner.addLotteryRows(data)
+                 .countMissingLotteryRows();
 
         long endTime = System.nanoTime();
 
         System.out.println(
-                "Duration: " 
+                miningEngine + " duration: " 
                         + ((endTime - startTime) / 1_000_000L) 
                         + " milliseconds.");
 
         System.out.println(
-                "Missing lottery rows: " + missingLotteryRows.size());
+                "Missing lottery rows: " + numberOfMissingLotteryRows);
+
+        System.out.println(miningEngine + " metrics: " + miner.getMetrics());
+
+        if (miner instanceof Closeable) {
+            ((Closeable) miner).close();
+        }
 
 //        boolean isFirst = true;
 //        
@@ -93,6 +109,26 @@ public final class Demo {
 //        }
     }
 
+    // Counts the draws leaving each of the top three prize tiers unclaimed:
+    private static void nearMissDemo(LotteryConfiguration lotteryConfiguration,
+                                     List<LotteryRow> data) {
+        int numberOfThreads = Runtime.getRuntime().availableProcessors();
+        int minimumMatchCount = LOTTERY_ROW_LENGTH - 2;
+        NearMissLotteryRowsGenerator generator = 
+                new NearMissLotteryRowsGenerator(lotteryConfiguration,
+                                                 minimumMatchCount)
+                        .addLotteryRows(data, numberOfThreads);
+
+        long[] missedDraws = generator.countMissedDrawsByTier(numberOfThreads);
+
+        for (int i = 0; i < missedDraws.length; i++) {
+            System.out.println(
+                    "Draws with no ticket matching " + 
+                            (minimumMatchCount + i) + " or more numbers: " +
+                            missedDraws[i]);
+        }
+    }
+
     // Runs a small demo:
     private static void smallDemo() {
         LotteryConfiguration lotteryConfiguration = 
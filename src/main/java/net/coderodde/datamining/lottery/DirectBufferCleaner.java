@@ -0,0 +1,87 @@
+package net.coderodde.datamining.lottery;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * This class releases the native memory of direct and memory mapped byte
+ * buffers without waiting for the garbage collector. The JDK offers no
+ * public API for that, so the cleaner is reached reflectively:
+ * {@code sun.misc.Unsafe.invokeCleaner} on Java 9 and later, and the
+ * {@code cleaner()} method of the buffer on Java 8. If neither is
+ * accessible, releasing falls back to dropping the buffer for the garbage
+ * collector.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+final class DirectBufferCleaner {
+
+    /**
+     * The {@code sun.misc.Unsafe} instance, or {@code null} on Java 8.
+     */
+    private static final Object UNSAFE;
+
+    /**
+     * The {@code Unsafe.invokeCleaner} method, or {@code null} on Java 8.
+     */
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner",
+                                                  ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            invokeCleaner = null;
+        }
+
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private DirectBufferCleaner() {}
+
+    /**
+     * Releases the native memory of {@code buffer}. The buffer must not be
+     * accessed afterwards, and it must not be a slice or a duplicate of
+     * another buffer.
+     *
+     * @param buffer the direct or mapped buffer to release.
+     * @return {@code true} if the memory was released right away,
+     *         {@code false} if it is left for the garbage collector.
+     */
+    static boolean release(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            return false;
+        }
+
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                return true;
+            }
+
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+
+            if (cleaner == null) {
+                return false;
+            }
+
+            cleaner.getClass().getMethod("clean").invoke(cleaner);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,831 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * This class implements an out-of-core missing lottery row mining engine for
+ * the games whose combination space, or whose number of tickets, does not
+ * fit in the memory. The added rows are converted to their combinatorial
+ * ranks and collected into a buffer of bounded size. A full buffer is
+ * sorted, deduplicated and spilled to a temporary file as a sorted
+ * <i>run</i>. Before the missing rows are counted or enumerated, the runs
+ * are merged into a single deduplicated run with a k-way merge over a
+ * priority queue, and the missing ranks are the gaps in the merged stream.
+ * <p>
+ * The memory budget bounds the rank buffer and the read buffers of the
+ * merge together; if there are more runs than the read buffers fit in
+ * the budget, they are merged in several passes. The temporary disk budget
+ * bounds the total size of the run files, including the output of a merge
+ * in progress; exceeding it throws an {@link IllegalStateException}. The
+ * run files are deleted by {@link #close()}, after which the miner may not
+ * be used.
+ * <p>
+ * The rows may not be added concurrently with an enumeration.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.64 (Oct 16, 2026) ~ membership queries.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class ExternalMissingLotteryRowsGenerator
+        extends AbstractMissingLotteryRowsMiner
+        implements Closeable {
+
+    /**
+     * The default memory budget in bytes.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    /**
+     * The smallest accepted memory budget in bytes.
+     */
+    public static final long MINIMUM_MEMORY_BUDGET = 1L << 20;
+
+    /**
+     * The size of the read and write buffers of the run files in bytes.
+     */
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The largest rank buffer length.
+     */
+    private static final long MAXIMUM_RANK_BUFFER_LENGTH =
+            Integer.MAX_VALUE - 8;
+
+    /**
+     * This class describes a run file holding distinct ranks in ascending
+     * order, eight bytes per rank.
+     */
+    private static final class Run {
+
+        final Path path;
+        final FileChannel fileChannel;
+        final long length;
+
+        Run(Path path, FileChannel fileChannel, long length) {
+            this.path = path;
+            this.fileChannel = fileChannel;
+            this.length = length;
+        }
+
+        long getSizeInBytes() {
+            return length * Long.BYTES;
+        }
+    }
+
+    /**
+     * This class implements a sequential reader of a run starting from a
+     * given index. The reads are positional, so several cursors may read
+     * the same run concurrently.
+     */
+    private static final class RunCursor {
+
+        private final Run run;
+        private final ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_SIZE);
+        private long nextIndex;
+
+        /**
+         * The rank the cursor is at.
+         */
+        long rank;
+
+        RunCursor(Run run, long fromIndex) {
+            this.run = run;
+            this.nextIndex = fromIndex;
+            buffer.limit(0);
+        }
+
+        /**
+         * Moves to the next rank of the run.
+         *
+         * @return {@code false} if the run is exhausted.
+         */
+        boolean advance() throws IOException {
+            if (!buffer.hasRemaining()) {
+                if (nextIndex >= run.length) {
+                    return false;
+                }
+
+                buffer.clear();
+                buffer.limit((int) Math.min(IO_BUFFER_SIZE,
+                                            (run.length - nextIndex)
+                                                    * Long.BYTES));
+                readFully(run.fileChannel, buffer, nextIndex * Long.BYTES);
+                buffer.flip();
+                nextIndex += buffer.remaining() / Long.BYTES;
+            }
+
+            rank = buffer.getLong();
+            return true;
+        }
+    }
+
+    /**
+     * This class implements a buffered writer of a new run file.
+     */
+    private final class RunWriter {
+
+        private final Path path;
+        private final FileChannel fileChannel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_SIZE);
+        private long length;
+
+        RunWriter() throws IOException {
+            this.path = Files.createTempFile(workDirectory, "ranks", ".run");
+            this.fileChannel = FileChannel.open(path,
+                                                StandardOpenOption.READ,
+                                                StandardOpenOption.WRITE);
+        }
+
+        void write(long rank) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+
+            buffer.putLong(rank);
+            length++;
+        }
+
+        Run finish() throws IOException {
+            flush();
+            return new Run(path, fileChannel, length);
+        }
+
+        void abort() throws IOException {
+            fileChannel.close();
+            Files.deleteIfExists(path);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer);
+            }
+
+            buffer.clear();
+        }
+    }
+
+    /**
+     * The directory of the run files.
+     */
+    private final Path workDirectory;
+
+    /**
+     * The largest total size of the run files in bytes.
+     */
+    private final long diskBudget;
+
+    /**
+     * The largest number of runs merged in a single pass.
+     */
+    private final int maximumMergeWidth;
+
+    /**
+     * The buffer of the ranks not spilled yet.
+     */
+    private final long[] rankBuffer;
+
+    /**
+     * The number of the ranks in {@link #rankBuffer}.
+     */
+    private int rankBufferSize;
+
+    /**
+     * The runs spilled so far, oldest first.
+     */
+    private final List<Run> runs = new ArrayList<>();
+
+    /**
+     * The total size of the run files in bytes.
+     */
+    private long diskUsage;
+
+    /**
+     * The merged run, set by {@link #seal()} and cleared when more rows are
+     * added, so that the concurrent queries need not synchronize.
+     */
+    private volatile Run sealedRun;
+
+    /**
+     * Tells whether this miner is closed.
+     */
+    private boolean closed;
+
+    /**
+     * Constructs an out-of-core miner keeping its run files in the default
+     * temporary directory, with the default memory budget and no disk
+     * budget.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     */
+    public ExternalMissingLotteryRowsGenerator(
+            LotteryConfiguration lotteryConfiguration) {
+        this(lotteryConfiguration,
+             Paths.get(System.getProperty("java.io.tmpdir")),
+             DEFAULT_MEMORY_BUDGET,
+             Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructs an out-of-core miner.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @param workDirectory        the directory of the run files.
+     * @param memoryBudget         the memory budget in bytes.
+     * @param diskBudget           the temporary disk budget in bytes.
+     */
+    public ExternalMissingLotteryRowsGenerator(
+            LotteryConfiguration lotteryConfiguration,
+            Path workDirectory,
+            long memoryBudget,
+            long diskBudget) {
+        super(lotteryConfiguration);
+        this.workDirectory = Objects.requireNonNull(workDirectory,
+                                                    "workDirectory == null");
+
+        if (memoryBudget < MINIMUM_MEMORY_BUDGET) {
+            throw new IllegalArgumentException(
+                    "memoryBudget(" + memoryBudget + ") < " +
+                    MINIMUM_MEMORY_BUDGET);
+        }
+
+        if (diskBudget < 0L) {
+            throw new IllegalArgumentException(
+                    "diskBudget(" + diskBudget + ") < 0");
+        }
+
+        // Half of the budget goes to the rank buffer, half to the merging:
+        this.diskBudget = diskBudget;
+        this.rankBuffer =
+                new long[(int) Math.min(MAXIMUM_RANK_BUFFER_LENGTH,
+                                        memoryBudget / 2 / Long.BYTES)];
+        this.maximumMergeWidth =
+                (int) Math.min(Integer.MAX_VALUE,
+                               memoryBudget / 2 / IO_BUFFER_SIZE - 1);
+
+        metrics.addIndexBytes((long) rankBuffer.length * Long.BYTES);
+    }
+
+    /**
+     * Tells whether this engine can handle the given configuration. The
+     * only limit is that the number of combinations fits in a long.
+     *
+     * @param lotteryConfiguration the lottery configuration to check.
+     * @return {@code true} if this engine can handle the configuration.
+     */
+    public static boolean supports(LotteryConfiguration lotteryConfiguration) {
+        try {
+            new CombinationRanker(lotteryConfiguration);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator.
+     *
+     * @param lotteryRows the lottery rows to add one by one.
+     * @return this generator for chaining.
+     */
+    @Override
+    public ExternalMissingLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows) {
+        super.addLotteryRows(lotteryRows);
+        return this;
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator in parallel.
+     *
+     * @param lotteryRows     the lottery rows to add.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public ExternalMissingLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows, int numberOfThreads) {
+        super.addLotteryRows(lotteryRows, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row to this generator.
+     *
+     * @param lotteryRow the lottery row to add.
+     * @return this generator for chaining.
+     */
+    @Override
+    public ExternalMissingLotteryRowsGenerator
+        addLotteryRow(LotteryRow lotteryRow) {
+        super.addLotteryRow(lotteryRow);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator.
+     *
+     * @param rowStore the row store.
+     * @return this generator for chaining.
+     */
+    @Override
+    public ExternalMissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore) {
+        super.addLotteryRows(rowStore);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator in
+     * parallel.
+     *
+     * @param rowStore        the row store.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public ExternalMissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore, int numberOfThreads) {
+        super.addLotteryRows(rowStore, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row given as its numbers in strictly ascending
+     * order.
+     *
+     * @param numbers the numbers of the row in ascending order.
+     * @return this generator for chaining.
+     */
+    @Override
+    public ExternalMissingLotteryRowsGenerator
+        addLotteryNumbers(int[] numbers) {
+        super.addLotteryNumbers(numbers);
+        return this;
+    }
+
+    /**
+     * Returns the number of missing rows. The pending ranks are spilled and
+     * the runs merged first, if not done yet, after which the number of the
+     * distinct covered rows is the length of the merged run.
+     *
+     * @return the number of rows not added so far.
+     */
+    @Override
+    public long countMissingLotteryRows() {
+        Run run = seal();
+        return combinationRanker.getNumberOfCombinations()
+                - (run == null ? 0L : run.length);
+    }
+
+    /**
+     * Returns the total size of the run files.
+     *
+     * @return the disk usage in bytes.
+     */
+    public synchronized long getDiskUsage() {
+        return diskUsage;
+    }
+
+    /**
+     * Deletes the run files. Closing twice has no effect.
+     *
+     * @throws IOException if closing a run file fails.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        sealedRun = null;
+        deleteRuns(new ArrayList<>(runs));
+    }
+
+    @Override
+    protected void addNumbers(int[] numbers) {
+        checkOpen();
+
+        if (sealedRun != null) {
+            sealedRun = null;
+        }
+
+        rankBuffer[rankBufferSize++] = combinationRanker.rank(numbers);
+
+        if (rankBufferSize == rankBuffer.length) {
+            spill();
+        }
+    }
+
+    /**
+     * The rows are ranked in parallel into the free part of the rank buffer,
+     * which is spilled whenever it fills up.
+     *
+     * @param lotteryRowSource the source of the rows to add.
+     * @param numberOfThreads  the number of ingesting threads.
+     */
+    @Override
+    protected void addLotteryRowsInParallel(LotteryRowSource lotteryRowSource,
+                                            int numberOfThreads) {
+        checkOpen();
+        sealedRun = null;
+        int numberOfRows = lotteryRowSource.size();
+        int rowIndex = 0;
+
+        while (rowIndex < numberOfRows) {
+            int batchLength = Math.min(numberOfRows - rowIndex,
+                                       rankBuffer.length - rankBufferSize);
+            int batchOffset = rowIndex;
+            int bufferOffset = rankBufferSize;
+
+            ParallelSupport.runInParallel(
+                    batchLength,
+                    numberOfThreads,
+                    (chunkIndex, fromIndex, toIndex) -> {
+                int[] numbers =
+                        new int[lotteryConfiguration.getLotteryRowLength()];
+
+                for (int i = fromIndex; i < toIndex; i++) {
+                    lotteryRowSource.loadNumbers(batchOffset + i, numbers);
+                    rankBuffer[bufferOffset + i] =
+                            combinationRanker.rank(numbers);
+                }
+            });
+
+            rankBufferSize += batchLength;
+            rowIndex += batchLength;
+
+            if (rankBufferSize == rankBuffer.length) {
+                spill();
+            }
+        }
+    }
+
+    /**
+     * Visits the missing lottery rows within a rank range as the gaps
+     * between the consecutive ranks of the merged run. Only the first rank
+     * of a gap is unranked.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @param visitor  the visitor receiving the missing rows.
+     */
+    @Override
+    protected void visitMissingLotteryRows(long fromRank,
+                                           long toRank,
+                                           MissingLotteryRowVisitor visitor) {
+        if (fromRank >= toRank) {
+            return;
+        }
+
+        Run run = seal();
+        int[] numbers = new int[lotteryConfiguration.getLotteryRowLength()];
+        long gapStart = fromRank;
+
+        if (run != null) {
+            try {
+                RunCursor runCursor =
+                        new RunCursor(run, lowerBound(run, fromRank));
+
+                while (runCursor.advance() && runCursor.rank < toRank) {
+                    visitGap(gapStart, runCursor.rank, numbers, visitor);
+                    gapStart = runCursor.rank + 1L;
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        visitGap(gapStart, toRank, numbers, visitor);
+    }
+
+    /**
+     * Counts the missing rows within a rank range by locating the range
+     * within the merged run with two binary searches.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @return the number of the missing rows within the range.
+     */
+    @Override
+    protected long countMissingLotteryRows(long fromRank, long toRank) {
+        if (fromRank >= toRank) {
+            return 0L;
+        }
+
+        Run run = seal();
+
+        if (run == null) {
+            return toRank - fromRank;
+        }
+
+        try {
+            return toRank - fromRank
+                    - (lowerBound(run, toRank) - lowerBound(run, fromRank));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Visits the consecutive missing ranks within
+     * <code>[fromRank, toRank)</code>, unranking only the first one.
+     */
+    private void visitGap(long fromRank,
+                          long toRank,
+                          int[] numbers,
+                          MissingLotteryRowVisitor visitor) {
+        if (fromRank >= toRank) {
+            return;
+        }
+
+        combinationRanker.unrank(fromRank, numbers);
+        visitor.visit(fromRank, numbers);
+
+        for (long rank = fromRank + 1L; rank < toRank; rank++) {
+            combinationRanker.increment(numbers);
+            visitor.visit(rank, numbers);
+        }
+    }
+
+    /**
+     * Tells whether the row with the given rank was added by a binary
+     * search over the merged run.
+     *
+     * @param rank    the rank of the row.
+     * @param numbers not used.
+     * @return {@code true} if the row was added.
+     */
+    @Override
+    protected boolean containsRank(long rank, int[] numbers) {
+        Run run = seal();
+
+        if (run == null) {
+            return false;
+        }
+
+        try {
+            long index = lowerBound(run, rank);
+            return index < run.length && readRank(run, index) == rank;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Returns the merged run, sealing this miner first if more rows were
+     * added since the last time.
+     *
+     * @return the merged run, or {@code null} if no rows were added.
+     */
+    private Run seal() {
+        Run run = sealedRun;
+        return run != null ? run : sealRuns();
+    }
+
+    /**
+     * Spills the pending ranks and merges all the runs into one.
+     *
+     * @return the merged run, or {@code null} if no rows were added.
+     */
+    private synchronized Run sealRuns() {
+        checkOpen();
+
+        if (rankBufferSize > 0) {
+            spill();
+        }
+
+        try {
+            while (runs.size() > 1) {
+                mergeRuns(Math.min(runs.size(), maximumMergeWidth));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        if (runs.isEmpty()) {
+            return null;
+        }
+
+        sealedRun = runs.get(0);
+        return sealedRun;
+    }
+
+    /**
+     * Sorts the rank buffer and writes its distinct ranks to a new run. Once
+     * there are as many runs as can be merged in a single pass, they are
+     * merged right away, which also reclaims the disk space taken by the
+     * duplicates.
+     */
+    private void spill() {
+        Arrays.parallelSort(rankBuffer, 0, rankBufferSize);
+        checkDiskBudget((long) rankBufferSize * Long.BYTES);
+
+        try {
+            RunWriter runWriter = new RunWriter();
+
+            try {
+                long previousRank = Long.MIN_VALUE;
+
+                for (int i = 0; i < rankBufferSize; i++) {
+                    if (rankBuffer[i] != previousRank) {
+                        previousRank = rankBuffer[i];
+                        runWriter.write(previousRank);
+                    }
+                }
+
+                addRun(runWriter.finish());
+            } catch (IOException | RuntimeException ex) {
+                runWriter.abort();
+                throw ex;
+            }
+
+            metrics.addDuplicateRows(rankBufferSize
+                                     - runs.get(runs.size() - 1).length);
+            rankBufferSize = 0;
+
+            if (runs.size() >= maximumMergeWidth) {
+                mergeRuns(runs.size());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Merges the given number of the oldest runs into a single run of their
+     * distinct ranks, which replaces them.
+     *
+     * @param numberOfRuns the number of the runs to merge.
+     */
+    private void mergeRuns(int numberOfRuns) throws IOException {
+        List<Run> inputRuns = new ArrayList<>(runs.subList(0, numberOfRuns));
+        PriorityQueue<RunCursor> queue =
+                new PriorityQueue<>(numberOfRuns,
+                                    (cursor1, cursor2) ->
+                                            Long.compare(cursor1.rank,
+                                                         cursor2.rank));
+        long inputLength = 0L;
+
+        for (Run run : inputRuns) {
+            RunCursor runCursor = new RunCursor(run, 0L);
+            inputLength += run.length;
+
+            if (runCursor.advance()) {
+                queue.add(runCursor);
+            }
+        }
+
+        checkDiskBudget(inputLength * Long.BYTES);
+        RunWriter runWriter = new RunWriter();
+        Run mergedRun;
+
+        try {
+            long previousRank = Long.MIN_VALUE;
+
+            while (!queue.isEmpty()) {
+                RunCursor runCursor = queue.poll();
+
+                if (runCursor.rank != previousRank) {
+                    previousRank = runCursor.rank;
+                    runWriter.write(previousRank);
+                }
+
+                if (runCursor.advance()) {
+                    queue.add(runCursor);
+                }
+            }
+
+            mergedRun = runWriter.finish();
+        } catch (IOException | RuntimeException ex) {
+            runWriter.abort();
+            throw ex;
+        }
+
+        deleteRuns(inputRuns);
+        runs.add(0, mergedRun);
+        diskUsage += mergedRun.getSizeInBytes();
+        metrics.addIndexBytes(mergedRun.getSizeInBytes());
+        metrics.addDuplicateRows(inputLength - mergedRun.length);
+    }
+
+    private void addRun(Run run) {
+        runs.add(run);
+        diskUsage += run.getSizeInBytes();
+        metrics.addIndexBytes(run.getSizeInBytes());
+    }
+
+    /**
+     * Closes and deletes the given runs, and removes them from the list of
+     * the runs.
+     *
+     * @param runsToDelete the runs to delete.
+     */
+    private void deleteRuns(List<Run> runsToDelete) throws IOException {
+        IOException exception = null;
+
+        for (Run run : runsToDelete) {
+            runs.remove(run);
+            diskUsage -= run.getSizeInBytes();
+            metrics.addIndexBytes(-run.getSizeInBytes());
+
+            try {
+                run.fileChannel.close();
+                Files.deleteIfExists(run.path);
+            } catch (IOException ex) {
+                if (exception == null) {
+                    exception = ex;
+                } else {
+                    exception.addSuppressed(ex);
+                }
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Checks that a run of at most the given size fits in the disk budget.
+     *
+     * @param runSize the upper bound of the size of the new run in bytes.
+     */
+    private void checkDiskBudget(long runSize) {
+        if (diskUsage + runSize > diskBudget) {
+            throw new IllegalStateException(
+                    "The temporary disk budget of " + diskBudget +
+                    " bytes would be exceeded (" + (diskUsage + runSize) +
+                    " bytes).");
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The miner is closed.");
+        }
+    }
+
+    /**
+     * Returns the index of the first rank at least {@code rank} within the
+     * given run.
+     */
+    private static long lowerBound(Run run, long rank) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        long low = 0L;
+        long high = run.length;
+
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+
+            if (readRank(run, middle, buffer) < rank) {
+                low = middle + 1L;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private static long readRank(Run run, long index) throws IOException {
+        return readRank(run, index, ByteBuffer.allocate(Long.BYTES));
+    }
+
+    private static long readRank(Run run, long index, ByteBuffer buffer)
+            throws IOException {
+        buffer.clear();
+        readFully(run.fileChannel, buffer, index * Long.BYTES);
+        return buffer.getLong(0);
+    }
+
+    private static void readFully(FileChannel fileChannel,
+                                  ByteBuffer buffer,
+                                  long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int bytesRead = fileChannel.read(buffer, position);
+
+            if (bytesRead < 0) {
+                throw new IOException("Unexpected end of a run file.");
+            }
+
+            position += bytesRead;
+        }
+    }
+}
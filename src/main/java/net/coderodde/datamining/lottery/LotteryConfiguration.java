@@ -1,45 +1,309 @@
 package net.coderodde.datamining.lottery;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 /**
- * This class specifies the lottery game configuration.
- * 
+ * This class specifies the lottery game configuration. A game consists of
+ * one or more pools drawn independently, such as a main pool of 5 numbers
+ * out of 50 and a bonus pool of 2 numbers out of 12. A lottery row holds the
+ * numbers of all the pools one pool after another, each pool in ascending
+ * order, so that the row of the example has 7 numbers. The rows of a game
+ * are the product of the combinations of its pools.
+ *
  * @author Rodion "rodde" Efremov
- * @version 1.6 (Jan 18, 2020)
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Jan 18, 2020) ~ initial version.
  * @since 1.6 (Jan 18, 2020)
  */
 public class LotteryConfiguration {
 
     /**
-     * The maximum ball integer value.
+     * The maximum ball integer value over all the pools.
      */
     private final int maximumNumberValue;
 
     /**
-     * The length of each lottery row.
+     * The length of each lottery row over all the pools.
      */
     private final int lotteryRowLength;
 
     /**
-     * Construct a new lottery configuration.
-     * 
+     * The maximum ball integer value of each pool.
+     */
+    private final int[] poolMaximumNumberValues;
+
+    /**
+     * The number of drawn numbers of each pool.
+     */
+    private final int[] poolRowLengths;
+
+    /**
+     * The index of the first number of each pool within a row, followed by
+     * the row length.
+     */
+    private final int[] poolOffsets;
+
+    /**
+     * The index of the pool of each number of a row.
+     */
+    private final int[] positionPools;
+
+    /**
+     * Construct a new single pool lottery configuration.
+     *
      * @param maximumNumberValue the maximum ball integer value.
      * @param lotteryRowLength   the lottery row length.
      */
     public LotteryConfiguration(final int maximumNumberValue,
                                 final int lotteryRowLength) {
-        checkArgs(maximumNumberValue, lotteryRowLength);
-        this.maximumNumberValue = maximumNumberValue;
-        this.lotteryRowLength   = lotteryRowLength;
+        this(new int[]{ maximumNumberValue }, new int[]{ lotteryRowLength });
+    }
+
+    /**
+     * Construct a new lottery configuration with a main pool and a bonus
+     * pool.
+     *
+     * @param maximumNumberValue      the maximum ball value of the main pool.
+     * @param lotteryRowLength        the number of the main numbers.
+     * @param bonusMaximumNumberValue the maximum ball value of the bonus
+     *                                pool.
+     * @param bonusRowLength          the number of the bonus numbers.
+     */
+    public LotteryConfiguration(final int maximumNumberValue,
+                                final int lotteryRowLength,
+                                final int bonusMaximumNumberValue,
+                                final int bonusRowLength) {
+        this(new int[]{ maximumNumberValue, bonusMaximumNumberValue },
+             new int[]{ lotteryRowLength, bonusRowLength });
+    }
+
+    /**
+     * Construct a new lottery configuration with any number of pools.
+     *
+     * @param poolMaximumNumberValues the maximum ball value of each pool.
+     * @param poolRowLengths          the number of drawn numbers of each
+     *                                pool.
+     */
+    public LotteryConfiguration(final int[] poolMaximumNumberValues,
+                                final int[] poolRowLengths) {
+        Objects.requireNonNull(poolMaximumNumberValues,
+                               "poolMaximumNumberValues == null");
+        Objects.requireNonNull(poolRowLengths, "poolRowLengths == null");
+
+        if (poolMaximumNumberValues.length != poolRowLengths.length) {
+            throw new IllegalArgumentException(
+                    "poolMaximumNumberValues.length(" +
+                    poolMaximumNumberValues.length + ") != " +
+                    "poolRowLengths.length(" + poolRowLengths.length + ")");
+        }
+
+        if (poolRowLengths.length == 0) {
+            throw new IllegalArgumentException("No pools.");
+        }
+
+        this.poolMaximumNumberValues = poolMaximumNumberValues.clone();
+        this.poolRowLengths = poolRowLengths.clone();
+        this.poolOffsets = new int[poolRowLengths.length + 1];
+
+        int maximumNumber = 0;
+
+        for (int pool = 0; pool < poolRowLengths.length; pool++) {
+            checkArgs(poolMaximumNumberValues[pool], poolRowLengths[pool]);
+            maximumNumber = Math.max(maximumNumber,
+                                     poolMaximumNumberValues[pool]);
+            poolOffsets[pool + 1] = Math.addExact(poolOffsets[pool],
+                                                  poolRowLengths[pool]);
+        }
+
+        this.maximumNumberValue = maximumNumber;
+        this.lotteryRowLength = poolOffsets[poolRowLengths.length];
+        this.positionPools = new int[lotteryRowLength];
+
+        for (int pool = 0; pool < poolRowLengths.length; pool++) {
+            Arrays.fill(positionPools,
+                        poolOffsets[pool],
+                        poolOffsets[pool + 1],
+                        pool);
+        }
     }
 
+    /**
+     * Parses a configuration written as <code>k/n</code> for a single pool
+     * game, or as pools joined by plus signs, such as
+     * <code>5/50+2/12</code>, where <code>k</code> is the number of drawn
+     * numbers and <code>n</code> the maximum ball value of a pool.
+     *
+     * @param text the text to parse.
+     * @return the lottery configuration.
+     */
+    public static LotteryConfiguration parse(String text) {
+        Objects.requireNonNull(text, "text == null");
+        String[] pools = text.split("\\+", -1);
+        int[] poolMaximumNumberValues = new int[pools.length];
+        int[] poolRowLengths = new int[pools.length];
+
+        for (int pool = 0; pool < pools.length; pool++) {
+            String[] parts = pools[pool].trim().split("/", -1);
+
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(
+                        "Bad configuration \"" + text + "\".");
+            }
+
+            try {
+                poolRowLengths[pool] = Integer.parseInt(parts[0].trim());
+                poolMaximumNumberValues[pool] =
+                        Integer.parseInt(parts[1].trim());
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException(
+                        "Bad configuration \"" + text + "\".", ex);
+            }
+        }
+
+        return new LotteryConfiguration(poolMaximumNumberValues,
+                                        poolRowLengths);
+    }
+
+    /**
+     * Returns the maximum ball value. For multi-pool games, this is the
+     * largest maximum ball value of all the pools.
+     *
+     * @return the maximum ball value.
+     */
     public int getMaximumNumberValue() {
         return this.maximumNumberValue;
     }
 
+    /**
+     * Returns the number of the numbers in a row. For multi-pool games, this
+     * is the total over all the pools.
+     *
+     * @return the row length.
+     */
     public int getLotteryRowLength() {
         return this.lotteryRowLength;
     }
 
+    /**
+     * Returns the number of pools.
+     *
+     * @return the number of pools.
+     */
+    public int getNumberOfPools() {
+        return poolRowLengths.length;
+    }
+
+    /**
+     * Returns the maximum ball value of the given pool.
+     *
+     * @param pool the index of the pool.
+     * @return the maximum ball value of the pool.
+     */
+    public int getPoolMaximumNumberValue(int pool) {
+        return poolMaximumNumberValues[pool];
+    }
+
+    /**
+     * Returns the number of drawn numbers of the given pool.
+     *
+     * @param pool the index of the pool.
+     * @return the row length of the pool.
+     */
+    public int getPoolRowLength(int pool) {
+        return poolRowLengths[pool];
+    }
+
+    /**
+     * Returns the index of the first number of the given pool within a row.
+     *
+     * @param pool the index of the pool.
+     * @return the offset of the pool.
+     */
+    public int getPoolOffset(int pool) {
+        return poolOffsets[pool];
+    }
+
+    /**
+     * Returns the index of the pool holding the <code>index</code>th number
+     * of a row.
+     *
+     * @param index the index of a number within a row.
+     * @return the index of its pool.
+     */
+    public int getPoolOf(int index) {
+        return positionPools[index];
+    }
+
+    /**
+     * Returns the maximum ball value of the <code>index</code>th number of a
+     * row.
+     *
+     * @param index the index of a number within a row.
+     * @return the maximum ball value of its pool.
+     */
+    public int getMaximumNumberValueAt(int index) {
+        return poolMaximumNumberValues[getPoolOf(index)];
+    }
+
+    /**
+     * Tells whether the <code>index</code>th number of a row is the first
+     * number of its pool. The numbers need to be ascending only within a
+     * pool.
+     *
+     * @param index the index of a number within a row.
+     * @return {@code true} if a pool starts at {@code index}.
+     */
+    public boolean isPoolStart(int index) {
+        return poolOffsets[positionPools[index]] == index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof LotteryConfiguration)) {
+            return false;
+        }
+
+        LotteryConfiguration other = (LotteryConfiguration) o;
+        return Arrays.equals(poolMaximumNumberValues,
+                             other.poolMaximumNumberValues)
+                && Arrays.equals(poolRowLengths, other.poolRowLengths);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(poolMaximumNumberValues)
+                + Arrays.hashCode(poolRowLengths);
+    }
+
+    /**
+     * Returns the configuration in the form accepted by
+     * {@link #parse(String)}, such as <code>7/40</code> or
+     * <code>5/50+2/12</code>.
+     *
+     * @return the textual form of this configuration.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (int pool = 0; pool < poolRowLengths.length; pool++) {
+            if (pool > 0) {
+                stringBuilder.append('+');
+            }
+
+            stringBuilder.append(poolRowLengths[pool])
+                         .append('/')
+                         .append(poolMaximumNumberValues[pool]);
+        }
+
+        return stringBuilder.toString();
+    }
+
     private static void checkArgs(int maximumNumber, int numberCount) {
         if (maximumNumber < 1) {
             throw new IllegalArgumentException(
@@ -53,7 +317,7 @@ public class LotteryConfiguration {
 
         if (numberCount > maximumNumber) {
             throw new IllegalArgumentException(
-                    "numberCount(" + numberCount + ") > " + 
+                    "numberCount(" + numberCount + ") > " +
                     "maximumNumber(" + maximumNumber + ")");
         }
     }
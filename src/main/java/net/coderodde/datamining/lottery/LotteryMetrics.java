@@ -0,0 +1,278 @@
+package net.coderodde.datamining.lottery;
+
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This class collects the runtime metrics of a lottery row generator or a
+ * missing lottery row miner: the numbers of generated and ingested rows,
+ * the duplicate rows, the size of the index, the progress of the
+ * enumeration and the time spent in each phase. The counters are striped
+ * {@link java.util.concurrent.atomic.LongAdder}s, so the parallel
+ * operations update them without contending, and the hot loops update them
+ * once per block or per chunk rather than once per row wherever possible.
+ * <p>
+ * The metrics may be read at any time by taking a {@link #snapshot()}, or
+ * from a JMX client after {@link #register(String)}ing this object with the
+ * platform MBean server.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class LotteryMetrics implements LotteryMetricsMXBean {
+
+    /**
+     * This enumeration lists the timed phases.
+     */
+    public enum Phase {
+
+        /**
+         * Generating random rows. The items are the generated rows.
+         */
+        GENERATION,
+
+        /**
+         * Adding rows to a miner in bulk. The items are the added rows.
+         */
+        INGESTION,
+
+        /**
+         * Enumerating the missing rows. The items are the scanned ranks.
+         */
+        ENUMERATION
+    }
+
+    /**
+     * The domain of the object names of the registered metrics.
+     */
+    private static final String OBJECT_NAME_PREFIX =
+            "net.coderodde.datamining.lottery:type=LotteryMetrics,name=";
+
+    private final LongAdder rowsIngested = new LongAdder();
+    private final LongAdder duplicateRows = new LongAdder();
+    private final LongAdder indexNodes = new LongAdder();
+    private final LongAdder indexBytes = new LongAdder();
+    private final LongAdder scannedRanks = new LongAdder();
+    private final LongAdder[] phaseItems = createAdders();
+    private final LongAdder[] phaseNanos = createAdders();
+
+    /**
+     * The number of ranks of a full enumeration, or zero if this object does
+     * not measure enumerations.
+     */
+    private final long numberOfCombinations;
+
+    /**
+     * The name this object is registered under, or {@code null}.
+     */
+    private volatile ObjectName objectName;
+
+    /**
+     * Constructs the metrics of an object enumerating the given number of
+     * ranks.
+     *
+     * @param numberOfCombinations the number of ranks of a full enumeration.
+     */
+    LotteryMetrics(long numberOfCombinations) {
+        this.numberOfCombinations = numberOfCombinations;
+    }
+
+    /**
+     * Returns a copy of the current values of the metrics.
+     *
+     * @return the snapshot of the metrics.
+     */
+    public LotteryMetricsSnapshot snapshot() {
+        long[] phaseItemValues = new long[phaseItems.length];
+        long[] phaseNanoValues = new long[phaseNanos.length];
+
+        for (int i = 0; i < phaseItems.length; i++) {
+            phaseItemValues[i] = phaseItems[i].sum();
+            phaseNanoValues[i] = phaseNanos[i].sum();
+        }
+
+        return new LotteryMetricsSnapshot(rowsIngested.sum(),
+                                          duplicateRows.sum(),
+                                          indexNodes.sum(),
+                                          indexBytes.sum(),
+                                          scannedRanks.sum(),
+                                          numberOfCombinations,
+                                          phaseItemValues,
+                                          phaseNanoValues);
+    }
+
+    /**
+     * Registers this object with the platform MBean server under the object
+     * name <code>net.coderodde.datamining.lottery:type=LotteryMetrics,
+     * name=</code>{@code name}.
+     *
+     * @param name the value of the name key of the object name.
+     * @return the object name.
+     * @throws JMException if the name is malformed or already in use.
+     */
+    public synchronized ObjectName register(String name) throws JMException {
+        Objects.requireNonNull(name, "name == null");
+
+        if (objectName != null) {
+            throw new IllegalStateException(
+                    "Already registered as " + objectName + ".");
+        }
+
+        ObjectName newObjectName =
+                new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(name));
+
+        ManagementFactory.getPlatformMBeanServer()
+                         .registerMBean(this, newObjectName);
+        objectName = newObjectName;
+        return newObjectName;
+    }
+
+    /**
+     * Unregisters this object from the platform MBean server. Does nothing
+     * if this object is not registered.
+     *
+     * @throws JMException if unregistering fails.
+     */
+    public synchronized void unregister() throws JMException {
+        if (objectName == null) {
+            return;
+        }
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        if (mBeanServer.isRegistered(objectName)) {
+            mBeanServer.unregisterMBean(objectName);
+        }
+
+        objectName = null;
+    }
+
+    @Override
+    public long getRowsGenerated() {
+        return phaseItems[Phase.GENERATION.ordinal()].sum();
+    }
+
+    @Override
+    public long getRowsIngested() {
+        return rowsIngested.sum();
+    }
+
+    @Override
+    public long getDuplicateRows() {
+        return duplicateRows.sum();
+    }
+
+    @Override
+    public double getDuplicateRate() {
+        return snapshot().getDuplicateRate();
+    }
+
+    @Override
+    public long getIndexNodes() {
+        return indexNodes.sum();
+    }
+
+    @Override
+    public long getIndexBytes() {
+        return indexBytes.sum();
+    }
+
+    @Override
+    public long getScannedRanks() {
+        return scannedRanks.sum();
+    }
+
+    @Override
+    public double getEnumerationProgress() {
+        return snapshot().getEnumerationProgress();
+    }
+
+    @Override
+    public double getGenerationRate() {
+        return snapshot().getGenerationRate();
+    }
+
+    @Override
+    public double getIngestionRate() {
+        return snapshot().getIngestionRate();
+    }
+
+    @Override
+    public double getEnumerationRate() {
+        return snapshot().getEnumerationRate();
+    }
+
+    @Override
+    public long getGenerationMillis() {
+        return snapshot().getGenerationMillis();
+    }
+
+    @Override
+    public long getIngestionMillis() {
+        return snapshot().getIngestionMillis();
+    }
+
+    @Override
+    public long getEnumerationMillis() {
+        return snapshot().getEnumerationMillis();
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * Records a finished run of the given phase.
+     *
+     * @param phase the phase.
+     * @param items the number of items processed.
+     * @param nanos the duration of the run in nanoseconds.
+     */
+    void recordPhase(Phase phase, long items, long nanos) {
+        phaseItems[phase.ordinal()].add(items);
+        phaseNanos[phase.ordinal()].add(nanos);
+    }
+
+    void addRowsIngested(long rows) {
+        rowsIngested.add(rows);
+    }
+
+    void addDuplicateRows(long rows) {
+        duplicateRows.add(rows);
+    }
+
+    void addIndexNodes(long nodes) {
+        indexNodes.add(nodes);
+    }
+
+    void addIndexBytes(long bytes) {
+        indexBytes.add(bytes);
+    }
+
+    void addScannedRanks(long ranks) {
+        scannedRanks.add(ranks);
+    }
+
+    /**
+     * Resets the progress counter at the start of a new enumeration.
+     */
+    void startEnumeration() {
+        scannedRanks.reset();
+    }
+
+    private static LongAdder[] createAdders() {
+        LongAdder[] adders = new LongAdder[Phase.values().length];
+
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+
+        return adders;
+    }
+}
@@ -0,0 +1,113 @@
+package net.coderodde.datamining.lottery;
+
+/**
+ * This interface defines the JMX view of
+ * {@link net.coderodde.datamining.lottery.LotteryMetrics}, so that a long
+ * running ingestion or enumeration may be watched from JConsole or any other
+ * JMX client. All the attributes are read only.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public interface LotteryMetricsMXBean {
+
+    /**
+     * Returns the number of generated rows.
+     *
+     * @return the number of generated rows.
+     */
+    long getRowsGenerated();
+
+    /**
+     * Returns the number of ingested rows, duplicates included.
+     *
+     * @return the number of ingested rows.
+     */
+    long getRowsIngested();
+
+    /**
+     * Returns the number of ingested rows that were already in the index.
+     *
+     * @return the number of duplicate rows.
+     */
+    long getDuplicateRows();
+
+    /**
+     * Returns the share of the duplicate rows among the ingested rows.
+     *
+     * @return the duplicate rate between zero and one.
+     */
+    double getDuplicateRate();
+
+    /**
+     * Returns the number of nodes in the index.
+     *
+     * @return the number of index nodes.
+     */
+    long getIndexNodes();
+
+    /**
+     * Returns the estimated size of the index in bytes.
+     *
+     * @return the index size in bytes.
+     */
+    long getIndexBytes();
+
+    /**
+     * Returns the number of ranks checked by the current or the last
+     * enumeration.
+     *
+     * @return the number of scanned ranks.
+     */
+    long getScannedRanks();
+
+    /**
+     * Returns the progress of the current or the last enumeration.
+     *
+     * @return the share of the scanned ranks between zero and one.
+     */
+    double getEnumerationProgress();
+
+    /**
+     * Returns the number of rows generated per second.
+     *
+     * @return the generation rate.
+     */
+    double getGenerationRate();
+
+    /**
+     * Returns the number of rows ingested per second by the bulk additions.
+     *
+     * @return the ingestion rate.
+     */
+    double getIngestionRate();
+
+    /**
+     * Returns the number of ranks enumerated per second.
+     *
+     * @return the enumeration rate.
+     */
+    double getEnumerationRate();
+
+    /**
+     * Returns the total time spent generating rows.
+     *
+     * @return the generation time in milliseconds.
+     */
+    long getGenerationMillis();
+
+    /**
+     * Returns the total time spent in the bulk additions.
+     *
+     * @return the ingestion time in milliseconds.
+     */
+    long getIngestionMillis();
+
+    /**
+     * Returns the total time spent enumerating the missing rows.
+     *
+     * @return the enumeration time in milliseconds.
+     */
+    long getEnumerationMillis();
+}
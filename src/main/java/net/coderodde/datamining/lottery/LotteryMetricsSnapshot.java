@@ -0,0 +1,250 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.Objects;
+import net.coderodde.datamining.lottery.LotteryMetrics.Phase;
+
+/**
+ * This class holds an immutable copy of the counters of
+ * {@link net.coderodde.datamining.lottery.LotteryMetrics} taken at a single
+ * moment, together with the rates and the progress derived from them. As
+ * the counters are updated concurrently, the values of a snapshot taken
+ * during an operation may be slightly apart from each other.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class LotteryMetricsSnapshot {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final long rowsIngested;
+    private final long duplicateRows;
+    private final long indexNodes;
+    private final long indexBytes;
+    private final long scannedRanks;
+    private final long numberOfCombinations;
+
+    /**
+     * The number of items processed in each phase, indexed by the ordinals
+     * of {@link Phase}.
+     */
+    private final long[] phaseItems;
+
+    /**
+     * The time spent in each phase in nanoseconds, indexed by the ordinals
+     * of {@link Phase}.
+     */
+    private final long[] phaseNanos;
+
+    LotteryMetricsSnapshot(long rowsIngested,
+                           long duplicateRows,
+                           long indexNodes,
+                           long indexBytes,
+                           long scannedRanks,
+                           long numberOfCombinations,
+                           long[] phaseItems,
+                           long[] phaseNanos) {
+        this.rowsIngested = rowsIngested;
+        this.duplicateRows = duplicateRows;
+        this.indexNodes = indexNodes;
+        this.indexBytes = indexBytes;
+        this.scannedRanks = scannedRanks;
+        this.numberOfCombinations = numberOfCombinations;
+        this.phaseItems = phaseItems;
+        this.phaseNanos = phaseNanos;
+    }
+
+    /**
+     * Returns the number of generated rows.
+     *
+     * @return the number of generated rows.
+     */
+    public long getRowsGenerated() {
+        return getPhaseItems(Phase.GENERATION);
+    }
+
+    /**
+     * Returns the number of ingested rows, duplicates included.
+     *
+     * @return the number of ingested rows.
+     */
+    public long getRowsIngested() {
+        return rowsIngested;
+    }
+
+    /**
+     * Returns the number of ingested rows that were already in the index.
+     * The engines that do not track the duplicates report zero.
+     *
+     * @return the number of duplicate rows.
+     */
+    public long getDuplicateRows() {
+        return duplicateRows;
+    }
+
+    /**
+     * Returns the share of the duplicate rows among the ingested rows.
+     *
+     * @return the duplicate rate between zero and one.
+     */
+    public double getDuplicateRate() {
+        return rowsIngested == 0L ? 0.0 : (double) duplicateRows / rowsIngested;
+    }
+
+    /**
+     * Returns the number of nodes in the index. The engines without nodes
+     * report zero.
+     *
+     * @return the number of index nodes.
+     */
+    public long getIndexNodes() {
+        return indexNodes;
+    }
+
+    /**
+     * Returns the estimated size of the index in bytes. The engines that do
+     * not track their size report zero.
+     *
+     * @return the index size in bytes.
+     */
+    public long getIndexBytes() {
+        return indexBytes;
+    }
+
+    /**
+     * Returns the number of ranks checked by the current or the last
+     * enumeration.
+     *
+     * @return the number of scanned ranks.
+     */
+    public long getScannedRanks() {
+        return scannedRanks;
+    }
+
+    /**
+     * Returns the progress of the current or the last enumeration as the
+     * share of the scanned ranks among all the <code>C(n, k)</code> ranks.
+     *
+     * @return the enumeration progress between zero and one.
+     */
+    public double getEnumerationProgress() {
+        return numberOfCombinations == 0L
+                ? 0.0
+                : Math.min(1.0, (double) scannedRanks / numberOfCombinations);
+    }
+
+    /**
+     * Returns the number of items processed in the given phase: the rows
+     * for the generation and the ingestion, and the ranks for the
+     * enumeration. The ingestion counts only the rows of the bulk
+     * additions, as the single row additions are not timed.
+     *
+     * @param phase the phase.
+     * @return the number of processed items.
+     */
+    public long getPhaseItems(Phase phase) {
+        return phaseItems[Objects.requireNonNull(phase, "phase == null")
+                                 .ordinal()];
+    }
+
+    /**
+     * Returns the total time spent in the given phase.
+     *
+     * @param phase the phase.
+     * @return the time in nanoseconds.
+     */
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[Objects.requireNonNull(phase, "phase == null")
+                                 .ordinal()];
+    }
+
+    /**
+     * Returns the number of items processed per second in the given phase.
+     *
+     * @param phase the phase.
+     * @return the rate, or zero if the phase has not run.
+     */
+    public double getPhaseRate(Phase phase) {
+        long nanos = getPhaseNanos(phase);
+        return nanos == 0L
+                ? 0.0
+                : getPhaseItems(phase) * NANOS_PER_SECOND / nanos;
+    }
+
+    /**
+     * Returns the number of rows generated per second.
+     *
+     * @return the generation rate.
+     */
+    public double getGenerationRate() {
+        return getPhaseRate(Phase.GENERATION);
+    }
+
+    /**
+     * Returns the number of rows ingested per second by the bulk additions.
+     *
+     * @return the ingestion rate.
+     */
+    public double getIngestionRate() {
+        return getPhaseRate(Phase.INGESTION);
+    }
+
+    /**
+     * Returns the number of ranks enumerated per second.
+     *
+     * @return the enumeration rate.
+     */
+    public double getEnumerationRate() {
+        return getPhaseRate(Phase.ENUMERATION);
+    }
+
+    /**
+     * Returns the total time spent generating rows.
+     *
+     * @return the generation time in milliseconds.
+     */
+    public long getGenerationMillis() {
+        return getPhaseNanos(Phase.GENERATION) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Returns the total time spent in the bulk additions.
+     *
+     * @return the ingestion time in milliseconds.
+     */
+    public long getIngestionMillis() {
+        return getPhaseNanos(Phase.INGESTION) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Returns the total time spent enumerating the missing rows.
+     *
+     * @return the enumeration time in milliseconds.
+     */
+    public long getEnumerationMillis() {
+        return getPhaseNanos(Phase.ENUMERATION) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "generated %d rows in %d ms (%.0f rows/s), " +
+                "ingested %d rows in %d ms (%.0f rows/s, %.2f%% duplicates), " +
+                "index %d nodes in %d bytes, " +
+                "enumerated %.2f%% in %d ms (%.0f ranks/s)",
+                getRowsGenerated(),
+                getGenerationMillis(),
+                getGenerationRate(),
+                rowsIngested,
+                getIngestionMillis(),
+                getIngestionRate(),
+                100.0 * getDuplicateRate(),
+                indexNodes,
+                indexBytes,
+                100.0 * getEnumerationProgress(),
+                getEnumerationMillis(),
+                getEnumerationRate());
+    }
+}
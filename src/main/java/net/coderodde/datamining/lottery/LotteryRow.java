@@ -1,12 +1,14 @@
 package net.coderodde.datamining.lottery;
 
-import java.util.Arrays;
 import java.util.Objects;
 
 /**
- * This class implements a single lottery row.
+ * This class implements a single lottery row. The numbers of a multi-pool
+ * row are kept pool by pool, each pool in ascending order.
  * 
  * @author Rodion "rodde" Efremove
+ * @version 1.63 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.62 (Oct 16, 2026) ~ single-pass bulk construction.
  * @version 1.61 (Apr 27, 2020) ~ removed manual sorting.
  * @version 1.6 (Apr 18, 2020) ~ initial version.
  * @since 1.6 (Apr 18, 2020)
@@ -42,17 +44,64 @@ public class LotteryRow {
                 new int[lotteryConfiguration.getLotteryRowLength()];
     }
 
+    /**
+     * Constructs a full lottery row holding the given numbers. The numbers
+     * of each pool may be given in any order; they are validated and ordered
+     * in a single pass.
+     * 
+     * @param lotteryConfiguration the lottery row configuration.
+     * @param numbers              the numbers of the row.
+     * @return a new lottery row.
+     */
+    public static LotteryRow of(LotteryConfiguration lotteryConfiguration,
+                                int... numbers) {
+        return new LotteryRow(lotteryConfiguration).setNumbers(numbers);
+    }
+
+    /**
+     * Constructs a full lottery row holding the given numbers, which must 
+     * already be in strictly ascending order within each pool. No sorting
+     * takes place.
+     * 
+     * @param lotteryConfiguration the lottery row configuration.
+     * @param numbers              the numbers of the row in ascending order.
+     * @return a new lottery row.
+     */
+    public static LotteryRow fromSorted(
+            LotteryConfiguration lotteryConfiguration,
+            int... numbers) {
+        LotteryRow lotteryRow = new LotteryRow(lotteryConfiguration);
+        lotteryRow.checkLength(numbers);
+
+        for (int i = 0; i < numbers.length; i++) {
+            int number = numbers[i];
+            lotteryRow.checkNumber(i, number);
+
+            if (!lotteryConfiguration.isPoolStart(i) 
+                    && numbers[i - 1] >= number) {
+                throw new IllegalArgumentException(
+                        "The numbers are not in strictly ascending order (" +
+                        numbers[i - 1] + " >= " + number + ").");
+            }
+
+            lotteryRow.lotteryNumbers[i] = number;
+        }
+
+        lotteryRow.size = numbers.length;
+        return lotteryRow;
+    }
+
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
-        boolean isFirst = true;
 
-        for (final int number : this.lotteryNumbers) {
-            if (isFirst) {
-                isFirst = false;
-                stringBuilder.append(number);
+        for (int i = 0; i < this.lotteryNumbers.length; i++) {
+            if (i == 0) {
+                stringBuilder.append(this.lotteryNumbers[i]);
+            } else if (lotteryConfiguration.isPoolStart(i)) {
+                stringBuilder.append(" + ").append(this.lotteryNumbers[i]);
             } else {
-                stringBuilder.append(",").append(number);
+                stringBuilder.append(",").append(this.lotteryNumbers[i]);
             }
         }
 
@@ -60,15 +109,68 @@ public class LotteryRow {
     }
 
     /**
-     * Appends a number to the tail of this lottery row.
+     * Appends a number to the tail of this lottery row. The numbers of a 
+     * multi-pool row are appended pool by pool.
      * 
      * @param number the number to append.
+     * @throws IllegalArgumentException if the pool of the number already
+     *                                  holds it; the row is left intact.
      */
     public void appendNumber(int number) {
-        checkNumber(number);
         checkHasSpaceForNewNumber();
-        lotteryNumbers[size++] = number;
-        Arrays.sort(lotteryNumbers, 0, size);
+        checkNumber(size, number);
+
+        if (poolContains(number)) {
+            throw new IllegalArgumentException(
+                    "Duplicate number (" + number + ") in a row.");
+        }
+
+        insertNumber(number);
+    }
+
+    /**
+     * Replaces all the numbers of this row with the given ones. This allows
+     * reusing a single row object as a cursor. The numbers of each pool may
+     * be given in any order; they are validated and ordered in a single 
+     * pass.
+     * 
+     * @param numbers the new numbers of this row.
+     * @return this row for chaining.
+     */
+    public LotteryRow setNumbers(int... numbers) {
+        checkLength(numbers);
+        size = 0;
+
+        for (int number : numbers) {
+            checkNumber(size, number);
+
+            if (!insertNumber(number)) {
+                size = 0;
+                throw new IllegalArgumentException(
+                        "Duplicate number (" + number + ") in a row.");
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Removes all the numbers from this row.
+     * 
+     * @return this row for chaining.
+     */
+    public LotteryRow clear() {
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Returns the number of numbers currently in this row.
+     * 
+     * @return the number of numbers.
+     */
+    public int size() {
+        return size;
     }
 
     /**
@@ -91,6 +193,66 @@ public class LotteryRow {
         return lotteryConfiguration;
     }
 
+    /**
+     * Tells whether the pool of the next number already holds
+     * {@code number}.
+     *
+     * @param number the number to look for.
+     * @return {@code true} if the number is present in the pool.
+     */
+    private boolean poolContains(int number) {
+        int poolOffset =
+                lotteryConfiguration.getPoolOffset(
+                        lotteryConfiguration.getPoolOf(size));
+
+        for (int i = poolOffset; i < size; i++) {
+            if (lotteryNumbers[i] == number) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Inserts the number into its sorted position within its pool by shifting
+     * the greater numbers of the pool one position to the right.
+     * 
+     * @param number the number to insert.
+     * @return {@code false} if the number was already present in its pool, in
+     *         which case the row contents are unspecified.
+     */
+    private boolean insertNumber(int number) {
+        int poolOffset = 
+                lotteryConfiguration.getPoolOffset(
+                        lotteryConfiguration.getPoolOf(size));
+        int i = size - 1;
+
+        while (i >= poolOffset && lotteryNumbers[i] > number) {
+            lotteryNumbers[i + 1] = lotteryNumbers[i];
+            i--;
+        }
+
+        lotteryNumbers[i + 1] = number;
+        size++;
+        return i < poolOffset || lotteryNumbers[i] != number;
+    }
+
+    /**
+     * Checks that the input array holds exactly one full row of numbers.
+     * 
+     * @param numbers the numbers to check.
+     */
+    private void checkLength(int[] numbers) {
+        Objects.requireNonNull(numbers, "numbers == null");
+
+        if (numbers.length != lotteryNumbers.length) {
+            throw new IllegalArgumentException(
+                    "Wrong length of a row (" + numbers.length + 
+                    ", must be exactly " + lotteryNumbers.length + ".");
+        }
+    }
+
     /**
      * Checks that there is more space for lottery numbers in this row.
      */
@@ -102,20 +264,25 @@ public class LotteryRow {
     }
 
     /**
-     * Checks that the input number is within the lottery number range.
+     * Checks that the input number is within the number range of the pool of
+     * the <code>index</code>th number.
      * 
+     * @param index  the index of the number within the row.
      * @param number the number to check.
      */
-    private void checkNumber(int number) {
+    private void checkNumber(int index, int number) {
         if (number < 1) {
             throw new IllegalArgumentException("number(" + number + ") < 1");
         }
 
-        if (number > this.lotteryConfiguration.getMaximumNumberValue()) {
+        int maximumNumber = 
+                this.lotteryConfiguration.getMaximumNumberValueAt(index);
+
+        if (number > maximumNumber) {
             throw new IllegalArgumentException(
                 "number (" + number + ") > " +
-                "this.lotteryConfiguration.getMaximumNumberValue()[" +
-                this.lotteryConfiguration.getMaximumNumberValue() + "]");
+                "this.lotteryConfiguration.getMaximumNumberValueAt(" + 
+                index + ")[" + maximumNumber + "]");
         }
     }
 
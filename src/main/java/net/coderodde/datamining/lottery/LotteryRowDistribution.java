@@ -0,0 +1,36 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.SplittableRandom;
+
+/**
+ * This interface defines a probability distribution over the lottery rows of
+ * a configuration. The distributions are used for generating synthetic
+ * workloads that resemble the choices of real players. See
+ * {@link net.coderodde.datamining.lottery.LotteryRowDistributions} for the
+ * available implementations.
+ * <p>
+ * Implementations must be safe to sample from several threads at the same
+ * time, each thread passing its own random number generator.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public interface LotteryRowDistribution {
+
+    /**
+     * Returns the lottery configuration of this distribution.
+     *
+     * @return the lottery configuration object.
+     */
+    LotteryConfiguration getLotteryConfiguration();
+
+    /**
+     * Draws a random row.
+     *
+     * @param random  the random number generator.
+     * @param numbers the target array receiving the numbers of the row in
+     *                strictly ascending order within each pool.
+     */
+    void sample(SplittableRandom random, int[] numbers);
+}
@@ -0,0 +1,548 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * This class provides the lottery row distributions for generating realistic,
+ * skewed workloads. All the discrete choices are sampled from alias tables,
+ * so that drawing a row takes time proportional to the row length. The
+ * numbers of each pool of a multi-pool game are drawn independently.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class LotteryRowDistributions {
+
+    /**
+     * The largest number appearing in a date.
+     */
+    private static final int MAXIMUM_BIRTHDAY_NUMBER = 31;
+
+    private LotteryRowDistributions() {}
+
+    /**
+     * Returns the uniform distribution over all the rows. This is the
+     * distribution of quick picks.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @return the uniform distribution.
+     */
+    public static LotteryRowDistribution
+        uniform(LotteryConfiguration lotteryConfiguration) {
+        return new UniformDistribution(lotteryConfiguration);
+    }
+
+    /**
+     * Returns the distribution drawing the numbers of a row without
+     * replacement according to per-number weights. Sampling rejects the
+     * numbers already drawn, so it stays fast unless nearly all of the
+     * weight is concentrated on fewer than <code>k</code> numbers.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @param weights              the weight of each number; the weight of
+     *                             number <code>i</code> is at index
+     *                             <code>i - 1</code>. The weights of the
+     *                             pools of a multi-pool game follow each
+     *                             other, pool by pool.
+     * @return the weighted number distribution.
+     */
+    public static LotteryRowDistribution
+        weightedNumbers(LotteryConfiguration lotteryConfiguration,
+                        double[] weights) {
+        return new WeightedNumbersDistribution(lotteryConfiguration, weights);
+    }
+
+    /**
+     * Returns the distribution of players favouring dates: the numbers from
+     * 1 to 31 of each pool are {@code birthdayWeight} times as likely as the
+     * rest.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @param birthdayWeight       the relative weight of the date numbers.
+     * @return the birthday biased distribution.
+     */
+    public static LotteryRowDistribution
+        birthdays(LotteryConfiguration lotteryConfiguration,
+                  double birthdayWeight) {
+        Objects.requireNonNull(lotteryConfiguration,
+                               "lotteryConfiguration == null");
+        double[] weights = new double[getNumberOfWeights(lotteryConfiguration)];
+
+        for (int pool = 0, index = 0;
+                pool < lotteryConfiguration.getNumberOfPools();
+                pool++) {
+            for (int i = 0,
+                    n = lotteryConfiguration.getPoolMaximumNumberValue(pool);
+                    i < n;
+                    i++) {
+                weights[index++] =
+                        i < MAXIMUM_BIRTHDAY_NUMBER ? birthdayWeight : 1.0;
+            }
+        }
+
+        return weightedNumbers(lotteryConfiguration, weights);
+    }
+
+    /**
+     * Returns the distribution drawing from a fixed set of popular rows
+     * whose popularity follows Zipf's law: the <code>i</code>th most popular
+     * row is played with probability proportional to
+     * <code>1 / i<sup>s</sup></code>. The popular rows themselves are chosen
+     * uniformly at random from the given seed.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @param numberOfPopularRows  the number of distinct popular rows.
+     * @param exponent             the exponent <code>s</code>.
+     * @param seed                 the seed choosing the popular rows.
+     * @return the Zipf distribution.
+     */
+    public static LotteryRowDistribution
+        zipf(LotteryConfiguration lotteryConfiguration,
+             int numberOfPopularRows,
+             double exponent,
+             long seed) {
+        CombinationRanker combinationRanker =
+                new CombinationRanker(lotteryConfiguration);
+
+        checkPositive(numberOfPopularRows, "numberOfPopularRows");
+
+        if (numberOfPopularRows > combinationRanker.getNumberOfCombinations()) {
+            throw new IllegalArgumentException(
+                    "numberOfPopularRows(" + numberOfPopularRows + ") > " +
+                    combinationRanker.getNumberOfCombinations());
+        }
+
+        if (!(exponent >= 0.0) || Double.isInfinite(exponent)) {
+            throw new IllegalArgumentException(
+                    "Bad exponent (" + exponent + ").");
+        }
+
+        int lotteryRowLength = lotteryConfiguration.getLotteryRowLength();
+        int[] rows = new int[getRowsLength(numberOfPopularRows,
+                                           lotteryRowLength,
+                                           "numberOfPopularRows")];
+        int[] numbers = new int[lotteryRowLength];
+        double[] weights = new double[numberOfPopularRows];
+        long[] popularRanks =
+                sampleDistinctRanks(combinationRanker.getNumberOfCombinations(),
+                                    numberOfPopularRows,
+                                    new SplittableRandom(seed));
+
+        for (int i = 0; i < numberOfPopularRows; i++) {
+            combinationRanker.unrank(popularRanks[i], numbers);
+            System.arraycopy(numbers, 0, rows, i * lotteryRowLength,
+                             lotteryRowLength);
+            weights[i] = 1.0 / Math.pow(i + 1, exponent);
+        }
+
+        return new RowSetDistribution(lotteryConfiguration,
+                                      rows,
+                                      new AliasTable(weights));
+    }
+
+    /**
+     * Returns the distribution replaying a small pool of rows with
+     * probability {@code duplicateProbability}, and drawing from
+     * {@code base} otherwise. The pool is drawn from {@code base} once, from
+     * the given seed. This mode stresses the duplicate handling of the
+     * miners.
+     *
+     * @param base                 the distribution of the fresh rows.
+     * @param duplicateProbability the probability of replaying a pool row.
+     * @param poolSize             the number of the rows in the pool.
+     * @param seed                 the seed drawing the pool.
+     * @return the duplicate heavy distribution.
+     */
+    public static LotteryRowDistribution
+        duplicateHeavy(LotteryRowDistribution base,
+                       double duplicateProbability,
+                       int poolSize,
+                       long seed) {
+        Objects.requireNonNull(base, "base == null");
+        checkProbability(duplicateProbability, "duplicateProbability");
+        checkPositive(poolSize, "poolSize");
+
+        LotteryConfiguration lotteryConfiguration =
+                base.getLotteryConfiguration();
+
+        int lotteryRowLength = lotteryConfiguration.getLotteryRowLength();
+        int[] rows =
+                new int[getRowsLength(poolSize, lotteryRowLength, "poolSize")];
+        int[] numbers = new int[lotteryRowLength];
+        SplittableRandom random = new SplittableRandom(seed);
+
+        for (int i = 0; i < poolSize; i++) {
+            base.sample(random, numbers);
+            System.arraycopy(numbers, 0, rows, i * lotteryRowLength,
+                             lotteryRowLength);
+        }
+
+        double[] poolWeights = new double[poolSize];
+        Arrays.fill(poolWeights, 1.0);
+
+        return mixture(
+                new LotteryRowDistribution[]{
+                    new RowSetDistribution(lotteryConfiguration,
+                                           rows,
+                                           new AliasTable(poolWeights)),
+                    base
+                },
+                new double[]{ duplicateProbability,
+                              1.0 - duplicateProbability });
+    }
+
+    /**
+     * Returns the mix of quick picks and hand-picked rows.
+     *
+     * @param quickPickFraction the fraction of quick picks.
+     * @param handPicked        the distribution of the hand-picked rows.
+     * @return the mixed distribution.
+     */
+    public static LotteryRowDistribution
+        quickPickMix(double quickPickFraction,
+                     LotteryRowDistribution handPicked) {
+        Objects.requireNonNull(handPicked, "handPicked == null");
+        checkProbability(quickPickFraction, "quickPickFraction");
+
+        return mixture(
+                new LotteryRowDistribution[]{
+                    uniform(handPicked.getLotteryConfiguration()),
+                    handPicked
+                },
+                new double[]{ quickPickFraction, 1.0 - quickPickFraction });
+    }
+
+    /**
+     * Returns the mixture of the given distributions. Each row is drawn from
+     * a component chosen according to {@code weights}.
+     *
+     * @param components the component distributions of the same game.
+     * @param weights    the weights of the components.
+     * @return the mixture distribution.
+     */
+    public static LotteryRowDistribution
+        mixture(LotteryRowDistribution[] components, double[] weights) {
+        Objects.requireNonNull(components, "components == null");
+        Objects.requireNonNull(weights, "weights == null");
+
+        if (components.length != weights.length) {
+            throw new IllegalArgumentException(
+                    "components.length(" + components.length + ") != " +
+                    "weights.length(" + weights.length + ")");
+        }
+
+        if (components.length == 0) {
+            throw new IllegalArgumentException("components.length == 0");
+        }
+
+        LotteryConfiguration lotteryConfiguration =
+                Objects.requireNonNull(components[0], "components[0] == null")
+                       .getLotteryConfiguration();
+
+        for (LotteryRowDistribution component : components) {
+            Objects.requireNonNull(component, "component == null");
+            if (!component.getLotteryConfiguration()
+                          .equals(lotteryConfiguration)) {
+                throw new IllegalArgumentException(
+                        "The components are of different games.");
+            }
+        }
+
+        return new MixtureDistribution(lotteryConfiguration,
+                                       components.clone(),
+                                       new AliasTable(weights));
+    }
+
+    private static void checkPositive(int value, String name) {
+        if (value < 1) {
+            throw new IllegalArgumentException(
+                    name + "(" + value + ") < 1");
+        }
+    }
+
+    private static void checkProbability(double probability, String name) {
+        if (!(probability >= 0.0 && probability <= 1.0)) {
+            throw new IllegalArgumentException(
+                    name + "(" + probability + ") not within [0, 1]");
+        }
+    }
+
+    /**
+     * Returns the length of an array packing {@code numberOfRows} rows.
+     */
+    private static int getRowsLength(int numberOfRows,
+                                     int lotteryRowLength,
+                                     String name) {
+        try {
+            return Math.multiplyExact(numberOfRows, lotteryRowLength);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException(
+                    name + "(" + numberOfRows + ") rows of " +
+                    lotteryRowLength + " numbers do not fit in an array.",
+                    ex);
+        }
+    }
+
+    /**
+     * Draws {@code numberOfRanks} distinct ranks out of
+     * <code>[0, numberOfCombinations)</code> in random order. Floyd's
+     * algorithm takes exactly one draw per rank however close
+     * {@code numberOfRanks} is to {@code numberOfCombinations}; its output
+     * is then shuffled, as it tends to place the large ranks last.
+     */
+    private static long[] sampleDistinctRanks(long numberOfCombinations,
+                                              int numberOfRanks,
+                                              SplittableRandom random) {
+        Set<Long> sampledRanks = new HashSet<>();
+        long[] ranks = new long[numberOfRanks];
+        int size = 0;
+
+        for (long bound = numberOfCombinations - numberOfRanks;
+                bound < numberOfCombinations;
+                bound++) {
+            long rank = random.nextLong(bound + 1L);
+
+            // 'bound' itself was never drawn, as all the previous draws
+            // were below it:
+            if (!sampledRanks.add(rank)) {
+                rank = bound;
+                sampledRanks.add(rank);
+            }
+
+            ranks[size++] = rank;
+        }
+
+        for (int i = numberOfRanks - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long rank = ranks[i];
+            ranks[i] = ranks[j];
+            ranks[j] = rank;
+        }
+
+        return ranks;
+    }
+
+    /**
+     * Returns the total number of the numbers of all the pools.
+     */
+    private static int
+        getNumberOfWeights(LotteryConfiguration lotteryConfiguration) {
+        int numberOfWeights = 0;
+
+        for (int pool = 0;
+                pool < lotteryConfiguration.getNumberOfPools();
+                pool++) {
+            numberOfWeights +=
+                    lotteryConfiguration.getPoolMaximumNumberValue(pool);
+        }
+
+        return numberOfWeights;
+    }
+
+    /**
+     * Inserts {@code number} into the ascending range
+     * <code>numbers[offset, offset + size)</code>.
+     *
+     * @return {@code false} if the number is already in the range.
+     */
+    private static boolean insertNumber(int[] numbers,
+                                        int offset,
+                                        int size,
+                                        int number) {
+        int i = offset + size - 1;
+
+        while (i >= offset && numbers[i] > number) {
+            i--;
+        }
+
+        if (i >= offset && numbers[i] == number) {
+            return false;
+        }
+
+        System.arraycopy(numbers, i + 1, numbers, i + 2, offset + size - i - 1);
+        numbers[i + 1] = number;
+        return true;
+    }
+
+    /**
+     * The base class holding the configuration of a distribution.
+     */
+    private abstract static class AbstractDistribution
+            implements LotteryRowDistribution {
+
+        final LotteryConfiguration lotteryConfiguration;
+
+        AbstractDistribution(LotteryConfiguration lotteryConfiguration) {
+            this.lotteryConfiguration =
+                    Objects.requireNonNull(lotteryConfiguration,
+                                           "lotteryConfiguration == null");
+        }
+
+        @Override
+        public LotteryConfiguration getLotteryConfiguration() {
+            return lotteryConfiguration;
+        }
+    }
+
+    /**
+     * Draws uniform rows by Floyd's sampling algorithm, which needs exactly
+     * <code>k</code> random numbers and no scratch space.
+     */
+    private static final class UniformDistribution
+            extends AbstractDistribution {
+
+        UniformDistribution(LotteryConfiguration lotteryConfiguration) {
+            super(lotteryConfiguration);
+        }
+
+        @Override
+        public void sample(SplittableRandom random, int[] numbers) {
+            for (int pool = 0;
+                    pool < lotteryConfiguration.getNumberOfPools();
+                    pool++) {
+                int maximumNumber =
+                        lotteryConfiguration.getPoolMaximumNumberValue(pool);
+                int poolRowLength = lotteryConfiguration.getPoolRowLength(pool);
+                int offset = lotteryConfiguration.getPoolOffset(pool);
+
+                for (int size = 0, j = maximumNumber - poolRowLength + 1;
+                        j <= maximumNumber;
+                        size++, j++) {
+                    if (!insertNumber(numbers,
+                                      offset,
+                                      size,
+                                      1 + random.nextInt(j))) {
+                        // The largest candidate is never chosen before:
+                        insertNumber(numbers, offset, size, j);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws the numbers one by one from an alias table per pool, rejecting
+     * repeats.
+     */
+    private static final class WeightedNumbersDistribution
+            extends AbstractDistribution {
+
+        private final AliasTable[] aliasTables;
+
+        WeightedNumbersDistribution(LotteryConfiguration lotteryConfiguration,
+                                    double[] weights) {
+            super(lotteryConfiguration);
+            Objects.requireNonNull(weights, "weights == null");
+            int numberOfWeights = getNumberOfWeights(lotteryConfiguration);
+
+            if (weights.length != numberOfWeights) {
+                throw new IllegalArgumentException(
+                        "weights.length(" + weights.length + ") != " +
+                        numberOfWeights);
+            }
+
+            this.aliasTables =
+                    new AliasTable[lotteryConfiguration.getNumberOfPools()];
+
+            for (int pool = 0, from = 0; pool < aliasTables.length; pool++) {
+                int to = from
+                       + lotteryConfiguration.getPoolMaximumNumberValue(pool);
+                int poolRowLength = lotteryConfiguration.getPoolRowLength(pool);
+                int numberOfPositiveWeights = 0;
+
+                for (int i = from; i < to; i++) {
+                    if (weights[i] > 0.0) {
+                        numberOfPositiveWeights++;
+                    }
+                }
+
+                if (numberOfPositiveWeights < poolRowLength) {
+                    throw new IllegalArgumentException(
+                            "Fewer positive weights (" +
+                            numberOfPositiveWeights +
+                            ") than numbers in a row (" + poolRowLength +
+                            ").");
+                }
+
+                aliasTables[pool] =
+                        new AliasTable(Arrays.copyOfRange(weights, from, to));
+                from = to;
+            }
+        }
+
+        @Override
+        public void sample(SplittableRandom random, int[] numbers) {
+            for (int pool = 0; pool < aliasTables.length; pool++) {
+                int poolRowLength = lotteryConfiguration.getPoolRowLength(pool);
+                int offset = lotteryConfiguration.getPoolOffset(pool);
+                int size = 0;
+
+                while (size < poolRowLength) {
+                    if (insertNumber(numbers,
+                                     offset,
+                                     size,
+                                     1 + aliasTables[pool].sample(random))) {
+                        size++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws from a fixed set of packed rows according to an alias table.
+     */
+    private static final class RowSetDistribution
+            extends AbstractDistribution {
+
+        private final int[] rows;
+        private final AliasTable aliasTable;
+
+        RowSetDistribution(LotteryConfiguration lotteryConfiguration,
+                           int[] rows,
+                           AliasTable aliasTable) {
+            super(lotteryConfiguration);
+            this.rows = rows;
+            this.aliasTable = aliasTable;
+        }
+
+        @Override
+        public void sample(SplittableRandom random, int[] numbers) {
+            int lotteryRowLength = lotteryConfiguration.getLotteryRowLength();
+            System.arraycopy(rows,
+                             aliasTable.sample(random) * lotteryRowLength,
+                             numbers,
+                             0,
+                             lotteryRowLength);
+        }
+    }
+
+    /**
+     * Draws from a component distribution chosen by an alias table.
+     */
+    private static final class MixtureDistribution
+            extends AbstractDistribution {
+
+        private final LotteryRowDistribution[] components;
+        private final AliasTable aliasTable;
+
+        MixtureDistribution(LotteryConfiguration lotteryConfiguration,
+                            LotteryRowDistribution[] components,
+                            AliasTable aliasTable) {
+            super(lotteryConfiguration);
+            this.components = components;
+            this.aliasTable = aliasTable;
+        }
+
+        @Override
+        public void sample(SplittableRandom random, int[] numbers) {
+            components[aliasTable.sample(random)].sample(random, numbers);
+        }
+    }
+}
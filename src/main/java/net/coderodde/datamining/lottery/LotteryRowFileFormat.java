@@ -0,0 +1,340 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class defines the binary lottery row file format. A file consists of
+ * a fixed size header followed by the rows, each row taking exactly one byte
+ * per number with the numbers in ascending order:
+ *
+ * <pre>
+ * int  magic              (0x4C525746, "LRWF")
+ * int  format version
+ * int  maximum number value
+ * int  lottery row length
+ * long number of rows
+ * byte[rowLength] row 0
+ * byte[rowLength] row 1
+ * ...
+ * </pre>
+ *
+ * All the multi-byte values are big-endian.
+ * <p>
+ * The files of multi-pool games have the format version 2. Their fixed size
+ * header holds the maximum number value over all the pools and the total row
+ * length, and is followed by the pool table, in which each pool contributes
+ * its maximum number value and row length:
+ *
+ * <pre>
+ * int  number of pools
+ * int  maximum number value of pool 0
+ * int  row length of pool 0
+ * ...
+ * </pre>
+ *
+ * The snapshot and journal formats append the same pool table to their own
+ * headers.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+final class LotteryRowFileFormat {
+
+    /**
+     * The magic number opening each lottery row file.
+     */
+    static final int MAGIC = 0x4C525746;
+
+    /**
+     * The current format version.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The format version of the files of multi-pool games.
+     */
+    static final int MULTI_POOL_VERSION = 2;
+
+    /**
+     * The size of the header in bytes.
+     */
+    static final int HEADER_SIZE = 24;
+
+    /**
+     * The offset of the row count field within the header.
+     */
+    static final int ROW_COUNT_OFFSET = 16;
+
+    private LotteryRowFileFormat() {}
+
+    /**
+     * Returns the size of the whole header, including the pool table, of a
+     * file of the given configuration. The rows start at this offset.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @return the size of the header in bytes.
+     */
+    static int getHeaderSize(LotteryConfiguration lotteryConfiguration) {
+        return HEADER_SIZE + getPoolTableSize(lotteryConfiguration);
+    }
+
+    /**
+     * Writes the header into {@code buffer}.
+     *
+     * @param buffer               the target buffer.
+     * @param lotteryConfiguration the lottery configuration.
+     * @param numberOfRows         the number of rows in the file.
+     */
+    static void writeHeader(ByteBuffer buffer,
+                            LotteryConfiguration lotteryConfiguration,
+                            long numberOfRows) {
+        buffer.putInt(MAGIC)
+              .putInt(lotteryConfiguration.getNumberOfPools() == 1
+                              ? VERSION
+                              : MULTI_POOL_VERSION)
+              .putInt(lotteryConfiguration.getMaximumNumberValue())
+              .putInt(lotteryConfiguration.getLotteryRowLength())
+              .putLong(numberOfRows);
+
+        writePoolTable(buffer, lotteryConfiguration);
+    }
+
+    /**
+     * Reads the whole header, including the pool table if any, from the
+     * beginning of {@code fileChannel}.
+     *
+     * @param fileChannel the source file channel.
+     * @return the buffer holding the header, ready for
+     *         {@link #readConfiguration(ByteBuffer)}.
+     * @throws IOException if reading fails.
+     */
+    static ByteBuffer readHeader(FileChannel fileChannel) throws IOException {
+        ByteBuffer header = readFully(fileChannel, 0L, HEADER_SIZE);
+
+        if (header.remaining() == HEADER_SIZE
+                && header.getInt(0) == MAGIC
+                && header.getInt(Integer.BYTES) == MULTI_POOL_VERSION) {
+            ByteBuffer poolCount =
+                    readFully(fileChannel, HEADER_SIZE, Integer.BYTES);
+
+            if (poolCount.remaining() == Integer.BYTES) {
+                header = readFully(fileChannel,
+                                   0L,
+                                   HEADER_SIZE + getPoolTableSize(
+                                           checkPoolCount(poolCount.getInt(),
+                                                          header.getInt(12))));
+            }
+        }
+
+        return header;
+    }
+
+    /**
+     * Reads and validates the header from {@code buffer} and returns the
+     * lottery configuration stored in it. The row count is left unread.
+     *
+     * @param buffer the source buffer.
+     * @return the lottery configuration of the file.
+     * @throws IOException if the header is malformed.
+     */
+    static LotteryConfiguration readConfiguration(ByteBuffer buffer)
+            throws IOException {
+        if (buffer.remaining() < HEADER_SIZE) {
+            throw new IOException("Truncated lottery row file header.");
+        }
+
+        int headerOffset = buffer.position();
+        int magic = buffer.getInt();
+
+        if (magic != MAGIC) {
+            throw new IOException(
+                    "Not a lottery row file (magic 0x" +
+                    Integer.toHexString(magic) + ").");
+        }
+
+        int version = buffer.getInt();
+
+        if (version != VERSION && version != MULTI_POOL_VERSION) {
+            throw new IOException(
+                    "Unsupported lottery row file version (" + version +
+                    ").");
+        }
+
+        int maximumNumberValue = buffer.getInt();
+        int lotteryRowLength = buffer.getInt();
+
+        if (version == MULTI_POOL_VERSION) {
+            ByteBuffer poolTable = buffer.duplicate();
+            poolTable.position(headerOffset + HEADER_SIZE);
+            return readPoolTable(poolTable,
+                                 maximumNumberValue,
+                                 lotteryRowLength);
+        }
+
+        try {
+            return new LotteryConfiguration(maximumNumberValue,
+                                            lotteryRowLength);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Malformed lottery row file header.", ex);
+        }
+    }
+
+    /**
+     * Returns the size of the pool table of the given configuration. Single
+     * pool games have no pool table.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @return the size of the pool table in bytes.
+     */
+    static int getPoolTableSize(LotteryConfiguration lotteryConfiguration) {
+        return lotteryConfiguration.getNumberOfPools() == 1
+                ? 0
+                : getPoolTableSize(lotteryConfiguration.getNumberOfPools());
+    }
+
+    /**
+     * Writes the pool table of the given configuration into {@code buffer}.
+     * Nothing is written for single pool games.
+     *
+     * @param buffer               the target buffer.
+     * @param lotteryConfiguration the lottery configuration.
+     */
+    static void writePoolTable(ByteBuffer buffer,
+                               LotteryConfiguration lotteryConfiguration) {
+        int numberOfPools = lotteryConfiguration.getNumberOfPools();
+
+        if (numberOfPools == 1) {
+            return;
+        }
+
+        buffer.putInt(numberOfPools);
+
+        for (int pool = 0; pool < numberOfPools; pool++) {
+            buffer.putInt(lotteryConfiguration.getPoolMaximumNumberValue(pool))
+                  .putInt(lotteryConfiguration.getPoolRowLength(pool));
+        }
+    }
+
+    /**
+     * Reads a pool table from {@code buffer} and checks it against the
+     * aggregate values of the fixed size header.
+     *
+     * @param buffer             the source buffer.
+     * @param maximumNumberValue the maximum number value of the header.
+     * @param lotteryRowLength   the row length of the header.
+     * @return the lottery configuration described by the pool table.
+     * @throws IOException if the pool table is malformed.
+     */
+    static LotteryConfiguration readPoolTable(ByteBuffer buffer,
+                                              int maximumNumberValue,
+                                              int lotteryRowLength)
+            throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            throw new IOException("Truncated pool table.");
+        }
+
+        int numberOfPools = checkPoolCount(buffer.getInt(), lotteryRowLength);
+
+        if (buffer.remaining() < 2 * Integer.BYTES * numberOfPools) {
+            throw new IOException("Truncated pool table.");
+        }
+
+        int[] poolMaximumNumberValues = new int[numberOfPools];
+        int[] poolRowLengths = new int[numberOfPools];
+
+        for (int pool = 0; pool < numberOfPools; pool++) {
+            poolMaximumNumberValues[pool] = buffer.getInt();
+            poolRowLengths[pool] = buffer.getInt();
+        }
+
+        LotteryConfiguration lotteryConfiguration;
+
+        try {
+            lotteryConfiguration =
+                    new LotteryConfiguration(poolMaximumNumberValues,
+                                             poolRowLengths);
+        } catch (IllegalArgumentException | ArithmeticException ex) {
+            throw new IOException("Malformed pool table.", ex);
+        }
+
+        if (lotteryConfiguration.getMaximumNumberValue()
+                    != maximumNumberValue
+                || lotteryConfiguration.getLotteryRowLength()
+                    != lotteryRowLength) {
+            throw new IOException(
+                    "The pool table (" + lotteryConfiguration + ") does " +
+                    "not match the header.");
+        }
+
+        return lotteryConfiguration;
+    }
+
+    /**
+     * Reads a pool table starting at {@code position} of
+     * {@code fileChannel}.
+     *
+     * @param fileChannel        the source file channel.
+     * @param position           the offset of the pool table.
+     * @param maximumNumberValue the maximum number value of the header.
+     * @param lotteryRowLength   the row length of the header.
+     * @return the lottery configuration described by the pool table.
+     * @throws IOException if reading fails or the pool table is malformed.
+     */
+    static LotteryConfiguration readPoolTable(FileChannel fileChannel,
+                                              long position,
+                                              int maximumNumberValue,
+                                              int lotteryRowLength)
+            throws IOException {
+        ByteBuffer poolCount = readFully(fileChannel, position, Integer.BYTES);
+
+        if (poolCount.remaining() < Integer.BYTES) {
+            throw new IOException("Truncated pool table.");
+        }
+
+        int numberOfPools =
+                checkPoolCount(poolCount.getInt(), lotteryRowLength);
+
+        return readPoolTable(readFully(fileChannel,
+                                       position,
+                                       getPoolTableSize(numberOfPools)),
+                             maximumNumberValue,
+                             lotteryRowLength);
+    }
+
+    private static int getPoolTableSize(int numberOfPools) {
+        return Integer.BYTES * (1 + 2 * numberOfPools);
+    }
+
+    private static int checkPoolCount(int numberOfPools, int lotteryRowLength)
+            throws IOException {
+        // Each pool draws at least one number:
+        if (numberOfPools < 2 || numberOfPools > lotteryRowLength) {
+            throw new IOException(
+                    "Malformed pool table (" + numberOfPools + " pools).");
+        }
+
+        return numberOfPools;
+    }
+
+    /**
+     * Reads at most {@code size} bytes starting at {@code position}. Fewer
+     * bytes are returned only if the file ends before.
+     */
+    private static ByteBuffer readFully(FileChannel fileChannel,
+                                        long position,
+                                        int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+
+        while (buffer.hasRemaining()
+                && fileChannel.read(buffer, position + buffer.position())
+                        > 0) {
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+}
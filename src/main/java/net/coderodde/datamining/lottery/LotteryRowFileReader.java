@@ -0,0 +1,199 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * This class implements a reader of binary lottery row files. The rows are
+ * read straight from memory mapped regions of the file, so no intermediate
+ * objects are created per row. Files larger than a single mapping may hold
+ * (2 GB) are mapped chunk by chunk.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class LotteryRowFileReader implements Closeable {
+
+    /**
+     * The default size of a single mapped chunk in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+
+    /**
+     * The source file channel.
+     */
+    private final FileChannel fileChannel;
+
+    /**
+     * The lottery configuration stored in the file header.
+     */
+    private final LotteryConfiguration lotteryConfiguration;
+
+    /**
+     * The number of rows in the file.
+     */
+    private final long numberOfRows;
+
+    /**
+     * The maximum number of rows mapped at a time.
+     */
+    private final long rowsPerChunk;
+
+    /**
+     * Opens the lottery row file at {@code path} using the default chunk
+     * size.
+     *
+     * @param path the path of the file to read.
+     * @throws IOException if the file cannot be opened or is malformed.
+     */
+    public LotteryRowFileReader(Path path) throws IOException {
+        this(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Opens the lottery row file at {@code path}.
+     *
+     * @param path      the path of the file to read.
+     * @param chunkSize the maximum size of a single mapped region in bytes.
+     * @throws IOException if the file cannot be opened or is malformed.
+     */
+    public LotteryRowFileReader(Path path, int chunkSize) throws IOException {
+        this.fileChannel = FileChannel.open(
+                Objects.requireNonNull(path, "path == null"),
+                StandardOpenOption.READ);
+
+        try {
+            ByteBuffer header = LotteryRowFileFormat.readHeader(fileChannel);
+            this.lotteryConfiguration =
+                    LotteryRowFileFormat.readConfiguration(header);
+            this.numberOfRows = header.getLong();
+
+            int lotteryRowLength = lotteryConfiguration.getLotteryRowLength();
+
+            if (chunkSize < lotteryRowLength) {
+                throw new IllegalArgumentException(
+                        "chunkSize(" + chunkSize + ") < lotteryRowLength(" +
+                        lotteryRowLength + ")");
+            }
+
+            this.rowsPerChunk = chunkSize / lotteryRowLength;
+            checkFileSize();
+        } catch (IOException | RuntimeException ex) {
+            fileChannel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the lottery configuration stored in the file.
+     *
+     * @return the lottery configuration.
+     */
+    public LotteryConfiguration getLotteryConfiguration() {
+        return lotteryConfiguration;
+    }
+
+    /**
+     * Returns the number of rows in the file.
+     *
+     * @return the number of rows.
+     */
+    public long getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    /**
+     * Passes each row of the file in order to {@code consumer}. The numbers
+     * array passed to the consumer is reused between the calls.
+     *
+     * @param consumer the row consumer.
+     * @throws IOException if mapping the file fails.
+     */
+    public void forEachRow(Consumer<int[]> consumer) throws IOException {
+        Objects.requireNonNull(consumer, "consumer == null");
+        int lotteryRowLength = lotteryConfiguration.getLotteryRowLength();
+        int[] numbers = new int[lotteryRowLength];
+
+        for (long firstRow = 0L; firstRow < numberOfRows;
+                firstRow += rowsPerChunk) {
+            long rowsInChunk = Math.min(rowsPerChunk, numberOfRows - firstRow);
+            MappedByteBuffer chunk =
+                    fileChannel.map(FileChannel.MapMode.READ_ONLY,
+                                    LotteryRowFileFormat.getHeaderSize(
+                                            lotteryConfiguration)
+                                            + firstRow * lotteryRowLength,
+                                    rowsInChunk * lotteryRowLength);
+
+            for (int offset = 0, limit = chunk.limit();
+                    offset < limit;
+                    offset += lotteryRowLength) {
+                for (int i = 0; i < lotteryRowLength; i++) {
+                    numbers[i] = chunk.get(offset + i) & 0xff;
+                }
+
+                consumer.accept(numbers);
+            }
+        }
+    }
+
+    /**
+     * Adds all the rows of the file to the given miner.
+     *
+     * @param <M>   the miner type.
+     * @param miner the target miner.
+     * @return the miner.
+     * @throws IOException if mapping the file fails.
+     */
+    public <M extends MissingLotteryRowsMiner> M addLotteryRowsTo(M miner)
+            throws IOException {
+        Objects.requireNonNull(miner, "miner == null");
+        forEachRow(miner::addLotteryNumbers);
+        return miner;
+    }
+
+    /**
+     * Reads all the rows of the file into a new row store.
+     *
+     * @return the row store.
+     * @throws IOException if mapping the file fails.
+     */
+    public LotteryRowStore readLotteryRowStore() throws IOException {
+        if (numberOfRows > Integer.MAX_VALUE) {
+            throw new IllegalStateException(
+                    "Too many rows (" + numberOfRows + ") for a row store.");
+        }
+
+        LotteryRowStore rowStore =
+                new LotteryRowStore(lotteryConfiguration, (int) numberOfRows);
+
+        forEachRow(rowStore::add);
+        return rowStore;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+
+    private void checkFileSize() throws IOException {
+        long expectedSize =
+                LotteryRowFileFormat.getHeaderSize(lotteryConfiguration)
+                        + numberOfRows
+                                * lotteryConfiguration.getLotteryRowLength();
+
+        if (numberOfRows < 0L || fileChannel.size() < expectedSize) {
+            throw new IOException(
+                    "Truncated lottery row file (" + fileChannel.size() +
+                    " bytes, expected " + expectedSize + ").");
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class implements a writer producing binary lottery row files. See
+ * {@link net.coderodde.datamining.lottery.LotteryRowFileFormat} for the
+ * layout. The row count in the header is patched when the writer is closed.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class LotteryRowFileWriter implements Closeable {
+
+    /**
+     * The size of the write buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The lottery configuration object.
+     */
+    private final LotteryConfiguration lotteryConfiguration;
+
+    /**
+     * The target file channel.
+     */
+    private final FileChannel fileChannel;
+
+    /**
+     * The write buffer.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * The scratch array used for ordering the numbers of a row.
+     */
+    private final int[] rowNumbers;
+
+    /**
+     * The number of rows written so far.
+     */
+    private long numberOfRows;
+
+    /**
+     * Tells whether this writer is closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates or truncates the file at {@code path} and prepares it for
+     * writing rows of the given configuration.
+     *
+     * @param path                 the path of the file to write.
+     * @param lotteryConfiguration the lottery configuration.
+     * @throws IOException if the file cannot be opened.
+     */
+    public LotteryRowFileWriter(Path path,
+                                LotteryConfiguration lotteryConfiguration)
+            throws IOException {
+        this.lotteryConfiguration =
+                Objects.requireNonNull(
+                        lotteryConfiguration,
+                        "lotteryConfiguration == null");
+
+        if (!LotteryRowStore.supports(lotteryConfiguration)) {
+            throw new IllegalArgumentException(
+                    "maximumNumberValue(" +
+                    lotteryConfiguration.getMaximumNumberValue() + ") > " +
+                    LotteryRowStore.MAXIMUM_SUPPORTED_NUMBER_VALUE);
+        }
+
+        this.rowNumbers = new int[lotteryConfiguration.getLotteryRowLength()];
+        this.fileChannel = FileChannel.open(
+                Objects.requireNonNull(path, "path == null"),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+
+        LotteryRowFileFormat.writeHeader(buffer, lotteryConfiguration, 0L);
+    }
+
+    /**
+     * Writes a single row. The numbers of each pool may be given in any
+     * order.
+     *
+     * @param numbers the numbers of the row.
+     * @throws IOException if writing fails.
+     */
+    public void write(int... numbers) throws IOException {
+        Objects.requireNonNull(numbers, "numbers == null");
+
+        if (numbers.length != rowNumbers.length) {
+            throw new IllegalArgumentException(
+                    "Wrong length of a row (" + numbers.length +
+                    ", must be exactly " + rowNumbers.length + ".");
+        }
+
+        System.arraycopy(numbers, 0, rowNumbers, 0, rowNumbers.length);
+
+        for (int pool = 0;
+                pool < lotteryConfiguration.getNumberOfPools();
+                pool++) {
+            Arrays.sort(rowNumbers,
+                        lotteryConfiguration.getPoolOffset(pool),
+                        lotteryConfiguration.getPoolOffset(pool + 1));
+        }
+
+        checkSortedNumbers(rowNumbers);
+        writeSorted(rowNumbers);
+    }
+
+    /**
+     * Writes a single lottery row.
+     *
+     * @param lotteryRow the row to write.
+     * @throws IOException if writing fails.
+     */
+    public void write(LotteryRow lotteryRow) throws IOException {
+        Objects.requireNonNull(lotteryRow, "lotteryRow == null");
+        checkLotteryConfiguration(lotteryRow.getLotteryConfiguration());
+
+        for (int i = 0; i < rowNumbers.length; i++) {
+            rowNumbers[i] = lotteryRow.getNumber(i);
+        }
+
+        writeSorted(rowNumbers);
+    }
+
+    /**
+     * Writes all the rows of a row store.
+     *
+     * @param rowStore the row store.
+     * @throws IOException if writing fails.
+     */
+    public void write(LotteryRowStore rowStore) throws IOException {
+        Objects.requireNonNull(rowStore, "rowStore == null");
+        checkLotteryConfiguration(rowStore.getLotteryConfiguration());
+
+        for (int i = 0, sz = rowStore.size(); i < sz; i++) {
+            rowStore.getNumbers(i, rowNumbers);
+            writeSorted(rowNumbers);
+        }
+    }
+
+    /**
+     * Returns the number of rows written so far.
+     *
+     * @return the number of rows.
+     */
+    public long getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    /**
+     * Flushes the buffered rows, patches the row count in the header and
+     * closes the file. Closing twice has no effect.
+     *
+     * @throws IOException if writing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        try {
+            flush();
+            ByteBuffer rowCount = ByteBuffer.allocate(Long.BYTES);
+            rowCount.putLong(numberOfRows).flip();
+
+            while (rowCount.hasRemaining()) {
+                fileChannel.write(rowCount,
+                                  LotteryRowFileFormat.ROW_COUNT_OFFSET
+                                          + rowCount.position());
+            }
+        } finally {
+            fileChannel.close();
+        }
+    }
+
+    private void writeSorted(int[] numbers) throws IOException {
+        if (buffer.remaining() < numbers.length) {
+            flush();
+        }
+
+        for (int number : numbers) {
+            buffer.put((byte) number);
+        }
+
+        numberOfRows++;
+    }
+
+    private void checkSortedNumbers(int[] numbers) {
+        for (int i = 0; i < numbers.length; i++) {
+            if (numbers[i] < 1) {
+                throw new IllegalArgumentException(
+                        "number(" + numbers[i] + ") < 1");
+            }
+
+            if (!lotteryConfiguration.isPoolStart(i)
+                    && numbers[i - 1] == numbers[i]) {
+                throw new IllegalArgumentException(
+                        "Duplicate number (" + numbers[i] + ") in a row.");
+            }
+
+            if (numbers[i] > lotteryConfiguration.getMaximumNumberValueAt(i)) {
+                throw new IllegalArgumentException(
+                        "number (" + numbers[i] + ") > " +
+                        "this.lotteryConfiguration.getMaximumNumberValueAt(" +
+                        i + ")[" +
+                        lotteryConfiguration.getMaximumNumberValueAt(i) +
+                        "]");
+            }
+        }
+    }
+
+    private void checkLotteryConfiguration(
+            LotteryConfiguration otherConfiguration) {
+        boolean compatible =
+                otherConfiguration.getNumberOfPools()
+                        == lotteryConfiguration.getNumberOfPools();
+
+        for (int pool = 0;
+                compatible && pool < lotteryConfiguration.getNumberOfPools();
+                pool++) {
+            compatible =
+                    otherConfiguration.getPoolRowLength(pool)
+                            == lotteryConfiguration.getPoolRowLength(pool)
+                    && otherConfiguration.getPoolMaximumNumberValue(pool)
+                            <= lotteryConfiguration
+                                    .getPoolMaximumNumberValue(pool);
+        }
+
+        if (!compatible) {
+            throw new IllegalArgumentException(
+                    "Incompatible lottery configuration (" +
+                    otherConfiguration + ").");
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+}
@@ -6,9 +6,12 @@ import java.util.Objects;
 import java.util.Random;
 
 /**
- * This class implements a facility for creating random lottery rows.
+ * This class implements a facility for creating random lottery rows. The
+ * numbers of each pool of a multi-pool game are drawn independently.
  * 
  * @author Rodion "rodde" Efremov 
+ * @version 1.62 (Oct 16, 2026) ~ metrics.
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
  * @version 1.6 (Apr 18, 2020) 
  * @since 1.6 (Apr 18, 2020)
  */
@@ -25,10 +28,27 @@ public final class LotteryRowGenerator {
     private final Random random;
 
     /**
-     * The storage array for.
+     * The storage array for the numbers to draw from. The numbers of each 
+     * pool occupy their own segment starting at the corresponding entry of
+     * {@link #segmentOffsets}.
      */
     private final int[] numbers;
 
+    /**
+     * The index of the first number of each pool within {@link #numbers}.
+     */
+    private final int[] segmentOffsets;
+
+    /**
+     * The buffer holding the numbers of the row being generated.
+     */
+    private final int[] rowNumbers;
+
+    /**
+     * The runtime metrics of this generator.
+     */
+    private final LotteryMetrics metrics = new LotteryMetrics(0L);
+
     /**
      * Constructs a {@code LotteryRowGenerator} with a given configuration.
      * 
@@ -66,13 +86,38 @@ public final class LotteryRowGenerator {
                         lotteryConfiguration,
                         "The input LotteryConfiguration is null.");
 
-        numbers = new int[lotteryConfiguration.getMaximumNumberValue()];
+        segmentOffsets = new int[lotteryConfiguration.getNumberOfPools()];
+        int numberOfNumbers = 0;
+
+        for (int pool = 0; pool < segmentOffsets.length; pool++) {
+            segmentOffsets[pool] = numberOfNumbers;
+            numberOfNumbers += 
+                    lotteryConfiguration.getPoolMaximumNumberValue(pool);
+        }
+
+        numbers = new int[numberOfNumbers];
+        rowNumbers = new int[lotteryConfiguration.getLotteryRowLength()];
 
-        for (int i = 0; i < numbers.length; i++) {
-            numbers[i] = i + 1;
+        for (int pool = 0; pool < segmentOffsets.length; pool++) {
+            for (int i = 0, n = 
+                    lotteryConfiguration.getPoolMaximumNumberValue(pool);
+                    i < n;
+                    i++) {
+                numbers[segmentOffsets[pool] + i] = i + 1;
+            }
         }
     }
 
+    /**
+     * Returns the runtime metrics of this generator, which count the 
+     * generated rows and the time spent generating them.
+     * 
+     * @return the metrics of this generator.
+     */
+    public LotteryMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Generates and returns a list of random lottery rows.
      * 
@@ -81,27 +126,66 @@ public final class LotteryRowGenerator {
      */
     public List<LotteryRow> 
         generateLotteryRows(int numberOfLotteryRows) {
+        long startTime = System.nanoTime();
         List<LotteryRow> rows = new ArrayList<>(numberOfLotteryRows);
 
         for (int i = 0; i < numberOfLotteryRows; i++) {
             rows.add(generateRow());
         }
 
+        metrics.recordPhase(LotteryMetrics.Phase.GENERATION, 
+                            numberOfLotteryRows,
+                            System.nanoTime() - startTime);
         return rows;
     }
 
+    /**
+     * Generates random lottery rows directly into a packed row store.
+     * 
+     * @param numberOfLotteryRows the requested number of lottery rows.
+     * @return a row store holding the random rows.
+     */
+    public LotteryRowStore generateLotteryRowStore(int numberOfLotteryRows) {
+        long startTime = System.nanoTime();
+        LotteryRowStore rowStore = 
+                new LotteryRowStore(lotteryConfiguration, numberOfLotteryRows);
+
+        for (int i = 0; i < numberOfLotteryRows; i++) {
+            shuffleInternalNumbers();
+            rowStore.add(rowNumbers);
+        }
+
+        metrics.recordPhase(LotteryMetrics.Phase.GENERATION, 
+                            numberOfLotteryRows,
+                            System.nanoTime() - startTime);
+        return rowStore;
+    }
+
     private LotteryRow generateRow() {
-        LotteryRow lotteryRow = new LotteryRow(lotteryConfiguration);
         shuffleInternalNumbers();
-        loadLotteryRow(lotteryRow);
-        return lotteryRow;
+        return LotteryRow.of(lotteryConfiguration, rowNumbers);
     }
 
+    /**
+     * Draws a uniformly random row into {@code rowNumbers}. The numbers of 
+     * each pool are drawn into the first pool row length positions of its 
+     * segment of {@code numbers}. Only the swaps for those positions are done
+     * (a partial Fisher-Yates shuffle), as the rest of the segment is never
+     * read.
+     */
     private void shuffleInternalNumbers() {
-        for (int i = 0, n = lotteryConfiguration.getMaximumNumberValue();
-                i < n; 
-                i++) {
-            swap(i, getRandomIndex());
+        for (int pool = 0, index = 0; pool < segmentOffsets.length; pool++) {
+            int segmentOffset = segmentOffsets[pool];
+
+            for (int i = 0, 
+                    n = lotteryConfiguration.getPoolMaximumNumberValue(pool),
+                    sz = lotteryConfiguration.getPoolRowLength(pool);
+                    i < sz; 
+                    i++) {
+                swap(segmentOffset + i, 
+                     segmentOffset + i + random.nextInt(n - i));
+                rowNumbers[index++] = numbers[segmentOffset + i];
+            }
         }
     }
 
@@ -109,14 +193,10 @@ public final class LotteryRowGenerator {
         for (int i = 0, n = lotteryConfiguration.getLotteryRowLength();
                 i < n;
                 i++) {
-            lotteryRow.appendNumber(numbers[i]);
+            lotteryRow.appendNumber(rowNumbers[i]);
         }
     }
 
-    private int getRandomIndex() {
-        return random.nextInt(lotteryConfiguration.getMaximumNumberValue());
-    }
-
     private void swap(final int index1, final int index2) {
         int tmp = numbers[index1];
         numbers[index1] = numbers[index2];
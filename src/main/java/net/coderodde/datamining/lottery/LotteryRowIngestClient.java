@@ -0,0 +1,267 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class implements a client of
+ * {@link net.coderodde.datamining.lottery.LotteryRowIngestServer}. A client
+ * holds a single connection and is not thread-safe; the concurrent senders
+ * should each open their own client.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class LotteryRowIngestClient implements Closeable {
+
+    /**
+     * The size of the stream buffers in bytes.
+     */
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    private final SocketChannel socketChannel;
+    private final DataInputStream input;
+    private final DataOutputStream output;
+
+    /**
+     * The lottery configuration announced by the server.
+     */
+    private final LotteryConfiguration lotteryConfiguration;
+
+    /**
+     * The buffer holding the numbers of the row being sent.
+     */
+    private final int[] rowBuffer;
+
+    private LotteryRowIngestClient(SocketChannel socketChannel)
+            throws IOException {
+        this.socketChannel = socketChannel;
+        this.input =
+                new DataInputStream(
+                        new BufferedInputStream(
+                                Channels.newInputStream(socketChannel),
+                                STREAM_BUFFER_SIZE));
+
+        this.output =
+                new DataOutputStream(
+                        new BufferedOutputStream(
+                                Channels.newOutputStream(socketChannel),
+                                STREAM_BUFFER_SIZE));
+
+        this.lotteryConfiguration =
+                LotteryRowIngestProtocol.readGreeting(input);
+        this.rowBuffer = new int[lotteryConfiguration.getLotteryRowLength()];
+    }
+
+    /**
+     * Connects to a server on a loopback TCP port.
+     *
+     * @param port the port of the server.
+     * @return the connected client.
+     * @throws IOException if connecting fails.
+     */
+    public static LotteryRowIngestClient connect(int port) throws IOException {
+        return connect(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                                             port));
+    }
+
+    /**
+     * Connects to a server on a Unix domain socket.
+     *
+     * @param socketPath the path of the socket file.
+     * @return the connected client.
+     * @throws IOException if connecting fails.
+     * @throws UnsupportedOperationException if the runtime has no Unix
+     *                                       domain sockets (before Java 16).
+     */
+    public static LotteryRowIngestClient connect(Path socketPath)
+            throws IOException {
+        Objects.requireNonNull(socketPath, "socketPath == null");
+        return connect(
+                LotteryRowIngestProtocol.getUnixDomainSocketAddress(
+                        socketPath));
+    }
+
+    /**
+     * Connects to a server on the given TCP or Unix domain address.
+     *
+     * @param address the address of the server.
+     * @return the connected client.
+     * @throws IOException if connecting fails or the server does not speak
+     *                     the ingest protocol.
+     */
+    public static LotteryRowIngestClient connect(SocketAddress address)
+            throws IOException {
+        Objects.requireNonNull(address, "address == null");
+        SocketChannel socketChannel =
+                LotteryRowIngestProtocol.openSocketChannel(address);
+
+        try {
+            return new LotteryRowIngestClient(socketChannel);
+        } catch (IOException | RuntimeException ex) {
+            socketChannel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the lottery configuration of the server.
+     *
+     * @return the lottery configuration.
+     */
+    public LotteryConfiguration getLotteryConfiguration() {
+        return lotteryConfiguration;
+    }
+
+    /**
+     * Sends all the rows of a row store.
+     *
+     * @param rowStore the rows to send.
+     * @return the number of the rows committed.
+     * @throws IOException if the connection fails or the server rejects a
+     *                     row.
+     */
+    public int addLotteryRows(LotteryRowStore rowStore) throws IOException {
+        Objects.requireNonNull(rowStore, "rowStore == null");
+        return addLotteryRows(rowStore, 0, rowStore.size());
+    }
+
+    /**
+     * Sends the rows <code>[fromIndex, toIndex)</code> of a row store in a
+     * single request.
+     *
+     * @param rowStore  the rows to send.
+     * @param fromIndex the index of the first row to send.
+     * @param toIndex   the index one past the last row to send.
+     * @return the number of the rows committed.
+     * @throws IOException if the connection fails or the server rejects a
+     *                     row.
+     */
+    public int addLotteryRows(LotteryRowStore rowStore,
+                              int fromIndex,
+                              int toIndex) throws IOException {
+        Objects.requireNonNull(rowStore, "rowStore == null");
+
+        if (!rowStore.getLotteryConfiguration()
+                     .equals(lotteryConfiguration)) {
+            throw new IllegalArgumentException(
+                    "The row store configuration " +
+                    rowStore.getLotteryConfiguration() +
+                    " differs from the server configuration " +
+                    lotteryConfiguration + ".");
+        }
+
+        if (fromIndex < 0 || fromIndex > toIndex
+                || toIndex > rowStore.size()) {
+            throw new IndexOutOfBoundsException(
+                    "[" + fromIndex + ", " + toIndex + ") not within [0, " +
+                    rowStore.size() + "]");
+        }
+
+        output.writeByte(LotteryRowIngestProtocol.ADD_ROWS);
+        output.writeInt(toIndex - fromIndex);
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            rowStore.getNumbers(i, rowBuffer);
+
+            for (int number : rowBuffer) {
+                output.writeByte(number);
+            }
+        }
+
+        output.flush();
+        readStatus();
+        return input.readInt();
+    }
+
+    /**
+     * Asks the server for the number of the rows not added so far.
+     *
+     * @return the number of missing rows.
+     * @throws IOException if the connection fails.
+     */
+    public long countMissingLotteryRows() throws IOException {
+        output.writeByte(LotteryRowIngestProtocol.COUNT_MISSING_ROWS);
+        output.flush();
+        readStatus();
+        return input.readLong();
+    }
+
+    /**
+     * Asks the server for the first missing rows in lexicographic order.
+     *
+     * @param maximumNumberOfRows the maximum number of rows to return.
+     * @return the missing rows.
+     * @throws IOException if the connection fails.
+     */
+    public List<LotteryRow> computeMissingLotteryRows(int maximumNumberOfRows)
+            throws IOException {
+        if (maximumNumberOfRows < 0) {
+            throw new IllegalArgumentException(
+                    "maximumNumberOfRows(" + maximumNumberOfRows + ") < 0");
+        }
+
+        output.writeByte(LotteryRowIngestProtocol.LIST_MISSING_ROWS);
+        output.writeInt(maximumNumberOfRows);
+        output.flush();
+        readStatus();
+
+        int numberOfRows = input.readInt();
+        List<LotteryRow> lotteryRows = new ArrayList<>(numberOfRows);
+
+        for (int i = 0; i < numberOfRows; i++) {
+            int[] numbers = new int[rowBuffer.length];
+
+            for (int j = 0; j < numbers.length; j++) {
+                numbers[j] = input.readUnsignedByte();
+            }
+
+            lotteryRows.add(LotteryRow.fromSorted(lotteryConfiguration,
+                                                  numbers));
+        }
+
+        return lotteryRows;
+    }
+
+    /**
+     * Closes the connection.
+     *
+     * @throws IOException if closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        socketChannel.close();
+    }
+
+    /**
+     * Reads the status of an answer and throws the error message of a failed
+     * request.
+     *
+     * @throws IOException if the connection fails or the request failed.
+     */
+    private void readStatus() throws IOException {
+        byte status = input.readByte();
+
+        if (status == LotteryRowIngestProtocol.STATUS_ERROR) {
+            throw new IOException("The server failed: " + input.readUTF());
+        }
+
+        if (status != LotteryRowIngestProtocol.STATUS_OK) {
+            throw new IOException("Malformed status (" + status + ").");
+        }
+    }
+}
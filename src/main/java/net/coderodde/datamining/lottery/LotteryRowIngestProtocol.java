@@ -0,0 +1,314 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class defines the wire protocol of the ticket ingest service. On
+ * connecting, the server greets the client with the game it serves:
+ *
+ * <pre>
+ * int  magic              (0x4C52494E, "LRIN")
+ * int  protocol version
+ * int  number of pools
+ * int  maximum number value of pool 0
+ * int  row length of pool 0
+ * ...
+ * </pre>
+ *
+ * after which the client sends requests, each starting with a request code
+ * byte, and the server answers each with a status byte followed by the
+ * result on success or a modified UTF-8 error message on failure:
+ *
+ * <pre>
+ * 'A' int n, byte[rowLength] row 0, ... row n - 1  -&gt;  int accepted rows
+ * 'C'                                              -&gt;  long missing rows
+ * 'M' int maximum number of rows                   -&gt;  int n, n rows
+ * </pre>
+ *
+ * The rows travel one byte per number with the numbers of each pool in
+ * ascending order, as in the binary row files. All the multi-byte values
+ * are big-endian.
+ * <p>
+ * This class also hosts the reflective access to the Unix domain sockets
+ * and the virtual threads, so that the service builds and runs on Java 8
+ * and takes advantage of them on the runtimes that have them.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+final class LotteryRowIngestProtocol {
+
+    /**
+     * The magic number opening the greeting of the server.
+     */
+    static final int MAGIC = 0x4C52494E;
+
+    /**
+     * The current protocol version.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The request adding a batch of rows.
+     */
+    static final byte ADD_ROWS = 'A';
+
+    /**
+     * The request counting the missing rows.
+     */
+    static final byte COUNT_MISSING_ROWS = 'C';
+
+    /**
+     * The request listing the first missing rows.
+     */
+    static final byte LIST_MISSING_ROWS = 'M';
+
+    /**
+     * The status of a successful request.
+     */
+    static final byte STATUS_OK = 0;
+
+    /**
+     * The status of a failed request.
+     */
+    static final byte STATUS_ERROR = 1;
+
+    /**
+     * The prefix of the names of the connection threads.
+     */
+    private static final String THREAD_NAME_PREFIX = "lottery-ingest-";
+
+    private LotteryRowIngestProtocol() {}
+
+    /**
+     * Writes the greeting announcing the given configuration.
+     *
+     * @param output               the target output.
+     * @param lotteryConfiguration the lottery configuration.
+     * @throws IOException if writing fails.
+     */
+    static void writeGreeting(DataOutput output,
+                              LotteryConfiguration lotteryConfiguration)
+            throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(lotteryConfiguration.getNumberOfPools());
+
+        for (int pool = 0;
+                pool < lotteryConfiguration.getNumberOfPools();
+                pool++) {
+            output.writeInt(
+                    lotteryConfiguration.getPoolMaximumNumberValue(pool));
+            output.writeInt(lotteryConfiguration.getPoolRowLength(pool));
+        }
+    }
+
+    /**
+     * Reads and validates the greeting of the server.
+     *
+     * @param input the source input.
+     * @return the lottery configuration served.
+     * @throws IOException if reading fails or the greeting is malformed.
+     */
+    static LotteryConfiguration readGreeting(DataInput input)
+            throws IOException {
+        int magic = input.readInt();
+
+        if (magic != MAGIC) {
+            throw new IOException(
+                    "Not a lottery row ingest server (magic 0x" +
+                    Integer.toHexString(magic) + ").");
+        }
+
+        int version = input.readInt();
+
+        if (version != VERSION) {
+            throw new IOException(
+                    "Unsupported ingest protocol version (" + version + ").");
+        }
+
+        int numberOfPools = input.readInt();
+
+        if (numberOfPools < 1 || numberOfPools > Byte.MAX_VALUE) {
+            throw new IOException(
+                    "Malformed pool count (" + numberOfPools + ").");
+        }
+
+        int[] poolMaximumNumberValues = new int[numberOfPools];
+        int[] poolRowLengths = new int[numberOfPools];
+
+        for (int pool = 0; pool < numberOfPools; pool++) {
+            poolMaximumNumberValues[pool] = input.readInt();
+            poolRowLengths[pool] = input.readInt();
+        }
+
+        try {
+            return new LotteryConfiguration(poolMaximumNumberValues,
+                                            poolRowLengths);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Malformed greeting.", ex);
+        }
+    }
+
+    /**
+     * Returns the address of the Unix domain socket at the given path.
+     *
+     * @param socketPath the path of the socket file.
+     * @return the socket address.
+     * @throws UnsupportedOperationException if the runtime has no Unix
+     *                                       domain sockets (before Java 16).
+     */
+    static SocketAddress getUnixDomainSocketAddress(Path socketPath) {
+        try {
+            return (SocketAddress)
+                    Class.forName("java.net.UnixDomainSocketAddress")
+                         .getMethod("of", Path.class)
+                         .invoke(null, socketPath);
+        } catch (ClassNotFoundException | NoSuchMethodException ex) {
+            throw unixDomainSocketsUnsupported(ex);
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Opens a server socket channel bound to the given TCP or Unix domain
+     * address.
+     *
+     * @param address the address to bind to.
+     * @return the bound server socket channel.
+     * @throws IOException if opening or binding fails.
+     */
+    static ServerSocketChannel openServerSocketChannel(SocketAddress address)
+            throws IOException {
+        ServerSocketChannel serverSocketChannel =
+                address instanceof InetSocketAddress
+                        ? ServerSocketChannel.open()
+                        : openUnixDomainServerSocketChannel();
+
+        try {
+            serverSocketChannel.bind(address);
+            return serverSocketChannel;
+        } catch (IOException | RuntimeException ex) {
+            serverSocketChannel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Opens a socket channel connected to the given TCP or Unix domain
+     * address.
+     *
+     * @param address the address to connect to.
+     * @return the connected socket channel.
+     * @throws IOException if connecting fails.
+     */
+    static SocketChannel openSocketChannel(SocketAddress address)
+            throws IOException {
+        SocketChannel socketChannel = SocketChannel.open(address);
+        configureSocketChannel(socketChannel);
+        return socketChannel;
+    }
+
+    /**
+     * Disables the Nagle algorithm on the TCP connections, as each request
+     * waits for its short answer.
+     *
+     * @param socketChannel the socket channel to configure.
+     * @throws IOException if setting the option fails.
+     */
+    static void configureSocketChannel(SocketChannel socketChannel)
+            throws IOException {
+        if (socketChannel.getLocalAddress() instanceof InetSocketAddress) {
+            socketChannel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+    }
+
+    /**
+     * Returns a factory of virtual threads if the runtime has them (Java 21
+     * and later), and {@code null} otherwise.
+     *
+     * @return the virtual thread factory, or {@code null}.
+     */
+    static ThreadFactory getVirtualThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class)
+                                  .invoke(builder, THREAD_NAME_PREFIX, 0L);
+
+            return (ThreadFactory) builderClass.getMethod("factory")
+                                               .invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // No virtual threads, or only as a disabled preview feature.
+            return null;
+        }
+    }
+
+    /**
+     * Returns a factory of daemon platform threads.
+     *
+     * @return the platform thread factory.
+     */
+    static ThreadFactory getPlatformThreadFactory() {
+        AtomicInteger threadCounter = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread =
+                    new Thread(runnable,
+                               THREAD_NAME_PREFIX +
+                                       threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ServerSocketChannel openUnixDomainServerSocketChannel()
+            throws IOException {
+        try {
+            ProtocolFamily unixProtocolFamily =
+                    StandardProtocolFamily.valueOf("UNIX");
+
+            Method openMethod =
+                    ServerSocketChannel.class.getMethod("open",
+                                                        ProtocolFamily.class);
+
+            return (ServerSocketChannel) openMethod.invoke(null,
+                                                           unixProtocolFamily);
+        } catch (IllegalArgumentException | NoSuchMethodException ex) {
+            throw unixDomainSocketsUnsupported(ex);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        } catch (InvocationTargetException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private static UnsupportedOperationException
+        unixDomainSocketsUnsupported(Exception cause) {
+        UnsupportedOperationException exception =
+                new UnsupportedOperationException(
+                        "Unix domain sockets require Java 16 or later.");
+        exception.initCause(cause);
+        return exception;
+    }
+}
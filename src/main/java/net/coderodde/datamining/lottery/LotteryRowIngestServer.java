@@ -0,0 +1,566 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class implements a ticket ingest service. It accepts the connections
+ * of {@link net.coderodde.datamining.lottery.LotteryRowIngestClient}s on a
+ * local TCP port or a Unix domain socket, ingests the ticket batches they
+ * send into a shared
+ * {@link net.coderodde.datamining.lottery.CountingMissingLotteryRowsGenerator}
+ * and answers the missing row count and listing queries on the same
+ * connections. The protocol is described in
+ * {@link net.coderodde.datamining.lottery.LotteryRowIngestProtocol}.
+ * <p>
+ * Each connection is served by its own thread: a virtual thread on the
+ * runtimes that have them, and a daemon platform thread otherwise. The rows
+ * of a request are read in batches; each batch is validated as a whole and
+ * then committed to the counters, which are incremented atomically, so the
+ * connections need no locking between each other. If a batch holds an
+ * invalid row, it and the rest of the request are rejected, while the
+ * batches committed before stay in.
+ * <p>
+ * Usage:
+ * <pre>
+ * java net.coderodde.datamining.lottery.LotteryRowIngestServer
+ *     game port|socketPath
+ * </pre>
+ * where {@code game} is a configuration such as <code>7/40</code>. A port
+ * is bound on the loopback interface.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class LotteryRowIngestServer implements Closeable {
+
+    /**
+     * The default number of rows committed at a time.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    /**
+     * The size of the stream buffers of a connection in bytes.
+     */
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The initial and the largest pause in milliseconds after a failed
+     * accept, such as when running out of file descriptors.
+     */
+    private static final long MINIMUM_ACCEPT_BACKOFF_MILLIS = 10L;
+    private static final long MAXIMUM_ACCEPT_BACKOFF_MILLIS = 1_000L;
+
+    /**
+     * The miner receiving the rows.
+     */
+    private final CountingMissingLotteryRowsGenerator miner;
+
+    /**
+     * The number of rows committed at a time.
+     */
+    private final int batchSize;
+
+    /**
+     * The listening channel.
+     */
+    private final ServerSocketChannel serverSocketChannel;
+
+    /**
+     * The path of the Unix domain socket, or {@code null} for TCP.
+     */
+    private final Path socketPath;
+
+    /**
+     * The factory of the virtual threads, or {@code null} if the runtime
+     * has none.
+     */
+    private final ThreadFactory virtualThreadFactory;
+
+    /**
+     * The factory of the connection threads.
+     */
+    private final ThreadFactory connectionThreadFactory;
+
+    /**
+     * The open connections, closed together with the server.
+     */
+    private final Set<SocketChannel> connections =
+            ConcurrentHashMap.newKeySet();
+
+    /**
+     * The thread accepting the connections.
+     */
+    private final Thread acceptorThread;
+
+    /**
+     * Tells whether this server is closed.
+     */
+    private volatile boolean closed;
+
+    private LotteryRowIngestServer(CountingMissingLotteryRowsGenerator miner,
+                                   SocketAddress address,
+                                   Path socketPath,
+                                   int batchSize) throws IOException {
+        this.miner = Objects.requireNonNull(miner, "miner == null");
+
+        if (!LotteryRowStore.supports(miner.getLotteryConfiguration())) {
+            throw new IllegalArgumentException(
+                    "The numbers exceed " +
+                    LotteryRowStore.MAXIMUM_SUPPORTED_NUMBER_VALUE + ".");
+        }
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(
+                    "batchSize(" + batchSize + ") < 1");
+        }
+
+        this.batchSize = batchSize;
+        this.socketPath = socketPath;
+        this.virtualThreadFactory =
+                LotteryRowIngestProtocol.getVirtualThreadFactory();
+        this.connectionThreadFactory =
+                virtualThreadFactory != null
+                        ? virtualThreadFactory
+                        : LotteryRowIngestProtocol.getPlatformThreadFactory();
+        this.serverSocketChannel =
+                LotteryRowIngestProtocol.openServerSocketChannel(address);
+        this.acceptorThread = new Thread(this::acceptConnections,
+                                         "lottery-ingest-acceptor");
+        acceptorThread.setDaemon(true);
+        acceptorThread.start();
+    }
+
+    /**
+     * Starts a server on a loopback TCP port.
+     *
+     * @param miner the miner receiving the rows.
+     * @param port  the port, or zero for an ephemeral one.
+     * @return the started server.
+     * @throws IOException if binding the port fails.
+     */
+    public static LotteryRowIngestServer
+        start(CountingMissingLotteryRowsGenerator miner, int port)
+            throws IOException {
+        return start(miner,
+                     new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                                           port),
+                     DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Starts a server on a TCP address.
+     *
+     * @param miner     the miner receiving the rows.
+     * @param address   the address to bind to.
+     * @param batchSize the number of rows committed at a time.
+     * @return the started server.
+     * @throws IOException if binding the address fails.
+     */
+    public static LotteryRowIngestServer
+        start(CountingMissingLotteryRowsGenerator miner,
+              InetSocketAddress address,
+              int batchSize) throws IOException {
+        return new LotteryRowIngestServer(
+                miner,
+                Objects.requireNonNull(address, "address == null"),
+                null,
+                batchSize);
+    }
+
+    /**
+     * Starts a server on a Unix domain socket. The socket file must not
+     * exist and is deleted when the server is closed.
+     *
+     * @param miner      the miner receiving the rows.
+     * @param socketPath the path of the socket file.
+     * @return the started server.
+     * @throws IOException if binding the socket fails.
+     * @throws UnsupportedOperationException if the runtime has no Unix
+     *                                       domain sockets (before Java 16).
+     */
+    public static LotteryRowIngestServer
+        start(CountingMissingLotteryRowsGenerator miner, Path socketPath)
+            throws IOException {
+        Objects.requireNonNull(socketPath, "socketPath == null");
+        return new LotteryRowIngestServer(
+                miner,
+                LotteryRowIngestProtocol.getUnixDomainSocketAddress(
+                        socketPath),
+                socketPath,
+                DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Returns the address this server listens on.
+     *
+     * @return the local address.
+     * @throws IOException if the server is closed.
+     */
+    public SocketAddress getLocalAddress() throws IOException {
+        return serverSocketChannel.getLocalAddress();
+    }
+
+    /**
+     * Returns the miner receiving the rows.
+     *
+     * @return the miner.
+     */
+    public CountingMissingLotteryRowsGenerator getMiner() {
+        return miner;
+    }
+
+    /**
+     * Tells whether the connections are served by virtual threads.
+     *
+     * @return {@code true} on the runtimes with virtual threads.
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualThreadFactory != null;
+    }
+
+    /**
+     * Returns the number of open connections.
+     *
+     * @return the number of connections.
+     */
+    public int getNumberOfConnections() {
+        return connections.size();
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones and deletes the
+     * Unix domain socket file if any. Closing twice has no effect.
+     *
+     * @throws IOException if closing the listening channel fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        try {
+            serverSocketChannel.close();
+
+            for (SocketChannel connection : connections) {
+                try {
+                    connection.close();
+                } catch (IOException ex) {
+                    // The connection is gone anyway.
+                }
+            }
+        } finally {
+            if (socketPath != null) {
+                Files.deleteIfExists(socketPath);
+            }
+        }
+
+        // Wakes up the acceptor if it is backing off after a failed accept:
+        acceptorThread.interrupt();
+        ParallelSupport.joinUninterruptibly(acceptorThread);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            CommandLineSupport.exitWithUsage(LotteryRowIngestServer.class,
+                                             "game port|socketPath");
+        }
+
+        CountingMissingLotteryRowsGenerator miner =
+                new CountingMissingLotteryRowsGenerator(
+                        LotteryConfiguration.parse(args[0]));
+
+        LotteryRowIngestServer server = isPort(args[1])
+                ? start(miner, Integer.parseInt(args[1]))
+                : start(miner, Paths.get(args[1]));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException ex) {
+                System.err.println("Closing failed: " + ex.getMessage());
+            }
+        }));
+
+        System.out.println(
+                "Serving " + miner.getLotteryConfiguration() + " on " +
+                server.getLocalAddress() + " with " +
+                (server.isUsingVirtualThreads() ? "virtual" : "platform") +
+                " threads.");
+
+        ParallelSupport.joinUninterruptibly(server.acceptorThread);
+    }
+
+    /**
+     * Tells whether the command line argument is a port number rather than
+     * a socket path.
+     *
+     * @param argument the command line argument.
+     * @return {@code true} if the argument is a port number.
+     */
+    static boolean isPort(String argument) {
+        return argument.matches("\\d{1,5}");
+    }
+
+    private void acceptConnections() {
+        long backoffMillis = MINIMUM_ACCEPT_BACKOFF_MILLIS;
+
+        while (!closed) {
+            SocketChannel connection;
+
+            try {
+                connection = serverSocketChannel.accept();
+            } catch (ClosedChannelException ex) {
+                return;
+            } catch (IOException ex) {
+                if (closed) {
+                    return;
+                }
+
+                // Back off exponentially instead of spinning on a lasting
+                // failure:
+                System.err.println("Accepting failed: " + ex.getMessage() +
+                                   ", retrying in " + backoffMillis +
+                                   " milliseconds.");
+
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                backoffMillis = Math.min(2L * backoffMillis,
+                                         MAXIMUM_ACCEPT_BACKOFF_MILLIS);
+                continue;
+            }
+
+            backoffMillis = MINIMUM_ACCEPT_BACKOFF_MILLIS;
+
+            connections.add(connection);
+
+            if (closed) {
+                // Raced with close(), which may have missed this connection:
+                closeQuietly(connection);
+                return;
+            }
+
+            connectionThreadFactory.newThread(() -> serve(connection))
+                                   .start();
+        }
+    }
+
+    /**
+     * Serves the requests of a single connection until the client closes it.
+     *
+     * @param connection the connection to serve.
+     */
+    private void serve(SocketChannel connection) {
+        try {
+            LotteryRowIngestProtocol.configureSocketChannel(connection);
+            DataInputStream input =
+                    new DataInputStream(
+                            new BufferedInputStream(
+                                    Channels.newInputStream(connection),
+                                    STREAM_BUFFER_SIZE));
+
+            DataOutputStream output =
+                    new DataOutputStream(
+                            new BufferedOutputStream(
+                                    Channels.newOutputStream(connection),
+                                    STREAM_BUFFER_SIZE));
+
+            LotteryRowIngestProtocol.writeGreeting(
+                    output,
+                    miner.getLotteryConfiguration());
+            output.flush();
+
+            while (serveRequest(input, output)) {
+                output.flush();
+            }
+
+            output.flush();
+        } catch (IOException ex) {
+            // The client went away; nothing to answer.
+        } finally {
+            connections.remove(connection);
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Reads and answers a single request.
+     *
+     * @param input  the input of the connection.
+     * @param output the output of the connection.
+     * @return {@code false} if the connection is to be closed.
+     * @throws IOException if the connection fails.
+     */
+    private boolean serveRequest(DataInputStream input,
+                                 DataOutputStream output) throws IOException {
+        int request = input.read();
+
+        switch (request) {
+            case -1:
+                return false;
+
+            case LotteryRowIngestProtocol.ADD_ROWS:
+                return serveAddRows(input, output);
+
+            case LotteryRowIngestProtocol.COUNT_MISSING_ROWS:
+                output.writeByte(LotteryRowIngestProtocol.STATUS_OK);
+                output.writeLong(miner.countMissingLotteryRows());
+                return true;
+
+            case LotteryRowIngestProtocol.LIST_MISSING_ROWS:
+                return serveListMissingRows(input, output);
+
+            default:
+                // The stream is out of sync, so the connection is closed:
+                writeError(output, "Unknown request (" + request + ").");
+                return false;
+        }
+    }
+
+    private boolean serveAddRows(DataInputStream input,
+                                 DataOutputStream output) throws IOException {
+        int numberOfRows = input.readInt();
+
+        if (numberOfRows < 0) {
+            writeError(output, "numberOfRows(" + numberOfRows + ") < 0");
+            return false;
+        }
+
+        int lotteryRowLength =
+                miner.getLotteryConfiguration().getLotteryRowLength();
+        byte[] batch =
+                new byte[Math.min(batchSize, numberOfRows) * lotteryRowLength];
+        int[] numbers = new int[lotteryRowLength];
+        int numberOfCommittedRows = 0;
+        String errorMessage = null;
+
+        for (int rowIndex = 0; rowIndex < numberOfRows;) {
+            int batchLength = Math.min(batchSize, numberOfRows - rowIndex);
+            input.readFully(batch, 0, batchLength * lotteryRowLength);
+            rowIndex += batchLength;
+
+            if (errorMessage == null) {
+                errorMessage = commitBatch(batch, numbers, batchLength);
+
+                if (errorMessage == null) {
+                    numberOfCommittedRows += batchLength;
+                }
+            }
+        }
+
+        if (errorMessage != null) {
+            writeError(output,
+                       errorMessage + " (" + numberOfCommittedRows +
+                       " rows committed before the rejected batch)");
+        } else {
+            output.writeByte(LotteryRowIngestProtocol.STATUS_OK);
+            output.writeInt(numberOfCommittedRows);
+        }
+
+        return true;
+    }
+
+    /**
+     * Validates all the rows of a batch into a row store, and only then
+     * commits them.
+     *
+     * @param batch       the packed rows.
+     * @param numbers     the buffer of an unpacked row.
+     * @param batchLength the number of rows in the batch.
+     * @return the error message, or {@code null} if the batch was committed.
+     */
+    private String commitBatch(byte[] batch, int[] numbers, int batchLength) {
+        LotteryRowStore rowStore =
+                new LotteryRowStore(miner.getLotteryConfiguration(),
+                                    batchLength);
+
+        for (int i = 0, offset = 0; i < batchLength; i++) {
+            for (int j = 0; j < numbers.length; j++, offset++) {
+                numbers[j] = batch[offset] & 0xff;
+            }
+
+            try {
+                rowStore.add(numbers);
+            } catch (IllegalArgumentException ex) {
+                return ex.getMessage();
+            }
+        }
+
+        miner.addLotteryRows(rowStore);
+        return null;
+    }
+
+    private boolean serveListMissingRows(DataInputStream input,
+                                         DataOutputStream output)
+            throws IOException {
+        int maximumNumberOfRows = input.readInt();
+
+        if (maximumNumberOfRows < 0) {
+            writeError(output,
+                       "maximumNumberOfRows(" + maximumNumberOfRows +
+                       ") < 0");
+            return true;
+        }
+
+        long[] ranks = miner.streamMissingLotteryRowRanks()
+                            .limit(maximumNumberOfRows)
+                            .toArray();
+
+        int[] numbers =
+                new int[miner.getLotteryConfiguration().getLotteryRowLength()];
+
+        output.writeByte(LotteryRowIngestProtocol.STATUS_OK);
+        output.writeInt(ranks.length);
+
+        for (long rank : ranks) {
+            miner.combinationRanker.unrank(rank, numbers);
+
+            for (int number : numbers) {
+                output.writeByte(number);
+            }
+        }
+
+        return true;
+    }
+
+    private static void writeError(DataOutputStream output, String message)
+            throws IOException {
+        output.writeByte(LotteryRowIngestProtocol.STATUS_ERROR);
+        output.writeUTF(String.valueOf(message));
+    }
+
+    private static void closeQuietly(SocketChannel connection) {
+        try {
+            connection.close();
+        } catch (IOException ex) {
+            // Nothing to do.
+        }
+    }
+}
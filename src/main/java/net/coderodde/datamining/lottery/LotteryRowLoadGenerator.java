@@ -0,0 +1,208 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.file.Paths;
+
+/**
+ * This class implements a load generator for
+ * {@link net.coderodde.datamining.lottery.LotteryRowIngestServer}. It opens
+ * a number of connections, each sending its own random rows in batches from
+ * its own thread, reports the throughput and finally asks the server for
+ * the number of the missing rows.
+ * <p>
+ * Usage:
+ * <pre>
+ * java net.coderodde.datamining.lottery.LotteryRowLoadGenerator
+ *     port|socketPath|--local=game connections rowsPerConnection
+ *     [rowsPerRequest]
+ * </pre>
+ * With <code>--local=</code>{@code game}, such as <code>--local=7/40</code>,
+ * a server is started in the same process on an ephemeral loopback port, so
+ * that the whole path may be tested end to end on one machine without a
+ * separate server process.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class LotteryRowLoadGenerator {
+
+    /**
+     * The default number of rows sent per request.
+     */
+    private static final int DEFAULT_ROWS_PER_REQUEST = 10_000;
+
+    /**
+     * The prefix of the argument starting an in-process server.
+     */
+    private static final String LOCAL_SERVER_PREFIX = "--local=";
+
+    private LotteryRowLoadGenerator() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 4) {
+            CommandLineSupport.exitWithUsage(
+                    LotteryRowLoadGenerator.class,
+                    "port|socketPath|--local=game connections " +
+                    "rowsPerConnection [rowsPerRequest]");
+        }
+
+        int numberOfConnections = Integer.parseInt(args[1]);
+        int rowsPerConnection = Integer.parseInt(args[2]);
+        int rowsPerRequest = args.length == 4
+                ? Integer.parseInt(args[3])
+                : DEFAULT_ROWS_PER_REQUEST;
+
+        LotteryRowIngestServer server = null;
+        SocketAddress address;
+
+        if (args[0].startsWith(LOCAL_SERVER_PREFIX)) {
+            server = LotteryRowIngestServer.start(
+                    new CountingMissingLotteryRowsGenerator(
+                            LotteryConfiguration.parse(
+                                    args[0].substring(
+                                            LOCAL_SERVER_PREFIX.length()))),
+                    0);
+            address = server.getLocalAddress();
+        } else if (LotteryRowIngestServer.isPort(args[0])) {
+            address = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                                            Integer.parseInt(args[0]));
+        } else {
+            address = LotteryRowIngestProtocol.getUnixDomainSocketAddress(
+                    Paths.get(args[0]));
+        }
+
+        try {
+            run(address,
+                numberOfConnections,
+                rowsPerConnection,
+                rowsPerRequest);
+
+            if (server != null) {
+                System.out.println("Server metrics: " +
+                                   server.getMiner().getMetrics());
+            }
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    /**
+     * Sends the random rows over the given number of connections and prints
+     * the throughput.
+     *
+     * @param address             the address of the server.
+     * @param numberOfConnections the number of the concurrent connections.
+     * @param rowsPerConnection   the number of rows sent over each
+     *                            connection.
+     * @param rowsPerRequest      the number of rows sent per request.
+     * @throws IOException if a connection fails.
+     */
+    static void run(SocketAddress address,
+                    int numberOfConnections,
+                    int rowsPerConnection,
+                    int rowsPerRequest) throws IOException {
+        ParallelSupport.checkNumberOfThreads(numberOfConnections);
+
+        if (rowsPerConnection < 0) {
+            throw new IllegalArgumentException(
+                    "rowsPerConnection(" + rowsPerConnection + ") < 0");
+        }
+
+        if (rowsPerRequest < 1) {
+            throw new IllegalArgumentException(
+                    "rowsPerRequest(" + rowsPerRequest + ") < 1");
+        }
+
+        LotteryRowIngestClient[] clients =
+                new LotteryRowIngestClient[numberOfConnections];
+        LotteryRowStore[] rowStores = new LotteryRowStore[numberOfConnections];
+        long[] committedRows = new long[numberOfConnections];
+
+        try {
+            for (int i = 0; i < numberOfConnections; i++) {
+                clients[i] = LotteryRowIngestClient.connect(address);
+            }
+
+            LotteryConfiguration lotteryConfiguration =
+                    clients[0].getLotteryConfiguration();
+
+            // The rows are generated up front, so only the sending is timed:
+            ParallelSupport.runInParallel(
+                    numberOfConnections,
+                    numberOfConnections,
+                    (chunkIndex, fromIndex, toIndex) -> {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    rowStores[i] =
+                            new LotteryRowGenerator(lotteryConfiguration)
+                                    .generateLotteryRowStore(
+                                            rowsPerConnection);
+                }
+            });
+
+            long startTime = System.nanoTime();
+
+            ParallelSupport.runInParallel(
+                    numberOfConnections,
+                    numberOfConnections,
+                    (chunkIndex, fromIndex, toIndex) -> {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    committedRows[i] =
+                            sendRows(clients[i], rowStores[i], rowsPerRequest);
+                }
+            });
+
+            long duration = System.nanoTime() - startTime;
+            long totalCommittedRows = 0L;
+
+            for (long rows : committedRows) {
+                totalCommittedRows += rows;
+            }
+
+            System.out.println(
+                    "Sent " + totalCommittedRows + " rows over " +
+                    numberOfConnections + " connections in " +
+                    duration / 1_000_000L + " milliseconds (" +
+                    String.format("%.0f",
+                                  totalCommittedRows * 1e9 /
+                                          Math.max(1L, duration)) +
+                    " rows/s).");
+
+            System.out.println(
+                    "Missing lottery rows: " +
+                    clients[0].countMissingLotteryRows());
+        } finally {
+            for (LotteryRowIngestClient client : clients) {
+                if (client != null) {
+                    client.close();
+                }
+            }
+        }
+    }
+
+    private static long sendRows(LotteryRowIngestClient client,
+                                 LotteryRowStore rowStore,
+                                 int rowsPerRequest) {
+        long committedRows = 0L;
+
+        try {
+            for (int i = 0; i < rowStore.size(); i += rowsPerRequest) {
+                committedRows +=
+                        client.addLotteryRows(
+                                rowStore,
+                                i,
+                                Math.min(rowStore.size(), i + rowsPerRequest));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return committedRows;
+    }
+}
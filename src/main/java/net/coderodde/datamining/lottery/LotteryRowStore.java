@@ -0,0 +1,373 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class implements a compact bulk store of lottery rows. All the rows
+ * are kept in a single byte array, one byte per number, so that a row of the
+ * 40 choose 7 game takes 7 bytes instead of a
+ * {@link net.coderodde.datamining.lottery.LotteryRow} object with its own
+ * number array. The numbers of each row are kept in ascending order within
+ * each pool of the game.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class LotteryRowStore {
+
+    /**
+     * The largest number value that fits in a single unsigned byte.
+     */
+    public static final int MAXIMUM_SUPPORTED_NUMBER_VALUE = 255;
+
+    /**
+     * The default capacity in rows.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The largest supported storage array length.
+     */
+    private static final int MAXIMUM_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * This class implements a zero-copy view over a single row of the store.
+     * The view may be moved from row to row.
+     */
+    public final class RowView {
+
+        /**
+         * The offset of the viewed row in the storage array.
+         */
+        private int offset;
+
+        private RowView() {}
+
+        /**
+         * Moves this view to the given row.
+         *
+         * @param rowIndex the index of the row to view.
+         * @return this view for chaining.
+         */
+        public RowView moveTo(int rowIndex) {
+            checkRowIndex(rowIndex);
+            offset = rowIndex * lotteryRowLength;
+            return this;
+        }
+
+        /**
+         * Returns the <code>index</code>th number of the viewed row.
+         *
+         * @param index the index of the desired number.
+         * @return the <code>index</code>th number.
+         */
+        public int getNumber(int index) {
+            return data[offset + index] & 0xff;
+        }
+
+        /**
+         * Returns the length of the viewed row.
+         *
+         * @return the row length.
+         */
+        public int length() {
+            return lotteryRowLength;
+        }
+    }
+
+    /**
+     * The lottery configuration object.
+     */
+    private final LotteryConfiguration lotteryConfiguration;
+
+    /**
+     * The row length, cached for speed.
+     */
+    private final int lotteryRowLength;
+
+    /**
+     * The packed rows.
+     */
+    private byte[] data;
+
+    /**
+     * The number of rows in this store.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty row store with default capacity.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     */
+    public LotteryRowStore(LotteryConfiguration lotteryConfiguration) {
+        this(lotteryConfiguration, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty row store with the given capacity.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @param capacity             the initial capacity in rows.
+     */
+    public LotteryRowStore(LotteryConfiguration lotteryConfiguration,
+                           int capacity) {
+        this.lotteryConfiguration =
+                Objects.requireNonNull(
+                        lotteryConfiguration,
+                        "lotteryConfiguration == null");
+
+        checkConfiguration(lotteryConfiguration);
+        checkCapacity(capacity);
+        this.lotteryRowLength = lotteryConfiguration.getLotteryRowLength();
+        this.data = new byte[checkedLength(capacity)];
+    }
+
+    /**
+     * Constructs a row store wrapping already packed rows. The rows are
+     * trusted to be valid and sorted.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @param data                 the packed rows.
+     * @param size                 the number of rows in {@code data}.
+     */
+    LotteryRowStore(LotteryConfiguration lotteryConfiguration,
+                    byte[] data,
+                    int size) {
+        this.lotteryConfiguration = lotteryConfiguration;
+        this.lotteryRowLength = lotteryConfiguration.getLotteryRowLength();
+        this.data = data;
+        this.size = size;
+    }
+
+    /**
+     * Returns the configuration object of this store.
+     *
+     * @return the configuration object.
+     */
+    public LotteryConfiguration getLotteryConfiguration() {
+        return lotteryConfiguration;
+    }
+
+    /**
+     * Returns the number of rows in this store.
+     *
+     * @return the number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends a row to this store. The numbers of each pool may be given in
+     * any order.
+     *
+     * @param numbers the numbers of the row.
+     * @return this store for chaining.
+     */
+    public LotteryRowStore add(int... numbers) {
+        Objects.requireNonNull(numbers, "numbers == null");
+
+        if (numbers.length != lotteryRowLength) {
+            throw new IllegalArgumentException(
+                    "Wrong length of a row (" + numbers.length +
+                    ", must be exactly " + lotteryRowLength + ".");
+        }
+
+        ensureCapacity(size + 1);
+        int offset = size * lotteryRowLength;
+
+        for (int i = 0; i < lotteryRowLength; i++) {
+            int number = numbers[i];
+            checkNumber(i, number);
+            int poolOffset = 
+                    offset + lotteryConfiguration.getPoolOffset(
+                            lotteryConfiguration.getPoolOf(i));
+            int j = offset + i - 1;
+
+            // Insertion sort step within the pool:
+            while (j >= poolOffset && (data[j] & 0xff) > number) {
+                data[j + 1] = data[j];
+                j--;
+            }
+
+            if (j >= poolOffset && (data[j] & 0xff) == number) {
+                // The partial row lies past 'size' and is simply dropped:
+                throw new IllegalArgumentException(
+                        "Duplicate number (" + number + ") in a row.");
+            }
+
+            data[j + 1] = (byte) number;
+        }
+
+        size++;
+        return this;
+    }
+
+    /**
+     * Appends a lottery row to this store.
+     *
+     * @param lotteryRow the row to append.
+     * @return this store for chaining.
+     */
+    public LotteryRowStore add(LotteryRow lotteryRow) {
+        Objects.requireNonNull(lotteryRow, "lotteryRow == null");
+        int[] numbers = new int[lotteryRowLength];
+
+        for (int i = 0; i < lotteryRowLength; i++) {
+            numbers[i] = lotteryRow.getNumber(i);
+        }
+
+        return add(numbers);
+    }
+
+    /**
+     * Returns the <code>numberIndex</code>th number of the
+     * <code>rowIndex</code>th row.
+     *
+     * @param rowIndex    the index of the row.
+     * @param numberIndex the index of the number within the row.
+     * @return the requested number.
+     */
+    public int getNumber(int rowIndex, int numberIndex) {
+        checkRowIndex(rowIndex);
+
+        if (numberIndex < 0 || numberIndex >= lotteryRowLength) {
+            throw new IndexOutOfBoundsException(
+                    "numberIndex(" + numberIndex + ") not within [0, " +
+                    lotteryRowLength + ")");
+        }
+
+        return data[rowIndex * lotteryRowLength + numberIndex] & 0xff;
+    }
+
+    /**
+     * Loads the numbers of the <code>rowIndex</code>th row into
+     * {@code numbers}.
+     *
+     * @param rowIndex the index of the row.
+     * @param numbers  the target array of at least row length elements.
+     */
+    public void getNumbers(int rowIndex, int[] numbers) {
+        checkRowIndex(rowIndex);
+
+        for (int i = 0, offset = rowIndex * lotteryRowLength;
+                i < lotteryRowLength;
+                i++, offset++) {
+            numbers[i] = data[offset] & 0xff;
+        }
+    }
+
+    /**
+     * Materializes the <code>rowIndex</code>th row as a
+     * {@link net.coderodde.datamining.lottery.LotteryRow}.
+     *
+     * @param rowIndex the index of the row.
+     * @return the lottery row.
+     */
+    public LotteryRow getLotteryRow(int rowIndex) {
+        int[] numbers = new int[lotteryRowLength];
+        getNumbers(rowIndex, numbers);
+        return LotteryRow.fromSorted(lotteryConfiguration, numbers);
+    }
+
+    /**
+     * Returns a new view positioned at the first row.
+     *
+     * @return a new row view.
+     */
+    public RowView newRowView() {
+        return new RowView();
+    }
+
+    /**
+     * Tells whether the given configuration may be stored in a row store.
+     *
+     * @param lotteryConfiguration the lottery configuration to check.
+     * @return {@code true} if the numbers fit in a byte each.
+     */
+    public static boolean supports(LotteryConfiguration lotteryConfiguration) {
+        return lotteryConfiguration.getMaximumNumberValue()
+                <= MAXIMUM_SUPPORTED_NUMBER_VALUE;
+    }
+
+    private void ensureCapacity(int requestedCapacity) {
+        if ((long) requestedCapacity * lotteryRowLength <= data.length) {
+            return;
+        }
+
+        long newLength = Math.max((long) requestedCapacity * lotteryRowLength,
+                                  2L * data.length);
+
+        newLength = Math.min(newLength,
+                             (long) MAXIMUM_ARRAY_LENGTH
+                                     / lotteryRowLength
+                                     * lotteryRowLength);
+
+        if (newLength < (long) requestedCapacity * lotteryRowLength) {
+            throw new IllegalStateException(
+                    "The row store cannot accommodate more rows.");
+        }
+
+        data = Arrays.copyOf(data, (int) newLength);
+    }
+
+    private int checkedLength(int capacity) {
+        long length = (long) capacity * lotteryRowLength;
+
+        if (length > MAXIMUM_ARRAY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "capacity(" + capacity + ") too large for rows of " +
+                    "length " + lotteryRowLength + ".");
+        }
+
+        return (int) length;
+    }
+
+    private void checkNumber(int index, int number) {
+        if (number < 1) {
+            throw new IllegalArgumentException("number(" + number + ") < 1");
+        }
+
+        int maximumNumber = lotteryConfiguration.getMaximumNumberValueAt(index);
+
+        if (number > maximumNumber) {
+            throw new IllegalArgumentException(
+                "number (" + number + ") > " +
+                "this.lotteryConfiguration.getMaximumNumberValueAt(" +
+                index + ")[" + maximumNumber + "]");
+        }
+    }
+
+    private void checkRowIndex(int rowIndex) {
+        if (rowIndex < 0) {
+            throw new IndexOutOfBoundsException(
+                    "rowIndex(" + rowIndex + ") < 0");
+        }
+
+        if (rowIndex >= size) {
+            throw new IndexOutOfBoundsException(
+                    "rowIndex(" + rowIndex + ") >= size(" + size + ")");
+        }
+    }
+
+    private static void checkCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(
+                    "capacity(" + capacity + ") < 0");
+        }
+    }
+
+    private static void checkConfiguration(
+            LotteryConfiguration lotteryConfiguration) {
+        if (!supports(lotteryConfiguration)) {
+            throw new IllegalArgumentException(
+                    "maximumNumberValue(" +
+                    lotteryConfiguration.getMaximumNumberValue() + ") > " +
+                    MAXIMUM_SUPPORTED_NUMBER_VALUE);
+        }
+    }
+}
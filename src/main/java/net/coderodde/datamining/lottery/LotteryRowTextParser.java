@@ -0,0 +1,405 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * This class implements a streaming parser of text lottery row files holding
+ * one row per line in the comma separated form produced by
+ * {@link net.coderodde.datamining.lottery.LotteryRow#toString()}. Blanks
+ * around the numbers, empty lines and both <code>\n</code> and
+ * <code>\r\n</code> line endings are accepted; the numbers of a row may come
+ * in any order. The pools of a multi-pool row are separated by plus signs,
+ * such as in <code>3,17,22,41,50 + 2,9</code>, and the numbers of each pool
+ * may come in any order.
+ * <p>
+ * The parser works directly on the bytes of a fixed size buffer, so the
+ * memory consumption is bounded and no objects are created per line. A
+ * parser instance is not thread-safe.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class LotteryRowTextParser {
+
+    /**
+     * The default size of the read buffer in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The lottery configuration object.
+     */
+    private final LotteryConfiguration lotteryConfiguration;
+
+    /**
+     * The handler of the malformed lines.
+     */
+    private final MalformedLineHandler malformedLineHandler;
+
+    /**
+     * The read buffer.
+     */
+    private final byte[] buffer;
+
+    /**
+     * The numbers of the row being parsed.
+     */
+    private final int[] numbers;
+
+    /**
+     * The number of numbers parsed so far on the current line.
+     */
+    private int numberCount;
+
+    /**
+     * The index of the pool being parsed on the current line.
+     */
+    private int poolIndex;
+
+    /**
+     * The value of the number being parsed. Stops growing once it exceeds the
+     * maximum number value, so it cannot overflow.
+     */
+    private long currentNumber;
+
+    /**
+     * Whether the current number has at least one digit.
+     */
+    private boolean inNumber;
+
+    /**
+     * Whether the current number was terminated by a blank.
+     */
+    private boolean numberClosed;
+
+    /**
+     * Whether the current line had anything but blanks.
+     */
+    private boolean lineHasContent;
+
+    /**
+     * The description of the first problem on the current line, or
+     * {@code null} if the line is well-formed so far.
+     */
+    private String malformedReason;
+
+    /**
+     * The one-based number of the current line.
+     */
+    private long lineNumber;
+
+    /**
+     * The number of rows emitted during the current parse.
+     */
+    private long numberOfRows;
+
+    /**
+     * Constructs a parser failing on the first malformed line.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     */
+    public LotteryRowTextParser(LotteryConfiguration lotteryConfiguration) {
+        this(lotteryConfiguration,
+             MalformedLineHandler.FAIL,
+             DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a parser with the given malformed line handler and buffer
+     * size.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @param malformedLineHandler the handler of the malformed lines.
+     * @param bufferSize           the size of the read buffer in bytes.
+     */
+    public LotteryRowTextParser(LotteryConfiguration lotteryConfiguration,
+                                MalformedLineHandler malformedLineHandler,
+                                int bufferSize) {
+        this.lotteryConfiguration =
+                Objects.requireNonNull(
+                        lotteryConfiguration,
+                        "lotteryConfiguration == null");
+
+        this.malformedLineHandler =
+                Objects.requireNonNull(
+                        malformedLineHandler,
+                        "malformedLineHandler == null");
+
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException(
+                    "bufferSize(" + bufferSize + ") < 1");
+        }
+
+        this.buffer = new byte[bufferSize];
+        this.numbers = new int[lotteryConfiguration.getLotteryRowLength()];
+    }
+
+    /**
+     * Parses all the rows from {@code inputStream} and passes each of them to
+     * {@code consumer} with the numbers in ascending order. The numbers array
+     * is reused between the calls. The stream is not closed.
+     *
+     * @param inputStream the input stream.
+     * @param consumer    the row consumer.
+     * @return the number of well-formed rows.
+     * @throws IOException if reading fails or the malformed line handler
+     *                     aborts the parsing.
+     */
+    public long parse(InputStream inputStream, Consumer<int[]> consumer)
+            throws IOException {
+        Objects.requireNonNull(inputStream, "inputStream == null");
+        Objects.requireNonNull(consumer, "consumer == null");
+        reset();
+        int bytesRead;
+
+        while ((bytesRead = inputStream.read(buffer)) != -1) {
+            parseBytes(bytesRead, consumer);
+        }
+
+        endLine(consumer);
+        return numberOfRows;
+    }
+
+    /**
+     * Parses all the rows from {@code channel} and passes each of them to
+     * {@code consumer} with the numbers in ascending order. The numbers array
+     * is reused between the calls. The channel is not closed.
+     *
+     * @param channel  the input channel.
+     * @param consumer the row consumer.
+     * @return the number of well-formed rows.
+     * @throws IOException if reading fails or the malformed line handler
+     *                     aborts the parsing.
+     */
+    public long parse(ReadableByteChannel channel, Consumer<int[]> consumer)
+            throws IOException {
+        Objects.requireNonNull(channel, "channel == null");
+        Objects.requireNonNull(consumer, "consumer == null");
+        reset();
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        int bytesRead;
+
+        while ((bytesRead = channel.read(byteBuffer)) != -1) {
+            parseBytes(bytesRead, consumer);
+            byteBuffer.clear();
+        }
+
+        endLine(consumer);
+        return numberOfRows;
+    }
+
+    /**
+     * Parses all the rows from {@code inputStream} into {@code miner}.
+     *
+     * @param inputStream the input stream.
+     * @param miner       the target miner.
+     * @return the number of well-formed rows.
+     * @throws IOException if reading fails or the malformed line handler
+     *                     aborts the parsing.
+     */
+    public long parse(InputStream inputStream, MissingLotteryRowsMiner miner)
+            throws IOException {
+        Objects.requireNonNull(miner, "miner == null");
+        return parse(inputStream, (Consumer<int[]>) miner::addLotteryNumbers);
+    }
+
+    /**
+     * Parses all the rows from {@code channel} into {@code miner}.
+     *
+     * @param channel the input channel.
+     * @param miner   the target miner.
+     * @return the number of well-formed rows.
+     * @throws IOException if reading fails or the malformed line handler
+     *                     aborts the parsing.
+     */
+    public long parse(ReadableByteChannel channel,
+                      MissingLotteryRowsMiner miner) throws IOException {
+        Objects.requireNonNull(miner, "miner == null");
+        return parse(channel, (Consumer<int[]>) miner::addLotteryNumbers);
+    }
+
+    private void parseBytes(int length, Consumer<int[]> consumer)
+            throws IOException {
+        for (int i = 0; i < length; i++) {
+            byte b = buffer[i];
+
+            if (b >= '0' && b <= '9') {
+                onDigit(b - '0');
+            } else {
+                switch (b) {
+                    case ',':
+                        onComma();
+                        break;
+
+                    case '+':
+                        onPlus();
+                        break;
+
+                    case ' ':
+                    case '\t':
+                    case '\r':
+                        if (inNumber) {
+                            numberClosed = true;
+                        }
+
+                        break;
+
+                    case '\n':
+                        endLine(consumer);
+                        break;
+
+                    default:
+                        markMalformed("unexpected character (code " +
+                                      (b & 0xff) + ")");
+                }
+            }
+        }
+    }
+
+    private void onDigit(int digit) {
+        lineHasContent = true;
+
+        if (numberClosed) {
+            markMalformed("missing comma between numbers");
+        }
+
+        inNumber = true;
+
+        if (currentNumber <= lotteryConfiguration.getMaximumNumberValue()) {
+            currentNumber = currentNumber * 10 + digit;
+        }
+    }
+
+    private void onComma() {
+        lineHasContent = true;
+
+        if (!inNumber) {
+            markMalformed("missing number");
+            return;
+        }
+
+        finishNumber();
+    }
+
+    private void onPlus() {
+        lineHasContent = true;
+
+        if (!inNumber) {
+            markMalformed("missing number");
+            return;
+        }
+
+        finishNumber();
+
+        if (poolIndex + 1 == lotteryConfiguration.getNumberOfPools()) {
+            markMalformed("too many pools");
+        } else if (numberCount 
+                != lotteryConfiguration.getPoolOffset(poolIndex + 1)) {
+            markMalformed("too few numbers in pool " + poolIndex);
+        } else {
+            poolIndex++;
+        }
+    }
+
+    private void finishNumber() {
+        if (currentNumber < 1
+                || currentNumber
+                        > lotteryConfiguration
+                                .getPoolMaximumNumberValue(poolIndex)) {
+            markMalformed("number out of range");
+        } else if (numberCount 
+                == lotteryConfiguration.getPoolOffset(poolIndex + 1)) {
+            markMalformed("too many numbers");
+        } else if (!insertNumber((int) currentNumber)) {
+            markMalformed("duplicate number " + currentNumber);
+        }
+
+        currentNumber = 0;
+        inNumber = false;
+        numberClosed = false;
+    }
+
+    private void endLine(Consumer<int[]> consumer) throws IOException {
+        lineNumber++;
+
+        if (inNumber) {
+            finishNumber();
+        } else if (lineHasContent) {
+            markMalformed("missing number");
+        }
+
+        if (lineHasContent) {
+            if (malformedReason == null && numberCount != numbers.length) {
+                markMalformed("too few numbers");
+            }
+
+            if (malformedReason == null) {
+                consumer.accept(numbers);
+                numberOfRows++;
+            } else {
+                malformedLineHandler.handleMalformedLine(lineNumber,
+                                                         malformedReason);
+            }
+        }
+
+        numberCount = 0;
+        poolIndex = 0;
+        currentNumber = 0;
+        inNumber = false;
+        numberClosed = false;
+        lineHasContent = false;
+        malformedReason = null;
+    }
+
+    /**
+     * Inserts the number into its sorted position within the current pool of
+     * the current row.
+     *
+     * @param number the number to insert.
+     * @return {@code false} if the number is already in the pool.
+     */
+    private boolean insertNumber(int number) {
+        int poolOffset = lotteryConfiguration.getPoolOffset(poolIndex);
+        int i = numberCount - 1;
+
+        while (i >= poolOffset && numbers[i] > number) {
+            i--;
+        }
+
+        if (i >= poolOffset && numbers[i] == number) {
+            return false;
+        }
+
+        System.arraycopy(numbers, i + 1, numbers, i + 2, numberCount - i - 1);
+        numbers[i + 1] = number;
+        numberCount++;
+        return true;
+    }
+
+    private void markMalformed(String reason) {
+        lineHasContent = true;
+
+        if (malformedReason == null) {
+            malformedReason = reason;
+        }
+    }
+
+    private void reset() {
+        numberCount = 0;
+        poolIndex = 0;
+        currentNumber = 0;
+        inNumber = false;
+        numberClosed = false;
+        lineHasContent = false;
+        malformedReason = null;
+        lineNumber = 0L;
+        numberOfRows = 0L;
+    }
+}
@@ -0,0 +1,39 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.IOException;
+
+/**
+ * This interface defines the callback notified of malformed lines met by
+ * {@link net.coderodde.datamining.lottery.LotteryRowTextParser}. A malformed
+ * line is skipped unless the handler throws.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+@FunctionalInterface
+public interface MalformedLineHandler {
+
+    /**
+     * The handler failing on the first malformed line.
+     */
+    MalformedLineHandler FAIL = (lineNumber, reason) -> {
+        throw new IOException(
+                "Malformed line " + lineNumber + ": " + reason + ".");
+    };
+
+    /**
+     * The handler silently skipping all malformed lines.
+     */
+    MalformedLineHandler SKIP = (lineNumber, reason) -> {};
+
+    /**
+     * Handles a malformed line.
+     *
+     * @param lineNumber the one-based number of the malformed line.
+     * @param reason     the description of the problem.
+     * @throws IOException if the parsing should be aborted.
+     */
+    void handleMalformedLine(long lineNumber, String reason)
+            throws IOException;
+}
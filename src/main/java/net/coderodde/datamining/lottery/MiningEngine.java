@@ -0,0 +1,142 @@
+package net.coderodde.datamining.lottery;
+
+/**
+ * This enumeration lists the available missing lottery row mining engines.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.63 (Oct 16, 2026) ~ out-of-core engine.
+ * @version 1.62 (Oct 16, 2026) ~ compact radix tree engine.
+ * @version 1.61 (Oct 16, 2026) ~ off-heap bit set engine.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public enum MiningEngine {
+
+    /**
+     * The radix tree engine. Its memory consumption grows with the number of
+     * distinct added rows.
+     */
+    RADIX_TREE {
+        @Override
+        public MissingLotteryRowsMiner
+            newMiner(LotteryConfiguration lotteryConfiguration) {
+            return new MissingLotteryRowsGenerator(lotteryConfiguration);
+        }
+    },
+
+    /**
+     * The compact radix tree engine. Its nodes hold only their present
+     * children, so it takes about a tenth of the memory of the radix tree
+     * engine. Supports at most 64 numbers per pool.
+     */
+    COMPACT_RADIX_TREE {
+        @Override
+        public MissingLotteryRowsMiner
+            newMiner(LotteryConfiguration lotteryConfiguration) {
+            return new CompactMissingLotteryRowsGenerator(
+                    lotteryConfiguration);
+        }
+    },
+
+    /**
+     * The combinatorial rank bit set engine. Its memory consumption is fixed
+     * to <code>C(n, k)</code> bits.
+     */
+    COMBINATION_BIT_SET {
+        @Override
+        public MissingLotteryRowsMiner
+            newMiner(LotteryConfiguration lotteryConfiguration) {
+            return new BitSetMissingLotteryRowsGenerator(lotteryConfiguration);
+        }
+    },
+
+    /**
+     * The compressed combinatorial rank bit set engine. Its memory
+     * consumption follows the actual coverage, which suits the games too
+     * large for a flat bit set.
+     */
+    COMPRESSED_BIT_SET {
+        @Override
+        public MissingLotteryRowsMiner
+            newMiner(LotteryConfiguration lotteryConfiguration) {
+            return new CompressedBitSetMissingLotteryRowsGenerator(
+                    lotteryConfiguration);
+        }
+    },
+
+    /**
+     * The off-heap combinatorial rank bit set engine. It keeps the
+     * <code>C(n, k)</code> bits in direct memory, so the heap use stays flat.
+     * The returned miner is {@link java.io.Closeable} and should be closed
+     * to release the memory right away.
+     */
+    OFF_HEAP_BIT_SET {
+        @Override
+        public MissingLotteryRowsMiner
+            newMiner(LotteryConfiguration lotteryConfiguration) {
+            return new OffHeapBitSetMissingLotteryRowsGenerator(
+                    lotteryConfiguration);
+        }
+    },
+
+    /**
+     * The out-of-core engine. It spills the sorted ranks of the added rows
+     * to temporary files and merges them, so neither the number of the rows
+     * nor the size of the game is limited by the memory. The returned miner
+     * is {@link java.io.Closeable} and should be closed to delete the files.
+     */
+    EXTERNAL_SORT {
+        @Override
+        public MissingLotteryRowsMiner
+            newMiner(LotteryConfiguration lotteryConfiguration) {
+            return new ExternalMissingLotteryRowsGenerator(
+                    lotteryConfiguration);
+        }
+    },
+
+    /**
+     * The combinatorial rank counter engine. Besides the missing rows, it
+     * tells how many times each row was played. Its memory consumption is
+     * fixed to <code>C(n, k)</code> bytes.
+     */
+    COMBINATION_COUNTERS {
+        @Override
+        public MissingLotteryRowsMiner
+            newMiner(LotteryConfiguration lotteryConfiguration) {
+            return new CountingMissingLotteryRowsGenerator(
+                    lotteryConfiguration);
+        }
+    };
+
+    /**
+     * Creates a new miner of this engine type.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @return a new, empty miner.
+     */
+    public abstract MissingLotteryRowsMiner
+        newMiner(LotteryConfiguration lotteryConfiguration);
+
+    /**
+     * Picks the most suitable engine for the given configuration.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @return the engine to use.
+     */
+    public static MiningEngine
+        forConfiguration(LotteryConfiguration lotteryConfiguration) {
+        if (BitSetMissingLotteryRowsGenerator.supports(lotteryConfiguration)) {
+            return COMBINATION_BIT_SET;
+        }
+
+        if (CompressedBitSetMissingLotteryRowsGenerator
+                .supports(lotteryConfiguration)) {
+            return COMPRESSED_BIT_SET;
+        }
+
+        return CompactMissingLotteryRowsGenerator
+                .supports(lotteryConfiguration)
+                        ? COMPACT_RADIX_TREE
+                        : RADIX_TREE;
+    }
+}
@@ -0,0 +1,275 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class checks every mining engine against the radix tree engine on
+ * small games. Each engine is fed empty batches, rows one by one and rows
+ * in parallel, after which the missing row counts, the per-leading-number
+ * counts and the enumerations must agree with the ones of the radix tree.
+ * <p>
+ * The out-of-core engine is further run with the minimum memory budget on
+ * enough rows to make it spill many runs and merge them in several passes.
+ * Its run files must be gone once it is closed, and a disk budget smaller
+ * than a single run must be rejected.
+ * <p>
+ * Usage:
+ * <pre>
+ * java net.coderodde.datamining.lottery.MiningEngineCheck
+ * </pre>
+ * The program exits with status 1 on the first disagreement.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class MiningEngineCheck {
+
+    /**
+     * The exit status reporting a failed check.
+     */
+    private static final int FAILURE_EXIT_STATUS = 1;
+
+    /**
+     * The games checked against the radix tree engine.
+     */
+    private static final String[] GAMES = {
+        "1/10", "2/2", "3/5", "6/20", "5/16+2/6"
+    };
+
+    /**
+     * The numbers of the rows added in each check.
+     */
+    private static final int[] ROW_COUNTS = { 0, 1_000, 200_000 };
+
+    /**
+     * The number of the rows making the out-of-core engine merge in several
+     * passes under the minimum memory budget.
+     */
+    private static final int EXTERNAL_SORT_ROW_COUNT = 1_500_000;
+
+    /**
+     * The number of the ingesting threads.
+     */
+    private static final int NUMBER_OF_THREADS = 3;
+
+    private MiningEngineCheck() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 0) {
+            CommandLineSupport.exitWithUsage(MiningEngineCheck.class, "");
+        }
+
+        try {
+            for (String game : GAMES) {
+                LotteryConfiguration lotteryConfiguration =
+                        LotteryConfiguration.parse(game);
+
+                for (int numberOfRows : ROW_COUNTS) {
+                    checkEngines(lotteryConfiguration, numberOfRows);
+                }
+            }
+
+            checkExternalSort();
+        } catch (IllegalStateException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(FAILURE_EXIT_STATUS);
+        }
+    }
+
+    private static void checkEngines(LotteryConfiguration lotteryConfiguration,
+                                     int numberOfRows) throws IOException {
+        LotteryRowStore rowStore =
+                new LotteryRowGenerator(lotteryConfiguration, numberOfRows)
+                        .generateLotteryRowStore(numberOfRows);
+
+        MissingLotteryRowsMiner expectedMiner =
+                new MissingLotteryRowsGenerator(lotteryConfiguration)
+                        .addLotteryRows(rowStore);
+
+        for (MiningEngine miningEngine : MiningEngine.values()) {
+            MissingLotteryRowsMiner miner;
+
+            try {
+                miner = miningEngine.newMiner(lotteryConfiguration);
+            } catch (IllegalArgumentException ex) {
+                // The engine does not support the game.
+                continue;
+            }
+
+            check(miningEngine.toString(),
+                  lotteryConfiguration,
+                  rowStore,
+                  expectedMiner,
+                  miner);
+        }
+
+        System.out.println(
+                "All the engines agree with RADIX_TREE on " +
+                lotteryConfiguration + " with " + numberOfRows + " rows.");
+    }
+
+    // The minimum memory budget makes the engine spill many runs and merge
+    // them in several passes:
+    private static void checkExternalSort() throws IOException {
+        Path workDirectory = Files.createTempDirectory("mining-engine-check");
+
+        try {
+            for (String game : new String[]{ "6/20", "5/16+2/6" }) {
+                LotteryConfiguration lotteryConfiguration =
+                        LotteryConfiguration.parse(game);
+                LotteryRowStore rowStore =
+                        new LotteryRowGenerator(lotteryConfiguration,
+                                                EXTERNAL_SORT_ROW_COUNT)
+                                .generateLotteryRowStore(
+                                        EXTERNAL_SORT_ROW_COUNT);
+
+                check("EXTERNAL_SORT",
+                      lotteryConfiguration,
+                      rowStore,
+                      new MissingLotteryRowsGenerator(lotteryConfiguration)
+                              .addLotteryRows(rowStore),
+                      new ExternalMissingLotteryRowsGenerator(
+                              lotteryConfiguration,
+                              workDirectory,
+                              ExternalMissingLotteryRowsGenerator
+                                      .MINIMUM_MEMORY_BUDGET,
+                              Long.MAX_VALUE));
+
+                try (Stream<Path> files = Files.list(workDirectory)) {
+                    checkEqual("EXTERNAL_SORT",
+                               "run files left after close",
+                               0L,
+                               files.count());
+                }
+
+                System.out.println(
+                        "EXTERNAL_SORT agrees with RADIX_TREE on " +
+                        lotteryConfiguration + " with " +
+                        EXTERNAL_SORT_ROW_COUNT + " rows under the " +
+                        "minimum memory budget.");
+            }
+
+            checkExternalSortDiskBudget(workDirectory);
+        } finally {
+            Files.delete(workDirectory);
+        }
+    }
+
+    // A disk budget smaller than a single run must be rejected on spilling:
+    private static void checkExternalSortDiskBudget(Path workDirectory)
+            throws IOException {
+        LotteryConfiguration lotteryConfiguration =
+                LotteryConfiguration.parse("6/20");
+
+        ExternalMissingLotteryRowsGenerator miner =
+                new ExternalMissingLotteryRowsGenerator(
+                        lotteryConfiguration,
+                        workDirectory,
+                        ExternalMissingLotteryRowsGenerator
+                                .MINIMUM_MEMORY_BUDGET,
+                        Long.BYTES);
+
+        String message = null;
+
+        try {
+            miner.addLotteryRows(
+                    new LotteryRowGenerator(lotteryConfiguration, 1L)
+                            .generateLotteryRowStore(100));
+            miner.countMissingLotteryRows();
+        } catch (IllegalStateException ex) {
+            message = ex.getMessage();
+        } finally {
+            checkEqual("EXTERNAL_SORT",
+                       "disk usage within the budget",
+                       true,
+                       miner.getDiskUsage() <= Long.BYTES);
+            miner.close();
+        }
+
+        checkEqual("EXTERNAL_SORT",
+                   "disk budget exceeded",
+                   true,
+                   message != null);
+
+        System.out.println("EXTERNAL_SORT enforces its disk budget: " +
+                           message);
+    }
+
+    // Adds empty batches, half of the rows one by one and the other half in
+    // parallel, and compares the results with the ones of 'expectedMiner':
+    private static void check(String engineName,
+                              LotteryConfiguration lotteryConfiguration,
+                              LotteryRowStore rowStore,
+                              MissingLotteryRowsMiner expectedMiner,
+                              MissingLotteryRowsMiner miner)
+            throws IOException {
+        try {
+            miner.addLotteryRows(new LotteryRowStore(lotteryConfiguration),
+                                 NUMBER_OF_THREADS);
+            miner.addLotteryRows(Collections.emptyList(), NUMBER_OF_THREADS);
+
+            int half = rowStore.size() / 2;
+            LotteryRowStore secondHalf =
+                    new LotteryRowStore(lotteryConfiguration);
+
+            for (int i = 0; i < half; i++) {
+                miner.addLotteryRow(rowStore.getLotteryRow(i));
+            }
+
+            for (int i = half; i < rowStore.size(); i++) {
+                secondHalf.add(rowStore.getLotteryRow(i));
+            }
+
+            miner.addLotteryRows(secondHalf, NUMBER_OF_THREADS);
+
+            String what = engineName + " on " + lotteryConfiguration +
+                          " with " + rowStore.size() + " rows";
+
+            checkEqual(what,
+                       "count",
+                       expectedMiner.countMissingLotteryRows(),
+                       miner.countMissingLotteryRows());
+
+            checkEqual(what,
+                       "per-leading-number counts",
+                       Arrays.toString(expectedMiner
+                               .countMissingLotteryRowsByLeadingNumber()),
+                       Arrays.toString(miner
+                               .countMissingLotteryRowsByLeadingNumber()));
+
+            checkEqual(what,
+                       "enumeration",
+                       toStrings(expectedMiner.computeMissingLotteryRows()),
+                       toStrings(miner.computeMissingLotteryRows()));
+        } finally {
+            if (miner instanceof Closeable) {
+                ((Closeable) miner).close();
+            }
+        }
+    }
+
+    private static void checkEqual(String what,
+                                   String property,
+                                   Object expected,
+                                   Object actual) {
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException(
+                    "Check failed: " + property + " of " + what + ".");
+        }
+    }
+
+    private static List<String> toStrings(List<LotteryRow> lotteryRows) {
+        return lotteryRows.stream()
+                          .map(LotteryRow::toString)
+                          .collect(Collectors.toList());
+    }
+}
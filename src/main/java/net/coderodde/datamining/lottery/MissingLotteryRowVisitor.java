@@ -0,0 +1,24 @@
+package net.coderodde.datamining.lottery;
+
+/**
+ * This interface defines the callback receiving missing lottery rows one by
+ * one without materializing them as
+ * {@link net.coderodde.datamining.lottery.LotteryRow} objects.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+@FunctionalInterface
+public interface MissingLotteryRowVisitor {
+
+    /**
+     * Visits a single missing lottery row. The {@code numbers} array is
+     * reused between the calls, so the visitor must copy it if it needs the
+     * numbers after returning.
+     *
+     * @param rank    the lexicographic rank of the row.
+     * @param numbers the numbers of the row in ascending order.
+     */
+    void visit(long rank, int[] numbers);
+}
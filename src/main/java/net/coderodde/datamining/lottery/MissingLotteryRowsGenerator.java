@@ -1,6 +1,5 @@
 package net.coderodde.datamining.lottery;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -12,17 +11,70 @@ import java.util.Objects;
  * trees.
  * 
  * @author Rodion "rodde" Efremov
+ * @version 1.64 (Oct 16, 2026) ~ membership queries.
+ * @version 1.63 (Oct 16, 2026) ~ counting the missing rows.
+ * @version 1.62 (Oct 16, 2026) ~ metrics.
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026) ~ implements MissingLotteryRowsMiner.
  * @version 1.6 (Apr 28, 2020) ~ renamed the class.
  * @since 1.6 (Apr 20, 2020)
  */
-public final class MissingLotteryRowsGenerator {
+public final class MissingLotteryRowsGenerator 
+        extends AbstractMissingLotteryRowsMiner {
     
     private static final class RadixTreeNode {
         RadixTreeNode[] children;
     }
+
+    /**
+     * The estimated size of a node object in bytes, assuming compressed
+     * object pointers.
+     */
+    private static final long NODE_BYTES = 16L;
+
+    /**
+     * The estimated size of an array header in bytes.
+     */
+    private static final long ARRAY_HEADER_BYTES = 16L;
+
+    /**
+     * The estimated size of an object reference in bytes.
+     */
+    private static final long REFERENCE_BYTES = 4L;
+
+    /**
+     * The indices of the counters of the index nodes, the index bytes and
+     * the duplicate rows dropped while merging the shards.
+     */
+    private static final int DROPPED_NODES = 0;
+    private static final int DROPPED_BYTES = 1;
+    private static final int DUPLICATE_ROWS = 2;
+
+    /**
+     * The indices of the counters of the index nodes and the index bytes
+     * added while adding rows.
+     */
+    private static final int ADDED_NODES = 0;
+    private static final int ADDED_BYTES = 1;
     
     private final RadixTreeNode root;
-    private final LotteryConfiguration lotteryConfiguration;
+
+    /**
+     * The number of the distinct rows in each subtree of the root, that is,
+     * the number of the added rows with each leading number.
+     */
+    private final long[] numbersOfCoveredRows;
+
+    /**
+     * The number of the distinct rows in the tree.
+     */
+    private long numberOfCoveredRows;
+
+    /**
+     * The counters of the index nodes and bytes added by the sequential
+     * ingestion.
+     */
+    private final long[] addedCounts = new long[2];
 
     /**
      * Implements the main constructor.
@@ -34,12 +86,12 @@ public final class MissingLotteryRowsGenerator {
             LotteryConfiguration lotteryConfiguration,
             RadixTreeNode root) {
 
-        this.lotteryConfiguration =
-                Objects.requireNonNull(
-                        lotteryConfiguration, 
-                        "lotteryConfiguration == null");
-
+        super(lotteryConfiguration);
         this.root = Objects.requireNonNull(root, "The root node is null.");
+        this.numbersOfCoveredRows = 
+                new long[lotteryConfiguration.getMaximumNumberValueAt(0)];
+        metrics.addIndexNodes(1L);
+        metrics.addIndexBytes(NODE_BYTES);
     }
 
     /**
@@ -58,13 +110,24 @@ public final class MissingLotteryRowsGenerator {
      * @param lotteryRows the lottery rows to add one by one.
      * @return this generator for chaining.
      */
+    @Override
     public MissingLotteryRowsGenerator
         addLotteryRows(List<LotteryRow> lotteryRows) {
+        super.addLotteryRows(lotteryRows);
+        return this;
+    }
 
-        for (LotteryRow lotteryRow : lotteryRows) {
-            addLotteryRow(lotteryRow);
-        }
-
+    /**
+     * Adds a list of lottery rows to this generator in parallel.
+     * 
+     * @param lotteryRows     the lottery rows to add.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public MissingLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows, int numberOfThreads) {
+        super.addLotteryRows(lotteryRows, numberOfThreads);
         return this;
     }
 
@@ -74,32 +137,291 @@ public final class MissingLotteryRowsGenerator {
      * @param lotteryRow the lottery row to add.
      * @return this generator for chaining.
      */
+    @Override
     public MissingLotteryRowsGenerator
         addLotteryRow(LotteryRow lotteryRow) {
+        super.addLotteryRow(lotteryRow);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator.
+     *
+     * @param rowStore the row store.
+     * @return this generator for chaining.
+     */
+    @Override
+    public MissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore) {
+        super.addLotteryRows(rowStore);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator in
+     * parallel.
+     *
+     * @param rowStore        the row store.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public MissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore, int numberOfThreads) {
+        super.addLotteryRows(rowStore, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row given as its numbers in strictly ascending
+     * order.
+     *
+     * @param numbers the numbers of the row in ascending order.
+     * @return this generator for chaining.
+     */
+    @Override
+    public MissingLotteryRowsGenerator
+        addLotteryNumbers(int[] numbers) {
+        super.addLotteryNumbers(numbers);
+        return this;
+    }
+
+    /**
+     * Returns the number of missing rows. This is a constant time query, as
+     * the count is maintained while the rows are added.
+     * 
+     * @return the number of rows not added so far.
+     */
+    @Override
+    public long countMissingLotteryRows() {
+        return combinationRanker.getNumberOfCombinations() 
+                - numberOfCoveredRows;
+    }
+
+    /**
+     * Returns the numbers of the missing rows by their leading number. The
+     * numbers of the rows in the subtrees of the root are maintained while 
+     * the rows are added, so this takes time linear in the maximum number
+     * value only.
+     * 
+     * @return the missing row counts by leading number.
+     */
+    @Override
+    public long[] countMissingLotteryRowsByLeadingNumber() {
+        long[] counts = new long[numbersOfCoveredRows.length];
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = combinationRanker
+                    .getNumberOfCombinationsWithLeadingNumber(i + 1)
+                        - numbersOfCoveredRows[i];
+        }
+
+        return counts;
+    }
+
+    @Override
+    protected void addNumbers(int[] numbers) {
+        if (addToTree(root, numbers, addedCounts)) {
+            numbersOfCoveredRows[numbers[0] - 1]++;
+            numberOfCoveredRows++;
+            recordAddedCounts(addedCounts);
+        } else {
+            metrics.addDuplicateRows(1L);
+        }
+    }
+
+    /**
+     * Tells whether the row with the given rank was added by unranking it
+     * and walking down the tree.
+     *
+     * @param rank    the rank of the row.
+     * @param numbers the array to unrank the row into.
+     * @return {@code true} if the row was added.
+     */
+    @Override
+    protected boolean containsRank(long rank, int[] numbers) {
+        combinationRanker.unrank(rank, numbers);
+        return treeContains(numbers);
+    }
 
-        Objects.requireNonNull(lotteryRow, "lotteryRow == null");
-        checkLotteryRow(lotteryRow);
+    /**
+     * Each thread builds its own radix tree shard, after which the shards are
+     * merged into this generator. The merging is parallelized over the 
+     * leading numbers. The nodes of the shards count towards the index size
+     * metrics as they are created; the ones dropped by the merging are
+     * subtracted afterwards, and the leaves dropped count as duplicate rows.
+     * The numbers of the distinct rows of the subtrees of the root are 
+     * counted per shard, less the duplicates found while merging.
+     * 
+     * @param lotteryRowSource the source of the rows to add.
+     * @param numberOfThreads  the number of ingesting threads.
+     */
+    @Override
+    protected void addLotteryRowsInParallel(LotteryRowSource lotteryRowSource,
+                                            int numberOfThreads) {
+        RadixTreeNode[] shards = new RadixTreeNode[numberOfThreads];
+        long[][] shardCoveredRows = new long[numberOfThreads][];
+
+        ParallelSupport.runInParallel(
+                lotteryRowSource.size(), 
+                numberOfThreads, 
+                (shardIndex, fromIndex, toIndex) -> {
+            RadixTreeNode shard = new RadixTreeNode();
+            int[] numbers = 
+                    new int[lotteryConfiguration.getLotteryRowLength()];
+            long[] coveredRows = new long[numbersOfCoveredRows.length];
+            long[] shardAddedCounts = new long[2];
+            long duplicateRows = 0L;
+
+            for (int i = fromIndex; i < toIndex; i++) {
+                lotteryRowSource.loadNumbers(i, numbers);
+
+                if (addToTree(shard, numbers, shardAddedCounts)) {
+                    coveredRows[numbers[0] - 1]++;
+                } else {
+                    duplicateRows++;
+                }
+            }
+
+            metrics.addDuplicateRows(duplicateRows);
+            recordAddedCounts(shardAddedCounts);
+            shards[shardIndex] = shard;
+            shardCoveredRows[shardIndex] = coveredRows;
+        });
+
+        int maximumValue = lotteryConfiguration.getMaximumNumberValueAt(0);
+
+        if (root.children == null) {
+            root.children = new RadixTreeNode[maximumValue];
+            metrics.addIndexBytes(getArrayBytes(maximumValue));
+        }
+
+        ParallelSupport.runInParallel(
+                maximumValue, 
+                Math.min(numberOfThreads, maximumValue), 
+                (chunkIndex, fromIndex, toIndex) -> {
+            long[] droppedCounts = new long[3];
+
+            for (int shardIndex = 0; 
+                    shardIndex < shards.length; 
+                    shardIndex++) {
+                RadixTreeNode shard = shards[shardIndex];
+
+                if (shard.children == null) {
+                    continue;
+                }
+
+                for (int i = fromIndex; i < toIndex; i++) {
+                    long duplicateRows = droppedCounts[DUPLICATE_ROWS];
+                    root.children[i] = mergeTrees(root.children[i], 
+                                                  shard.children[i],
+                                                  droppedCounts);
+                    numbersOfCoveredRows[i] += 
+                            shardCoveredRows[shardIndex][i]
+                                    - (droppedCounts[DUPLICATE_ROWS] 
+                                            - duplicateRows);
+                }
+            }
+
+            metrics.addIndexNodes(-droppedCounts[DROPPED_NODES]);
+            metrics.addIndexBytes(-droppedCounts[DROPPED_BYTES]);
+            metrics.addDuplicateRows(droppedCounts[DUPLICATE_ROWS]);
+        });
+
+        // The children arrays of the shard roots are dropped as well:
+        for (RadixTreeNode shard : shards) {
+            if (shard.children != null) {
+                metrics.addIndexBytes(-getArrayBytes(shard.children.length));
+            }
+        }
+
+        numberOfCoveredRows = 0L;
+
+        for (long coveredRows : numbersOfCoveredRows) {
+            numberOfCoveredRows += coveredRows;
+        }
+    }
+
+    @Override
+    protected void visitMissingLotteryRows(long fromRank,
+                                           long toRank,
+                                           MissingLotteryRowVisitor visitor) {
+        if (fromRank >= toRank) {
+            return;
+        }
+
+        int[] numbers = new int[lotteryConfiguration.getLotteryRowLength()];
+        combinationRanker.unrank(fromRank, numbers);
+
+        for (long rank = fromRank; rank < toRank; rank++) {
+            if (!treeContains(numbers)) {
+                visitor.visit(rank, numbers);
+            }
+
+            combinationRanker.increment(numbers);
+        }
+    }
+
+    /**
+     * Reports and resets the counters of the added index nodes and bytes.
+     *
+     * @param addedCounts the counters filled by
+     *                    {@link #addToTree(RadixTreeNode, int[], long[])}.
+     */
+    private void recordAddedCounts(long[] addedCounts) {
+        metrics.addIndexNodes(addedCounts[ADDED_NODES]);
+        metrics.addIndexBytes(addedCounts[ADDED_BYTES]);
+        addedCounts[ADDED_NODES] = 0L;
+        addedCounts[ADDED_BYTES] = 0L;
+    }
+
+    /**
+     * Adds a row to the tree rooted at {@code root}, and accounts the new
+     * nodes in {@code addedCounts}, which the caller reports to the metrics
+     * with {@link #recordAddedCounts(long[])}.
+     *
+     * @param root        the root of the tree.
+     * @param numbers     the numbers of the row.
+     * @param addedCounts the counters of the added index nodes and bytes.
+     * @return {@code true} if the row was not in the tree.
+     */
+    private boolean addToTree(RadixTreeNode root,
+                              int[] numbers,
+                              long[] addedCounts) {
         RadixTreeNode node = root;
-        int maximumValue = lotteryConfiguration.getMaximumNumberValue();
+        boolean added = false;
 
+        // The children arrays of each level span the number range of the
+        // pool of that level:
         for (int i = 0, sz = lotteryConfiguration.getLotteryRowLength(); 
                 i < sz; 
                 i++) {
             RadixTreeNode nextNode;
-            int number = lotteryRow.getNumber(i);
+            int number = numbers[i];
             
             if (node.children == null) {
-                node.children = new RadixTreeNode[maximumValue];
+                int length = lotteryConfiguration.getMaximumNumberValueAt(i);
+                node.children = new RadixTreeNode[length];
+                addedCounts[ADDED_BYTES] += getArrayBytes(length);
             }
             
             if (node.children[number - 1] == null) {
                 RadixTreeNode tmp = new RadixTreeNode();
                 nextNode = tmp;
                 node.children[number - 1] = tmp;
+                long bytes = NODE_BYTES;
                 
                 if (i < sz - 1) {
-                    nextNode.children = new RadixTreeNode[maximumValue];
+                    int length = 
+                            lotteryConfiguration
+                                    .getMaximumNumberValueAt(i + 1);
+                    nextNode.children = new RadixTreeNode[length];
+                    bytes += getArrayBytes(length);
                 }
+
+                addedCounts[ADDED_NODES]++;
+                addedCounts[ADDED_BYTES] += bytes;
+                added = true;
             } else {
                 nextNode = node.children[number - 1];
             }
@@ -107,41 +429,78 @@ public final class MissingLotteryRowsGenerator {
             node = nextNode;
         }
 
-        return this;
+        return added;
     }
 
     /**
-     * Computes and returns all the <i>missing</i> lottery rows. A lottery row 
-     * is <i>missing</i> if and only if it was not drawn in the population of
-     * players.
+     * Merges the tree rooted at {@code source} into the tree rooted at 
+     * {@code target}. Subtrees present only in {@code source} are relinked,
+     * not copied.
      * 
-     * @return the list of missing lottery rows.
+     * @param target        the target tree root, possibly {@code null}.
+     * @param source        the source tree root, possibly {@code null}.
+     * @param droppedCounts the counters of the dropped nodes, the dropped
+     *                      bytes and the duplicate rows to update.
+     * @return the root of the merged tree.
      */
-    public List<LotteryRow> computeMissingLotteryRows() {
-        List<LotteryRow> lotteryRows = new ArrayList<>();
-        int[] numbers = getInitialNumbers();
+    private static RadixTreeNode mergeTrees(RadixTreeNode target, 
+                                            RadixTreeNode source,
+                                            long[] droppedCounts) {
+        if (target == null) {
+            return source;
+        }
 
-        do {
-            LotteryRow lotteryRow = convertNumbersToLotteryRow(numbers);
+        if (source == null) {
+            return target;
+        }
 
-            if (!treeContains(lotteryRow)) {
-                lotteryRows.add(lotteryRow);
-            }
+        droppedCounts[DROPPED_NODES]++;
+        droppedCounts[DROPPED_BYTES] += NODE_BYTES;
 
-        } while (increment(numbers));
+        if (source.children == null) {
+            // Both are leaves of the same row:
+            droppedCounts[DUPLICATE_ROWS]++;
+            return target;
+        }
+
+        if (target.children == null) {
+            target.children = source.children;
+            return target;
+        }
+
+        droppedCounts[DROPPED_BYTES] += getArrayBytes(source.children.length);
+
+        for (int i = 0; i < target.children.length; i++) {
+            target.children[i] = mergeTrees(target.children[i],
+                                            source.children[i],
+                                            droppedCounts);
+        }
+
+        return target;
+    }
 
-        return lotteryRows;
+    /**
+     * Returns the estimated size of a children array in bytes.
+     *
+     * @param length the length of the array.
+     * @return the size of the array in bytes.
+     */
+    private static long getArrayBytes(int length) {
+        return (ARRAY_HEADER_BYTES + REFERENCE_BYTES * length + 7L) & ~7L;
     }
 
-    private boolean treeContains(LotteryRow lotteryRow) {
+    private boolean treeContains(int[] numbers) {
         RadixTreeNode node = root;
 
         for (int i = 0, sz = lotteryConfiguration.getLotteryRowLength(); 
                 i < sz;
                 i++) {
             
-            int number = lotteryRow.getNumber(i);
-            RadixTreeNode nextNode = node.children[number - 1];
+            if (node.children == null) {
+                return false;
+            }
+
+            RadixTreeNode nextNode = node.children[numbers[i] - 1];
 
             if (nextNode == null) {
                 return false;
@@ -152,67 +511,4 @@ public final class MissingLotteryRowsGenerator {
 
         return true;
     }
-
-    private boolean increment(final int[] numbers) {
-        int maximumNumber = lotteryConfiguration.getMaximumNumberValue();
-        int lotteryRowLength = lotteryConfiguration.getLotteryRowLength();
-
-        for (int i = lotteryRowLength - 1, j = 0; 
-                i >= 0; 
-                i--, j++) {
-            
-            if (numbers[i] < maximumNumber - j) {
-                numbers[i]++;
-
-                for (int k = i + 1; k < lotteryRowLength; k++) {
-                    numbers[k] = numbers[k - 1] + 1;
-                }
-
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    /**
-     * Converts a number integer array into a 
-     * {@link net.coderodde.datamining.lottery.LotteryRow}.
-     * @param numbers the raw number array in ascending order.
-     * @return the lottery row with exactly the same numbers as in 
-     * {@code numbers}.
-     */
-    private LotteryRow convertNumbersToLotteryRow(int[] numbers) {
-        LotteryRow lotteryRow = new LotteryRow(this.lotteryConfiguration);
-
-        for (int number : numbers) {
-            lotteryRow.appendNumber(number);
-        }
-
-        return lotteryRow;
-    }
-
-    private int[] getInitialNumbers() {
-        int lotteryRowLength = lotteryConfiguration.getLotteryRowLength();
-        int[] numbers = new int[lotteryRowLength];
-
-        for (int i = 0, number = 1; i < lotteryRowLength; i++, number++) {
-            numbers[i] = number;
-        }
-
-        return numbers;
-    }
-
-    private void checkLotteryRow(final LotteryRow lotteryRow) {
-        if (lotteryRow.getLotteryConfiguration().getLotteryRowLength()
-                != lotteryConfiguration.getLotteryRowLength()) {
-            throw new IllegalArgumentException(
-                    "Wrong length of a row (" +
-                            lotteryRow.getLotteryConfiguration()
-                                       .getLotteryRowLength() + 
-                            ", must be exactly " + 
-                            this.lotteryConfiguration.getLotteryRowLength() + 
-                            ".");
-        }
-    }
 }
@@ -0,0 +1,188 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * This interface defines the API of all the missing lottery row mining
+ * engines. A lottery row is <i>missing</i> if and only if it was not drawn in
+ * the population of players.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.64 (Oct 16, 2026) ~ membership queries.
+ * @version 1.63 (Oct 16, 2026) ~ counting the missing rows.
+ * @version 1.62 (Oct 16, 2026) ~ metrics.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public interface MissingLotteryRowsMiner {
+
+    /**
+     * Returns the lottery configuration of this miner.
+     *
+     * @return the lottery configuration object.
+     */
+    LotteryConfiguration getLotteryConfiguration();
+
+    /**
+     * Returns the runtime metrics of this miner, which are updated as the
+     * rows are added and the missing rows are enumerated.
+     *
+     * @return the metrics of this miner.
+     */
+    LotteryMetrics getMetrics();
+
+    /**
+     * Adds a list of lottery rows to this miner.
+     *
+     * @param lotteryRows the lottery rows to add one by one.
+     * @return this miner for chaining.
+     */
+    MissingLotteryRowsMiner addLotteryRows(List<LotteryRow> lotteryRows);
+
+    /**
+     * Adds a list of lottery rows to this miner using the given number of
+     * threads. Each thread builds its own partial index over a contiguous
+     * chunk of {@code lotteryRows}, after which the partial indices are
+     * merged into this miner.
+     *
+     * @param lotteryRows     the lottery rows to add.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this miner for chaining.
+     */
+    MissingLotteryRowsMiner addLotteryRows(List<LotteryRow> lotteryRows,
+                                           int numberOfThreads);
+
+    /**
+     * Adds all the rows of a packed row store to this miner.
+     *
+     * @param rowStore the row store.
+     * @return this miner for chaining.
+     */
+    MissingLotteryRowsMiner addLotteryRows(LotteryRowStore rowStore);
+
+    /**
+     * Adds all the rows of a packed row store to this miner using the given
+     * number of threads.
+     *
+     * @param rowStore        the row store.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this miner for chaining.
+     */
+    MissingLotteryRowsMiner addLotteryRows(LotteryRowStore rowStore,
+                                           int numberOfThreads);
+
+    /**
+     * Adds a single lottery row given as its numbers in strictly ascending
+     * order. This allows ingesting rows without creating a
+     * {@link net.coderodde.datamining.lottery.LotteryRow} object per row. The
+     * array is not retained.
+     *
+     * @param numbers the numbers of the row in ascending order.
+     * @return this miner for chaining.
+     */
+    MissingLotteryRowsMiner addLotteryNumbers(int[] numbers);
+
+    /**
+     * Adds a single lottery row to this miner.
+     *
+     * @param lotteryRow the lottery row to add.
+     * @return this miner for chaining.
+     */
+    MissingLotteryRowsMiner addLotteryRow(LotteryRow lotteryRow);
+
+    /**
+     * Computes and returns all the <i>missing</i> lottery rows in
+     * lexicographic order.
+     *
+     * @return the list of missing lottery rows.
+     */
+    List<LotteryRow> computeMissingLotteryRows();
+
+    /**
+     * Computes and returns all the <i>missing</i> lottery rows in
+     * lexicographic order using a fork/join pool of the given parallelism.
+     * The combination space is split into rank ranges of equal size, so that
+     * the work is balanced even though the subtrees of different leading
+     * numbers differ greatly in size.
+     *
+     * @param parallelism the number of worker threads.
+     * @return the list of missing lottery rows.
+     */
+    List<LotteryRow> computeMissingLotteryRows(int parallelism);
+
+    /**
+     * Returns the number of the <i>missing</i> lottery rows without
+     * enumerating them. The number of the distinct covered rows is kept up
+     * to date while the rows are added, so this is a constant time query.
+     *
+     * @return the number of the missing rows.
+     */
+    long countMissingLotteryRows();
+
+    /**
+     * Returns the numbers of the <i>missing</i> lottery rows by their 
+     * leading number: the entry at index <code>i</code> holds the number of
+     * the missing rows whose first number is <code>i + 1</code>. The counts
+     * are aggregated from the index without enumerating the rows.
+     *
+     * @return the missing row counts by leading number.
+     */
+    long[] countMissingLotteryRowsByLeadingNumber();
+
+    /**
+     * Pushes all the <i>missing</i> lottery rows in lexicographic order to
+     * the given visitor. Unlike {@link #computeMissingLotteryRows()}, this
+     * method does not allocate an object per missing row.
+     *
+     * @param visitor the visitor receiving the missing rows.
+     */
+    void forEachMissingLotteryRow(MissingLotteryRowVisitor visitor);
+
+    /**
+     * Returns a lazy stream of the ranks of all the <i>missing</i> lottery
+     * rows in ascending order. The stream is evaluated block by block, so it
+     * runs in constant memory, and it may be made parallel.
+     *
+     * @return the stream of missing row ranks.
+     * @see CombinationRanker#unrank(long, int[])
+     */
+    LongStream streamMissingLotteryRowRanks();
+
+    /**
+     * Tells whether the given row was added to this miner, that is, whether
+     * it is not missing.
+     *
+     * @param lotteryRow the row to look up.
+     * @return {@code true} if the row was added.
+     */
+    boolean isCovered(LotteryRow lotteryRow);
+
+    /**
+     * Tells for each row of the store whether it was added to this miner.
+     * The rows are ranked and the probes sorted by rank, so that the index
+     * is accessed in order, and the sorted probes are looked up by the given
+     * number of threads.
+     *
+     * @param rowStore    the rows to look up.
+     * @param parallelism the number of threads.
+     * @return the bit set whose bit <code>i</code> is set if and only if the
+     *         <code>i</code>th row of the store was added.
+     */
+    BitSet queryCoverage(LotteryRowStore rowStore, int parallelism);
+
+    /**
+     * Tells for each given rank whether the row of that rank was added to
+     * this miner. The probes are sorted by rank, so that the index is
+     * accessed in order, and the sorted probes are looked up by the given
+     * number of threads.
+     *
+     * @param ranks       the ranks of the rows to look up.
+     * @param parallelism the number of threads.
+     * @return the bit set whose bit <code>i</code> is set if and only if the
+     *         row with the rank <code>ranks[i]</code> was added.
+     * @see CombinationRanker#rank(int[])
+     */
+    BitSet queryCoverage(long[] ranks, int parallelism);
+}
@@ -0,0 +1,632 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.List;
+
+/**
+ * This class implements a near-miss miner, which finds the possible draws
+ * leaving a secondary prize tier unclaimed: the rows sharing fewer than
+ * <code>m</code> numbers with every added ticket. Comparing each of the
+ * <code>C(n, k)</code> draws against each ticket would take billions of
+ * comparisons, so instead, for each tier <code>t</code> between
+ * <code>m</code> and <code>k</code>, the miner marks every
+ * <code>t</code>-subset of each added ticket in a flat bit set of
+ * <code>C(n, t)</code> bits indexed by the combinatorial rank. A draw
+ * shares at least <code>t</code> numbers with some ticket if and only if
+ * one of its own <code>t</code>-subsets is marked, which takes at most
+ * <code>C(k, t)</code> lookups to tell.
+ * <p>
+ * The missing rows of this miner are the draws matched by no ticket in at
+ * least <code>m</code> numbers, and {@link #countMissedDrawsByTier(int)}
+ * evaluates all the tiers for all the draws in a single parallel scan. The
+ * tier <code>k</code> is the exact coverage of the other engines. Only
+ * single pool games are supported.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class NearMissLotteryRowsGenerator
+        extends AbstractMissingLotteryRowsMiner {
+
+    /**
+     * The maximum number of 64-bit words in the bit set of a tier.
+     */
+    private static final long MAXIMUM_NUMBER_OF_WORDS = Integer.MAX_VALUE - 8;
+
+    /**
+     * The smallest number of matching numbers a draw needs to be covered.
+     */
+    private final int minimumMatchCount;
+
+    /**
+     * The rankers of the subsets of each tier, indexed by the tier minus
+     * {@link #minimumMatchCount}.
+     */
+    private final CombinationRanker[] subsetRankers;
+
+    /**
+     * The subset bit sets of each tier, indexed by the tier minus
+     * {@link #minimumMatchCount}. The bit <code>r</code> of a tier is set if
+     * and only if the subset with rank <code>r</code> is contained in some
+     * added row.
+     */
+    private final long[][] subsetWords;
+
+    /**
+     * The scratch arrays of the subset positions and the subsets of each
+     * tier used by the single row additions.
+     */
+    private final int[] indexBuffer;
+    private final int[][] subsetBuffers;
+
+    /**
+     * Constructs a near-miss miner.
+     *
+     * @param lotteryConfiguration the single pool lottery configuration.
+     * @param minimumMatchCount    the smallest number of matching numbers a
+     *                             draw needs to be covered.
+     */
+    public NearMissLotteryRowsGenerator(
+            LotteryConfiguration lotteryConfiguration,
+            int minimumMatchCount) {
+        super(lotteryConfiguration);
+        checkMinimumMatchCount(lotteryConfiguration, minimumMatchCount);
+
+        if (!supports(lotteryConfiguration, minimumMatchCount)) {
+            throw new IllegalArgumentException(
+                    "Too many subsets for a flat bit set.");
+        }
+
+        int numberOfTiers =
+                lotteryConfiguration.getLotteryRowLength()
+                        - minimumMatchCount + 1;
+
+        this.minimumMatchCount = minimumMatchCount;
+        this.subsetRankers = new CombinationRanker[numberOfTiers];
+        this.subsetWords = new long[numberOfTiers][];
+        long indexBytes = 0L;
+
+        for (int i = 0; i < numberOfTiers; i++) {
+            subsetRankers[i] =
+                    createSubsetRanker(lotteryConfiguration,
+                                       minimumMatchCount + i);
+            subsetWords[i] =
+                    new long[(int) getNumberOfWords(
+                            subsetRankers[i].getNumberOfCombinations())];
+            indexBytes += (long) subsetWords[i].length * Long.BYTES;
+        }
+
+        this.indexBuffer = new int[lotteryConfiguration.getLotteryRowLength()];
+        this.subsetBuffers = createSubsetBuffers();
+        metrics.addIndexBytes(indexBytes);
+    }
+
+    /**
+     * Tells whether this miner can handle the given configuration and the
+     * minimum match count: the game must have a single pool, and the subset
+     * bit set of each tier must fit in an array.
+     *
+     * @param lotteryConfiguration the lottery configuration to check.
+     * @param minimumMatchCount    the minimum match count to check.
+     * @return {@code true} if this miner can handle the configuration.
+     */
+    public static boolean supports(LotteryConfiguration lotteryConfiguration,
+                                   int minimumMatchCount) {
+        if (lotteryConfiguration.getNumberOfPools() != 1
+                || minimumMatchCount < 1
+                || minimumMatchCount
+                        > lotteryConfiguration.getLotteryRowLength()) {
+            return false;
+        }
+
+        for (int tier = minimumMatchCount;
+                tier <= lotteryConfiguration.getLotteryRowLength();
+                tier++) {
+            try {
+                long numberOfSubsets =
+                        createSubsetRanker(lotteryConfiguration, tier)
+                                .getNumberOfCombinations();
+
+                if (getNumberOfWords(numberOfSubsets)
+                        > MAXIMUM_NUMBER_OF_WORDS) {
+                    return false;
+                }
+            } catch (IllegalArgumentException ex) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the smallest number of matching numbers a draw needs to be
+     * covered.
+     *
+     * @return the minimum match count.
+     */
+    public int getMinimumMatchCount() {
+        return minimumMatchCount;
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator.
+     *
+     * @param lotteryRows the lottery rows to add one by one.
+     * @return this generator for chaining.
+     */
+    @Override
+    public NearMissLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows) {
+        super.addLotteryRows(lotteryRows);
+        return this;
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator in parallel.
+     *
+     * @param lotteryRows     the lottery rows to add.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public NearMissLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows, int numberOfThreads) {
+        super.addLotteryRows(lotteryRows, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row to this generator.
+     *
+     * @param lotteryRow the lottery row to add.
+     * @return this generator for chaining.
+     */
+    @Override
+    public NearMissLotteryRowsGenerator
+        addLotteryRow(LotteryRow lotteryRow) {
+        super.addLotteryRow(lotteryRow);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator.
+     *
+     * @param rowStore the row store.
+     * @return this generator for chaining.
+     */
+    @Override
+    public NearMissLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore) {
+        super.addLotteryRows(rowStore);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator in
+     * parallel.
+     *
+     * @param rowStore        the row store.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public NearMissLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore, int numberOfThreads) {
+        super.addLotteryRows(rowStore, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row given as its numbers in strictly ascending
+     * order.
+     *
+     * @param numbers the numbers of the row in ascending order.
+     * @return this generator for chaining.
+     */
+    @Override
+    public NearMissLotteryRowsGenerator
+        addLotteryNumbers(int[] numbers) {
+        super.addLotteryNumbers(numbers);
+        return this;
+    }
+
+    /**
+     * Returns the number of the draws matched by no ticket in at least
+     * {@link #getMinimumMatchCount()} numbers. This scans all the draws.
+     *
+     * @return the number of missing rows.
+     */
+    @Override
+    public long countMissingLotteryRows() {
+        return countMissingLotteryRows(
+                0L,
+                combinationRanker.getNumberOfCombinations());
+    }
+
+    /**
+     * Evaluates all the tiers for all the draws in a single parallel scan.
+     * For each draw, the tiers are checked from the exact match downwards,
+     * so that the scan stops at the best match of the draw. The element
+     * <code>i</code> of the returned array holds the number of the draws
+     * matched by no ticket in <code>m + i</code> or more numbers, where
+     * <code>m</code> is {@link #getMinimumMatchCount()}; the last element
+     * is thus the number of the draws played by no ticket.
+     *
+     * @param numberOfThreads the number of scanning threads.
+     * @return the numbers of the missed draws by tier.
+     */
+    public long[] countMissedDrawsByTier(int numberOfThreads) {
+        ParallelSupport.checkNumberOfThreads(numberOfThreads);
+        long numberOfCombinations =
+                combinationRanker.getNumberOfCombinations();
+        long[][] bestMatchCounts = new long[numberOfThreads][];
+
+        metrics.startEnumeration();
+        long startTime = System.nanoTime();
+
+        ParallelSupport.runInParallel(
+                numberOfThreads,
+                numberOfThreads,
+                (chunkIndex, fromIndex, toIndex) -> {
+            long fromRank = getChunkRank(fromIndex, numberOfThreads);
+            long toRank = getChunkRank(toIndex, numberOfThreads);
+            bestMatchCounts[chunkIndex] =
+                    countDrawsByBestMatch(fromRank, toRank);
+        });
+
+        metrics.recordPhase(LotteryMetrics.Phase.ENUMERATION,
+                            numberOfCombinations,
+                            System.nanoTime() - startTime);
+
+        // A draw whose best match is b is missed by all the tiers above b:
+        long[] missedDrawCounts = new long[subsetWords.length];
+
+        for (long[] counts : bestMatchCounts) {
+            for (int bestMatch = 0; bestMatch < counts.length; bestMatch++) {
+                for (int tier = bestMatch;
+                        tier < missedDrawCounts.length;
+                        tier++) {
+                    missedDrawCounts[tier] += counts[bestMatch];
+                }
+            }
+        }
+
+        return missedDrawCounts;
+    }
+
+    /**
+     * Marks all the subsets of each tier of the row. The row is a duplicate
+     * if its own bit in the exact tier was already set.
+     *
+     * @param numbers the numbers of the row to add.
+     */
+    @Override
+    protected void addNumbers(int[] numbers) {
+        if (!markSubsets(numbers, subsetWords, indexBuffer, subsetBuffers)) {
+            metrics.addDuplicateRows(1L);
+        }
+    }
+
+    /**
+     * Each thread marks the subsets of its chunk of rows in its own bit set
+     * shards, after which the shards are OR-merged into this generator in
+     * parallel over disjoint word ranges of each tier. The duplicates are
+     * the rows that did not set a new bit in the exact tier.
+     *
+     * @param lotteryRowSource the source of the rows to add.
+     * @param numberOfThreads  the number of ingesting threads.
+     */
+    @Override
+    protected void addLotteryRowsInParallel(LotteryRowSource lotteryRowSource,
+                                            int numberOfThreads) {
+        long[][][] shards = new long[numberOfThreads][][];
+
+        ParallelSupport.runInParallel(
+                lotteryRowSource.size(),
+                numberOfThreads,
+                (shardIndex, fromIndex, toIndex) -> {
+            long[][] shard = new long[subsetWords.length][];
+            int[] numbers =
+                    new int[lotteryConfiguration.getLotteryRowLength()];
+            int[] indices = new int[numbers.length];
+            int[][] subsets = createSubsetBuffers();
+
+            for (int i = 0; i < shard.length; i++) {
+                shard[i] = new long[subsetWords[i].length];
+            }
+
+            for (int i = fromIndex; i < toIndex; i++) {
+                lotteryRowSource.loadNumbers(i, numbers);
+                markSubsets(numbers, shard, indices, subsets);
+            }
+
+            shards[shardIndex] = shard;
+        });
+
+        long[] exactWords = subsetWords[subsetWords.length - 1];
+        long[] newlyCoveredCounts = new long[numberOfThreads];
+
+        for (int tier = 0; tier < subsetWords.length; tier++) {
+            long[] words = subsetWords[tier];
+            int tierIndex = tier;
+
+            ParallelSupport.runInParallel(
+                    words.length,
+                    numberOfThreads,
+                    (chunkIndex, fromIndex, toIndex) -> {
+                long newlyCoveredCount = 0L;
+
+                for (int i = fromIndex; i < toIndex; i++) {
+                    long word = words[i];
+
+                    for (long[][] shard : shards) {
+                        word |= shard[tierIndex][i];
+                    }
+
+                    if (words == exactWords) {
+                        newlyCoveredCount += Long.bitCount(word & ~words[i]);
+                    }
+
+                    words[i] = word;
+                }
+
+                newlyCoveredCounts[chunkIndex] += newlyCoveredCount;
+            });
+        }
+
+        long numberOfNewlyCoveredRows = 0L;
+
+        for (long newlyCoveredCount : newlyCoveredCounts) {
+            numberOfNewlyCoveredRows += newlyCoveredCount;
+        }
+
+        metrics.addDuplicateRows(lotteryRowSource.size()
+                                         - numberOfNewlyCoveredRows);
+    }
+
+    /**
+     * Visits the draws within a rank range matched by no ticket in at least
+     * {@link #getMinimumMatchCount()} numbers. Only the bit set of the
+     * lowest tier is consulted.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @param visitor  the visitor receiving the missing rows.
+     */
+    @Override
+    protected void visitMissingLotteryRows(long fromRank,
+                                           long toRank,
+                                           MissingLotteryRowVisitor visitor) {
+        if (fromRank >= toRank) {
+            return;
+        }
+
+        int[] numbers = new int[lotteryConfiguration.getLotteryRowLength()];
+        int[] indices = new int[numbers.length];
+        int[] subset = new int[minimumMatchCount];
+        combinationRanker.unrank(fromRank, numbers);
+
+        for (long rank = fromRank; rank < toRank; rank++) {
+            if (rank > fromRank) {
+                combinationRanker.increment(numbers);
+            }
+
+            if (!containsMarkedSubset(numbers, 0, indices, subset)) {
+                visitor.visit(rank, numbers);
+            }
+        }
+    }
+
+    /**
+     * Counts the draws within a rank range by their best match. The element
+     * <code>i</code> of the returned array holds the number of the draws
+     * whose best match is <code>m - 1 + i</code> numbers, where
+     * <code>m</code> is {@link #getMinimumMatchCount()}; the element zero
+     * counts all the draws matching fewer than <code>m</code> numbers.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @return the numbers of the draws by best match.
+     */
+    private long[] countDrawsByBestMatch(long fromRank, long toRank) {
+        long[] counts = new long[subsetWords.length + 1];
+
+        if (fromRank >= toRank) {
+            return counts;
+        }
+
+        int[] numbers = new int[lotteryConfiguration.getLotteryRowLength()];
+        int[] indices = new int[numbers.length];
+        int[][] subsets = createSubsetBuffers();
+        combinationRanker.unrank(fromRank, numbers);
+
+        for (long rank = fromRank; rank < toRank; rank++) {
+            if (rank > fromRank) {
+                combinationRanker.increment(numbers);
+            }
+
+            int tier = subsetWords.length - 1;
+
+            while (tier >= 0
+                    && !containsMarkedSubset(numbers,
+                                             tier,
+                                             indices,
+                                             subsets[tier])) {
+                tier--;
+            }
+
+            counts[tier + 1]++;
+
+            if (((rank - fromRank + 1L) & 0xffffL) == 0L) {
+                metrics.addScannedRanks(0x10000L);
+            }
+        }
+
+        metrics.addScannedRanks((toRank - fromRank) & 0xffffL);
+        return counts;
+    }
+
+    /**
+     * Marks all the subsets of each tier of a row in the given bit sets.
+     *
+     * @param numbers the numbers of the row.
+     * @param words   the bit sets of the tiers.
+     * @param indices the scratch array of the subset positions.
+     * @param subsets the scratch arrays of the subsets of each tier.
+     * @return {@code true} if the row itself was not marked before.
+     */
+    private boolean markSubsets(int[] numbers,
+                                long[][] words,
+                                int[] indices,
+                                int[][] subsets) {
+        for (int tier = 0; tier < words.length - 1; tier++) {
+            int[] subset = subsets[tier];
+            loadFirstSubset(indices, subset.length);
+
+            do {
+                long rank = rankSubset(numbers, tier, indices, subset);
+                words[tier][(int)(rank >>> 6)] |= 1L << rank;
+            } while (nextSubset(indices, subset.length, numbers.length));
+        }
+
+        long[] exactWords = words[words.length - 1];
+        long rank = combinationRanker.rank(numbers);
+        int wordIndex = (int)(rank >>> 6);
+        long bit = 1L << rank;
+        boolean isNew = (exactWords[wordIndex] & bit) == 0L;
+        exactWords[wordIndex] |= bit;
+        return isNew;
+    }
+
+    /**
+     * Tells whether any subset of a row is marked in the bit set of the
+     * given tier.
+     *
+     * @param numbers the numbers of the row.
+     * @param tier    the tier minus {@link #minimumMatchCount}.
+     * @param indices the scratch array of the subset positions.
+     * @param subset  the scratch array of the subset of the tier size.
+     * @return {@code true} if a subset of the row is marked.
+     */
+    private boolean containsMarkedSubset(int[] numbers,
+                                         int tier,
+                                         int[] indices,
+                                         int[] subset) {
+        long[] words = subsetWords[tier];
+        loadFirstSubset(indices, subset.length);
+
+        do {
+            long rank = rankSubset(numbers, tier, indices, subset);
+
+            if ((words[(int)(rank >>> 6)] & (1L << rank)) != 0L) {
+                return true;
+            }
+        } while (nextSubset(indices, subset.length, numbers.length));
+
+        return false;
+    }
+
+    private long rankSubset(int[] numbers,
+                            int tier,
+                            int[] indices,
+                            int[] subset) {
+        for (int i = 0; i < subset.length; i++) {
+            subset[i] = numbers[indices[i]];
+        }
+
+        return subsetRankers[tier].rank(subset);
+    }
+
+    private int[][] createSubsetBuffers() {
+        int[][] subsets = new int[subsetWords.length][];
+
+        for (int i = 0; i < subsets.length; i++) {
+            subsets[i] = new int[minimumMatchCount + i];
+        }
+
+        return subsets;
+    }
+
+    /**
+     * Returns the first rank of the given chunk out of the given number of
+     * equal chunks of all the ranks.
+     */
+    private long getChunkRank(int chunkIndex, int numberOfChunks) {
+        long numberOfCombinations =
+                combinationRanker.getNumberOfCombinations();
+
+        return numberOfCombinations / numberOfChunks * chunkIndex
+             + Math.min(chunkIndex, numberOfCombinations % numberOfChunks);
+    }
+
+    private static void loadFirstSubset(int[] indices, int subsetLength) {
+        for (int i = 0; i < subsetLength; i++) {
+            indices[i] = i;
+        }
+    }
+
+    /**
+     * Moves the subset positions to the lexicographically next subset.
+     *
+     * @param indices      the ascending subset positions.
+     * @param subsetLength the size of the subset.
+     * @param length       the number of positions to choose from.
+     * @return {@code false} if the positions were the last subset.
+     */
+    private static boolean nextSubset(int[] indices,
+                                      int subsetLength,
+                                      int length) {
+        int i = subsetLength - 1;
+
+        while (i >= 0 && indices[i] == length - subsetLength + i) {
+            i--;
+        }
+
+        if (i < 0) {
+            return false;
+        }
+
+        indices[i]++;
+
+        for (int j = i + 1; j < subsetLength; j++) {
+            indices[j] = indices[j - 1] + 1;
+        }
+
+        return true;
+    }
+
+    private static CombinationRanker
+        createSubsetRanker(LotteryConfiguration lotteryConfiguration,
+                           int tier) {
+        return new CombinationRanker(
+                new LotteryConfiguration(
+                        lotteryConfiguration.getMaximumNumberValue(),
+                        tier));
+    }
+
+    private static void checkMinimumMatchCount(
+            LotteryConfiguration lotteryConfiguration,
+            int minimumMatchCount) {
+        if (minimumMatchCount < 1) {
+            throw new IllegalArgumentException(
+                    "minimumMatchCount(" + minimumMatchCount + ") < 1");
+        }
+
+        if (minimumMatchCount > lotteryConfiguration.getLotteryRowLength()) {
+            throw new IllegalArgumentException(
+                    "minimumMatchCount(" + minimumMatchCount + ") > " +
+                    "lotteryRowLength(" +
+                    lotteryConfiguration.getLotteryRowLength() + ")");
+        }
+
+        if (lotteryConfiguration.getNumberOfPools() != 1) {
+            throw new IllegalArgumentException(
+                    "Only single pool games are supported.");
+        }
+    }
+
+    private static long getNumberOfWords(long numberOfCombinations) {
+        return (numberOfCombinations + 63L) >>> 6;
+    }
+}
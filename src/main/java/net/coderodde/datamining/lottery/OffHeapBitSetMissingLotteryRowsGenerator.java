@@ -0,0 +1,518 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class implements a missing lottery row mining engine that keeps the
+ * combinatorial rank bit set of
+ * {@link net.coderodde.datamining.lottery.BitSetMissingLotteryRowsGenerator}
+ * outside the Java heap: either in direct byte buffers or in memory mapped
+ * regions of a scratch file. The heap holds only a handful of buffer
+ * objects and a fixed size ingestion batch, so the heap consumption and the
+ * garbage collection pauses stay flat no matter how many tickets are added
+ * or how large the game is, and the miner runs with a small
+ * <code>-Xmx</code>. As the bit set is split into buffers of at most a
+ * gigabyte, the index is not bounded by the maximum Java array length
+ * either.
+ * <p>
+ * The native memory is released by {@link #close()}; the miner may not be
+ * used afterwards. A miner is not thread-safe, but its parallel operations
+ * are.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.64 (Oct 16, 2026) ~ membership queries.
+ * @version 1.63 (Oct 16, 2026) ~ counting the missing rows by range.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class OffHeapBitSetMissingLotteryRowsGenerator
+        extends AbstractMissingLotteryRowsMiner
+        implements Closeable {
+
+    /**
+     * The binary logarithm of the number of words in a single buffer.
+     */
+    private static final int WORDS_PER_BUFFER_BITS = 27;
+
+    /**
+     * The number of words in a single buffer (a gigabyte).
+     */
+    private static final int WORDS_PER_BUFFER = 1 << WORDS_PER_BUFFER_BITS;
+
+    /**
+     * The binary logarithm of the number of ranks in a block processed by a
+     * single thread of the parallel ingestion.
+     */
+    private static final int BLOCK_BITS = 16;
+
+    /**
+     * The backing byte buffers. These are the buffers to release.
+     */
+    private ByteBuffer[] buffers;
+
+    /**
+     * The word views of {@link #buffers}. The bit <code>r</code> is set if
+     * and only if the row with rank <code>r</code> was added.
+     */
+    private LongBuffer[] words;
+
+    /**
+     * The channel of the backing file, or {@code null} if the bit set lives
+     * in direct buffers.
+     */
+    private final FileChannel fileChannel;
+
+    /**
+     * The path of the backing file, or {@code null} if the bit set lives in
+     * direct buffers.
+     */
+    private final Path backingFile;
+
+    /**
+     * The total number of words in the bit set.
+     */
+    private final long numberOfWords;
+
+    /**
+     * The number of distinct rows added so far.
+     */
+    private long numberOfCoveredRows;
+
+    /**
+     * Constructs a missing rows generator keeping its bit set in direct byte
+     * buffers.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     */
+    public OffHeapBitSetMissingLotteryRowsGenerator(
+            LotteryConfiguration lotteryConfiguration) {
+        super(lotteryConfiguration);
+        this.fileChannel = null;
+        this.backingFile = null;
+        this.numberOfWords =
+                getNumberOfWords(combinationRanker.getNumberOfCombinations());
+        this.buffers = new ByteBuffer[getNumberOfBuffers(numberOfWords)];
+
+        try {
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = ByteBuffer.allocateDirect(getBufferSize(i));
+            }
+        } catch (OutOfMemoryError error) {
+            releaseBuffers();
+            throw error;
+        }
+
+        this.words = createWordViews(buffers);
+        metrics.addIndexBytes(numberOfWords * Long.BYTES);
+    }
+
+    /**
+     * Constructs a missing rows generator keeping its bit set in memory
+     * mapped regions of the given scratch file, which is created or
+     * truncated, and deleted on {@link #close()}. This lets the operating
+     * system page the index to the disk if it does not fit in the memory.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @param backingFile          the path of the scratch file.
+     * @throws IOException if the file cannot be created or mapped.
+     */
+    public OffHeapBitSetMissingLotteryRowsGenerator(
+            LotteryConfiguration lotteryConfiguration,
+            Path backingFile) throws IOException {
+        super(lotteryConfiguration);
+        this.backingFile = Objects.requireNonNull(backingFile,
+                                                  "backingFile == null");
+        this.numberOfWords =
+                getNumberOfWords(combinationRanker.getNumberOfCombinations());
+        this.buffers = new ByteBuffer[getNumberOfBuffers(numberOfWords)];
+        this.fileChannel = FileChannel.open(backingFile,
+                                            StandardOpenOption.CREATE,
+                                            StandardOpenOption.TRUNCATE_EXISTING,
+                                            StandardOpenOption.READ,
+                                            StandardOpenOption.WRITE);
+
+        try {
+            long position = 0L;
+
+            for (int i = 0; i < buffers.length; i++) {
+                int bufferSize = getBufferSize(i);
+                buffers[i] = fileChannel.map(FileChannel.MapMode.READ_WRITE,
+                                             position,
+                                             bufferSize);
+                position += bufferSize;
+            }
+        } catch (IOException | RuntimeException ex) {
+            releaseBuffers();
+            fileChannel.close();
+            Files.deleteIfExists(backingFile);
+            throw ex;
+        }
+
+        this.words = createWordViews(buffers);
+        metrics.addIndexBytes(numberOfWords * Long.BYTES);
+    }
+
+    /**
+     * Tells whether this engine can handle the given configuration. The
+     * only limit is that the number of combinations fits in a long.
+     *
+     * @param lotteryConfiguration the lottery configuration to check.
+     * @return {@code true} if this engine can handle the configuration.
+     */
+    public static boolean supports(LotteryConfiguration lotteryConfiguration) {
+        try {
+            new CombinationRanker(lotteryConfiguration);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator.
+     *
+     * @param lotteryRows the lottery rows to add one by one.
+     * @return this generator for chaining.
+     */
+    @Override
+    public OffHeapBitSetMissingLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows) {
+        super.addLotteryRows(lotteryRows);
+        return this;
+    }
+
+    /**
+     * Adds a list of lottery rows to this generator in parallel.
+     *
+     * @param lotteryRows     the lottery rows to add.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public OffHeapBitSetMissingLotteryRowsGenerator
+        addLotteryRows(List<LotteryRow> lotteryRows, int numberOfThreads) {
+        super.addLotteryRows(lotteryRows, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row to this generator.
+     *
+     * @param lotteryRow the lottery row to add.
+     * @return this generator for chaining.
+     */
+    @Override
+    public OffHeapBitSetMissingLotteryRowsGenerator
+        addLotteryRow(LotteryRow lotteryRow) {
+        super.addLotteryRow(lotteryRow);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator.
+     *
+     * @param rowStore the row store.
+     * @return this generator for chaining.
+     */
+    @Override
+    public OffHeapBitSetMissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore) {
+        super.addLotteryRows(rowStore);
+        return this;
+    }
+
+    /**
+     * Adds all the rows of a packed row store to this generator in
+     * parallel.
+     *
+     * @param rowStore        the row store.
+     * @param numberOfThreads the number of ingesting threads.
+     * @return this generator for chaining.
+     */
+    @Override
+    public OffHeapBitSetMissingLotteryRowsGenerator
+        addLotteryRows(LotteryRowStore rowStore, int numberOfThreads) {
+        super.addLotteryRows(rowStore, numberOfThreads);
+        return this;
+    }
+
+    /**
+     * Adds a single lottery row given as its numbers in strictly ascending
+     * order.
+     *
+     * @param numbers the numbers of the row in ascending order.
+     * @return this generator for chaining.
+     */
+    @Override
+    public OffHeapBitSetMissingLotteryRowsGenerator
+        addLotteryNumbers(int[] numbers) {
+        super.addLotteryNumbers(numbers);
+        return this;
+    }
+
+    /**
+     * Returns the number of missing rows. This is a constant time query, as
+     * the count is maintained while the rows are added.
+     *
+     * @return the number of rows not added so far.
+     */
+    @Override
+    public long countMissingLotteryRows() {
+        checkOpen();
+        return combinationRanker.getNumberOfCombinations()
+                - numberOfCoveredRows;
+    }
+
+    /**
+     * Returns the size of the off-heap bit set in bytes.
+     *
+     * @return the size of the index in bytes.
+     */
+    public long getIndexSizeInBytes() {
+        return numberOfWords * Long.BYTES;
+    }
+
+    /**
+     * Releases the native memory or the mapping of the bit set right away,
+     * instead of waiting for the garbage collector, and deletes the backing
+     * file if any. Closing twice has no effect.
+     *
+     * @throws IOException if closing or deleting the backing file fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (words == null) {
+            return;
+        }
+
+        words = null;
+        releaseBuffers();
+        metrics.addIndexBytes(-numberOfWords * Long.BYTES);
+
+        if (fileChannel != null) {
+            try {
+                fileChannel.close();
+            } finally {
+                Files.deleteIfExists(backingFile);
+            }
+        }
+    }
+
+    @Override
+    protected void addNumbers(int[] numbers) {
+        checkOpen();
+
+        if (setBit(combinationRanker.rank(numbers))) {
+            numberOfCoveredRows++;
+        } else {
+            metrics.addDuplicateRows(1L);
+        }
+    }
+
+    /**
+     * The rows are ranked and sorted in batches by
+     * {@link #addRankBatchesInParallel}, after which each thread sets the
+     * bits falling into its own contiguous range of blocks. A block spans
+     * whole words, so no two threads ever write the same word.
+     *
+     * @param lotteryRowSource the source of the rows to add.
+     * @param numberOfThreads  the number of ingesting threads.
+     */
+    @Override
+    protected void addLotteryRowsInParallel(LotteryRowSource lotteryRowSource,
+                                            int numberOfThreads) {
+        checkOpen();
+        long addedRows = addRankBatchesInParallel(lotteryRowSource,
+                                                  numberOfThreads,
+                                                  BLOCK_BITS,
+                                                  this::setBit);
+
+        numberOfCoveredRows += addedRows;
+        metrics.addDuplicateRows(lotteryRowSource.size() - addedRows);
+    }
+
+    /**
+     * Tells whether the row with the given rank was added by testing its
+     * bit.
+     *
+     * @param rank    the rank of the row.
+     * @param numbers not used.
+     * @return {@code true} if the row was added.
+     */
+    @Override
+    protected boolean containsRank(long rank, int[] numbers) {
+        checkOpen();
+        return (getWord(rank >>> 6) & (1L << rank)) != 0L;
+    }
+
+    /**
+     * Counts the missing rows within a rank range by counting the clear bits
+     * of the bit set word by word.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @return the number of the missing rows within the range.
+     */
+    @Override
+    protected long countMissingLotteryRows(long fromRank, long toRank) {
+        checkOpen();
+
+        if (fromRank >= toRank) {
+            return 0L;
+        }
+
+        long fromWordIndex = fromRank >>> 6;
+        long toWordIndex = (toRank - 1L) >>> 6;
+        long coveredCount = 0L;
+
+        for (long wordIndex = fromWordIndex;
+                wordIndex <= toWordIndex;
+                wordIndex++) {
+            long word = getWord(wordIndex);
+
+            if (wordIndex == fromWordIndex) {
+                word &= -1L << fromRank;
+            }
+
+            if (wordIndex == toWordIndex) {
+                word &= -1L >>> (63 - (int)((toRank - 1L) & 63L));
+            }
+
+            coveredCount += Long.bitCount(word);
+        }
+
+        return toRank - fromRank - coveredCount;
+    }
+
+    /**
+     * Visits the missing lottery rows within a rank range by scanning the
+     * clear bits of the bit set. The full words are skipped, and the
+     * consecutive missing ranks are stepped through without unranking.
+     *
+     * @param fromRank the first rank to check, inclusive.
+     * @param toRank   the last rank to check, exclusive.
+     * @param visitor  the visitor receiving the missing rows.
+     */
+    @Override
+    protected void visitMissingLotteryRows(long fromRank,
+                                           long toRank,
+                                           MissingLotteryRowVisitor visitor) {
+        checkOpen();
+
+        if (fromRank >= toRank) {
+            return;
+        }
+
+        int[] numbers = new int[lotteryConfiguration.getLotteryRowLength()];
+        long numbersRank = Long.MIN_VALUE;
+        long fromWordIndex = fromRank >>> 6;
+        long toWordIndex = (toRank - 1L) >>> 6;
+
+        for (long wordIndex = fromWordIndex;
+                wordIndex <= toWordIndex;
+                wordIndex++) {
+            long clearBits = ~getWord(wordIndex);
+
+            if (wordIndex == fromWordIndex) {
+                clearBits &= -1L << fromRank;
+            }
+
+            if (wordIndex == toWordIndex) {
+                clearBits &= -1L >>> (63 - (int)((toRank - 1L) & 63L));
+            }
+
+            while (clearBits != 0L) {
+                long rank = (wordIndex << 6)
+                          + Long.numberOfTrailingZeros(clearBits);
+
+                if (rank == numbersRank + 1L) {
+                    combinationRanker.increment(numbers);
+                } else {
+                    combinationRanker.unrank(rank, numbers);
+                }
+
+                numbersRank = rank;
+                visitor.visit(rank, numbers);
+                clearBits &= clearBits - 1L;
+            }
+        }
+    }
+
+    /**
+     * Sets the bit of the given rank.
+     *
+     * @return {@code true} if the bit was clear.
+     */
+    private boolean setBit(long rank) {
+        long wordIndex = rank >>> 6;
+        LongBuffer buffer = words[(int)(wordIndex >>> WORDS_PER_BUFFER_BITS)];
+        int index = (int) wordIndex & (WORDS_PER_BUFFER - 1);
+        long word = buffer.get(index);
+        long bit = 1L << rank;
+
+        if ((word & bit) != 0L) {
+            return false;
+        }
+
+        buffer.put(index, word | bit);
+        return true;
+    }
+
+    private long getWord(long wordIndex) {
+        return words[(int)(wordIndex >>> WORDS_PER_BUFFER_BITS)]
+                .get((int) wordIndex & (WORDS_PER_BUFFER - 1));
+    }
+
+    private void checkOpen() {
+        if (words == null) {
+            throw new IllegalStateException("The miner is closed.");
+        }
+    }
+
+    private void releaseBuffers() {
+        for (ByteBuffer buffer : buffers) {
+            if (buffer != null) {
+                DirectBufferCleaner.release(buffer);
+            }
+        }
+
+        buffers = null;
+    }
+
+    private int getBufferSize(int bufferIndex) {
+        long firstWordIndex = (long) bufferIndex << WORDS_PER_BUFFER_BITS;
+        return (int) Math.min(WORDS_PER_BUFFER,
+                              numberOfWords - firstWordIndex)
+                * Long.BYTES;
+    }
+
+    private static LongBuffer[] createWordViews(ByteBuffer[] buffers) {
+        LongBuffer[] words = new LongBuffer[buffers.length];
+
+        for (int i = 0; i < buffers.length; i++) {
+            words[i] = buffers[i].order(ByteOrder.nativeOrder())
+                                 .asLongBuffer();
+        }
+
+        return words;
+    }
+
+    private static int getNumberOfBuffers(long numberOfWords) {
+        return (int)((numberOfWords + WORDS_PER_BUFFER - 1)
+                >>> WORDS_PER_BUFFER_BITS);
+    }
+
+    private static long getNumberOfWords(long numberOfCombinations) {
+        return (numberOfCombinations + 63L) >>> 6;
+    }
+}
@@ -0,0 +1,374 @@
+package net.coderodde.datamining.lottery;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * This class implements a multithreaded generator of random lottery rows for
+ * load testing. The rows are produced in blocks of a fixed number of rows,
+ * and each block draws from its own {@link java.util.SplittableRandom} split
+ * off the seeded root generator in block order. Thus the generated rows
+ * depend only on the seed and the block size, and not on the number of the
+ * generating threads.
+ * <p>
+ * Each row is drawn by a partial Fisher-Yates shuffle doing only the
+ * <code>k</code> swaps it needs, and its numbers are insertion-sorted
+ * directly into the packed bytes of a
+ * {@link net.coderodde.datamining.lottery.LotteryRowStore}; the pools of a
+ * multi-pool game are shuffled independently. Alternatively,
+ * the rows may be drawn from a skewed
+ * {@link net.coderodde.datamining.lottery.LotteryRowDistribution}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class ParallelLotteryRowGenerator {
+
+    /**
+     * The default number of rows per block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+    /**
+     * The callback receiving the generated blocks.
+     */
+    @FunctionalInterface
+    public interface BlockConsumer {
+
+        /**
+         * Consumes a single block of rows. This method is called concurrently
+         * from the generating threads, and the blocks arrive in no particular
+         * order.
+         *
+         * @param firstRowIndex the index of the first row of the block.
+         * @param block         the rows of the block.
+         */
+        void accept(long firstRowIndex, LotteryRowStore block);
+    }
+
+    /**
+     * The lottery configuration object.
+     */
+    private final LotteryConfiguration lotteryConfiguration;
+
+    /**
+     * The distribution of the rows, or {@code null} for uniform rows drawn
+     * by the partial shuffle.
+     */
+    private final LotteryRowDistribution lotteryRowDistribution;
+
+    /**
+     * The seed of the root random number generator.
+     */
+    private final long seed;
+
+    /**
+     * The number of rows per block.
+     */
+    private final int blockSize;
+
+    /**
+     * Constructs a parallel row generator with the default block size.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @param seed                 the seed value.
+     */
+    public ParallelLotteryRowGenerator(
+            LotteryConfiguration lotteryConfiguration,
+            long seed) {
+        this(lotteryConfiguration, seed, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructs a parallel row generator.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @param seed                 the seed value.
+     * @param blockSize            the number of rows per block.
+     */
+    public ParallelLotteryRowGenerator(
+            LotteryConfiguration lotteryConfiguration,
+            long seed,
+            int blockSize) {
+        this(Objects.requireNonNull(lotteryConfiguration,
+                                    "lotteryConfiguration == null"),
+             null,
+             seed,
+             blockSize);
+    }
+
+    /**
+     * Constructs a parallel row generator drawing the rows from the given
+     * distribution with the default block size.
+     *
+     * @param lotteryRowDistribution the distribution of the rows.
+     * @param seed                   the seed value.
+     */
+    public ParallelLotteryRowGenerator(
+            LotteryRowDistribution lotteryRowDistribution,
+            long seed) {
+        this(lotteryRowDistribution, seed, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructs a parallel row generator drawing the rows from the given
+     * distribution.
+     *
+     * @param lotteryRowDistribution the distribution of the rows.
+     * @param seed                   the seed value.
+     * @param blockSize              the number of rows per block.
+     */
+    public ParallelLotteryRowGenerator(
+            LotteryRowDistribution lotteryRowDistribution,
+            long seed,
+            int blockSize) {
+        this(Objects.requireNonNull(lotteryRowDistribution,
+                                    "lotteryRowDistribution == null")
+                    .getLotteryConfiguration(),
+             lotteryRowDistribution,
+             seed,
+             blockSize);
+    }
+
+    private ParallelLotteryRowGenerator(
+            LotteryConfiguration lotteryConfiguration,
+            LotteryRowDistribution lotteryRowDistribution,
+            long seed,
+            int blockSize) {
+        this.lotteryConfiguration = lotteryConfiguration;
+        this.lotteryRowDistribution = lotteryRowDistribution;
+
+        if (!LotteryRowStore.supports(lotteryConfiguration)) {
+            throw new IllegalArgumentException(
+                    "maximumNumberValue(" +
+                    lotteryConfiguration.getMaximumNumberValue() + ") > " +
+                    LotteryRowStore.MAXIMUM_SUPPORTED_NUMBER_VALUE);
+        }
+
+        if (blockSize < 1) {
+            throw new IllegalArgumentException(
+                    "blockSize(" + blockSize + ") < 1");
+        }
+
+        this.seed = seed;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Generates random rows into a single packed row store.
+     *
+     * @param numberOfLotteryRows the requested number of rows.
+     * @param numberOfThreads     the number of generating threads.
+     * @return a row store holding the random rows.
+     */
+    public LotteryRowStore generateLotteryRowStore(int numberOfLotteryRows,
+                                                   int numberOfThreads) {
+        checkNumberOfLotteryRows(numberOfLotteryRows);
+        ParallelSupport.checkNumberOfThreads(numberOfThreads);
+        int lotteryRowLength = lotteryConfiguration.getLotteryRowLength();
+
+        if ((long) numberOfLotteryRows * lotteryRowLength
+                > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(
+                    "numberOfLotteryRows(" + numberOfLotteryRows + ") too " +
+                    "large for rows of length " + lotteryRowLength + ".");
+        }
+
+        byte[] data = new byte[numberOfLotteryRows * lotteryRowLength];
+        SplittableRandom[] blockRandoms =
+                splitBlockRandoms(numberOfLotteryRows);
+
+        ParallelSupport.runInParallel(
+                blockRandoms.length,
+                Math.max(1, Math.min(numberOfThreads, blockRandoms.length)),
+                (chunkIndex, fromBlockIndex, toBlockIndex) -> {
+            int[] candidates = new int[getNumberOfCandidates()];
+
+            for (int i = fromBlockIndex; i < toBlockIndex; i++) {
+                long firstRowIndex = (long) i * blockSize;
+                generateBlock(blockRandoms[i],
+                              candidates,
+                              data,
+                              (int) firstRowIndex * lotteryRowLength,
+                              getBlockLength(firstRowIndex,
+                                             numberOfLotteryRows));
+            }
+        });
+
+        return new LotteryRowStore(lotteryConfiguration,
+                                   data,
+                                   numberOfLotteryRows);
+    }
+
+    /**
+     * Generates random rows block by block and hands each block to
+     * {@code blockConsumer}, so that the number of generated rows is not
+     * bounded by the capacity of a single row store. The consumer is called
+     * from the generating threads.
+     *
+     * @param numberOfLotteryRows the requested number of rows.
+     * @param numberOfThreads     the number of generating threads.
+     * @param blockConsumer       the consumer of the generated blocks.
+     */
+    public void generateLotteryRowBlocks(long numberOfLotteryRows,
+                                         int numberOfThreads,
+                                         BlockConsumer blockConsumer) {
+        checkNumberOfLotteryRows(numberOfLotteryRows);
+        ParallelSupport.checkNumberOfThreads(numberOfThreads);
+        Objects.requireNonNull(blockConsumer, "blockConsumer == null");
+        SplittableRandom[] blockRandoms =
+                splitBlockRandoms(numberOfLotteryRows);
+
+        ParallelSupport.runInParallel(
+                blockRandoms.length,
+                Math.max(1, Math.min(numberOfThreads, blockRandoms.length)),
+                (chunkIndex, fromBlockIndex, toBlockIndex) -> {
+            int[] candidates = new int[getNumberOfCandidates()];
+
+            for (int i = fromBlockIndex; i < toBlockIndex; i++) {
+                long firstRowIndex = (long) i * blockSize;
+                int blockLength =
+                        getBlockLength(firstRowIndex, numberOfLotteryRows);
+                byte[] data = new byte[blockLength *
+                        lotteryConfiguration.getLotteryRowLength()];
+
+                generateBlock(blockRandoms[i], candidates, data, 0, blockLength);
+                blockConsumer.accept(
+                        firstRowIndex,
+                        new LotteryRowStore(lotteryConfiguration,
+                                            data,
+                                            blockLength));
+            }
+        });
+    }
+
+    /**
+     * Splits one random number generator per block off the root generator.
+     * The splitting is done sequentially so that the block generators do not
+     * depend on the thread count.
+     *
+     * @param numberOfLotteryRows the number of rows to generate.
+     * @return the block generators.
+     */
+    private SplittableRandom[] splitBlockRandoms(long numberOfLotteryRows) {
+        long numberOfBlocks = (numberOfLotteryRows + blockSize - 1) / blockSize;
+
+        if (numberOfBlocks > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(
+                    "numberOfLotteryRows(" + numberOfLotteryRows + ") too " +
+                    "large for blocks of " + blockSize + " rows.");
+        }
+
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] blockRandoms =
+                new SplittableRandom[(int) numberOfBlocks];
+
+        for (int i = 0; i < blockRandoms.length; i++) {
+            blockRandoms[i] = root.split();
+        }
+
+        return blockRandoms;
+    }
+
+    private int getBlockLength(long firstRowIndex, long numberOfLotteryRows) {
+        return (int) Math.min(blockSize, numberOfLotteryRows - firstRowIndex);
+    }
+
+    /**
+     * Returns the total number of the candidate numbers of all the pools.
+     * Each pool shuffles its own segment of the candidate array.
+     *
+     * @return the length of the candidate array.
+     */
+    private int getNumberOfCandidates() {
+        int numberOfCandidates = 0;
+
+        for (int pool = 0;
+                pool < lotteryConfiguration.getNumberOfPools();
+                pool++) {
+            numberOfCandidates +=
+                    lotteryConfiguration.getPoolMaximumNumberValue(pool);
+        }
+
+        return numberOfCandidates;
+    }
+
+    private void generateBlock(SplittableRandom random,
+                               int[] candidates,
+                               byte[] data,
+                               int offset,
+                               int numberOfLotteryRows) {
+        int lotteryRowLength = lotteryConfiguration.getLotteryRowLength();
+        int numberOfPools = lotteryConfiguration.getNumberOfPools();
+
+        if (lotteryRowDistribution != null) {
+            int[] numbers = new int[lotteryRowLength];
+
+            for (int row = 0; row < numberOfLotteryRows; row++) {
+                lotteryRowDistribution.sample(random, numbers);
+
+                for (int i = 0; i < lotteryRowLength; i++) {
+                    data[offset++] = (byte) numbers[i];
+                }
+            }
+
+            return;
+        }
+
+        // Restart from the identity so that the block depends on its own
+        // random number generator only:
+        for (int pool = 0, segmentOffset = 0; pool < numberOfPools; pool++) {
+            int maximumNumber =
+                    lotteryConfiguration.getPoolMaximumNumberValue(pool);
+
+            for (int i = 0; i < maximumNumber; i++) {
+                candidates[segmentOffset + i] = i + 1;
+            }
+
+            segmentOffset += maximumNumber;
+        }
+
+        for (int row = 0; row < numberOfLotteryRows; row++) {
+            for (int pool = 0, segmentOffset = 0;
+                    pool < numberOfPools;
+                    pool++) {
+                int maximumNumber =
+                        lotteryConfiguration.getPoolMaximumNumberValue(pool);
+                int poolRowLength = lotteryConfiguration.getPoolRowLength(pool);
+                int poolOffset =
+                        offset + lotteryConfiguration.getPoolOffset(pool);
+
+                for (int i = 0; i < poolRowLength; i++) {
+                    int j = segmentOffset + i
+                          + random.nextInt(maximumNumber - i);
+                    int number = candidates[j];
+                    candidates[j] = candidates[segmentOffset + i];
+                    candidates[segmentOffset + i] = number;
+
+                    // Insertion sort step within the pool:
+                    int k = poolOffset + i - 1;
+
+                    while (k >= poolOffset && (data[k] & 0xff) > number) {
+                        data[k + 1] = data[k];
+                        k--;
+                    }
+
+                    data[k + 1] = (byte) number;
+                }
+
+                segmentOffset += maximumNumber;
+            }
+
+            offset += lotteryRowLength;
+        }
+    }
+
+    private static void checkNumberOfLotteryRows(long numberOfLotteryRows) {
+        if (numberOfLotteryRows < 0L) {
+            throw new IllegalArgumentException(
+                    "numberOfLotteryRows(" + numberOfLotteryRows + ") < 0");
+        }
+    }
+}
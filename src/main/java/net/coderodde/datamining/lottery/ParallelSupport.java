@@ -0,0 +1,132 @@
+package net.coderodde.datamining.lottery;
+
+/**
+ * This class provides a facility for splitting a range of items into
+ * contiguous chunks and processing each chunk in its own thread.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+final class ParallelSupport {
+
+    /**
+     * The task processing a single chunk.
+     */
+    @FunctionalInterface
+    interface RangeTask {
+
+        /**
+         * Processes the items with indices within
+         * <code>[fromIndex, toIndex)</code>.
+         *
+         * @param chunkIndex the index of the chunk.
+         * @param fromIndex  the first item index, inclusive.
+         * @param toIndex    the last item index, exclusive.
+         */
+        void run(int chunkIndex, int fromIndex, int toIndex);
+    }
+
+    private ParallelSupport() {}
+
+    /**
+     * Checks that the number of threads is positive.
+     *
+     * @param numberOfThreads the number of threads to check.
+     */
+    static void checkNumberOfThreads(int numberOfThreads) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException(
+                    "numberOfThreads(" + numberOfThreads + ") < 1");
+        }
+    }
+
+    /**
+     * Splits the range <code>[0, numberOfItems)</code> into
+     * {@code numberOfChunks} contiguous chunks of almost equal size and runs
+     * {@code rangeTask} on each of them in its own thread. The first chunk is
+     * processed in the calling thread. Returns once all the chunks are done.
+     *
+     * @param numberOfItems  the total number of items.
+     * @param numberOfChunks the number of chunks and threads.
+     * @param rangeTask      the task to run on each chunk.
+     */
+    static void runInParallel(int numberOfItems,
+                              int numberOfChunks,
+                              RangeTask rangeTask) {
+        checkNumberOfThreads(numberOfChunks);
+        Thread[] threads = new Thread[numberOfChunks - 1];
+        Throwable[] failures = new Throwable[numberOfChunks];
+
+        for (int i = 1; i < numberOfChunks; i++) {
+            final int chunkIndex = i;
+
+            threads[i - 1] = new Thread(() -> {
+                try {
+                    rangeTask.run(chunkIndex,
+                                  getChunkStart(chunkIndex,
+                                                numberOfItems,
+                                                numberOfChunks),
+                                  getChunkStart(chunkIndex + 1,
+                                                numberOfItems,
+                                                numberOfChunks));
+                } catch (Throwable t) {
+                    failures[chunkIndex] = t;
+                }
+            });
+
+            threads[i - 1].start();
+        }
+
+        try {
+            rangeTask.run(0, 0, getChunkStart(1,
+                                              numberOfItems,
+                                              numberOfChunks));
+        } catch (Throwable t) {
+            failures[0] = t;
+        }
+
+        for (Thread thread : threads) {
+            joinUninterruptibly(thread);
+        }
+
+        for (Throwable failure : failures) {
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+        }
+    }
+
+    private static int getChunkStart(int chunkIndex,
+                                     int numberOfItems,
+                                     int numberOfChunks) {
+        return (int)((long) numberOfItems * chunkIndex / numberOfChunks);
+    }
+
+    /**
+     * Waits for the input thread to die. An interrupt received while waiting
+     * is restored on the calling thread once the input thread is done.
+     *
+     * @param thread the thread to wait for.
+     */
+    static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
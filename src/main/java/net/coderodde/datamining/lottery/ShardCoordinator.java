@@ -0,0 +1,309 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class implements the coordinator of the sharded miner. It partitions
+ * the ticket files among several
+ * {@link net.coderodde.datamining.lottery.ShardWorker} processes on the
+ * local machine, waits for their snapshots, merges them (OR for presence,
+ * saturating addition for counts) and enumerates the missing rows once over
+ * the merged index.
+ * <p>
+ * Usage:
+ * <pre>
+ * java net.coderodde.datamining.lottery.ShardCoordinator [--counts]
+ *     game numberOfWorkers workDirectory inputFile...
+ * </pre>
+ * where {@code game} is a configuration such as <code>7/40</code> or
+ * <code>5/50+2/12</code>. The shard snapshots and the text file
+ * {@code missing.txt} listing the missing rows are written to
+ * {@code workDirectory}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class ShardCoordinator {
+
+    /**
+     * The name of the output file listing the missing rows.
+     */
+    private static final String MISSING_ROWS_FILE_NAME = "missing.txt";
+
+    private ShardCoordinator() {}
+
+    public static void main(String[] args)
+            throws IOException, InterruptedException {
+        boolean counts = args.length > 0 && args[0].equals("--counts");
+        int argumentIndex = counts ? 1 : 0;
+
+        if (args.length - argumentIndex < 4) {
+            CommandLineSupport.exitWithUsage(
+                    ShardCoordinator.class,
+                    "[--counts] game numberOfWorkers workDirectory " +
+                    "inputFile...");
+        }
+
+        LotteryConfiguration lotteryConfiguration =
+                LotteryConfiguration.parse(args[argumentIndex]);
+
+        int numberOfWorkers = Integer.parseInt(args[argumentIndex + 1]);
+        Path workDirectory = Paths.get(args[argumentIndex + 2]);
+        List<Path> inputFiles = new ArrayList<>();
+
+        for (int i = argumentIndex + 3; i < args.length; i++) {
+            inputFiles.add(Paths.get(args[i]));
+        }
+
+        Files.createDirectories(workDirectory);
+        long startTime = System.nanoTime();
+
+        List<Path> snapshotPaths =
+                runWorkers(lotteryConfiguration,
+                           counts
+                                   ? CountingMissingLotteryRowsGenerator
+                                           .DEFAULT_COUNTER_BITS
+                                   : 0,
+                           partition(inputFiles, numberOfWorkers),
+                           workDirectory);
+
+        long ingestionEndTime = System.nanoTime();
+
+        MissingLotteryRowsMiner miner =
+                counts
+                        ? mergeCountSnapshots(snapshotPaths,
+                                              lotteryConfiguration)
+                        : mergeCoverageSnapshots(snapshotPaths,
+                                                 lotteryConfiguration);
+
+        long mergeEndTime = System.nanoTime();
+        Path missingRowsPath = workDirectory.resolve(MISSING_ROWS_FILE_NAME);
+        long numberOfMissingRows = writeMissingLotteryRows(miner,
+                                                           missingRowsPath);
+        long endTime = System.nanoTime();
+
+        System.out.println(
+                "Ingestion: " + ((ingestionEndTime - startTime) / 1_000_000L) +
+                " milliseconds, merge: " +
+                ((mergeEndTime - ingestionEndTime) / 1_000_000L) +
+                " milliseconds, enumeration: " +
+                ((endTime - mergeEndTime) / 1_000_000L) + " milliseconds.");
+
+        System.out.println("Missing lottery rows: " + numberOfMissingRows +
+                           " (written to " + missingRowsPath + ")");
+    }
+
+    /**
+     * Partitions the input files among the workers so that the total file
+     * sizes of the partitions are as even as possible: the files are taken
+     * from the largest to the smallest, each going to the currently lightest
+     * partition. Empty partitions are dropped.
+     *
+     * @param inputFiles      the input files.
+     * @param numberOfWorkers the maximum number of partitions.
+     * @return the partitions.
+     * @throws IOException if the size of a file cannot be read.
+     */
+    public static List<List<Path>> partition(List<Path> inputFiles,
+                                             int numberOfWorkers)
+            throws IOException {
+        Objects.requireNonNull(inputFiles, "inputFiles == null");
+        ParallelSupport.checkNumberOfThreads(numberOfWorkers);
+
+        long[] fileSizes = new long[inputFiles.size()];
+        Integer[] fileIndices = new Integer[inputFiles.size()];
+
+        for (int i = 0; i < fileSizes.length; i++) {
+            fileSizes[i] = Files.size(inputFiles.get(i));
+            fileIndices[i] = i;
+        }
+
+        Arrays.sort(fileIndices,
+                    Comparator.comparingLong((Integer i) -> fileSizes[i])
+                              .reversed());
+
+        List<List<Path>> partitions = new ArrayList<>(numberOfWorkers);
+        long[] partitionSizes = new long[numberOfWorkers];
+
+        for (int i = 0; i < numberOfWorkers; i++) {
+            partitions.add(new ArrayList<>());
+        }
+
+        for (int fileIndex : fileIndices) {
+            int lightestPartitionIndex = 0;
+
+            for (int i = 1; i < numberOfWorkers; i++) {
+                if (partitionSizes[i]
+                        < partitionSizes[lightestPartitionIndex]) {
+                    lightestPartitionIndex = i;
+                }
+            }
+
+            partitions.get(lightestPartitionIndex)
+                      .add(inputFiles.get(fileIndex));
+            partitionSizes[lightestPartitionIndex] += fileSizes[fileIndex];
+        }
+
+        partitions.removeIf(List::isEmpty);
+        return partitions;
+    }
+
+    /**
+     * Runs one worker process per partition, with the same Java runtime and
+     * class path as this process, and waits for all of them.
+     *
+     * @param lotteryConfiguration the lottery configuration.
+     * @param counterBits          0 for presence, or the counter width.
+     * @param partitions           the input files of each worker.
+     * @param workDirectory        the directory receiving the snapshots.
+     * @return the paths of the snapshots saved by the workers.
+     * @throws IOException          if a worker cannot be started or fails.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public static List<Path> runWorkers(
+            LotteryConfiguration lotteryConfiguration,
+            int counterBits,
+            List<List<Path>> partitions,
+            Path workDirectory) throws IOException, InterruptedException {
+        String javaExecutable =
+                Paths.get(System.getProperty("java.home"), "bin", "java")
+                     .toString();
+
+        List<Process> processes = new ArrayList<>(partitions.size());
+        List<Path> snapshotPaths = new ArrayList<>(partitions.size());
+
+        try {
+            for (int i = 0; i < partitions.size(); i++) {
+                Path snapshotPath =
+                        workDirectory.resolve("shard-" + i + ".snapshot");
+
+                List<String> command = new ArrayList<>();
+                command.add(javaExecutable);
+                command.add("-cp");
+                command.add(System.getProperty("java.class.path"));
+                command.add(ShardWorker.class.getName());
+                command.add(lotteryConfiguration.toString());
+                command.add(Integer.toString(counterBits));
+                command.add(snapshotPath.toString());
+
+                for (Path inputFile : partitions.get(i)) {
+                    command.add(inputFile.toString());
+                }
+
+                processes.add(new ProcessBuilder(command).inheritIO()
+                                                         .start());
+                snapshotPaths.add(snapshotPath);
+            }
+
+            for (int i = 0; i < processes.size(); i++) {
+                int exitStatus = processes.get(i).waitFor();
+
+                if (exitStatus != 0) {
+                    throw new IOException(
+                            "Worker " + i + " failed with exit status " +
+                            exitStatus + ".");
+                }
+            }
+        } finally {
+            for (Process process : processes) {
+                process.destroy();
+            }
+        }
+
+        return snapshotPaths;
+    }
+
+    /**
+     * Merges the coverage snapshots by OR-ing their bit sets.
+     *
+     * @param snapshotPaths        the snapshot files.
+     * @param lotteryConfiguration the expected lottery configuration.
+     * @return the merged generator.
+     * @throws IOException if a snapshot cannot be loaded.
+     */
+    public static BitSetMissingLotteryRowsGenerator
+        mergeCoverageSnapshots(List<Path> snapshotPaths,
+                               LotteryConfiguration lotteryConfiguration)
+            throws IOException {
+        BitSetMissingLotteryRowsGenerator generator =
+                new BitSetMissingLotteryRowsGenerator(lotteryConfiguration);
+
+        for (Path snapshotPath : snapshotPaths) {
+            generator.merge(CoverageSnapshot.load(snapshotPath,
+                                                  lotteryConfiguration));
+        }
+
+        return generator;
+    }
+
+    /**
+     * Merges the count snapshots by adding their counters.
+     *
+     * @param snapshotPaths        the snapshot files.
+     * @param lotteryConfiguration the expected lottery configuration.
+     * @return the merged generator.
+     * @throws IOException if a snapshot cannot be loaded.
+     */
+    public static CountingMissingLotteryRowsGenerator
+        mergeCountSnapshots(List<Path> snapshotPaths,
+                            LotteryConfiguration lotteryConfiguration)
+            throws IOException {
+        CountingMissingLotteryRowsGenerator generator =
+                new CountingMissingLotteryRowsGenerator(lotteryConfiguration);
+
+        for (Path snapshotPath : snapshotPaths) {
+            generator.merge(CountSnapshot.load(snapshotPath,
+                                               lotteryConfiguration));
+        }
+
+        return generator;
+    }
+
+    private static long writeMissingLotteryRows(MissingLotteryRowsMiner miner,
+                                                Path path)
+            throws IOException {
+        LotteryConfiguration lotteryConfiguration =
+                miner.getLotteryConfiguration();
+        long[] numberOfMissingRows = { 0L };
+
+        try (BufferedWriter writer =
+                Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            miner.forEachMissingLotteryRow((rank, numbers) -> {
+                try {
+                    for (int i = 0; i < numbers.length; i++) {
+                        if (i > 0) {
+                            writer.write(lotteryConfiguration.isPoolStart(i)
+                                                 ? " + "
+                                                 : ",");
+                        }
+
+                        writer.write(Integer.toString(numbers[i]));
+                    }
+
+                    writer.newLine();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+
+                numberOfMissingRows[0]++;
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        return numberOfMissingRows[0];
+    }
+}
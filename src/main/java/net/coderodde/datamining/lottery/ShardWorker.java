@@ -0,0 +1,134 @@
+package net.coderodde.datamining.lottery;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class implements a worker process of the sharded miner. A worker
+ * ingests its partition of the ticket files and saves the resulting index
+ * as a mergeable snapshot: a
+ * {@link net.coderodde.datamining.lottery.CoverageSnapshot} for presence,
+ * or a {@link net.coderodde.datamining.lottery.CountSnapshot} for play
+ * counts. The input files may be binary lottery row files or text files;
+ * the format is detected from the magic number.
+ * <p>
+ * Usage:
+ * <pre>
+ * java net.coderodde.datamining.lottery.ShardWorker game counterBits
+ *     snapshotFile inputFile...
+ * </pre>
+ * where {@code game} is a configuration such as <code>7/40</code> or
+ * <code>5/50+2/12</code> (see {@link LotteryConfiguration#parse(String)}),
+ * and {@code counterBits} is 0 for a presence bit set, and 8 or 16 for
+ * play counters. Workers are normally launched by
+ * {@link net.coderodde.datamining.lottery.ShardCoordinator}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.61 (Oct 16, 2026) ~ multi-pool games.
+ * @version 1.6 (Oct 16, 2026)
+ * @since 1.6 (Oct 16, 2026)
+ */
+public final class ShardWorker {
+
+    private ShardWorker() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            CommandLineSupport.exitWithUsage(
+                    ShardWorker.class,
+                    "game counterBits snapshotFile inputFile...");
+        }
+
+        LotteryConfiguration lotteryConfiguration =
+                LotteryConfiguration.parse(args[0]);
+
+        int counterBits = Integer.parseInt(args[1]);
+        Path snapshotPath = Paths.get(args[2]);
+        long startTime = System.nanoTime();
+        long numberOfRows = 0L;
+
+        MissingLotteryRowsMiner miner =
+                counterBits == 0
+                        ? new BitSetMissingLotteryRowsGenerator(
+                                lotteryConfiguration)
+                        : new CountingMissingLotteryRowsGenerator(
+                                lotteryConfiguration,
+                                counterBits);
+
+        for (int i = 3; i < args.length; i++) {
+            numberOfRows += ingest(Paths.get(args[i]), miner);
+        }
+
+        if (counterBits == 0) {
+            CoverageSnapshot.save((BitSetMissingLotteryRowsGenerator) miner,
+                                  snapshotPath);
+        } else {
+            CountSnapshot.save((CountingMissingLotteryRowsGenerator) miner,
+                               snapshotPath);
+        }
+
+        System.out.println(
+                "Worker ingested " + numberOfRows + " rows from " +
+                (args.length - 3) + " files into " + snapshotPath + " in " +
+                ((System.nanoTime() - startTime) / 1_000_000L) +
+                " milliseconds.");
+    }
+
+    /**
+     * Adds all the rows of a ticket file to the given miner.
+     *
+     * @param path  the path of a binary or text lottery row file.
+     * @param miner the target miner.
+     * @return the number of added rows.
+     * @throws IOException if reading fails or the file does not match the
+     *                     configuration of the miner.
+     */
+    static long ingest(Path path, MissingLotteryRowsMiner miner)
+            throws IOException {
+        if (!isBinaryLotteryRowFile(path)) {
+            try (InputStream inputStream = Files.newInputStream(path)) {
+                return new LotteryRowTextParser(
+                        miner.getLotteryConfiguration())
+                        .parse(inputStream, miner);
+            }
+        }
+
+        try (LotteryRowFileReader reader = new LotteryRowFileReader(path)) {
+            LotteryConfiguration fileConfiguration =
+                    reader.getLotteryConfiguration();
+            LotteryConfiguration minerConfiguration =
+                    miner.getLotteryConfiguration();
+
+            if (!fileConfiguration.equals(minerConfiguration)) {
+                throw new IOException(
+                        "The configuration of " + path + " (" +
+                        fileConfiguration + ") does not match the " +
+                        "configuration of the shard (" + minerConfiguration +
+                        ").");
+            }
+
+            reader.addLotteryRowsTo(miner);
+            return reader.getNumberOfRows();
+        }
+    }
+
+    private static boolean isBinaryLotteryRowFile(Path path)
+            throws IOException {
+        try (FileChannel fileChannel =
+                FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+
+            while (magic.hasRemaining() && fileChannel.read(magic) > 0) {
+            }
+
+            return !magic.hasRemaining()
+                    && magic.getInt(0) == LotteryRowFileFormat.MAGIC;
+        }
+    }
+}